@@ -0,0 +1,204 @@
+package edu.ccrm.bench;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.MeetingSlot;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Shared timing, GC accounting and synthetic data for the benchmark harnesses
+ * The harnesses are plain main classes - run each in its own JVM with a fixed heap,
+ * e.g. java -Xms1g -Xmx1g -cp out edu.ccrm.bench.EnrollmentStoreBenchmark
+ */
+final class Benchmarks {
+    
+    private static final String[] DEPARTMENTS = {
+        "Computer Science", "Mathematics", "Physics", "Chemistry", "Biology", "History", "Economics", "English"
+    };
+    
+    // Longest single collection seen since the JVM started, in milliseconds
+    private static final AtomicLong maxPauseMillis = new AtomicLong();
+    
+    static {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener((notification, handback) -> {
+                    if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        long duration = GarbageCollectionNotificationInfo
+                                .from((CompositeData) notification.getUserData()).getGcInfo().getDuration();
+                        maxPauseMillis.accumulateAndGet(duration, Math::max);
+                    }
+                }, null, null);
+            }
+        }
+    }
+    
+    private Benchmarks() {}
+    
+    /**
+     * A measured piece of work
+     */
+    @FunctionalInterface
+    interface Task {
+        void run() throws Exception;
+    }
+    
+    /**
+     * Run a task a few times untimed, then time it
+     * @param warmups untimed runs, to let the JIT compile the hot path
+     * @param runs timed runs
+     * @param prepare builds fresh state for one run, untimed, and returns the work to time
+     * @return run times in nanoseconds, sorted ascending
+     * @throws Exception if preparing or running fails
+     */
+    static long[] time(int warmups, int runs, Callable<Task> prepare) throws Exception {
+        for (int i = 0; i < warmups; i++) {
+            prepare.call().run();
+        }
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            Task task = prepare.call();
+            long start = System.nanoTime();
+            task.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+    
+    /**
+     * Print the median and best run time per operation
+     * @param name what was measured
+     * @param nanos sorted run times
+     * @param operations operations per run
+     */
+    static void report(String name, long[] nanos, long operations) {
+        System.out.printf("%-40s median %10.1f ns/op   best %10.1f ns/op   (%d ops/run, %d runs)%n",
+                          name, (double) nanos[nanos.length / 2] / operations, (double) nanos[0] / operations,
+                          operations, nanos.length);
+    }
+    
+    /**
+     * Snapshot of the collector counters, to report what a phase cost in GC
+     */
+    static final class GcSnapshot {
+        private final long count;
+        private final long millis;
+        
+        private GcSnapshot(long count, long millis) {
+            this.count = count;
+            this.millis = millis;
+        }
+        
+        static GcSnapshot take() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(gc.getCollectionCount(), 0);
+                millis += Math.max(gc.getCollectionTime(), 0);
+            }
+            maxPauseMillis.set(0);
+            return new GcSnapshot(count, millis);
+        }
+        
+        /**
+         * Describe the collections since this snapshot
+         * @return collection count, total and longest pause
+         */
+        String since() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(gc.getCollectionCount(), 0);
+                millis += Math.max(gc.getCollectionTime(), 0);
+            }
+            return String.format("%d GCs, %d ms total, %d ms longest", count - this.count, millis - this.millis,
+                                 maxPauseMillis.get());
+        }
+    }
+    
+    /**
+     * Heap in use after a full collection
+     * @return used heap bytes
+     */
+    static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+    
+    /**
+     * Create students with IDs 1..count
+     */
+    static List<Student> students(int count) {
+        List<Student> students = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            students.add(new Student(i, "Student " + i, "student" + i + "@example.edu", "R" + (100000 + i)));
+        }
+        return students;
+    }
+    
+    /**
+     * Create instructors, one per department
+     */
+    static List<Instructor> instructors() {
+        List<Instructor> instructors = new ArrayList<>();
+        for (int i = 0; i < DEPARTMENTS.length; i++) {
+            instructors.add(new Instructor(i + 1, "Instructor " + (i + 1), "instructor" + (i + 1) + "@example.edu",
+                                           DEPARTMENTS[i]));
+        }
+        return instructors;
+    }
+    
+    /**
+     * Create 3-credit fall courses, each meeting twice a week when meetings is set
+     * Meetings are 50 minutes on the hour between 08:00 and 17:00, so courses clash
+     * only when they share a day and an hour
+     * @param count number of courses
+     * @param meetings true to give each course two weekly meetings
+     * @param seed random seed for the meeting times
+     */
+    static List<Course> courses(int count, boolean meetings, long seed) {
+        Random random = new Random(seed);
+        List<Instructor> instructors = instructors();
+        List<Course> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Instructor instructor = instructors.get(i % instructors.size());
+            Course.Builder builder = new Course.Builder()
+                    .courseCode("C" + (1000 + i))
+                    .title("Course " + i)
+                    .credits(3)
+                    .department(instructor.getDepartment())
+                    .semester(Semester.FALL)
+                    .instructor(instructor);
+            if (meetings) {
+                List<MeetingSlot> slots = new ArrayList<>();
+                int hour = 8 + random.nextInt(10);
+                int day = random.nextInt(3);
+                for (DayOfWeek weekday : new DayOfWeek[] {DayOfWeek.of(day + 1), DayOfWeek.of(day + 3)}) {
+                    slots.add(new MeetingSlot(weekday, LocalTime.of(hour, 0), LocalTime.of(hour, 50)));
+                }
+                builder.meetingSlots(slots);
+            }
+            courses.add(builder.build());
+        }
+        return courses;
+    }
+}
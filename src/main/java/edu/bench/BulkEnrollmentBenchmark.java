@@ -0,0 +1,97 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.BulkEnrollmentReport;
+import edu.ccrm.service.EnrollmentRequest;
+import edu.ccrm.service.EnrollmentService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One bulk enrollStudents call against the same requests enrolled one call at a time
+ * Each student asks for distinct random courses with meeting times, so duplicate, credit
+ * and schedule checks all run. Requests are ordered by pick rather than by student, the
+ * way rows of an uploaded file mix students.
+ * Usage: BulkEnrollmentBenchmark [students] [courses per student]
+ */
+public final class BulkEnrollmentBenchmark {
+    
+    private static final int COURSES = 200;
+    private static final long SEED = 42;
+    
+    private BulkEnrollmentBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<Course> courses = Benchmarks.courses(COURSES, true, SEED);
+        Random random = new Random(SEED);
+        int[][] picks = new int[studentCount][];
+        for (int s = 0; s < studentCount; s++) {
+            picks[s] = random.ints(0, COURSES).distinct().limit(perStudent).toArray();
+        }
+        long rows = (long) studentCount * perStudent;
+        int[] accepted = new int[3];
+        
+        long[] perCall = Benchmarks.time(3, 7, () -> {
+            List<EnrollmentRequest> requests = requests(Benchmarks.students(studentCount), courses, picks);
+            EnrollmentService service = new EnrollmentService();
+            System.gc();
+            return () -> {
+                int count = 0;
+                for (EnrollmentRequest request : requests) {
+                    if (service.tryEnroll(request.getStudent(), request.getCourse()).isAccepted()) {
+                        count++;
+                    }
+                }
+                accepted[0] = count;
+            };
+        });
+        long[] perCallThrowing = Benchmarks.time(3, 7, () -> {
+            List<EnrollmentRequest> requests = requests(Benchmarks.students(studentCount), courses, picks);
+            EnrollmentService service = new EnrollmentService();
+            System.gc();
+            return () -> {
+                int count = 0;
+                for (EnrollmentRequest request : requests) {
+                    try {
+                        service.enrollStudent(request.getStudent(), request.getCourse());
+                        count++;
+                    } catch (Exception e) {
+                        // Rejected row
+                    }
+                }
+                accepted[1] = count;
+            };
+        });
+        long[] bulk = Benchmarks.time(3, 7, () -> {
+            List<EnrollmentRequest> requests = requests(Benchmarks.students(studentCount), courses, picks);
+            EnrollmentService service = new EnrollmentService();
+            System.gc();
+            return () -> {
+                BulkEnrollmentReport report = service.enrollStudents(requests);
+                accepted[2] = report.getAcceptedCount();
+            };
+        });
+        Benchmarks.report("tryEnroll per request", perCall, rows);
+        Benchmarks.report("enrollStudent per request", perCallThrowing, rows);
+        Benchmarks.report("enrollStudents, one call", bulk, rows);
+        System.out.printf("    accepted: tryEnroll %d, enrollStudent %d, enrollStudents %d of %d%n",
+                          accepted[0], accepted[1], accepted[2], rows);
+    }
+    
+    /**
+     * Requests in pick order: every student's first course, then every student's second, and so on
+     */
+    private static List<EnrollmentRequest> requests(List<Student> students, List<Course> courses, int[][] picks) {
+        List<EnrollmentRequest> requests = new ArrayList<>();
+        for (int i = 0; i < picks[0].length; i++) {
+            for (int s = 0; s < students.size(); s++) {
+                requests.add(new EnrollmentRequest(students.get(s), courses.get(picks[s][i])));
+            }
+        }
+        return requests;
+    }
+}
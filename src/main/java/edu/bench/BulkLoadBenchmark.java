@@ -0,0 +1,67 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.CohortIndex;
+import edu.ccrm.service.CourseService;
+import edu.ccrm.service.StudentService;
+import java.util.List;
+
+/**
+ * Growth of load time with batch size for the bulk-load calls
+ * Loads batches of doubling size into fresh services; linear growth shows as a flat
+ * time per record. Students are loaded both with addStudents and row by row with
+ * addStudent, courses with addCourses. The search index makes a loaded student large, so
+ * give the largest batch plenty of heap (e.g. -Xmx4g for 400000) or collections dominate.
+ * Usage: BulkLoadBenchmark [largest batch]
+ */
+public final class BulkLoadBenchmark {
+    
+    private BulkLoadBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int largest = args.length > 0 ? Integer.parseInt(args[0]) : 400_000;
+        
+        for (int size = largest / 16; size <= largest; size *= 2) {
+            List<Student> students = Benchmarks.students(size);
+            List<Course> courses = Benchmarks.courses(size / 4, false, 42);
+            int[] loaded = new int[3];
+            String[] collections = new String[1];
+            
+            long[] bulk = Benchmarks.time(1, 3, () -> {
+                StudentService service = new StudentService(new CohortIndex());
+                System.gc();
+                return () -> {
+                    Benchmarks.GcSnapshot gc = Benchmarks.GcSnapshot.take();
+                    loaded[0] = service.addStudents(students).getLoadedCount();
+                    collections[0] = gc.since();
+                };
+            });
+            long[] rowByRow = Benchmarks.time(1, 3, () -> {
+                StudentService service = new StudentService(new CohortIndex());
+                System.gc();
+                return () -> {
+                    int count = 0;
+                    for (Student student : students) {
+                        if (service.addStudent(student)) {
+                            count++;
+                        }
+                    }
+                    loaded[1] = count;
+                };
+            });
+            long[] courseBulk = Benchmarks.time(1, 3, () -> {
+                CourseService service = new CourseService();
+                System.gc();
+                return () -> loaded[2] = service.addCourses(courses).getLoadedCount();
+            });
+            
+            System.out.printf("%,d students, %,d courses%n", size, courses.size());
+            Benchmarks.report("  addStudents", bulk, size);
+            Benchmarks.report("  addStudent per row", rowByRow, size);
+            Benchmarks.report("  addCourses", courseBulk, courses.size());
+            System.out.printf("    loaded: %d, %d, %d; addStudents median %.0f ms, last run %s%n",
+                              loaded[0], loaded[1], loaded[2], bulk[bulk.length / 2] / 1e6, collections[0]);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * File size against CPU cost for every export compression level
+ * Exports the same students, courses and enrollments with export.compression.level 0
+ * (plain CSV) through 9, then imports the students file back, so both the compression
+ * and the decompression cost show next to the bytes saved.
+ * Usage: CompressionBenchmark [students] [courses]
+ */
+public final class CompressionBenchmark {
+    
+    private static final String LEVEL_PROPERTY = "ccrm.export.compression.level";
+    
+    private CompressionBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int courseCount = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        
+        List<Student> students = Benchmarks.students(studentCount);
+        List<Course> courses = Benchmarks.courses(courseCount, true, 42);
+        List<Enrollment> enrollments = new ArrayList<>(studentCount * 3);
+        for (int s = 0; s < studentCount; s++) {
+            for (int i = 0; i < 3; i++) {
+                enrollments.add(new Enrollment(students.get(s), courses.get((s * 7 + i * 13) % courseCount)));
+            }
+        }
+        
+        ImportExportService service = new ImportExportService();
+        Path directory = Files.createTempDirectory("ccrm-compression-bench");
+        try {
+            long plainBytes = 0;
+            System.out.printf("%-6s %12s %12s %10s %8s %12s%n",
+                              "level", "export ms", "MB/s in", "MB", "ratio", "import ms");
+            for (int level = 0; level <= 9; level++) {
+                // System properties override the config file; reload picks the new level up
+                System.setProperty(LEVEL_PROPERTY, String.valueOf(level));
+                AppConfig.getInstance().reload();
+                Path target = directory.resolve("level" + level);
+                
+                long[] export = Benchmarks.time(2, 5, () -> () ->
+                        service.exportData(students, courses, enrollments, target));
+                long bytes = sizeOf(target);
+                if (level == 0) {
+                    plainBytes = bytes;
+                }
+                
+                Path studentFile = service.resolveDataFile(target, "students.csv");
+                Path quarantine = directory.resolve("quarantine.csv");
+                AtomicLong loaded = new AtomicLong();
+                long[] importing = Benchmarks.time(2, 5, () -> {
+                    loaded.set(0);
+                    return () -> service.importStudents(studentFile, quarantine, chunk -> loaded.addAndGet(chunk.size()));
+                });
+                
+                double exportMillis = export[export.length / 2] / 1e6;
+                System.out.printf("%-6d %12.1f %12.1f %10.2f %7.1f%% %12.1f%n",
+                                  level, exportMillis, plainBytes / 1048576.0 / (exportMillis / 1000),
+                                  bytes / 1048576.0, 100.0 * bytes / plainBytes,
+                                  importing[importing.length / 2] / 1e6);
+                if (loaded.get() != studentCount) {
+                    System.out.printf("    only %d of %d students imported%n", loaded.get(), studentCount);
+                }
+            }
+        } finally {
+            System.clearProperty(LEVEL_PROPERTY);
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+    
+    private static long sizeOf(Path directory) throws IOException {
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                bytes += Files.size(file);
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,64 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.EnrollmentService;
+import java.util.List;
+
+/**
+ * Enrollment throughput as the share of rejected requests grows
+ * Every student is first enrolled in one course, untimed; each timed request then either
+ * repeats that enrollment (rejected as a duplicate) or asks for a new course (accepted).
+ * tryEnroll reports rejections as enum outcomes, enrollStudent throws an exception with
+ * a formatted message for each of them.
+ * Usage: EnrollmentRejectionBenchmark [students]
+ */
+public final class EnrollmentRejectionBenchmark {
+    
+    private static final int COURSES = 200;
+    private static final int[] REJECTION_PERCENTAGES = {0, 10, 25, 50, 75, 90};
+    
+    private EnrollmentRejectionBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        List<Course> courses = Benchmarks.courses(COURSES, false, 42);
+        
+        for (int percentage : REJECTION_PERCENTAGES) {
+            int[] rejected = new int[2];
+            for (boolean throwing : new boolean[] {false, true}) {
+                long[] nanos = Benchmarks.time(3, 7, () -> {
+                    List<Student> students = Benchmarks.students(studentCount);
+                    EnrollmentService service = new EnrollmentService();
+                    for (int s = 0; s < studentCount; s++) {
+                        service.tryEnroll(students.get(s), courses.get(s % COURSES));
+                    }
+                    // Collect the previous run's service now rather than inside the timed loop
+                    System.gc();
+                    return () -> {
+                        int count = 0;
+                        for (int s = 0; s < studentCount; s++) {
+                            // Spread the rejected requests evenly over the run
+                            boolean repeat = (s * 37) % 100 < percentage;
+                            Course course = courses.get((repeat ? s : s + 1) % COURSES);
+                            if (throwing) {
+                                try {
+                                    service.enrollStudent(students.get(s), course);
+                                } catch (Exception e) {
+                                    count++;
+                                }
+                            } else if (!service.tryEnroll(students.get(s), course).isAccepted()) {
+                                count++;
+                            }
+                        }
+                        rejected[throwing ? 1 : 0] = count;
+                    };
+                });
+                Benchmarks.report(String.format("%2d%% rejected, %s", percentage,
+                                                throwing ? "enrollStudent" : "tryEnroll"), nanos, studentCount);
+            }
+            System.out.printf("    rejected: tryEnroll %d, enrollStudent %d of %d%n",
+                              rejected[0], rejected[1], studentCount);
+        }
+    }
+}
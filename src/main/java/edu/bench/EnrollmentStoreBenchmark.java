@@ -0,0 +1,108 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.EnrollmentStore;
+import edu.ccrm.service.ListEnrollmentStore;
+import edu.ccrm.service.OffHeapEnrollmentStore;
+import edu.ccrm.service.PrimitiveEnrollmentStore;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Throughput, retained heap and GC cost of the enrollment stores
+ * Compares the Enrollment object graph (list) with the primitive-array store and the
+ * memory-mapped store. Loads a large enrollment set, reads every student's roster, drops
+ * a sample and then forces a full collection with the store still live. Run each store in
+ * its own JVM with the same fixed heap so one store's garbage does not land on the other's numbers.
+ * Usage: EnrollmentStoreBenchmark list|primitive|offheap [students] [courses per student]
+ */
+public final class EnrollmentStoreBenchmark {
+    
+    private static final int COURSES = 400;
+    private static final int DROPS = 500;
+    
+    private EnrollmentStoreBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0 || !List.of("list", "primitive", "offheap").contains(args[0])) {
+            System.err.println("Usage: EnrollmentStoreBenchmark list|primitive|offheap [students] [courses per student]");
+            System.exit(2);
+        }
+        boolean offHeap = args[0].equals("offheap");
+        int studentCount = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        int perStudent = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        
+        List<Student> students = Benchmarks.students(studentCount);
+        List<Course> courses = Benchmarks.courses(COURSES, false, 42);
+        Map<Long, Student> studentsById = new HashMap<>();
+        students.forEach(student -> studentsById.put(student.getId(), student));
+        Map<String, Course> coursesByCode = new HashMap<>();
+        courses.forEach(course -> coursesByCode.put(course.getCourseCode(), course));
+        
+        Path file = Files.createTempFile("ccrm-enrollments", ".dat");
+        long baseline = Benchmarks.usedHeapAfterGc();
+        EnrollmentStore store;
+        if (offHeap) {
+            store = OffHeapEnrollmentStore.open(file, studentsById::get, coursesByCode::get);
+        } else if (args[0].equals("primitive")) {
+            store = new PrimitiveEnrollmentStore();
+        } else {
+            store = new ListEnrollmentStore();
+        }
+        try {
+            long enrollments = (long) studentCount * perStudent;
+            
+            Benchmarks.GcSnapshot gc = Benchmarks.GcSnapshot.take();
+            long start = System.nanoTime();
+            for (int s = 0; s < studentCount; s++) {
+                for (int i = 0; i < perStudent; i++) {
+                    store.add(students.get(s), courses.get((s * 7 + i * 13) % COURSES));
+                }
+            }
+            phase("add", enrollments, System.nanoTime() - start, gc);
+            
+            gc = Benchmarks.GcSnapshot.take();
+            start = System.nanoTime();
+            long seen = 0;
+            for (int round = 0; round < 3; round++) {
+                for (Student student : students) {
+                    seen += store.forStudent(student).size();
+                }
+            }
+            phase("forStudent x3", 3L * studentCount, System.nanoTime() - start, gc);
+            
+            gc = Benchmarks.GcSnapshot.take();
+            start = System.nanoTime();
+            int drops = Math.min(DROPS, studentCount);
+            int step = studentCount / drops;
+            for (int d = 0; d < drops; d++) {
+                int s = d * step;
+                store.remove(students.get(s), courses.get((s * 7) % COURSES));
+            }
+            phase("remove", drops, System.nanoTime() - start, gc);
+            
+            gc = Benchmarks.GcSnapshot.take();
+            long retained = Benchmarks.usedHeapAfterGc() - baseline;
+            System.out.printf("%-16s %s%n", "full GC, live", gc.since());
+            System.out.printf("%-16s %d enrollments, %.1f MB retained on heap%s (%d roster rows read)%n",
+                              args[0], store.size(), retained / 1048576.0,
+                              offHeap ? String.format(", %.1f MB mapped file",
+                                      ((OffHeapEnrollmentStore) store).getFileSizeInBytes() / 1048576.0) : "",
+                              seen);
+        } finally {
+            if (store instanceof Closeable) {
+                ((Closeable) store).close();
+            }
+            Files.deleteIfExists(file);
+        }
+    }
+    
+    private static void phase(String name, long operations, long nanos, Benchmarks.GcSnapshot gc) {
+        System.out.printf("%-16s %,12.0f ops/s   %s%n", name, operations * 1e9 / nanos, gc.since());
+    }
+}
@@ -0,0 +1,97 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Student;
+import edu.ccrm.io.ImportExportService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Export and import time of the JSON files against the CSV files of the same dataset
+ * Both formats are written uncompressed to a temporary directory. Imports go through
+ * the validation pipeline and only count the records they receive.
+ * Usage: JsonBenchmark [students] [courses]
+ */
+public final class JsonBenchmark {
+    
+    private JsonBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        // Overrides the config file and CCRM_* variables; must be set before AppConfig is first loaded
+        System.setProperty("ccrm.export.compression.level", "0");
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int courseCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        
+        List<Student> students = Benchmarks.students(studentCount);
+        List<Course> courses = Benchmarks.courses(courseCount, true, 42);
+        List<Instructor> instructors = Benchmarks.instructors();
+        List<Enrollment> enrollments = new ArrayList<>(studentCount * 3);
+        for (int s = 0; s < studentCount; s++) {
+            for (int i = 0; i < 3; i++) {
+                enrollments.add(new Enrollment(students.get(s), courses.get((s * 7 + i * 13) % courseCount)));
+            }
+        }
+        
+        ImportExportService service = new ImportExportService();
+        Path directory = Files.createTempDirectory("ccrm-json-bench");
+        try {
+            Path csv = directory.resolve("csv");
+            Path json = directory.resolve("json");
+            
+            long[] csvExport = Benchmarks.time(2, 5, () -> () -> service.exportData(students, courses, enrollments, csv));
+            long[] jsonExport = Benchmarks.time(2, 5, () -> () ->
+                    service.exportJSON(students, courses, instructors, enrollments, json));
+            throughput("export CSV", csvExport, sizeOf(csv));
+            throughput("export JSON", jsonExport, sizeOf(json));
+            
+            for (Path dataset : List.of(csv, json)) {
+                String extension = dataset == csv ? ".csv" : ".json";
+                Path quarantine = directory.resolve("quarantine.csv");
+                AtomicLong loaded = new AtomicLong();
+                long[] nanos = Benchmarks.time(2, 5, () -> {
+                    loaded.set(0);
+                    return () -> {
+                        service.importStudents(dataset.resolve("students" + extension), quarantine,
+                                               chunk -> loaded.addAndGet(chunk.size()));
+                        service.importCourses(dataset.resolve("courses" + extension), quarantine,
+                                              chunk -> loaded.addAndGet(chunk.size()));
+                    };
+                });
+                long bytes = Files.size(dataset.resolve("students" + extension))
+                        + Files.size(dataset.resolve("courses" + extension));
+                throughput("import students+courses " + extension.substring(1).toUpperCase(), nanos, bytes);
+                System.out.printf("    %d of %d records loaded%n", loaded.get(), studentCount + courseCount);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+    
+    private static void throughput(String name, long[] nanos, long bytes) {
+        double millis = nanos[nanos.length / 2] / 1e6;
+        System.out.printf("%-30s median %8.1f ms   best %8.1f ms   %7.1f MB   %6.1f MB/s%n",
+                          name, millis, nanos[0] / 1e6, bytes / 1048576.0, bytes / 1048576.0 / (millis / 1000));
+    }
+    
+    private static long sizeOf(Path directory) throws IOException {
+        long bytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                bytes += Files.size(file);
+            }
+        }
+        return bytes;
+    }
+}
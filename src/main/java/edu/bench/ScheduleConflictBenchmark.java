@@ -0,0 +1,132 @@
+package edu.ccrm.bench;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.MeetingSlot;
+import edu.ccrm.domain.Student;
+import edu.ccrm.service.EnrollmentOutcome;
+import edu.ccrm.service.EnrollmentService;
+import edu.ccrm.util.WeeklySchedule;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Cost of the meeting time conflict check
+ * Compares the weekly bitset against a pairwise scan of meeting slots, then measures
+ * what the check adds to tryEnroll by enrolling the same picks in courses with and
+ * without meetings.
+ * Usage: ScheduleConflictBenchmark [students] [courses per student]
+ */
+public final class ScheduleConflictBenchmark {
+    
+    private static final int COURSES = 200;
+    private static final long SEED = 42;
+    
+    private ScheduleConflictBenchmark() {}
+    
+    public static void main(String[] args) throws Exception {
+        int studentCount = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int perStudent = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        
+        List<Course> timed = Benchmarks.courses(COURSES, true, SEED);
+        List<Course> untimed = Benchmarks.courses(COURSES, false, SEED);
+        int[][] picks = picks(studentCount, perStudent);
+        
+        compareChecks(timed, picks);
+        
+        Map<EnrollmentOutcome, Integer> outcomes = new EnumMap<>(EnrollmentOutcome.class);
+        for (List<Course> courses : List.of(untimed, timed)) {
+            outcomes.clear();
+            long[] nanos = Benchmarks.time(3, 9, () -> {
+                List<Student> students = Benchmarks.students(studentCount);
+                EnrollmentService service = new EnrollmentService();
+                outcomes.clear();
+                return () -> {
+                    for (int s = 0; s < picks.length; s++) {
+                        for (int c : picks[s]) {
+                            outcomes.merge(service.tryEnroll(students.get(s), courses.get(c)), 1, Integer::sum);
+                        }
+                    }
+                };
+            });
+            Benchmarks.report(courses == timed ? "tryEnroll, courses with meetings" : "tryEnroll, courses without meetings",
+                              nanos, (long) studentCount * perStudent);
+            System.out.println("    outcomes of the last run: " + outcomes);
+        }
+    }
+    
+    /**
+     * Time the conflict check alone: a student's accumulated schedule against one candidate course
+     */
+    private static void compareChecks(List<Course> courses, int[][] picks) throws Exception {
+        List<WeeklySchedule> schedules = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            schedules.add(WeeklySchedule.of(course.getMeetingSlots()));
+        }
+        // Each student's schedule holds their first picks; the last pick is the candidate
+        int rows = picks.length;
+        WeeklySchedule[] taken = new WeeklySchedule[rows];
+        List<List<MeetingSlot>> takenSlots = new ArrayList<>(rows);
+        for (int s = 0; s < rows; s++) {
+            taken[s] = new WeeklySchedule();
+            List<MeetingSlot> slots = new ArrayList<>();
+            for (int i = 0; i < picks[s].length - 1; i++) {
+                taken[s].add(schedules.get(picks[s][i]));
+                slots.addAll(courses.get(picks[s][i]).getMeetingSlots());
+            }
+            takenSlots.add(slots);
+        }
+        
+        int[] conflicts = new int[2];
+        long[] bitset = Benchmarks.time(3, 7, () -> () -> {
+            int found = 0;
+            for (int s = 0; s < rows; s++) {
+                if (taken[s].intersects(schedules.get(candidate(picks[s])))) {
+                    found++;
+                }
+            }
+            conflicts[0] = found;
+        });
+        long[] pairwise = Benchmarks.time(3, 7, () -> () -> {
+            int found = 0;
+            for (int s = 0; s < rows; s++) {
+                if (overlapsAny(takenSlots.get(s), courses.get(candidate(picks[s])).getMeetingSlots())) {
+                    found++;
+                }
+            }
+            conflicts[1] = found;
+        });
+        Benchmarks.report("conflict check, weekly bitset", bitset, rows);
+        Benchmarks.report("conflict check, pairwise slot scan", pairwise, rows);
+        System.out.printf("    conflicts found: bitset %d, pairwise %d of %d%n", conflicts[0], conflicts[1], rows);
+    }
+    
+    private static int candidate(int[] picks) {
+        return picks[picks.length - 1];
+    }
+    
+    private static boolean overlapsAny(List<MeetingSlot> taken, List<MeetingSlot> candidate) {
+        for (MeetingSlot slot : candidate) {
+            for (MeetingSlot other : taken) {
+                if (slot.overlaps(other)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Distinct random course indexes per student, the same for every run
+     */
+    private static int[][] picks(int students, int perStudent) {
+        Random random = new Random(SEED);
+        int[][] picks = new int[students][];
+        for (int s = 0; s < students; s++) {
+            picks[s] = random.ints(0, COURSES).distinct().limit(perStudent).toArray();
+        }
+        return picks;
+    }
+}
@@ -2,19 +2,42 @@ package edu.ccrm.cli;
 
 import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.*;
+import edu.ccrm.event.BackpressurePolicy;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeType;
+import edu.ccrm.event.EventBus;
+import edu.ccrm.io.BackupScheduler;
 import edu.ccrm.io.BackupService;
+import edu.ccrm.io.ColumnFilter;
+import edu.ccrm.io.ColumnarReader;
+import edu.ccrm.io.DatasetLoader;
 import edu.ccrm.io.ImportExportService;
+import edu.ccrm.io.ImportSummary;
+import edu.ccrm.io.PartitionKey;
+import edu.ccrm.io.PartitionedData;
+import edu.ccrm.io.PipelineReport;
+import edu.ccrm.io.ReconcileReport;
 import edu.ccrm.service.*;
 import edu.ccrm.util.DuplicateEnrollmentException;
 import edu.ccrm.util.MaxCreditLimitExceededException;
+import edu.ccrm.util.PrerequisiteNotMetException;
+import edu.ccrm.util.ScheduleConflictException;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * CCRM Application - Campus Course Registration Management
@@ -23,14 +46,35 @@ import java.util.Scanner;
  */
 public class CCRMApp {
     
-    // Service instances
-    private static final StudentService studentService = new StudentService();
+    // Service instances - student and enrollment services share one cohort index
+    private static final CohortIndex cohortIndex = new CohortIndex();
+    private static final StudentService studentService = new StudentService(cohortIndex);
     private static final CourseService courseService = new CourseService();
-    private static final EnrollmentService enrollmentService = new EnrollmentService();
-    private static final TranscriptService transcriptService = new TranscriptService();
+    private static final InstructorService instructorService = new InstructorService();
+    private static final EnrollmentStore enrollmentStore = openEnrollmentStore();
+    private static final EnrollmentService enrollmentService = new EnrollmentService(cohortIndex, courseService.getPrerequisiteGraph(),
+                                                                                     enrollmentStore);
+    private static final TranscriptService transcriptService = new TranscriptService(enrollmentService);
     private static final ImportExportService importExportService = new ImportExportService();
     private static final BackupService backupService = new BackupService();
     
+    // Change events from all services, counted per type by a background subscriber
+    private static final EventBus eventBus = new EventBus(AppConfig.getInstance().getEventBusCapacity(),
+                                                          configured(BackpressurePolicy.class,
+                                                                     AppConfig.getInstance().getEventBusPolicy(),
+                                                                     BackpressurePolicy.TIMEOUT),
+                                                          AppConfig.getInstance().getEventBusTimeoutMillis());
+    private static final AtomicLongArray eventCounts = new AtomicLongArray(ChangeType.values().length);
+    
+    // Background backups from service snapshots, so the console never waits on them
+    private static final BackupScheduler backupScheduler = new BackupScheduler(
+            studentService::getStudentSnapshot, courseService::getCourseSnapshot, enrollmentService::getEnrollmentSnapshot,
+            importExportService, backupService);
+    
+    // Export running in the background, if any, and the bytes it has written
+    private static volatile CompletableFuture<Void> runningExport;
+    private static final AtomicLong exportedBytes = new AtomicLong();
+    
     // Application configuration
     private static final AppConfig config = AppConfig.getInstance();
     
@@ -47,8 +91,18 @@ public class CCRMApp {
         System.out.println(config.getAppName() + " v" + config.getAppVersion());
         System.out.println("=".repeat(50));
         
+        // Pick up edits to the config file without a restart
+        try {
+            config.startWatching();
+        } catch (IOException e) {
+            System.out.println("Config hot reload unavailable: " + e.getMessage());
+        }
+        
         // Initialize sample data
+        courseService.setInstructorService(instructorService);
+        startEventBus();
         initializeSampleData();
+        backupScheduler.start(eventBus);
         
         // Main application loop
         boolean running = true;
@@ -76,6 +130,9 @@ public class CCRMApp {
                     handleTranscripts();
                     break;
                 case 7:
+                    displayEventStatistics();
+                    break;
+                case 8:
                     running = false;
                     System.out.println("Thank you for using CCRM. Goodbye!");
                     break;
@@ -84,9 +141,80 @@ public class CCRMApp {
             }
         }
         
+        // Let a background export finish rather than leave its files half written
+        CompletableFuture<Void> export = runningExport;
+        if (export != null && !export.isDone()) {
+            System.out.println("Waiting for the running export to finish...");
+            export.handle((ignored, e) -> null).join();
+        }
+        backupScheduler.close();
+        eventBus.close();
+        closeEnrollmentStore();
+        config.stopWatching();
         scanner.close();
     }
     
+    /**
+     * Open the enrollment store selected by enrollment.store
+     * The off-heap store resolves its records through the student and course services,
+     * so it only needs them to be loaded again after a restart, not the enrollments
+     */
+    private static EnrollmentStore openEnrollmentStore() {
+        AppConfig settings = AppConfig.getInstance();
+        EnrollmentStoreType type = configured(EnrollmentStoreType.class, settings.getEnrollmentStore(),
+                                              EnrollmentStoreType.LIST);
+        if (type == EnrollmentStoreType.OFFHEAP) {
+            Path file = Paths.get(settings.getDataPath()).resolve(settings.getEnrollmentStoreFile()).toAbsolutePath();
+            try {
+                Files.createDirectories(file.getParent());
+                return OffHeapEnrollmentStore.open(file, id -> studentService.findStudentById(id).orElse(null),
+                                                   code -> courseService.findCourseByCode(code).orElse(null));
+            } catch (IOException e) {
+                System.out.println("Could not open enrollment store " + file + ", keeping enrollments in memory: "
+                                   + e.getMessage());
+            }
+        }
+        if (type == EnrollmentStoreType.PRIMITIVE) {
+            return new PrimitiveEnrollmentStore();
+        }
+        return new ListEnrollmentStore();
+    }
+    
+    private static void closeEnrollmentStore() {
+        if (enrollmentStore instanceof Closeable) {
+            try {
+                ((Closeable) enrollmentStore).close();
+            } catch (IOException e) {
+                System.out.println("Error closing enrollment store: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Connect the services to the event bus and start the metrics subscriber
+     */
+    private static void startEventBus() {
+        studentService.setEventBus(eventBus);
+        courseService.setEventBus(eventBus);
+        enrollmentService.setEventBus(eventBus);
+        eventBus.subscribe("metrics", events -> {
+            for (ChangeEvent event : events) {
+                eventCounts.incrementAndGet(event.getType().ordinal());
+            }
+        });
+    }
+    
+    /**
+     * Display event bus throughput and the number of changes of each type
+     */
+    private static void displayEventStatistics() {
+        System.out.println("\n=== EVENT STATISTICS ===");
+        System.out.print(eventBus.getStatistics());
+        for (ChangeType type : ChangeType.values()) {
+            System.out.printf("%-20s %d%n", type, eventCounts.get(type.ordinal()));
+        }
+    }
+    
     /**
      * Display main menu
      */
@@ -100,7 +228,8 @@ public class CCRMApp {
         System.out.println("4. Import/Export Data");
         System.out.println("5. Backup Operations");
         System.out.println("6. Generate Transcripts");
-        System.out.println("7. Exit");
+        System.out.println("7. Event Statistics");
+        System.out.println("8. Exit");
         System.out.println("=".repeat(40));
     }
     
@@ -157,8 +286,11 @@ public class CCRMApp {
             System.out.println("3. Find Course");
             System.out.println("4. Search Courses by Department");
             System.out.println("5. Search Courses by Semester");
-            System.out.println("6. Remove Course");
-            System.out.println("7. Back to Main Menu");
+            System.out.println("6. Search Courses by Title");
+            System.out.println("7. Add Prerequisite");
+            System.out.println("8. Auto-assign Instructors");
+            System.out.println("9. Remove Course");
+            System.out.println("10. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
             
@@ -179,9 +311,18 @@ public class CCRMApp {
                     searchCoursesBySemester();
                     break;
                 case 6:
-                    removeCourse();
+                    searchCoursesByTitle();
                     break;
                 case 7:
+                    addPrerequisite();
+                    break;
+                case 8:
+                    autoAssignInstructors();
+                    break;
+                case 9:
+                    removeCourse();
+                    break;
+                case 10:
                     back = true;
                     break;
                 default:
@@ -202,7 +343,8 @@ public class CCRMApp {
             System.out.println("3. Assign Grade");
             System.out.println("4. View Student Enrollments");
             System.out.println("5. View Course Enrollments");
-            System.out.println("6. Back to Main Menu");
+            System.out.println("6. Bulk Enroll");
+            System.out.println("7. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
             
@@ -223,6 +365,9 @@ public class CCRMApp {
                     viewCourseEnrollments();
                     break;
                 case 6:
+                    bulkEnroll();
+                    break;
+                case 7:
                     back = true;
                     break;
                 default:
@@ -241,7 +386,18 @@ public class CCRMApp {
             System.out.println("1. Export Data");
             System.out.println("2. Import Students");
             System.out.println("3. Import Courses");
-            System.out.println("4. Back to Main Menu");
+            System.out.println("4. Export Changes Since Last Export");
+            System.out.println("5. Sync Students From Feed");
+            System.out.println("6. Sync Courses From Feed");
+            System.out.println("7. Export Partitioned");
+            System.out.println("8. Import Partitioned");
+            System.out.println("9. Export Columnar");
+            System.out.println("10. Credits by Department (Columnar)");
+            System.out.println("11. Export JSON");
+            System.out.println("12. Import JSON");
+            System.out.println("13. Import Dataset (Pipeline)");
+            System.out.println("14. Export Status");
+            System.out.println("15. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
             
@@ -256,6 +412,39 @@ public class CCRMApp {
                     importCourses();
                     break;
                 case 4:
+                    exportChanges();
+                    break;
+                case 5:
+                    syncStudents();
+                    break;
+                case 6:
+                    syncCourses();
+                    break;
+                case 7:
+                    exportPartitioned();
+                    break;
+                case 8:
+                    importPartitioned();
+                    break;
+                case 9:
+                    exportColumnar();
+                    break;
+                case 10:
+                    reportCreditsByDepartment();
+                    break;
+                case 11:
+                    exportJSON();
+                    break;
+                case 12:
+                    importJSON();
+                    break;
+                case 13:
+                    importDataset();
+                    break;
+                case 14:
+                    exportStatus();
+                    break;
+                case 15:
                     back = true;
                     break;
                 default:
@@ -275,7 +464,8 @@ public class CCRMApp {
             System.out.println("2. List Backups");
             System.out.println("3. Cleanup Old Backups");
             System.out.println("4. Calculate Backup Size");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. Backup Status");
+            System.out.println("6. Back to Main Menu");
             
             int choice = getIntInput("Enter your choice: ");
             
@@ -293,6 +483,10 @@ public class CCRMApp {
                     calculateBackupSize();
                     break;
                 case 5:
+                    System.out.println("\n--- Backup Status ---");
+                    System.out.print(backupScheduler.getStatus());
+                    break;
+                case 6:
                     back = true;
                     break;
                 default:
@@ -398,6 +592,7 @@ public class CCRMApp {
         System.out.println("\n--- Find Student ---");
         System.out.println("1. Search by ID");
         System.out.println("2. Search by Registration Number");
+        System.out.println("3. Search by Name or Email");
         
         int searchType = getIntInput("Enter search type: ");
         
@@ -412,6 +607,16 @@ public class CCRMApp {
                 String regNo = getStringInput("Enter Registration Number: ");
                 studentOpt = studentService.findStudentByRegNo(regNo);
                 break;
+            case 3:
+                String query = getStringInput("Enter name or email (partial allowed): ");
+                List<Student> matches = studentService.searchStudents(query, 10);
+                if (matches.isEmpty()) {
+                    System.out.println("No matching students found.");
+                } else {
+                    System.out.println("Matching students:");
+                    matches.forEach(System.out::println);
+                }
+                return;
             default:
                 System.out.println("Invalid search type.");
                 return;
@@ -498,6 +703,15 @@ public class CCRMApp {
             return;
         }
         
+        String meetings = getStringInput("Enter meeting times (e.g. MON 09:00-10:30;WED 09:00-10:30) or press Enter to skip: ");
+        List<MeetingSlot> meetingSlots;
+        try {
+            meetingSlots = ImportExportService.parseMeetingSlots(meetings);
+        } catch (RuntimeException e) {
+            System.out.println("Invalid meeting times: " + e.getMessage());
+            return;
+        }
+        
         // Create course using Builder pattern
         Course course = new Course.Builder()
                 .courseCode(courseCode)
@@ -505,6 +719,7 @@ public class CCRMApp {
                 .credits(credits)
                 .department(department)
                 .semester(semesters[semesterChoice])
+                .meetingSlots(meetingSlots)
                 .build();
         
         if (courseService.addCourse(course)) {
@@ -603,6 +818,60 @@ public class CCRMApp {
         }
     }
     
+    /**
+     * Search courses by partial title
+     */
+    private static void searchCoursesByTitle() {
+        System.out.println("\n--- Search Courses by Title ---");
+        String query = getStringInput("Enter title (partial allowed): ");
+        
+        List<Course> courses = courseService.searchCoursesByTitle(query, 10);
+        
+        if (courses.isEmpty()) {
+            System.out.println("No courses found matching: " + query);
+        } else {
+            System.out.println("Matching courses:");
+            courses.forEach(System.out::println);
+        }
+    }
+    
+    /**
+     * Add a prerequisite requirement between two courses
+     */
+    private static void addPrerequisite() {
+        System.out.println("\n--- Add Prerequisite ---");
+        
+        String courseCode = getStringInput("Enter Course Code: ");
+        String prerequisiteCode = getStringInput("Enter Prerequisite Course Code: ");
+        
+        if (courseService.addPrerequisite(courseCode, prerequisiteCode)) {
+            System.out.println("Prerequisite added. " + courseCode + " now requires: "
+                             + String.join(", ", courseService.getPrerequisites(courseCode)));
+        } else {
+            System.out.println("Failed to add prerequisite: course not found or it would create a cycle.");
+        }
+    }
+    
+    /**
+     * Assign courses without an instructor, balancing teaching load per department
+     */
+    private static void autoAssignInstructors() {
+        System.out.println("\n--- Auto-assign Instructors ---");
+        
+        List<Course> assigned = instructorService.assignUnassignedCourses(courseService);
+        
+        if (assigned.isEmpty()) {
+            System.out.println("No unassigned courses with instructors available in their department.");
+        } else {
+            for (Course course : assigned) {
+                System.out.println(course.getCourseCode() + " -> " + course.getInstructor().getFullName()
+                                 + " (" + instructorService.getTeachingLoad(course.getInstructor(), course.getSemester())
+                                 + " credits in " + course.getSemester() + ")");
+            }
+            System.out.println("Assigned " + assigned.size() + " courses.");
+        }
+    }
+    
     /**
      * Remove a course
      */
@@ -647,6 +916,10 @@ public class CCRMApp {
             System.out.println("Enrollment failed: " + e.getMessage());
         } catch (MaxCreditLimitExceededException e) {
             System.out.println("Enrollment failed: " + e.getMessage());
+        } catch (ScheduleConflictException e) {
+            System.out.println("Enrollment failed: " + e.getMessage());
+        } catch (PrerequisiteNotMetException e) {
+            System.out.println("Enrollment failed: " + e.getMessage());
         } catch (Exception e) {
             System.out.println("Enrollment failed: " + e.getMessage());
         }
@@ -720,7 +993,7 @@ public class CCRMApp {
             return;
         }
         
-        enrollmentOpt.get().setGrade(grades[gradeChoice]);
+        enrollmentService.assignGrade(enrollmentOpt.get(), grades[gradeChoice]);
         System.out.println("Grade assigned successfully!");
     }
     
@@ -773,19 +1046,98 @@ public class CCRMApp {
     }
     
     /**
-     * Export data to files
+     * Enroll several students in several courses in one batch
+     */
+    private static void bulkEnroll() {
+        System.out.println("\n--- Bulk Enroll ---");
+        
+        String regNos = getStringInput("Enter Student Registration Numbers (comma separated): ");
+        String courseCodes = getStringInput("Enter Course Codes (comma separated): ");
+        
+        // Every student is enrolled in every course; unknown entries become invalid rows
+        List<EnrollmentRequest> requests = new ArrayList<>();
+        for (String regNo : regNos.split(",")) {
+            Student student = studentService.findStudentByRegNo(regNo.trim()).orElse(null);
+            for (String courseCode : courseCodes.split(",")) {
+                Course course = courseService.findCourseByCode(courseCode.trim()).orElse(null);
+                requests.add(new EnrollmentRequest(student, course));
+            }
+        }
+        
+        BulkEnrollmentReport report = enrollmentService.enrollStudents(requests);
+        System.out.println(report);
+        for (int row : report.getRejectedRows()) {
+            System.out.println(report.describe(row));
+        }
+    }
+    
+    /**
+     * Export data to files in the background; check Export Status for the result
      */
     private static void exportData() {
         System.out.println("\n--- Export Data ---");
         
+        CompletableFuture<Void> export = runningExport;
+        if (export != null && !export.isDone()) {
+            System.out.println("An export is already running (" + exportedBytes.get() / 1024 + " KB written).");
+            return;
+        }
+        Path exportDir = importExportService.getDefaultExportDirectory();
+        exportedBytes.set(0);
+        runningExport = importExportService.exportDataAsync(
+            studentService.getStudentSnapshot(),
+            courseService.getCourseSnapshot(),
+            enrollmentService.getEnrollmentSnapshot(),
+            exportDir,
+            (bytes, totalBytes) -> exportedBytes.set(bytes)
+        );
+        System.out.println("Export to " + exportDir + " started in the background.");
+    }
+    
+    /**
+     * Show the result of the last background export, offering to cancel it while it runs
+     */
+    private static void exportStatus() {
+        System.out.println("\n--- Export Status ---");
+        
+        CompletableFuture<Void> export = runningExport;
+        if (export == null) {
+            System.out.println("No export started yet.");
+        } else if (!export.isDone()) {
+            System.out.println("Export running: " + exportedBytes.get() / 1024 + " KB written");
+            if (getStringInput("Cancel it? (y/n): ").trim().equalsIgnoreCase("y")) {
+                export.cancel(true);
+                System.out.println("Export cancelled; the previous export files are kept.");
+            }
+        } else if (export.isCancelled()) {
+            System.out.println("Last export was cancelled.");
+        } else if (export.isCompletedExceptionally()) {
+            Throwable failure = export.handle((ignored, e) -> e).join();
+            System.out.println("Last export failed: " + failure.getMessage());
+        } else {
+            System.out.println("Last export completed: " + exportedBytes.get() / 1024 + " KB written to "
+                               + importExportService.getDefaultExportDirectory());
+        }
+    }
+    
+    /**
+     * Export only the records changed since the last delta export
+     */
+    private static void exportChanges() {
+        System.out.println("\n--- Export Changes ---");
+        
         try {
-            Path exportDir = importExportService.getDefaultExportDirectory();
-            importExportService.exportData(
-                studentService.getAllStudents(),
-                courseService.getAllCourses(),
-                exportDir
+            Path deltaDir = importExportService.getDefaultExportDirectory().resolve("deltas");
+            int rows = importExportService.exportDelta(
+                studentService.getChangeTracker(),
+                courseService.getChangeTracker(),
+                deltaDir
             );
-            System.out.println("Data exported successfully to: " + exportDir);
+            if (rows == 0) {
+                System.out.println("No changes since the last export.");
+            } else {
+                System.out.println(rows + " changed records exported to: " + deltaDir);
+            }
         } catch (IOException e) {
             System.out.println("Export failed: " + e.getMessage());
         }
@@ -799,20 +1151,17 @@ public class CCRMApp {
         
         String filePath = getStringInput("Enter file path (or press Enter for default): ");
         Path path = filePath.trim().isEmpty() ? 
-                   Paths.get(config.getDataPath(), "students.csv") : 
+                   importExportService.resolveDataFile(Paths.get(config.getDataPath()), "students.csv") : 
                    Paths.get(filePath);
         
         try {
-            List<Student> students = importExportService.importStudents(path);
-            
-            int imported = 0;
-            for (Student student : students) {
-                if (studentService.addStudent(student)) {
-                    imported++;
-                }
-            }
+            List<BulkLoadReport<Student>> reports = new ArrayList<>();
+            ImportSummary summary = importExportService.importStudents(path,
+                    path.resolveSibling("students.quarantine.csv"),
+                    chunk -> reports.add(studentService.addStudents(chunk)));
             
-            System.out.println("Imported " + imported + " students out of " + students.size());
+            System.out.println(summary);
+            printLoadResults(reports, "students");
         } catch (IOException e) {
             System.out.println("Import failed: " + e.getMessage());
         }
@@ -826,45 +1175,366 @@ public class CCRMApp {
         
         String filePath = getStringInput("Enter file path (or press Enter for default): ");
         Path path = filePath.trim().isEmpty() ? 
-                   Paths.get(config.getDataPath(), "courses.csv") : 
+                   importExportService.resolveDataFile(Paths.get(config.getDataPath()), "courses.csv") : 
                    Paths.get(filePath);
         
         try {
-            List<Course> courses = importExportService.importCourses(path);
+            importExportService.registerInstructors(instructorService.getAllInstructors());
+            List<BulkLoadReport<Course>> reports = new ArrayList<>();
+            ImportSummary summary = importExportService.importCourses(path,
+                    path.resolveSibling("courses.quarantine.csv"),
+                    chunk -> {
+                        BulkLoadReport<Course> report = courseService.addCourses(chunk);
+                        for (Course course : report.getLoaded()) {
+                            instructorService.addInstructor(course.getInstructor());
+                        }
+                        reports.add(report);
+                    });
             
-            int imported = 0;
-            for (Course course : courses) {
-                if (courseService.addCourse(course)) {
-                    imported++;
+            System.out.println(summary);
+            printLoadResults(reports, "courses");
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Export students, courses and enrollments as one file per partition
+     */
+    private static void exportPartitioned() {
+        System.out.println("\n--- Export Partitioned ---");
+        
+        PartitionKey key = configured(PartitionKey.class, config.getExportPartitionKey(), PartitionKey.DEPARTMENT);
+        try {
+            Path partitionDir = importExportService.getDefaultExportDirectory().resolve("partitions");
+            int files = importExportService.exportPartitioned(
+                studentService.getStudentSnapshot(),
+                courseService.getCourseSnapshot(),
+                enrollmentService.getEnrollmentSnapshot(),
+                partitionDir,
+                key
+            );
+            System.out.println(files + " partitions (by " + key + ") exported to: " + partitionDir);
+        } catch (IOException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Import students and courses from a partitioned export
+     */
+    private static void importPartitioned() {
+        System.out.println("\n--- Import Partitioned ---");
+        
+        String dirPath = getStringInput("Enter directory (or press Enter for default): ");
+        Path partitionDir = dirPath.trim().isEmpty() ? 
+                           importExportService.getDefaultExportDirectory().resolve("partitions") : 
+                           Paths.get(dirPath);
+        
+        try {
+            importExportService.registerInstructors(instructorService.getAllInstructors());
+            PartitionedData data = importExportService.importPartitioned(partitionDir);
+            System.out.println(data);
+            
+            BulkLoadReport<Student> students = studentService.addStudents(data.getStudents());
+            BulkLoadReport<Course> courses = courseService.addCourses(data.getCourses());
+            for (Course course : courses.getLoaded()) {
+                instructorService.addInstructor(course.getInstructor());
+            }
+            System.out.println("Loaded " + students.getLoadedCount() + " students and "
+                               + courses.getLoadedCount() + " courses");
+            List<String> conflicts = new ArrayList<>(students.getConflicts());
+            conflicts.addAll(courses.getConflicts());
+            printConflicts(conflicts);
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Export students, courses, instructors and enrollments as JSON for integrations
+     */
+    private static void exportJSON() {
+        System.out.println("\n--- Export JSON ---");
+        
+        try {
+            Path jsonDir = importExportService.getDefaultExportDirectory().resolve("json");
+            importExportService.exportJSON(studentService.getStudentSnapshot(),
+                                           courseService.getCourseSnapshot(),
+                                           instructorService.getAllInstructors(),
+                                           enrollmentService.getEnrollmentSnapshot(),
+                                           jsonDir);
+            System.out.println("JSON files exported to: " + jsonDir);
+        } catch (IOException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Import instructors, students and courses from a JSON export
+     * Students and courses go through the same validation pipeline as CSV imports
+     */
+    private static void importJSON() {
+        System.out.println("\n--- Import JSON ---");
+        
+        String dirPath = getStringInput("Enter directory (or press Enter for default): ");
+        Path jsonDir = dirPath.trim().isEmpty() ? 
+                      importExportService.getDefaultExportDirectory().resolve("json") : 
+                      Paths.get(dirPath);
+        
+        try {
+            Path instructorFile = importExportService.resolveDataFile(jsonDir, "instructors.json");
+            if (Files.exists(instructorFile)) {
+                List<Instructor> instructors = importExportService.importInstructorsJSON(instructorFile);
+                for (Instructor instructor : instructors) {
+                    instructorService.addInstructor(instructor);
                 }
+                System.out.println("Read " + instructors.size() + " instructors");
             }
+            importExportService.registerInstructors(instructorService.getAllInstructors());
+            
+            Path studentFile = importExportService.resolveDataFile(jsonDir, "students.json");
+            List<BulkLoadReport<Student>> studentReports = new ArrayList<>();
+            ImportSummary students = importExportService.importStudents(studentFile,
+                    jsonDir.resolve("students.quarantine.csv"),
+                    chunk -> studentReports.add(studentService.addStudents(chunk)));
+            System.out.println(students);
+            printLoadResults(studentReports, "students");
             
-            System.out.println("Imported " + imported + " courses out of " + courses.size());
+            Path courseFile = importExportService.resolveDataFile(jsonDir, "courses.json");
+            List<BulkLoadReport<Course>> courseReports = new ArrayList<>();
+            ImportSummary courses = importExportService.importCourses(courseFile,
+                    jsonDir.resolve("courses.quarantine.csv"),
+                    chunk -> {
+                        BulkLoadReport<Course> report = courseService.addCourses(chunk);
+                        for (Course course : report.getLoaded()) {
+                            instructorService.addInstructor(course.getInstructor());
+                        }
+                        courseReports.add(report);
+                    });
+            System.out.println(courses);
+            printLoadResults(courseReports, "courses");
         } catch (IOException e) {
             System.out.println("Import failed: " + e.getMessage());
         }
     }
     
     /**
-     * Create backup
+     * Import students, courses and enrollments of an export directory through the staged
+     * pipeline: the files load concurrently and enrollments follow once students and courses are in
      */
-    private static void createBackup() {
-        System.out.println("\n--- Create Backup ---");
+    private static void importDataset() {
+        System.out.println("\n--- Import Dataset ---");
+        
+        String dirPath = getStringInput("Enter directory (or press Enter for default): ");
+        Path dataDir = dirPath.trim().isEmpty() ? 
+                      importExportService.getDefaultExportDirectory() : 
+                      Paths.get(dirPath);
+        
+        importExportService.registerInstructors(instructorService.getAllInstructors());
+        List<BulkLoadReport<Student>> studentReports = new ArrayList<>();
+        List<BulkLoadReport<Course>> courseReports = new ArrayList<>();
+        List<BulkEnrollmentReport> enrollmentReports = new ArrayList<>();
+        DatasetLoader loader = new DatasetLoader.Builder()
+            .students(chunk -> studentReports.add(studentService.addStudents(chunk)))
+            .courses(chunk -> {
+                BulkLoadReport<Course> report = courseService.addCourses(chunk);
+                for (Course course : report.getLoaded()) {
+                    instructorService.addInstructor(course.getInstructor());
+                }
+                courseReports.add(report);
+            })
+            .enrollments(id -> studentService.findStudentById(id).orElse(null),
+                         code -> courseService.findCourseByCode(code).orElse(null),
+                         chunk -> enrollmentReports.add(enrollWithGrades(chunk)))
+            .build();
         
         try {
-            // First export current data
-            Path exportDir = importExportService.getDefaultExportDirectory();
-            importExportService.exportData(
-                studentService.getAllStudents(),
-                courseService.getAllCourses(),
-                exportDir
-            );
+            PipelineReport report = importExportService.importDataset(dataDir, loader);
+            System.out.println(report);
+            printLoadResults(studentReports, "students");
+            printLoadResults(courseReports, "courses");
+            
+            int accepted = 0;
+            List<String> rejected = new ArrayList<>();
+            for (BulkEnrollmentReport enrollmentReport : enrollmentReports) {
+                accepted += enrollmentReport.getAcceptedCount();
+                for (int row : enrollmentReport.getRejectedRows()) {
+                    rejected.add(enrollmentReport.describe(row));
+                }
+            }
+            System.out.println("Loaded " + accepted + " enrollments, " + rejected.size() + " rejected");
+            printConflicts(rejected);
+        } catch (IOException e) {
+            System.out.println("Import failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Enroll a chunk of imported enrollments together with their grades
+     * Grades are applied in file order, so a course passed earlier in the file
+     * counts towards the prerequisites of later rows
+     * @param enrollments imported enrollments
+     * @return per-row result of the enrollment
+     */
+    private static BulkEnrollmentReport enrollWithGrades(List<Enrollment> enrollments) {
+        List<EnrollmentRequest> requests = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            requests.add(new EnrollmentRequest(enrollment.getStudent(), enrollment.getCourse(), enrollment.getGrade()));
+        }
+        return enrollmentService.enrollStudents(requests);
+    }
+    
+    /**
+     * Export students and courses in the columnar format for analytics tools
+     */
+    private static void exportColumnar() {
+        System.out.println("\n--- Export Columnar ---");
+        
+        try {
+            Path columnarDir = importExportService.getDefaultExportDirectory().resolve("columnar");
+            importExportService.exportColumnar(studentService.getStudentSnapshot(),
+                                               courseService.getCourseSnapshot(), columnarDir);
+            System.out.println("Columnar files exported to: " + columnarDir);
+        } catch (IOException e) {
+            System.out.println("Export failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Total credits per department from the columnar course export, reading only the columns needed
+     */
+    private static void reportCreditsByDepartment() {
+        System.out.println("\n--- Credits by Department ---");
+        
+        Semester[] semesters = Semester.values();
+        System.out.println("0. All semesters");
+        for (int i = 0; i < semesters.length; i++) {
+            System.out.println((i + 1) + ". " + semesters[i]);
+        }
+        int semesterChoice = getIntInput("Enter semester choice: ") - 1;
+        if (semesterChoice < -1 || semesterChoice >= semesters.length) {
+            System.out.println("Invalid semester choice.");
+            return;
+        }
+        List<ColumnFilter> filters = semesterChoice < 0 ? List.of()
+                                   : List.of(ColumnFilter.eq("semester", semesters[semesterChoice]));
+        
+        Path file = importExportService.getDefaultExportDirectory().resolve("columnar").resolve("courses.ccol");
+        Map<String, Integer> totals = new TreeMap<>();
+        try (ColumnarReader reader = new ColumnarReader(file)) {
+            reader.scan(List.of("department", "credits"), filters,
+                        row -> totals.merge((String) row[0], (Integer) row[1], Integer::sum));
+            totals.forEach((department, credits) -> System.out.printf("%-25s %6d%n", department, credits));
+            System.out.printf("Row groups read: %d, skipped: %d, column bytes skipped: %d%n",
+                              reader.getRowGroupsRead(), reader.getRowGroupsSkipped(), reader.getBytesSkipped());
+        } catch (IOException e) {
+            System.out.println("Report failed: " + e.getMessage() + " (run Export Columnar first)");
+        }
+    }
+    
+    /**
+     * Reconcile students with a full feed file - only new, changed and missing rows are applied
+     */
+    private static void syncStudents() {
+        System.out.println("\n--- Sync Students ---");
+        
+        String filePath = getStringInput("Enter file path (or press Enter for default): ");
+        Path path = filePath.trim().isEmpty() ? 
+                   importExportService.resolveDataFile(Paths.get(config.getDataPath()), "students.csv") : 
+                   Paths.get(filePath);
+        
+        try {
+            List<String> conflicts = new ArrayList<>();
+            ReconcileReport report = importExportService.reconcileStudents(path,
+                    batch -> {
+                        BulkLoadReport<Student> applied = studentService.upsertStudents(batch);
+                        conflicts.addAll(applied.getConflicts());
+                        return applied.getLoaded();
+                    },
+                    studentService::removeStudents);
+            
+            System.out.println(report);
+            conflicts.addAll(0, report.getErrors());
+            printConflicts(conflicts);
+        } catch (IOException e) {
+            System.out.println("Sync failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Reconcile courses with a full feed file - only new, changed and missing rows are applied
+     */
+    private static void syncCourses() {
+        System.out.println("\n--- Sync Courses ---");
+        
+        String filePath = getStringInput("Enter file path (or press Enter for default): ");
+        Path path = filePath.trim().isEmpty() ? 
+                   importExportService.resolveDataFile(Paths.get(config.getDataPath()), "courses.csv") : 
+                   Paths.get(filePath);
+        
+        try {
+            importExportService.registerInstructors(instructorService.getAllInstructors());
+            List<String> conflicts = new ArrayList<>();
+            ReconcileReport report = importExportService.reconcileCourses(path,
+                    batch -> {
+                        BulkLoadReport<Course> applied = courseService.upsertCourses(batch);
+                        for (Course course : applied.getLoaded()) {
+                            instructorService.addInstructor(course.getInstructor());
+                        }
+                        conflicts.addAll(applied.getConflicts());
+                        return applied.getLoaded();
+                    },
+                    courseService::removeCourses);
             
-            // Then create backup
-            Path backupDir = backupService.performBackup();
-            System.out.println("Backup created successfully: " + backupDir);
+            System.out.println(report);
+            conflicts.addAll(0, report.getErrors());
+            printConflicts(conflicts);
         } catch (IOException e) {
-            System.out.println("Backup failed: " + e.getMessage());
+            System.out.println("Sync failed: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Print loaded counts and duplicate conflicts of a chunked import
+     * @param reports one bulk load report per loaded chunk
+     * @param label what was imported, e.g. "students"
+     */
+    private static void printLoadResults(List<? extends BulkLoadReport<?>> reports, String label) {
+        int loaded = 0;
+        List<String> conflicts = new ArrayList<>();
+        for (BulkLoadReport<?> report : reports) {
+            loaded += report.getLoadedCount();
+            conflicts.addAll(report.getConflicts());
+        }
+        System.out.println("Loaded " + loaded + " " + label + ", " + conflicts.size() + " skipped as duplicates");
+        printConflicts(conflicts);
+    }
+    
+    /**
+     * Print the first few rejected rows of a bulk load
+     * @param conflicts description of each rejected row
+     */
+    private static void printConflicts(List<String> conflicts) {
+        for (int i = 0; i < conflicts.size() && i < 10; i++) {
+            System.out.println("  Skipped: " + conflicts.get(i));
+        }
+        if (conflicts.size() > 10) {
+            System.out.println("  ... and " + (conflicts.size() - 10) + " more");
+        }
+    }
+    
+    /**
+     * Create backup
+     */
+    private static void createBackup() {
+        System.out.println("\n--- Create Backup ---");
+        
+        // Export and copy run on the backup thread; check Backup Status for the result
+        if (backupScheduler.requestBackup() != null) {
+            System.out.println("Backup started in the background.");
+        } else {
+            System.out.println("A backup is already queued.");
         }
     }
     
@@ -1013,6 +1683,8 @@ public class CCRMApp {
         // Create sample instructors
         Instructor instructor1 = new Instructor(1, "Dr. John Smith", "john.smith@edu.ccrm", "Computer Science");
         Instructor instructor2 = new Instructor(2, "Dr. Jane Doe", "jane.doe@edu.ccrm", "Mathematics");
+        instructorService.addInstructor(instructor1);
+        instructorService.addInstructor(instructor2);
         
         // Create sample courses using Builder pattern
         Course course1 = new Course.Builder()
@@ -1022,6 +1694,8 @@ public class CCRMApp {
                 .department("Computer Science")
                 .semester(Semester.FALL)
                 .instructor(instructor1)
+                .meetingSlot(MeetingSlot.parse("MON 09:00-10:30"))
+                .meetingSlot(MeetingSlot.parse("WED 09:00-10:30"))
                 .build();
         
         Course course2 = new Course.Builder()
@@ -1031,6 +1705,7 @@ public class CCRMApp {
                 .department("Mathematics")
                 .semester(Semester.SPRING)
                 .instructor(instructor2)
+                .meetingSlot(MeetingSlot.parse("TUE 10:00-12:00"))
                 .build();
         
         Course course3 = new Course.Builder()
@@ -1040,12 +1715,14 @@ public class CCRMApp {
                 .department("Computer Science")
                 .semester(Semester.SPRING)
                 .instructor(instructor1)
+                .meetingSlot(MeetingSlot.parse("THU 14:00-15:30"))
                 .build();
         
         // Add courses to service
         courseService.addCourse(course1);
         courseService.addCourse(course2);
         courseService.addCourse(course3);
+        courseService.addPrerequisite(course3.getCourseCode(), course1.getCourseCode());
         
         // Create sample students
         Student student1 = new Student(1001, "Alice Johnson", "alice.johnson@student.edu", "2024001");
@@ -1057,33 +1734,42 @@ public class CCRMApp {
         studentService.addStudent(student2);
         studentService.addStudent(student3);
         
-        // Create sample enrollments
-        try {
-            enrollmentService.enrollStudent(student1, course1);
-            enrollmentService.enrollStudent(student1, course2);
-            enrollmentService.enrollStudent(student2, course1);
-            enrollmentService.enrollStudent(student2, course3);
-            enrollmentService.enrollStudent(student3, course2);
-            
-            // Assign some grades
-            List<Enrollment> alice_enrollments = enrollmentService.getStudentEnrollments(student1);
-            if (!alice_enrollments.isEmpty()) {
-                alice_enrollments.get(0).setGrade(Grade.A);
-            }
-            
-            List<Enrollment> bob_enrollments = enrollmentService.getStudentEnrollments(student2);
-            if (!bob_enrollments.isEmpty()) {
-                bob_enrollments.get(0).setGrade(Grade.B);
+        // A persistent enrollment store already holds the enrollments of earlier runs
+        int stored = enrollmentService.getEnrollmentSnapshot().size();
+        if (stored > 0) {
+            enrollmentService.reloadFromStore();
+            System.out.println("Loaded " + stored + " stored enrollments");
+        } else {
+            // Create sample enrollments
+            try {
+                enrollmentService.enrollStudent(student1, course1);
+                enrollmentService.enrollStudent(student1, course2);
+                enrollmentService.enrollStudent(student2, course1);
+                enrollmentService.enrollStudent(student3, course2);
+                
+                // Assign some grades
+                List<Enrollment> alice_enrollments = enrollmentService.getStudentEnrollments(student1);
+                if (!alice_enrollments.isEmpty()) {
+                    enrollmentService.assignGrade(alice_enrollments.get(0), Grade.A);
+                }
+                
+                List<Enrollment> bob_enrollments = enrollmentService.getStudentEnrollments(student2);
+                if (!bob_enrollments.isEmpty()) {
+                    enrollmentService.assignGrade(bob_enrollments.get(0), Grade.B);
+                }
+                
+                // Bob has now completed the prerequisite of the third course
+                enrollmentService.enrollStudent(student2, course3);
+                
+            } catch (Exception e) {
+                System.out.println("Error initializing sample enrollments: " + e.getMessage());
             }
-            
-        } catch (Exception e) {
-            System.out.println("Error initializing sample enrollments: " + e.getMessage());
         }
         
         System.out.println("Sample data initialized successfully!");
         System.out.println("- 3 courses added");
         System.out.println("- 3 students added");
-        System.out.println("- Sample enrollments created");
+        System.out.println(stored > 0 ? "- Stored enrollments loaded" : "- Sample enrollments created");
     }
     
     /**
@@ -1091,6 +1777,23 @@ public class CCRMApp {
      * @param prompt the prompt message
      * @return valid integer input
      */
+    /**
+     * Map a configured option name to its constant, falling back to a default for unknown names
+     * @param type the option type
+     * @param name the configured name
+     * @param defaultValue constant to use if the name is unknown
+     * @return the constant
+     */
+    private static <E extends Enum<E>> E configured(Class<E> type, String name, E defaultValue) {
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown " + type.getSimpleName() + " '" + name + "' in configuration, using "
+                               + defaultValue);
+            return defaultValue;
+        }
+    }
+    
     private static int getIntInput(String prompt) {
         int result;
         boolean validInput;
@@ -1,18 +1,38 @@
 package edu.ccrm.config;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Application Configuration class implementing Singleton Design Pattern
  * Ensures only one instance of configuration exists throughout the application
+ * Values come from defaults, then the config file, then CCRM_* environment
+ * variables, then ccrm.* system properties. They are parsed once into an
+ * immutable Settings object that is swapped atomically on every change, so
+ * getters are a field read with no parsing.
  */
 public class AppConfig {
     
     // Singleton instance - volatile for thread safety
     private static volatile AppConfig instance;
     
-    // Application properties
-    private final Properties properties;
+    // Config file location: -Dccrm.config, then CCRM_CONFIG, then ./ccrm.properties
+    private static final String CONFIG_FILE_PROPERTY = "ccrm.config";
+    private static final String CONFIG_FILE_ENV = "CCRM_CONFIG";
+    private static final String DEFAULT_CONFIG_FILE = "ccrm.properties";
+    private static final String SYSTEM_PREFIX = "ccrm.";
+    private static final String ENV_PREFIX = "CCRM_";
     
     // Default configuration values
     private static final String DEFAULT_DATA_PATH = "data/";
@@ -20,13 +40,37 @@ public class AppConfig {
     private static final int DEFAULT_MAX_CREDITS = 24;
     private static final String DEFAULT_APP_NAME = "Campus Course Registration Management";
     private static final String DEFAULT_APP_VERSION = "1.0.0";
+    private static final int DEFAULT_BACKUP_INTERVAL_MINUTES = 30;
+    private static final int DEFAULT_BACKUP_CHANGE_THRESHOLD = 500;
+    private static final int DEFAULT_BACKUP_THROTTLE_KBPS = 2048;
+    private static final int DEFAULT_BACKUP_RETENTION = 5;
+    private static final int DEFAULT_EVENT_BUS_CAPACITY = 4096;
+    private static final String DEFAULT_EVENT_BUS_POLICY = "TIMEOUT";
+    private static final int DEFAULT_EVENT_BUS_TIMEOUT_MS = 100;
+    private static final String DEFAULT_EXPORT_PARTITION_KEY = "DEPARTMENT";
+    private static final int DEFAULT_EXPORT_COMPRESSION_LEVEL = 0;
+    private static final int DEFAULT_EXPORT_PARTITION_BUCKETS = 8;
+    private static final int DEFAULT_IMPORT_QUEUE_CAPACITY = 8;
+    private static final int DEFAULT_ASYNC_IO_WRITES = 4;
+    private static final String DEFAULT_ENROLLMENT_STORE = "LIST";
+    private static final String DEFAULT_ENROLLMENT_STORE_FILE = "enrollments.dat";
+    
+    private final Path configFile;
+    
+    // Raw properties and their parsed form, replaced together under the lock
+    private volatile Properties properties;
+    private volatile Settings settings;
+    
+    private WatchService watchService;
     
     /**
      * Private constructor to prevent external instantiation
      */
     private AppConfig() {
-        this.properties = new Properties();
-        initializeDefaults();
+        this.configFile = resolveConfigFile();
+        Properties loaded = loadProperties();
+        this.properties = loaded;
+        this.settings = new Settings(loaded);
     }
     
     /**
@@ -47,7 +91,7 @@ public class AppConfig {
     /**
      * Initialize default configuration values
      */
-    private void initializeDefaults() {
+    private static void initializeDefaults(Properties properties) {
         properties.setProperty("app.name", DEFAULT_APP_NAME);
         properties.setProperty("app.version", DEFAULT_APP_VERSION);
         properties.setProperty("data.path", DEFAULT_DATA_PATH);
@@ -56,6 +100,140 @@ public class AppConfig {
         properties.setProperty("file.encoding", "UTF-8");
         properties.setProperty("date.format", "dd-MM-yyyy");
         properties.setProperty("backup.auto.enabled", "true");
+        properties.setProperty("backup.interval.minutes", String.valueOf(DEFAULT_BACKUP_INTERVAL_MINUTES));
+        properties.setProperty("backup.change.threshold", String.valueOf(DEFAULT_BACKUP_CHANGE_THRESHOLD));
+        properties.setProperty("backup.throttle.kbps", String.valueOf(DEFAULT_BACKUP_THROTTLE_KBPS));
+        properties.setProperty("backup.retention.count", String.valueOf(DEFAULT_BACKUP_RETENTION));
+        properties.setProperty("event.bus.capacity", String.valueOf(DEFAULT_EVENT_BUS_CAPACITY));
+        properties.setProperty("event.bus.policy", DEFAULT_EVENT_BUS_POLICY);
+        properties.setProperty("event.bus.timeout.ms", String.valueOf(DEFAULT_EVENT_BUS_TIMEOUT_MS));
+        properties.setProperty("export.compression.level", String.valueOf(DEFAULT_EXPORT_COMPRESSION_LEVEL));
+        properties.setProperty("export.partition.key", DEFAULT_EXPORT_PARTITION_KEY);
+        properties.setProperty("export.partition.buckets", String.valueOf(DEFAULT_EXPORT_PARTITION_BUCKETS));
+        properties.setProperty("import.pipeline.queue.capacity", String.valueOf(DEFAULT_IMPORT_QUEUE_CAPACITY));
+        properties.setProperty("io.async.writes", String.valueOf(DEFAULT_ASYNC_IO_WRITES));
+        properties.setProperty("enrollment.store", DEFAULT_ENROLLMENT_STORE);
+        properties.setProperty("enrollment.store.file", DEFAULT_ENROLLMENT_STORE_FILE);
+    }
+    
+    private static Path resolveConfigFile() {
+        String location = System.getProperty(CONFIG_FILE_PROPERTY);
+        if (location == null) {
+            location = System.getenv(CONFIG_FILE_ENV);
+        }
+        return Paths.get(location != null ? location : DEFAULT_CONFIG_FILE).toAbsolutePath();
+    }
+    
+    /**
+     * Build the merged properties: defaults, file, environment, system properties
+     * A missing or unreadable file leaves the defaults in place
+     */
+    private Properties loadProperties() {
+        Properties merged = new Properties();
+        initializeDefaults(merged);
+        
+        if (Files.isRegularFile(configFile)) {
+            Properties file = new Properties();
+            try (Reader reader = Files.newBufferedReader(configFile)) {
+                file.load(reader);
+                merged.putAll(file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Could not read config file " + configFile + ": " + e.getMessage());
+            }
+        }
+        
+        // Environment overrides, e.g. CCRM_MAX_CREDITS for max.credits
+        for (Map.Entry<String, String> entry : System.getenv().entrySet()) {
+            if (entry.getKey().startsWith(ENV_PREFIX) && !entry.getKey().equals(CONFIG_FILE_ENV)) {
+                String key = entry.getKey().substring(ENV_PREFIX.length()).toLowerCase(Locale.ROOT).replace('_', '.');
+                merged.setProperty(key, entry.getValue());
+            }
+        }
+        
+        // System property overrides, e.g. -Dccrm.max.credits=30
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith(SYSTEM_PREFIX) && !name.equals(CONFIG_FILE_PROPERTY)) {
+                merged.setProperty(name.substring(SYSTEM_PREFIX.length()), System.getProperty(name));
+            }
+        }
+        return merged;
+    }
+    
+    /**
+     * Re-read every source and publish the new values atomically
+     * @return true if any value changed
+     */
+    public synchronized boolean reload() {
+        Properties loaded = loadProperties();
+        if (loaded.equals(properties)) {
+            return false;
+        }
+        properties = loaded;
+        settings = new Settings(loaded);
+        return true;
+    }
+    
+    /**
+     * Watch the config file and reload it whenever it is written
+     * Runs on a daemon thread until stopWatching is called
+     * @throws IOException if the file's directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        Path directory = configFile.getParent();
+        WatchService watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watchService = watcher;
+        
+        Thread thread = new Thread(() -> watch(watcher), "ccrm-config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    private void watch(WatchService watcher) {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (configFile.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+                if (touched && reload()) {
+                    System.out.println("Configuration reloaded from " + configFile);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // stopWatching was called
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Stop watching the config file
+     */
+    public synchronized void stopWatching() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+            watchService = null;
+        }
+    }
+    
+    /**
+     * Get the config file that is loaded and watched
+     * @return absolute path, which may not exist
+     */
+    public Path getConfigFile() {
+        return configFile;
     }
     
     /**
@@ -79,11 +257,16 @@ public class AppConfig {
     
     /**
      * Set a property value
+     * Copy-on-write, so readers never see a half-applied change
      * @param key the property key
      * @param value the property value
      */
-    public void setProperty(String key, String value) {
-        properties.setProperty(key, value);
+    public synchronized void setProperty(String key, String value) {
+        Properties updated = new Properties();
+        updated.putAll(properties);
+        updated.setProperty(key, value);
+        properties = updated;
+        settings = new Settings(updated);
     }
     
     /**
@@ -91,7 +274,7 @@ public class AppConfig {
      * @return data directory path
      */
     public String getDataPath() {
-        return getProperty("data.path", DEFAULT_DATA_PATH);
+        return settings.dataPath;
     }
     
     /**
@@ -99,7 +282,7 @@ public class AppConfig {
      * @return backup directory path
      */
     public String getBackupPath() {
-        return getProperty("backup.path", DEFAULT_BACKUP_PATH);
+        return settings.backupPath;
     }
     
     /**
@@ -107,11 +290,7 @@ public class AppConfig {
      * @return maximum credit limit
      */
     public int getMaxCredits() {
-        try {
-            return Integer.parseInt(getProperty("max.credits", String.valueOf(DEFAULT_MAX_CREDITS)));
-        } catch (NumberFormatException e) {
-            return DEFAULT_MAX_CREDITS;
-        }
+        return settings.maxCredits;
     }
     
     /**
@@ -119,7 +298,7 @@ public class AppConfig {
      * @return application name
      */
     public String getAppName() {
-        return getProperty("app.name", DEFAULT_APP_NAME);
+        return settings.appName;
     }
     
     /**
@@ -127,7 +306,7 @@ public class AppConfig {
      * @return application version
      */
     public String getAppVersion() {
-        return getProperty("app.version", DEFAULT_APP_VERSION);
+        return settings.appVersion;
     }
     
     /**
@@ -135,7 +314,119 @@ public class AppConfig {
      * @return true if auto backup is enabled
      */
     public boolean isAutoBackupEnabled() {
-        return Boolean.parseBoolean(getProperty("backup.auto.enabled", "true"));
+        return settings.autoBackupEnabled;
+    }
+    
+    /**
+     * Get minutes between scheduled backups
+     * @return backup interval in minutes, 0 to disable periodic backups
+     */
+    public int getBackupIntervalMinutes() {
+        return settings.backupIntervalMinutes;
+    }
+    
+    /**
+     * Get the number of changes that triggers a backup before the interval ends
+     * @return change count, 0 to disable change-triggered backups
+     */
+    public int getBackupChangeThreshold() {
+        return settings.backupChangeThreshold;
+    }
+    
+    /**
+     * Get the I/O bandwidth limit for background backups
+     * @return kilobytes per second, 0 for unlimited
+     */
+    public int getBackupThrottleKbps() {
+        return settings.backupThrottleKbps;
+    }
+    
+    /**
+     * Get how many recent backups automatic cleanup keeps
+     * @return number of backups to keep
+     */
+    public int getBackupRetentionCount() {
+        return settings.backupRetentionCount;
+    }
+    
+    /**
+     * Get the event bus ring size (read when the bus is created)
+     * @return ring capacity
+     */
+    public int getEventBusCapacity() {
+        return settings.eventBusCapacity;
+    }
+    
+    /**
+     * Get the event bus backpressure policy (read when the bus is created)
+     * @return policy name in upper case - BLOCK, DROP or TIMEOUT when valid
+     */
+    public String getEventBusPolicy() {
+        return settings.eventBusPolicy;
+    }
+    
+    /**
+     * Get how long a TIMEOUT publisher waits for space (read when the bus is created)
+     * @return timeout in milliseconds
+     */
+    public int getEventBusTimeoutMillis() {
+        return settings.eventBusTimeoutMillis;
+    }
+    
+    /**
+     * Get the GZIP level for exported data files
+     * @return 1 (fastest) to 9 (smallest), or 0 to export uncompressed CSV
+     */
+    public int getExportCompressionLevel() {
+        return settings.exportCompressionLevel;
+    }
+    
+    /**
+     * Get how a partitioned export splits courses and enrollments
+     * @return partition key name in upper case - DEPARTMENT, SEMESTER or ID_HASH when valid
+     */
+    public String getExportPartitionKey() {
+        return settings.exportPartitionKey;
+    }
+    
+    /**
+     * Get the number of ID hash buckets of a partitioned export
+     * @return bucket count
+     */
+    public int getExportPartitionBuckets() {
+        return settings.exportPartitionBuckets;
+    }
+    
+    /**
+     * Get how many batches each queue between import pipeline stages holds
+     * @return queue capacity in batches
+     */
+    public int getImportQueueCapacity() {
+        return settings.importQueueCapacity;
+    }
+    
+    /**
+     * Get how many writes an asynchronous export or backup keeps in flight per file
+     * @return writes in flight, each with its own buffer
+     */
+    public int getAsyncIoWrites() {
+        return settings.asyncIoWrites;
+    }
+    
+    /**
+     * Get where enrollments are kept (read at startup)
+     * @return store name in upper case - LIST, PRIMITIVE or OFFHEAP when valid
+     */
+    public String getEnrollmentStore() {
+        return settings.enrollmentStore;
+    }
+    
+    /**
+     * Get the file of the off-heap enrollment store, relative to the data directory
+     * @return store file name or path
+     */
+    public String getEnrollmentStoreFile() {
+        return settings.enrollmentStoreFile;
     }
     
     /**
@@ -159,4 +450,78 @@ public class AppConfig {
         return String.format("AppConfig [%s v%s, DataPath: %s, BackupPath: %s]",
                            getAppName(), getAppVersion(), getDataPath(), getBackupPath());
     }
+    
+    /**
+     * Parsed, immutable view of one version of the properties
+     * Malformed values fall back to their defaults
+     */
+    private static final class Settings {
+        private final String appName;
+        private final String appVersion;
+        private final String dataPath;
+        private final String backupPath;
+        private final int maxCredits;
+        private final boolean autoBackupEnabled;
+        private final int backupIntervalMinutes;
+        private final int backupChangeThreshold;
+        private final int backupThrottleKbps;
+        private final int backupRetentionCount;
+        private final int eventBusCapacity;
+        private final String eventBusPolicy;
+        private final int eventBusTimeoutMillis;
+        private final int exportCompressionLevel;
+        private final String exportPartitionKey;
+        private final int exportPartitionBuckets;
+        private final int importQueueCapacity;
+        private final int asyncIoWrites;
+        private final String enrollmentStore;
+        private final String enrollmentStoreFile;
+        
+        Settings(Properties properties) {
+            this.appName = properties.getProperty("app.name", DEFAULT_APP_NAME);
+            this.appVersion = properties.getProperty("app.version", DEFAULT_APP_VERSION);
+            this.dataPath = properties.getProperty("data.path", DEFAULT_DATA_PATH);
+            this.backupPath = properties.getProperty("backup.path", DEFAULT_BACKUP_PATH);
+            // A zero or negative limit would reject every enrollment
+            int credits = parseInt(properties, "max.credits", DEFAULT_MAX_CREDITS);
+            this.maxCredits = credits > 0 ? credits : DEFAULT_MAX_CREDITS;
+            this.autoBackupEnabled = Boolean.parseBoolean(properties.getProperty("backup.auto.enabled", "true").trim());
+            this.backupIntervalMinutes = parseInt(properties, "backup.interval.minutes", DEFAULT_BACKUP_INTERVAL_MINUTES);
+            this.backupChangeThreshold = parseInt(properties, "backup.change.threshold", DEFAULT_BACKUP_CHANGE_THRESHOLD);
+            this.backupThrottleKbps = parseInt(properties, "backup.throttle.kbps", DEFAULT_BACKUP_THROTTLE_KBPS);
+            this.backupRetentionCount = parseInt(properties, "backup.retention.count", DEFAULT_BACKUP_RETENTION);
+            this.eventBusCapacity = parseInt(properties, "event.bus.capacity", DEFAULT_EVENT_BUS_CAPACITY);
+            this.eventBusPolicy = parseName(properties, "event.bus.policy", DEFAULT_EVENT_BUS_POLICY);
+            int timeout = parseInt(properties, "event.bus.timeout.ms", DEFAULT_EVENT_BUS_TIMEOUT_MS);
+            this.eventBusTimeoutMillis = timeout >= 0 ? timeout : DEFAULT_EVENT_BUS_TIMEOUT_MS;
+            int level = parseInt(properties, "export.compression.level", DEFAULT_EXPORT_COMPRESSION_LEVEL);
+            this.exportCompressionLevel = level >= 0 && level <= 9 ? level : DEFAULT_EXPORT_COMPRESSION_LEVEL;
+            this.exportPartitionKey = parseName(properties, "export.partition.key", DEFAULT_EXPORT_PARTITION_KEY);
+            int buckets = parseInt(properties, "export.partition.buckets", DEFAULT_EXPORT_PARTITION_BUCKETS);
+            this.exportPartitionBuckets = buckets > 0 ? buckets : DEFAULT_EXPORT_PARTITION_BUCKETS;
+            int capacity = parseInt(properties, "import.pipeline.queue.capacity", DEFAULT_IMPORT_QUEUE_CAPACITY);
+            this.importQueueCapacity = capacity > 0 ? capacity : DEFAULT_IMPORT_QUEUE_CAPACITY;
+            int writes = parseInt(properties, "io.async.writes", DEFAULT_ASYNC_IO_WRITES);
+            this.asyncIoWrites = writes > 0 ? writes : DEFAULT_ASYNC_IO_WRITES;
+            this.enrollmentStore = parseName(properties, "enrollment.store", DEFAULT_ENROLLMENT_STORE);
+            String storeFile = properties.getProperty("enrollment.store.file");
+            this.enrollmentStoreFile = storeFile == null || storeFile.isBlank() ? DEFAULT_ENROLLMENT_STORE_FILE : storeFile.trim();
+        }
+        
+        private static int parseInt(Properties properties, String key, int defaultValue) {
+            try {
+                return Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+        
+        /**
+         * Read the name of an option such as a policy; the caller maps it to its own type
+         */
+        private static String parseName(Properties properties, String key, String defaultValue) {
+            String value = properties.getProperty(key);
+            return value == null || value.isBlank() ? defaultValue : value.trim().toUpperCase(Locale.ROOT);
+        }
+    }
 }
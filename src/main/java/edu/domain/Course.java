@@ -1,10 +1,29 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringDictionary;
+import edu.ccrm.util.Validatable;
+import edu.ccrm.util.ValidationRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Course class implementing Builder Design Pattern
  * Demonstrates nested class and builder pattern
  */
-public class Course {
+public class Course implements Validatable {
+    
+    private static final int MIN_CREDITS = 1;
+    private static final int MAX_CREDITS = 6;
+    
+    // Validation rules, compiled once and shared by every course
+    private static final ValidationRules<Course> RULES = new ValidationRules.Builder<Course>()
+            .rule(c -> c.courseCode != null && !c.courseCode.isBlank(), "Course code cannot be empty")
+            .rule(c -> c.title != null && !c.title.isBlank(), "Course title cannot be empty")
+            .rule(c -> c.credits >= MIN_CREDITS && c.credits <= MAX_CREDITS, "Credits must be between 1 and 6")
+            .rule(c -> c.department != null && !c.department.isBlank(), "Department cannot be empty")
+            .rule(c -> c.semester != null, "Semester is required")
+            .build();
     
     private final String courseCode;
     private final String title;
@@ -12,6 +31,9 @@ public class Course {
     private final Instructor instructor;
     private final Semester semester;
     private final String department;
+    private final List<MeetingSlot> meetingSlots;
+    private final int courseCodeId;
+    private final int departmentId;
     
     // Private constructor - can only be accessed through Builder
     private Course(Builder builder) {
@@ -21,6 +43,9 @@ public class Course {
         this.instructor = builder.instructor;
         this.semester = builder.semester;
         this.department = builder.department;
+        this.meetingSlots = Collections.unmodifiableList(new ArrayList<>(builder.meetingSlots));
+        this.courseCodeId = StringDictionary.COURSE_CODES.idOf(courseCode);
+        this.departmentId = StringDictionary.DEPARTMENTS.idOf(department);
     }
     
     // Getters (no setters as fields are final - immutable object)
@@ -48,6 +73,45 @@ public class Course {
         return department;
     }
     
+    public List<MeetingSlot> getMeetingSlots() {
+        return meetingSlots;
+    }
+    
+    /**
+     * Create a builder pre-filled with this course's values
+     * @return builder for a modified copy
+     */
+    public Builder toBuilder() {
+        return new Builder()
+                .courseCode(courseCode)
+                .title(title)
+                .credits(credits)
+                .instructor(instructor)
+                .semester(semester)
+                .department(department)
+                .meetingSlots(meetingSlots);
+    }
+    
+    // Dictionary ids - equal codes/departments always have equal ids
+    public int getCourseCodeId() {
+        return courseCodeId;
+    }
+    
+    public int getDepartmentId() {
+        return departmentId;
+    }
+    
+    // Implementation of Validatable interface
+    @Override
+    public boolean isValid() {
+        return RULES.isValid(this);
+    }
+    
+    @Override
+    public List<String> getValidationErrors() {
+        return RULES.getErrors(this);
+    }
+    
     @Override
     public String toString() {
         return String.format("Course [%s: %s, Credits: %d, Department: %s, Semester: %s, Instructor: %s]",
@@ -65,9 +129,10 @@ public class Course {
         private Instructor instructor;
         private Semester semester;
         private String department;
+        private final List<MeetingSlot> meetingSlots = new ArrayList<>();
         
         public Builder courseCode(String courseCode) {
-            this.courseCode = courseCode;
+            this.courseCode = StringDictionary.COURSE_CODES.intern(courseCode);
             return this;
         }
         
@@ -92,7 +157,18 @@ public class Course {
         }
         
         public Builder department(String department) {
-            this.department = department;
+            this.department = StringDictionary.DEPARTMENTS.intern(department);
+            return this;
+        }
+        
+        public Builder meetingSlot(MeetingSlot meetingSlot) {
+            this.meetingSlots.add(meetingSlot);
+            return this;
+        }
+        
+        public Builder meetingSlots(List<MeetingSlot> meetingSlots) {
+            this.meetingSlots.clear();
+            this.meetingSlots.addAll(meetingSlots);
             return this;
         }
         
@@ -69,9 +69,9 @@ public class Enrollment {
     @Override
     public String toString() {
         return String.format("Enrollment [Student: %s, Course: %s, Date: %s, Grade: %s]",
-                           student != null ? student.getFullName() : "Unknown",
-                           course != null ? course.getCourseCode() : "Unknown",
-                           enrollmentDate,
-                           grade != null ? grade : "Not Assigned");
+                           getStudent() != null ? getStudent().getFullName() : "Unknown",
+                           getCourse() != null ? getCourse().getCourseCode() : "Unknown",
+                           getEnrollmentDate(),
+                           getGrade() != null ? getGrade() : "Not Assigned");
     }
 }
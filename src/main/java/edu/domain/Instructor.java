@@ -1,5 +1,7 @@
 package edu.ccrm.domain;
 
+import edu.ccrm.util.StringDictionary;
+
 /**
  * Instructor class extending Person - demonstrates Inheritance
  */
@@ -15,7 +17,7 @@ public class Instructor extends Person {
     // Parameterized constructor
     public Instructor(long id, String fullName, String email, String department) {
         super(id, fullName, email);
-        this.department = department;
+        this.department = StringDictionary.DEPARTMENTS.intern(department);
     }
     
     // Getter and Setter for department
@@ -24,7 +26,7 @@ public class Instructor extends Person {
     }
     
     public void setDepartment(String department) {
-        this.department = department;
+        this.department = StringDictionary.DEPARTMENTS.intern(department);
     }
     
     // Implementation of abstract method from Person
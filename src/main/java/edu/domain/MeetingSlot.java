@@ -0,0 +1,97 @@
+package edu.ccrm.domain;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.Locale;
+
+/**
+ * Immutable weekly meeting time of a course, e.g. MON 09:00-10:30
+ */
+public final class MeetingSlot {
+    
+    private final DayOfWeek day;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    
+    // Parameterized constructor with validation
+    public MeetingSlot(DayOfWeek day, LocalTime startTime, LocalTime endTime) {
+        if (day == null || startTime == null || endTime == null) {
+            throw new IllegalArgumentException("Meeting day and times are required");
+        }
+        if (!endTime.isAfter(startTime)) {
+            throw new IllegalArgumentException("Meeting must end after it starts: " + startTime + "-" + endTime);
+        }
+        this.day = day;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+    
+    /**
+     * Parse a slot in the form "MON 09:00-10:30"
+     * @param text the slot text
+     * @return parsed meeting slot
+     */
+    public static MeetingSlot parse(String text) {
+        String[] parts = text.trim().split("\\s+");
+        String[] times = parts.length == 2 ? parts[1].split("-") : new String[0];
+        if (times.length != 2) {
+            throw new IllegalArgumentException("Invalid meeting slot format: " + text);
+        }
+        return new MeetingSlot(parseDay(parts[0]), LocalTime.parse(times[0]), LocalTime.parse(times[1]));
+    }
+    
+    private static DayOfWeek parseDay(String text) {
+        String upper = text.toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().startsWith(upper) && upper.length() >= 3) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Invalid meeting day: " + text);
+    }
+    
+    // Getters (no setters - immutable object)
+    public DayOfWeek getDay() {
+        return day;
+    }
+    
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+    
+    public LocalTime getEndTime() {
+        return endTime;
+    }
+    
+    /**
+     * Check whether two slots overlap in time
+     * @param other the other slot
+     * @return true if both slots are on the same day and their times intersect
+     */
+    public boolean overlaps(MeetingSlot other) {
+        return day == other.day
+            && startTime.isBefore(other.endTime)
+            && other.startTime.isBefore(endTime);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeetingSlot)) return false;
+        MeetingSlot other = (MeetingSlot) o;
+        return day == other.day && startTime.equals(other.startTime) && endTime.equals(other.endTime);
+    }
+    
+    @Override
+    public int hashCode() {
+        return (day.hashCode() * 31 + startTime.hashCode()) * 31 + endTime.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s %s-%s",
+                           day.getDisplayName(TextStyle.SHORT, Locale.ENGLISH).toUpperCase(Locale.ROOT),
+                           startTime, endTime);
+    }
+}
@@ -1,6 +1,7 @@
 package edu.ccrm.domain;
 
 import edu.ccrm.util.Validatable;
+import edu.ccrm.util.ValidationRules;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +11,17 @@ import java.util.List;
  */
 public class Student extends Person implements Validatable {
     
+    // Validation rules, compiled once and shared by every student
+    private static final ValidationRules<Student> RULES = new ValidationRules.Builder<Student>()
+            .rule(s -> s.getId() > 0, "Student ID must be positive")
+            .rule(s -> s.getFullName() != null && !s.getFullName().isBlank(), "Student name cannot be empty")
+            .rule(s -> s.getEmail() != null && s.getEmail().indexOf('@') >= 0, "Valid email is required")
+            .rule(s -> s.regNo != null && !s.regNo.isBlank(), "Registration number cannot be empty")
+            .rule(s -> s.registrationDate != null, "Registration date cannot be null")
+            .rule(s -> s.registrationDate == null || !s.registrationDate.isAfter(LocalDate.now()),
+                  "Registration date cannot be in the future")
+            .build();
+    
     private String regNo;
     private StudentStatus status;
     private List<Enrollment> enrolledCourses;
@@ -49,6 +61,7 @@ public class Student extends Person implements Validatable {
         this.status = status;
     }
     
+    // Only kept up to date by the default LIST enrollment store; read enrollments through EnrollmentService
     public List<Enrollment> getEnrolledCourses() {
         return enrolledCourses;
     }
@@ -81,32 +94,11 @@ public class Student extends Person implements Validatable {
     // Implementation of Validatable interface
     @Override
     public boolean isValid() {
-        List<String> errors = getValidationErrors();
-        return errors.isEmpty();
+        return RULES.isValid(this);
     }
     
     @Override
     public List<String> getValidationErrors() {
-        List<String> errors = new ArrayList<>();
-        
-        if (getId() <= 0) {
-            errors.add("Student ID must be positive");
-        }
-        if (getFullName() == null || getFullName().trim().isEmpty()) {
-            errors.add("Student name cannot be empty");
-        }
-        if (getEmail() == null || !getEmail().contains("@")) {
-            errors.add("Valid email is required");
-        }
-        if (regNo == null || regNo.trim().isEmpty()) {
-            errors.add("Registration number cannot be empty");
-        }
-        if (registrationDate == null) {
-            errors.add("Registration date cannot be null");
-        } else if (registrationDate.isAfter(LocalDate.now())) {
-            errors.add("Registration date cannot be in the future");
-        }
-        
-        return errors;
+        return RULES.getErrors(this);
     }
 }
@@ -0,0 +1,10 @@
+package edu.ccrm.event;
+
+/**
+ * What a publisher does when the slowest subscriber has fallen a full ring behind
+ */
+public enum BackpressurePolicy {
+    BLOCK,      // Wait for space - lossless, but a stuck subscriber stalls publishers
+    DROP,       // Discard the new event immediately and count it
+    TIMEOUT     // Wait up to the bus's timeout, then discard and count
+}
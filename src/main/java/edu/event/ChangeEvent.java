@@ -0,0 +1,94 @@
+package edu.ccrm.event;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+
+/**
+ * Immutable record of one domain change
+ * Enrollment events carry the student and course rather than the Enrollment,
+ * since flyweight enrollment stores reuse their views
+ */
+public final class ChangeEvent {
+    
+    private final ChangeType type;
+    private final Student student;
+    private final Course course;
+    private final Grade grade;
+    private final long timestamp;
+    
+    private ChangeEvent(ChangeType type, Student student, Course course, Grade grade) {
+        this.type = type;
+        this.student = student;
+        this.course = course;
+        this.grade = grade;
+        this.timestamp = System.currentTimeMillis();
+    }
+    
+    public static ChangeEvent ofStudent(ChangeType type, Student student) {
+        return new ChangeEvent(type, student, null, null);
+    }
+    
+    public static ChangeEvent ofCourse(ChangeType type, Course course) {
+        return new ChangeEvent(type, null, course, null);
+    }
+    
+    public static ChangeEvent ofEnrollment(ChangeType type, Student student, Course course) {
+        return new ChangeEvent(type, student, course, null);
+    }
+    
+    public static ChangeEvent ofGrade(Student student, Course course, Grade grade) {
+        return new ChangeEvent(ChangeType.GRADE_ASSIGNED, student, course, grade);
+    }
+    
+    public ChangeType getType() {
+        return type;
+    }
+    
+    /**
+     * Get the student involved
+     * @return the student, or null for course events
+     */
+    public Student getStudent() {
+        return student;
+    }
+    
+    /**
+     * Get the course involved
+     * @return the course, or null for student events
+     */
+    public Course getCourse() {
+        return course;
+    }
+    
+    /**
+     * Get the grade awarded
+     * @return the grade, or null unless this is a GRADE_ASSIGNED event
+     */
+    public Grade getGrade() {
+        return grade;
+    }
+    
+    /**
+     * Get the time the change was published
+     * @return epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(type.name());
+        if (student != null) {
+            sb.append(" student=").append(student.getRegNo());
+        }
+        if (course != null) {
+            sb.append(" course=").append(course.getCourseCode());
+        }
+        if (grade != null) {
+            sb.append(" grade=").append(grade);
+        }
+        return sb.toString();
+    }
+}
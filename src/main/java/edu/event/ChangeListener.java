@@ -0,0 +1,17 @@
+package edu.ccrm.event;
+
+import java.util.List;
+
+/**
+ * Subscriber to domain changes
+ * Called on the subscriber's own thread with events in publish order
+ */
+@FunctionalInterface
+public interface ChangeListener {
+    
+    /**
+     * Handle a batch of changes
+     * @param events one or more events, oldest first; only valid during the call
+     */
+    void onEvents(List<ChangeEvent> events);
+}
@@ -0,0 +1,16 @@
+package edu.ccrm.event;
+
+/**
+ * Kinds of domain change published on the event bus
+ */
+public enum ChangeType {
+    STUDENT_ADDED,
+    STUDENT_UPDATED,
+    STUDENT_REMOVED,
+    COURSE_ADDED,
+    COURSE_UPDATED,
+    COURSE_REMOVED,
+    ENROLLMENT_ADDED,
+    ENROLLMENT_DROPPED,
+    GRADE_ASSIGNED
+}
@@ -0,0 +1,365 @@
+package edu.ccrm.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process bus for domain change events
+ * Publishers append to a bounded ring buffer; every subscriber runs on its own
+ * daemon thread with its own read cursor and receives events in batches, so a
+ * slow subscriber never runs on the mutating thread. When the slowest subscriber
+ * is a full ring behind, the backpressure policy decides whether to wait or drop.
+ * Slots are cleared once every subscriber has read them, so the ring does not keep
+ * delivered events reachable. A listener that throws an Error is stopped and no
+ * longer holds publishers back. Listeners must not publish with the BLOCK policy -
+ * they would wait on themselves.
+ */
+public class EventBus implements AutoCloseable {
+    
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int DEFAULT_MAX_BATCH = 256;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    
+    private final AtomicReferenceArray<Slot> ring;
+    private final int mask;
+    private final int maxBatch;
+    private final BackpressurePolicy policy;
+    private final long timeoutNanos;
+    private final List<Subscription> subscriptions;
+    private final AtomicLong dropped;
+    private final AtomicLong released;
+    private final long startNanos;
+    
+    // Sequence of the next event to publish - events below it are readable
+    private volatile long cursor;
+    private volatile boolean closed;
+    
+    public EventBus() {
+        this(DEFAULT_CAPACITY, BackpressurePolicy.TIMEOUT, DEFAULT_TIMEOUT_MILLIS);
+    }
+    
+    /**
+     * Create an event bus
+     * @param capacity ring size, rounded up to a power of two
+     * @param policy what publishers do when the ring is full
+     * @param timeoutMillis how long TIMEOUT waits before dropping
+     */
+    public EventBus(int capacity, BackpressurePolicy policy, long timeoutMillis) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Event bus capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.maxBatch = Math.min(DEFAULT_MAX_BATCH, size);
+        this.policy = policy;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.subscriptions = new CopyOnWriteArrayList<>();
+        this.dropped = new AtomicLong();
+        this.released = new AtomicLong();
+        this.startNanos = System.nanoTime();
+    }
+    
+    /**
+     * Publish an event to all subscribers
+     * @param event the change to publish
+     * @return true if queued, false if dropped by backpressure or the bus is closed
+     */
+    public synchronized boolean publish(ChangeEvent event) {
+        if (closed) {
+            return false;
+        }
+        long sequence = cursor;
+        if (sequence - slowestConsumed(sequence) >= ring.length() && !awaitSpace(sequence)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        // With no subscriber the event is never read, so there is nothing to keep
+        if (!subscriptions.isEmpty()) {
+            ring.set((int) (sequence & mask), new Slot(sequence, event));
+        }
+        cursor = sequence + 1;
+        
+        for (Subscription subscription : subscriptions) {
+            if (subscription.idle) {
+                LockSupport.unpark(subscription.thread);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Wait for the slowest subscriber to free the slot for a sequence
+     * @return true if the slot is free, false if the event should be dropped
+     */
+    private boolean awaitSpace(long sequence) {
+        if (policy == BackpressurePolicy.DROP) {
+            return false;
+        }
+        long deadline = System.nanoTime() + timeoutNanos;
+        while (sequence - slowestConsumed(sequence) >= ring.length()) {
+            if (closed || (policy == BackpressurePolicy.TIMEOUT && System.nanoTime() - deadline >= 0)) {
+                return false;
+            }
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+        return true;
+    }
+    
+    /**
+     * Get the lowest sequence not yet read by every running subscriber
+     * Stopped subscribers are skipped so they cannot hold publishers back
+     */
+    private long slowestConsumed(long sequence) {
+        long slowest = sequence;
+        for (Subscription subscription : subscriptions) {
+            if (subscription.error == null) {
+                slowest = Math.min(slowest, subscription.consumed);
+            }
+        }
+        return slowest;
+    }
+    
+    /**
+     * Clear the slots every running subscriber has read
+     * A publisher may already have reused a slot for a later sequence, so a slot is
+     * only cleared while it still holds the sequence being released.
+     */
+    private void release() {
+        while (true) {
+            long from = released.get();
+            long upTo = slowestConsumed(cursor);
+            if (upTo <= from) {
+                return;
+            }
+            if (released.compareAndSet(from, upTo)) {
+                for (long sequence = Math.max(from, upTo - ring.length()); sequence < upTo; sequence++) {
+                    int index = (int) (sequence & mask);
+                    Slot slot = ring.get(index);
+                    if (slot != null && slot.sequence == sequence) {
+                        ring.compareAndSet(index, slot, null);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Start delivering events published from now on to a listener
+     * @param name unique subscriber name, also used for its thread
+     * @param listener the listener to call with each batch
+     */
+    public synchronized void subscribe(String name, ChangeListener listener) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        if (findSubscription(name) != null) {
+            throw new IllegalArgumentException("Subscriber already registered: " + name);
+        }
+        Subscription subscription = new Subscription(name, listener, cursor);
+        subscriptions.add(subscription);
+        subscription.thread.start();
+    }
+    
+    /**
+     * Stop a subscriber after its current batch; undelivered events are skipped
+     * @param name the subscriber name
+     * @return true if the subscriber existed
+     */
+    public boolean unsubscribe(String name) {
+        Subscription subscription = findSubscription(name);
+        if (subscription == null) {
+            return false;
+        }
+        subscriptions.remove(subscription);
+        subscription.active = false;
+        LockSupport.unpark(subscription.thread);
+        join(subscription.thread);
+        release();
+        return true;
+    }
+    
+    /**
+     * Stop accepting events, let every subscriber drain what was published, and stop its thread
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+        }
+        for (Subscription subscription : subscriptions) {
+            join(subscription.thread);
+        }
+    }
+    
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private Subscription findSubscription(String name) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.name.equals(name)) {
+                return subscription;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Get the number of events accepted by the bus
+     * @return published event count
+     */
+    public long getPublishedCount() {
+        return cursor;
+    }
+    
+    /**
+     * Get the number of events discarded by backpressure
+     * @return dropped event count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * Get the number of events a subscriber has processed
+     * @param name the subscriber name
+     * @return delivered event count, or 0 if there is no such subscriber
+     */
+    public long getDeliveredCount(String name) {
+        Subscription subscription = findSubscription(name);
+        return subscription != null ? subscription.delivered : 0;
+    }
+    
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+    
+    /**
+     * Describe throughput, drops and per-subscriber lag
+     * @return multi-line statistics report
+     */
+    public String getStatistics() {
+        long published = cursor;
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-3);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Event bus (%s, ring %d): %d published, %d dropped, %.1f events/s%n",
+                                policy, ring.length(), published, dropped.get(), published / seconds));
+        for (Subscription subscription : subscriptions) {
+            long batches = subscription.batches;
+            sb.append(String.format("  %-16s delivered %d in %d batches (avg %.1f), lag %d, failures %d%n",
+                                    subscription.name, subscription.delivered, batches,
+                                    batches == 0 ? 0.0 : (double) subscription.delivered / batches,
+                                    published - subscription.consumed, subscription.failures));
+            Throwable error = subscription.error;
+            if (error != null) {
+                sb.append(String.format("  %-16s stopped by %s%n", "", error));
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * A published event and its sequence, so a slot can be told apart from its reuse
+     */
+    private static final class Slot {
+        private final long sequence;
+        private final ChangeEvent event;
+        
+        Slot(long sequence, ChangeEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+    
+    /**
+     * One subscriber: a read cursor into the ring plus the thread that advances it
+     */
+    private final class Subscription implements Runnable {
+        private final String name;
+        private final ChangeListener listener;
+        private final Thread thread;
+        
+        // Written only by the subscriber thread, read by publishers and statistics
+        private volatile long consumed;
+        private volatile long delivered;
+        private volatile long batches;
+        private volatile long failures;
+        private volatile boolean idle;
+        private volatile boolean active = true;
+        // Set when the listener threw an Error; the subscriber has stopped
+        private volatile Throwable error;
+        
+        Subscription(String name, ChangeListener listener, long start) {
+            this.name = name;
+            this.listener = listener;
+            this.consumed = start;
+            this.thread = new Thread(this, "ccrm-events-" + name);
+            this.thread.setDaemon(true);
+        }
+        
+        @Override
+        public void run() {
+            try {
+                deliver();
+            } catch (Throwable e) {
+                // The listener is in an unknown state after an Error - stop it and free its slots
+                error = e;
+                release();
+            }
+        }
+        
+        private void deliver() {
+            List<ChangeEvent> batch = new ArrayList<>(maxBatch);
+            List<ChangeEvent> view = Collections.unmodifiableList(batch);
+            while (active) {
+                long next = consumed;
+                long available = cursor;
+                if (available > next) {
+                    long end = Math.min(available, next + maxBatch);
+                    for (long sequence = next; sequence < end; sequence++) {
+                        Slot slot = ring.get((int) (sequence & mask));
+                        if (slot == null || slot.sequence != sequence) {
+                            // Released after this subscriber was removed
+                            return;
+                        }
+                        batch.add(slot.event);
+                    }
+                    try {
+                        listener.onEvents(view);
+                    } catch (RuntimeException e) {
+                        failures++;
+                    }
+                    batch.clear();
+                    delivered += end - next;
+                    batches++;
+                    consumed = end;
+                    release();
+                    continue;
+                }
+                if (closed) {
+                    break;
+                }
+                // Publishers check idle after moving the cursor, so recheck before parking
+                idle = true;
+                if (cursor == next && !closed && active) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                idle = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies files over AsynchronousFileChannels without a thread waiting on the disk
+ * Each file is split into chunks with a direct buffer per chunk in flight: a completed
+ * read starts the write of that chunk, and a completed write starts the next read into
+ * the same buffer. Files are copied one after another. A throttle delays reads instead
+ * of sleeping. The copy stops at the next completion once its owner is done, e.g. cancelled.
+ */
+final class AsyncFileCopier {
+    
+    /**
+     * A direct buffer, the file it belongs to and the offset of its contents
+     */
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        AsynchronousFileChannel in;
+        AsynchronousFileChannel out;
+        long position;
+        
+        Chunk(int size) {
+            this.buffer = ByteBuffer.allocateDirect(size);
+        }
+    }
+    
+    private final Deque<Path[]> files;
+    private final List<Chunk> chunks;
+    private final IoThrottle throttle;
+    private final ProgressListener listener;
+    private final long totalBytes;
+    private final AtomicLong copiedBytes = new AtomicLong();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+    private final CompletionHandler<Integer, Chunk> readHandler = new ReadHandler();
+    private final CompletionHandler<Integer, Chunk> writeHandler = new WriteHandler();
+    private Future<?> owner;
+    
+    // The file being copied, guarded by this
+    private AsynchronousFileChannel in;
+    private AsynchronousFileChannel out;
+    private long size;
+    private long nextPosition;
+    private int active;
+    private volatile Throwable failure;
+    
+    /**
+     * Create a copier
+     * @param files source and target of each file, in copy order
+     * @param totalBytes combined size of the files, for progress reports
+     * @param buffers chunks to keep in flight per file
+     * @param chunkSize bytes per chunk
+     * @param throttle rate limiter, or null for unlimited
+     * @param listener progress callback, or null
+     */
+    AsyncFileCopier(List<Path[]> files, long totalBytes, int buffers, int chunkSize,
+                    IoThrottle throttle, ProgressListener listener) {
+        this.files = new ArrayDeque<>(files);
+        this.totalBytes = totalBytes;
+        this.chunks = new ArrayList<>(buffers);
+        for (int i = 0; i < buffers; i++) {
+            chunks.add(new Chunk(chunkSize));
+        }
+        this.throttle = throttle;
+        this.listener = listener;
+    }
+    
+    /**
+     * Start copying
+     * @param owner operation the copy belongs to; copying stops once it is done
+     * @return completes once every file is copied, or exceptionally once the copy has
+     *         stopped after a failure or cancellation and no I/O is left in flight
+     */
+    CompletableFuture<Void> start(Future<?> owner) {
+        this.owner = owner;
+        nextFile();
+        return done;
+    }
+    
+    /**
+     * Close the finished file and open the next, or complete once there are none left
+     */
+    private synchronized void nextFile() {
+        while (true) {
+            closeChannels();
+            if (failure == null && owner.isDone()) {
+                failure = new CancellationException("Copy cancelled");
+            }
+            if (failure != null) {
+                done.completeExceptionally(failure);
+                return;
+            }
+            Path[] file = files.poll();
+            if (file == null) {
+                done.complete(null);
+                return;
+            }
+            try {
+                in = AsynchronousFileChannel.open(file[0], StandardOpenOption.READ);
+                out = AsynchronousFileChannel.open(file[1], StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                                   StandardOpenOption.TRUNCATE_EXISTING);
+                size = in.size();
+            } catch (IOException e) {
+                failure = new IOException("Failed to copy: " + file[0] + ": " + e.getMessage(), e);
+                continue;
+            }
+            nextPosition = 0;
+            for (Chunk chunk : chunks) {
+                if (nextPosition >= size) {
+                    break;
+                }
+                active++;
+                readNext(chunk);
+            }
+            // Empty files are done as soon as they are created
+            if (active > 0) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Fill a chunk from the next unread part of the file, paced by the throttle
+     */
+    private void readNext(Chunk chunk) {
+        int length = (int) Math.min(chunk.buffer.capacity(), size - nextPosition);
+        chunk.in = in;
+        chunk.out = out;
+        chunk.position = nextPosition;
+        chunk.buffer.clear().limit(length);
+        nextPosition += length;
+        long delay = throttle != null ? throttle.delayNanos(length) : 0;
+        if (delay > 0) {
+            CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS).execute(() -> read(chunk));
+        } else {
+            read(chunk);
+        }
+    }
+    
+    private void read(Chunk chunk) {
+        if (stopping()) {
+            release(chunk);
+            return;
+        }
+        chunk.in.read(chunk.buffer, chunk.position + chunk.buffer.position(), chunk, readHandler);
+    }
+    
+    private void write(Chunk chunk) {
+        chunk.out.write(chunk.buffer, chunk.position + chunk.buffer.position(), chunk, writeHandler);
+    }
+    
+    /**
+     * A chunk is written: reuse it for the next part of the file, or move on once all chunks are idle
+     */
+    private synchronized void release(Chunk chunk) {
+        if (!stopping() && nextPosition < size) {
+            readNext(chunk);
+        } else if (--active == 0) {
+            nextFile();
+        }
+    }
+    
+    private boolean stopping() {
+        return failure != null || owner.isDone();
+    }
+    
+    private synchronized void fail(Throwable cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+    }
+    
+    private void closeChannels() {
+        for (AsynchronousFileChannel channel : new AsynchronousFileChannel[] {in, out}) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+        }
+        in = null;
+        out = null;
+    }
+    
+    private final class ReadHandler implements CompletionHandler<Integer, Chunk> {
+        @Override
+        public void completed(Integer count, Chunk chunk) {
+            // A short read leaves the rest of the chunk to read; -1 means the file shrank while copying
+            if (count > 0 && chunk.buffer.hasRemaining() && !stopping()) {
+                read(chunk);
+                return;
+            }
+            chunk.buffer.flip();
+            if (!chunk.buffer.hasRemaining() || stopping()) {
+                release(chunk);
+            } else {
+                write(chunk);
+            }
+        }
+        
+        @Override
+        public void failed(Throwable e, Chunk chunk) {
+            fail(e);
+            release(chunk);
+        }
+    }
+    
+    private final class WriteHandler implements CompletionHandler<Integer, Chunk> {
+        @Override
+        public void completed(Integer count, Chunk chunk) {
+            long copied = copiedBytes.addAndGet(count);
+            if (listener != null) {
+                try {
+                    listener.progress(copied, totalBytes);
+                } catch (RuntimeException e) {
+                    fail(e);
+                }
+            }
+            if (chunk.buffer.hasRemaining() && !stopping()) {
+                write(chunk);
+            } else {
+                release(chunk);
+            }
+        }
+        
+        @Override
+        public void failed(Throwable e, Chunk chunk) {
+            fail(e);
+            release(chunk);
+        }
+    }
+}
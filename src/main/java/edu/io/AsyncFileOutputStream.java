@@ -0,0 +1,194 @@
+package edu.ccrm.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+
+/**
+ * Write-behind file output over an AsynchronousFileChannel
+ * Bytes are collected in direct buffers; each full buffer is written asynchronously while
+ * the caller fills the next, so up to the given number of writes are in flight at once.
+ * The caller only waits when every buffer is still being written. Write failures are
+ * rethrown by the next write or by close. Once the owning operation is done - typically
+ * cancelled - further writes fail, so the code producing the output stops early.
+ */
+final class AsyncFileOutputStream extends OutputStream {
+    
+    private final AsynchronousFileChannel channel;
+    private final BlockingQueue<ByteBuffer> free;
+    private final int bufferCount;
+    private final Future<?> owner;
+    private final LongConsumer written;
+    private final WriteHandler handler;
+    private ByteBuffer current;
+    private long position;
+    private volatile Throwable failure;
+    private boolean closed;
+    
+    /**
+     * Create or truncate a file for writing
+     * @param file the file
+     * @param buffers writes to keep in flight
+     * @param bufferSize bytes per write
+     * @param owner operation the output belongs to; writing stops once it is done
+     * @param written receives the size of each completed write
+     * @throws IOException if the file cannot be opened
+     */
+    AsyncFileOutputStream(Path file, int buffers, int bufferSize, Future<?> owner, LongConsumer written)
+            throws IOException {
+        this.channel = AsynchronousFileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING);
+        this.free = new ArrayBlockingQueue<>(buffers);
+        this.bufferCount = buffers;
+        this.owner = owner;
+        this.written = written;
+        for (int i = 0; i < buffers; i++) {
+            free.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        this.handler = new WriteHandler();
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        buffer().put((byte) b);
+        if (!current.hasRemaining()) {
+            submit();
+        }
+    }
+    
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        while (length > 0) {
+            ByteBuffer buffer = buffer();
+            int count = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+            if (!buffer.hasRemaining()) {
+                submit();
+            }
+        }
+    }
+    
+    /**
+     * Start writing what has been collected; does not wait for it to reach the disk
+     */
+    @Override
+    public void flush() throws IOException {
+        if (current != null && current.position() > 0) {
+            submit();
+        }
+    }
+    
+    /**
+     * Write what is left and wait for every write in flight
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+            // Every buffer is back in the queue once nothing is in flight
+            for (int i = 0; i < bufferCount; i++) {
+                free.take();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while finishing writes");
+        } finally {
+            channel.close();
+        }
+        checkFailure();
+    }
+    
+    private ByteBuffer buffer() throws IOException {
+        if (current == null) {
+            checkFailure();
+            try {
+                current = free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for a write to complete");
+            }
+        }
+        return current;
+    }
+    
+    private void submit() throws IOException {
+        checkFailure();
+        ByteBuffer buffer = current;
+        current = null;
+        buffer.flip();
+        PendingWrite write = new PendingWrite(buffer, position);
+        position += buffer.remaining();
+        channel.write(buffer, write.position, write, handler);
+    }
+    
+    private void checkFailure() throws IOException {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause.getMessage(), cause);
+        }
+        if (owner.isDone()) {
+            throw new InterruptedIOException("Write stopped because the operation was cancelled or failed");
+        }
+    }
+    
+    /**
+     * A buffer being written and the file offset of its next byte
+     */
+    private static final class PendingWrite {
+        final ByteBuffer buffer;
+        long position;
+        
+        PendingWrite(ByteBuffer buffer, long position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+    }
+    
+    /**
+     * Keeps writing a buffer until all of it is on disk, then hands it back
+     */
+    private final class WriteHandler implements CompletionHandler<Integer, PendingWrite> {
+        @Override
+        public void completed(Integer count, PendingWrite write) {
+            write.position += count;
+            if (write.buffer.hasRemaining()) {
+                channel.write(write.buffer, write.position, write, this);
+                return;
+            }
+            try {
+                written.accept(write.buffer.limit());
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            release(write.buffer);
+        }
+        
+        @Override
+        public void failed(Throwable e, PendingWrite write) {
+            if (failure == null) {
+                failure = e;
+            }
+            release(write.buffer);
+        }
+        
+        private void release(ByteBuffer buffer) {
+            buffer.clear();
+            free.add(buffer);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package edu.ccrm.io;
+
+import edu.ccrm.config.AppConfig;
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.event.EventBus;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Background backup scheduler
+ * Takes a backup every configured interval, or sooner once enough changes have
+ * been published on the event bus. Each run exports students, courses and enrollments
+ * from O(1) service snapshots, copies over asynchronous channels with a bandwidth
+ * throttle and then applies the retention count, all driven from a single daemon
+ * thread so runs never overlap and the console never waits. The export is staged
+ * and moved into place like a manual export, so the two never overwrite each
+ * other's files half way.
+ */
+public class BackupScheduler implements AutoCloseable {
+    
+    private static final String SUBSCRIBER_NAME = "backup";
+    
+    private final Supplier<List<Student>> students;
+    private final Supplier<List<Course>> courses;
+    private final Supplier<List<Enrollment>> enrollments;
+    private final ImportExportService importExportService;
+    private final BackupService backupService;
+    private final AppConfig config;
+    private final ScheduledExecutorService executor;
+    
+    private final AtomicLong changesSinceBackup = new AtomicLong();
+    private final AtomicBoolean backupPending = new AtomicBoolean();
+    private final AtomicLong completedBackups = new AtomicLong();
+    private EventBus eventBus;
+    private volatile Path lastBackup;
+    private volatile LocalDateTime lastBackupTime;
+    private volatile String lastError;
+    private volatile CompletableFuture<Void> runningExport;
+    private volatile CompletableFuture<Path> runningCopy;
+    private volatile long copiedBytes;
+    private volatile long copyTotalBytes;
+    
+    /**
+     * Create a scheduler; nothing runs until start or requestBackup is called
+     * @param students supplier of a consistent student snapshot
+     * @param courses supplier of a consistent course snapshot
+     * @param enrollments supplier of a consistent enrollment snapshot
+     * @param importExportService service that writes the export files
+     * @param backupService service that copies and prunes backups
+     */
+    public BackupScheduler(Supplier<List<Student>> students, Supplier<List<Course>> courses,
+                           Supplier<List<Enrollment>> enrollments,
+                           ImportExportService importExportService, BackupService backupService) {
+        this.students = students;
+        this.courses = courses;
+        this.enrollments = enrollments;
+        this.importExportService = importExportService;
+        this.backupService = backupService;
+        this.config = AppConfig.getInstance();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-backup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+    
+    /**
+     * Start periodic backups and, if a bus is given, change-triggered backups
+     * Does nothing when backup.auto.enabled is false
+     * @param eventBus bus to count changes on, or null for periodic backups only
+     */
+    public void start(EventBus eventBus) {
+        if (!config.isAutoBackupEnabled()) {
+            return;
+        }
+        int threshold = config.getBackupChangeThreshold();
+        if (eventBus != null && threshold > 0) {
+            this.eventBus = eventBus;
+            eventBus.subscribe(SUBSCRIBER_NAME, events -> {
+                if (changesSinceBackup.addAndGet(events.size()) >= threshold) {
+                    requestBackup();
+                }
+            });
+        }
+        int interval = config.getBackupIntervalMinutes();
+        if (interval > 0) {
+            executor.scheduleWithFixedDelay(this::runScheduled, interval, interval, TimeUnit.MINUTES);
+        }
+    }
+    
+    /**
+     * Queue a backup on the background thread unless one is already waiting
+     * @return future for the queued backup, or null if one was already pending
+     */
+    public Future<Path> requestBackup() {
+        if (!backupPending.compareAndSet(false, true)) {
+            return null;
+        }
+        return executor.submit(() -> {
+            try {
+                return runBackup();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+    
+    /**
+     * Periodic run - skipped when the event bus shows nothing has changed
+     */
+    private void runScheduled() {
+        if (eventBus != null && changesSinceBackup.get() == 0) {
+            return;
+        }
+        if (backupPending.compareAndSet(false, true)) {
+            try {
+                runBackup();
+            } catch (IOException e) {
+                // Already recorded in lastError; keep the schedule alive
+            }
+        }
+    }
+    
+    private Path runBackup() throws IOException {
+        backupPending.set(false);
+        long changes = changesSinceBackup.getAndSet(0);
+        try {
+            CompletableFuture<Void> export = importExportService.exportDataAsync(
+                students.get(), courses.get(), enrollments.get(), importExportService.getDefaultExportDirectory(), null);
+            runningExport = export;
+            await(export);
+            copiedBytes = 0;
+            copyTotalBytes = 0;
+            CompletableFuture<Path> copy = backupService.createBackupAsync(
+                config.getBackupThrottleKbps() * 1024L, (bytes, totalBytes) -> {
+                    copiedBytes = bytes;
+                    copyTotalBytes = totalBytes;
+                });
+            runningCopy = copy;
+            Path backupDir = await(copy);
+            backupService.cleanupOldBackups(config.getBackupRetentionCount());
+            lastBackup = backupDir;
+            lastBackupTime = LocalDateTime.now();
+            lastError = null;
+            completedBackups.incrementAndGet();
+            return backupDir;
+        } catch (IOException | RuntimeException e) {
+            // Count the changes again so the next run still picks them up
+            changesSinceBackup.addAndGet(changes);
+            lastError = e.getMessage();
+            throw e;
+        }
+    }
+    
+    /**
+     * Wait for the asynchronous export or copy of a backup
+     */
+    private static <T> T await(CompletableFuture<T> step) throws IOException {
+        try {
+            return step.get();
+        } catch (CancellationException e) {
+            throw new InterruptedIOException("Backup cancelled");
+        } catch (InterruptedException e) {
+            step.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Backup interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Backup failed: " + cause.getMessage(), cause);
+        }
+    }
+    
+    /**
+     * Stop scheduling, cancel a running backup export or copy and detach from the event bus
+     * A cancelled export keeps the previous files; a cancelled copy removes its partial backup directory
+     */
+    @Override
+    public void close() {
+        if (eventBus != null) {
+            eventBus.unsubscribe(SUBSCRIBER_NAME);
+        }
+        executor.shutdown();
+        CompletableFuture<Void> export = runningExport;
+        if (export != null) {
+            export.cancel(false);
+        }
+        CompletableFuture<Path> copy = runningCopy;
+        if (copy != null) {
+            copy.cancel(false);
+        }
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Get the most recent backup taken by this scheduler
+     * @return backup directory, or null if none yet
+     */
+    public Path getLastBackup() {
+        return lastBackup;
+    }
+    
+    /**
+     * Describe scheduler settings and progress
+     * @return status text
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Auto backup: %s, every %d min or %d changes, throttle %d KB/s, keep %d%n",
+                                config.isAutoBackupEnabled() ? "enabled" : "disabled",
+                                config.getBackupIntervalMinutes(), config.getBackupChangeThreshold(),
+                                config.getBackupThrottleKbps(), config.getBackupRetentionCount()));
+        sb.append(String.format("Backups taken: %d, pending: %s, changes since last: %d%n",
+                                completedBackups.get(), backupPending.get() ? "yes" : "no", changesSinceBackup.get()));
+        CompletableFuture<Path> copy = runningCopy;
+        if (copy != null && !copy.isDone()) {
+            sb.append(String.format("Copying: %d of %d KB%n", copiedBytes / 1024, copyTotalBytes / 1024));
+        }
+        if (lastBackup != null) {
+            sb.append("Last backup: ").append(lastBackup).append(" at ").append(lastBackupTime).append(System.lineSeparator());
+        }
+        if (lastError != null) {
+            sb.append("Last error: ").append(lastError).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+}
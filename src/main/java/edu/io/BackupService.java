@@ -2,9 +2,14 @@ package edu.ccrm.io;
 
 import edu.ccrm.config.AppConfig;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.*;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 /**
@@ -14,7 +19,10 @@ import java.util.stream.Stream;
 public class BackupService {
     
     private static final DateTimeFormatter TIMESTAMP_FORMATTER = 
-            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final int COPY_CHUNK_SIZE = 64 * 1024;
+    private static final int ASYNC_CHUNK_SIZE = 256 * 1024;
+    private static final String PARTIAL_PREFIX = "partial-";
     
     private final AppConfig config;
     
@@ -29,6 +37,23 @@ public class BackupService {
      * @throws IOException if backup operations fail
      */
     public Path performBackup() throws IOException {
+        Path backupDir = createBackup(0);
+        if (Files.exists(Paths.get(config.getDataPath()))) {
+            System.out.println("Backup completed successfully: " + backupDir);
+        } else {
+            System.out.println("Source data directory doesn't exist, creating empty backup: " + backupDir);
+        }
+        return backupDir;
+    }
+    
+    /**
+     * Create a timestamped backup quietly, with the copy paced to a bandwidth limit
+     * Used by the background scheduler so it neither prints nor saturates the disk
+     * @param bytesPerSecond copy rate limit, 0 for unlimited
+     * @return path to the created backup directory
+     * @throws IOException if backup operations fail
+     */
+    public Path createBackup(long bytesPerSecond) throws IOException {
         // Generate timestamp for backup directory name
         String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
         String backupDirName = "backup-" + timestamp;
@@ -45,22 +70,103 @@ public class BackupService {
         
         if (Files.exists(sourceDir)) {
             // Copy all files from source to backup directory
-            copyDirectoryRecursively(sourceDir, backupDir);
-            System.out.println("Backup completed successfully: " + backupDir);
-        } else {
-            System.out.println("Source data directory doesn't exist, creating empty backup: " + backupDir);
+            copyDirectoryRecursively(sourceDir, backupDir, bytesPerSecond);
         }
         
         return backupDir;
     }
     
+    /**
+     * Create a timestamped backup without blocking the caller
+     * The caller only lists the files; they are copied over asynchronous channels with
+     * several chunks in flight, paced by the bandwidth limit without holding a thread.
+     * The copy goes to a partial- directory that is renamed to backup- once complete, so
+     * listBackups never sees an incomplete backup; cancelling the returned future, or a
+     * failed copy, removes the partial directory.
+     * @param bytesPerSecond copy rate limit, 0 for unlimited
+     * @param listener progress callback, or null
+     * @return completes with the backup directory
+     */
+    public CompletableFuture<Path> createBackupAsync(long bytesPerSecond, ProgressListener listener) {
+        CompletableFuture<Path> backup = new CompletableFuture<>();
+        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMATTER);
+        Path backupBasePath = Paths.get(config.getBackupPath());
+        Path backupDir = backupBasePath.resolve("backup-" + timestamp);
+        Path partialDir = backupBasePath.resolve(PARTIAL_PREFIX + timestamp);
+        Path sourceDir = Paths.get(config.getDataPath());
+        
+        List<Path[]> files = new ArrayList<>();
+        long totalBytes;
+        try {
+            Files.createDirectories(partialDir);
+            totalBytes = Files.exists(sourceDir) ? planCopy(sourceDir, partialDir, files) : 0;
+        } catch (IOException | RuntimeException e) {
+            try {
+                deleteDirectoryRecursively(partialDir);
+            } catch (IOException | RuntimeException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            backup.completeExceptionally(e);
+            return backup;
+        }
+        
+        IoThrottle throttle = bytesPerSecond > 0 ? new IoThrottle(bytesPerSecond) : null;
+        AsyncFileCopier copier = new AsyncFileCopier(files, totalBytes, config.getAsyncIoWrites(),
+                                                     ASYNC_CHUNK_SIZE, throttle, listener);
+        // The copy completes only once no I/O is in flight, so the partial backup can go safely
+        copier.start(backup).whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                try {
+                    Files.move(partialDir, backupDir);
+                    backup.complete(backupDir);
+                    return;
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            try {
+                deleteDirectoryRecursively(partialDir);
+            } catch (IOException | RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+            backup.completeExceptionally(failure);
+        });
+        return backup;
+    }
+    
+    /**
+     * Create the target directories of a copy and list the files to copy
+     * @param source source directory
+     * @param target target directory
+     * @param files receives the source and target of each file
+     * @return combined size of the files in bytes
+     * @throws IOException if a directory cannot be read or created
+     */
+    private long planCopy(Path source, Path target, List<Path[]> files) throws IOException {
+        long totalBytes = 0;
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path sourcePath : (Iterable<Path>) paths::iterator) {
+                Path targetPath = target.resolve(source.relativize(sourcePath));
+                if (Files.isDirectory(sourcePath)) {
+                    Files.createDirectories(targetPath);
+                } else {
+                    files.add(new Path[] {sourcePath, targetPath});
+                    totalBytes += Files.size(sourcePath);
+                }
+            }
+        }
+        return totalBytes;
+    }
+    
     /**
      * Copy directory contents recursively
      * @param source source directory
      * @param target target directory
+     * @param bytesPerSecond copy rate limit, 0 for unlimited
      * @throws IOException if copy operations fail
      */
-    private void copyDirectoryRecursively(Path source, Path target) throws IOException {
+    private void copyDirectoryRecursively(Path source, Path target, long bytesPerSecond) throws IOException {
+        IoThrottle throttle = bytesPerSecond > 0 ? new IoThrottle(bytesPerSecond) : null;
         // Use try-with-resources with Files.walk for recursive directory traversal
         try (Stream<Path> paths = Files.walk(source)) {
             paths.forEach(sourcePath -> {
@@ -69,8 +175,10 @@ public class BackupService {
                     
                     if (Files.isDirectory(sourcePath)) {
                         Files.createDirectories(targetPath);
-                    } else {
+                    } else if (throttle == null) {
                         Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+                    } else {
+                        copyThrottled(sourcePath, targetPath, throttle);
                     }
                 } catch (IOException e) {
                     throw new RuntimeException("Failed to copy: " + sourcePath, e);
@@ -79,6 +187,25 @@ public class BackupService {
         }
     }
     
+    /**
+     * Copy one file in chunks, pausing as needed to stay under the throttle's rate
+     * @param source source file
+     * @param target target file
+     * @param throttle shared rate limiter for the whole backup
+     * @throws IOException if copy operations fail
+     */
+    private void copyThrottled(Path source, Path target, IoThrottle throttle) throws IOException {
+        byte[] chunk = new byte[COPY_CHUNK_SIZE];
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = Files.newOutputStream(target)) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+                throttle.acquire(read);
+            }
+        }
+    }
+    
     /**
      * Calculate directory size using recursion
      * Public method that calls private recursive helper
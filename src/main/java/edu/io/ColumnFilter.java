@@ -0,0 +1,81 @@
+package edu.ccrm.io;
+
+import java.time.LocalDate;
+
+/**
+ * A predicate on one column of a columnar file, pushed down to the reader
+ * Row groups whose min/max statistics cannot match are skipped without decoding.
+ * Bounds are inclusive; numbers, dates and strings (or enums, by name) are accepted.
+ */
+public final class ColumnFilter {
+    
+    private final String column;
+    private final Object min;
+    private final Object max;
+    
+    private ColumnFilter(String column, Object min, Object max) {
+        this.column = column;
+        this.min = min;
+        this.max = max;
+    }
+    
+    /**
+     * Match rows whose column equals a value
+     * @param column the column name
+     * @param value the value
+     * @return the filter
+     */
+    public static ColumnFilter eq(String column, Object value) {
+        return new ColumnFilter(column, value, value);
+    }
+    
+    /**
+     * Match rows whose column lies in a range
+     * @param column the column name
+     * @param min inclusive lower bound
+     * @param max inclusive upper bound
+     * @return the filter
+     */
+    public static ColumnFilter between(String column, Object min, Object max) {
+        return new ColumnFilter(column, min, max);
+    }
+    
+    public String getColumn() {
+        return column;
+    }
+    
+    boolean mightMatch(long groupMin, long groupMax) {
+        return toLong(max) >= groupMin && toLong(min) <= groupMax;
+    }
+    
+    boolean mightMatch(String groupMin, String groupMax) {
+        return text(max).compareTo(groupMin) >= 0 && text(min).compareTo(groupMax) <= 0;
+    }
+    
+    boolean matches(long value) {
+        return value >= toLong(min) && value <= toLong(max);
+    }
+    
+    boolean matches(String value) {
+        return value.compareTo(text(min)) >= 0 && value.compareTo(text(max)) <= 0;
+    }
+    
+    private static long toLong(Object bound) {
+        if (bound instanceof LocalDate) {
+            return ((LocalDate) bound).toEpochDay();
+        }
+        if (bound instanceof Number) {
+            return ((Number) bound).longValue();
+        }
+        throw new IllegalArgumentException("Not a numeric bound: " + bound);
+    }
+    
+    private static String text(Object bound) {
+        return bound instanceof Enum ? ((Enum<?>) bound).name() : String.valueOf(bound);
+    }
+    
+    @Override
+    public String toString() {
+        return min.equals(max) ? column + " = " + min : column + " in [" + min + ", " + max + "]";
+    }
+}
@@ -0,0 +1,106 @@
+package edu.ccrm.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Shared definitions of the columnar export format (.ccol)
+ *
+ * Layout: magic, column count, then name/type/encoding of each column, total row
+ * count and row group count. Each row group starts with its row count, then the
+ * min/max statistics and byte length of every column chunk, followed by the chunks
+ * themselves - so a reader can skip whole groups, or single columns, unread.
+ * Numbers are zigzag varints and strings are length-prefixed UTF-8.
+ */
+final class ColumnarFormat {
+    
+    static final byte[] MAGIC = {'C', 'C', 'R', 'M', 'C', 'O', 'L', '1'};
+    static final int DEFAULT_ROW_GROUP_SIZE = 8192;
+    
+    /**
+     * Value type of a column; DATE is stored as its epoch day
+     */
+    enum Type {
+        LONG, INT, DATE, STRING;
+        
+        boolean isNumeric() {
+            return this != STRING;
+        }
+    }
+    
+    /**
+     * How the values of a column chunk are stored
+     * PLAIN and RUN_LENGTH work for every type, DELTA only for numbers and
+     * DICTIONARY only for strings (RUN_LENGTH strings are dictionary codes in runs)
+     */
+    enum Encoding {
+        PLAIN, DELTA, DICTIONARY, RUN_LENGTH;
+        
+        boolean supports(Type type) {
+            switch (this) {
+                case DELTA:
+                    return type.isNumeric();
+                case DICTIONARY:
+                    return !type.isNumeric();
+                default:
+                    return true;
+            }
+        }
+    }
+    
+    private ColumnarFormat() {
+    }
+    
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            out.write((int) ((zigzag & 0x7F) | 0x80));
+            zigzag >>>= 7;
+        }
+        out.write((int) zigzag);
+    }
+    
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+    
+    /**
+     * Cursor over the bytes of one column chunk
+     */
+    static final class ChunkReader {
+        private final byte[] data;
+        private int position;
+        
+        ChunkReader(byte[] data) {
+            this.data = data;
+        }
+        
+        long readVarLong() throws IOException {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position >= data.length || shift > 63) {
+                    throw new IOException("Corrupt column chunk");
+                }
+                b = data[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+        
+        String readString() throws IOException {
+            int length = (int) readVarLong();
+            if (length < 0 || position + length > data.length) {
+                throw new IOException("Corrupt column chunk");
+            }
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
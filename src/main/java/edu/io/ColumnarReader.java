@@ -0,0 +1,301 @@
+package edu.ccrm.io;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads columnar files written by ImportExportService.exportColumnar
+ * Only projected and filtered columns are decoded; other column chunks are skipped
+ * by their byte length, and row groups whose min/max statistics rule out a filter
+ * are skipped whole. The file is streamed once, so each reader supports one scan.
+ *
+ * Example - credits by department, reading two of the six course columns:
+ * <pre>
+ * reader.scan(List.of("department", "credits"), List.of(),
+ *             row -> totals.merge((String) row[0], (Integer) row[1], Integer::sum));
+ * </pre>
+ */
+public class ColumnarReader implements Closeable {
+    
+    private final DataInputStream in;
+    private final String[] names;
+    private final ColumnarFormat.Type[] types;
+    private final ColumnarFormat.Encoding[] encodings;
+    private final long rowCount;
+    private final int groupCount;
+    private boolean scanned;
+    private int groupsRead;
+    private int groupsSkipped;
+    private long bytesSkipped;
+    
+    /**
+     * Open a columnar file and read its schema
+     * @param file the file to read
+     * @throws IOException if the file cannot be read or is not a columnar file
+     */
+    public ColumnarReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+        try {
+            byte[] magic = in.readNBytes(ColumnarFormat.MAGIC.length);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException("Not a columnar export file: " + file);
+            }
+            int columns = in.readInt();
+            this.names = new String[columns];
+            this.types = new ColumnarFormat.Type[columns];
+            this.encodings = new ColumnarFormat.Encoding[columns];
+            for (int c = 0; c < columns; c++) {
+                names[c] = in.readUTF();
+                types[c] = ColumnarFormat.Type.values()[in.readByte()];
+                encodings[c] = ColumnarFormat.Encoding.values()[in.readByte()];
+            }
+            this.rowCount = in.readLong();
+            this.groupCount = in.readInt();
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Corrupt columnar header: " + file, e);
+        }
+    }
+    
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(Arrays.asList(names));
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    /**
+     * Scan the file, passing each row that meets every filter to the consumer
+     * @param projection the columns to return, in this order
+     * @param filters conditions pushed down to the row groups; may be empty
+     * @param consumer receives one array per row with the projected values
+     *                 (Long, Integer, LocalDate or String)
+     * @return number of rows passed to the consumer
+     * @throws IOException if reading fails
+     */
+    public long scan(List<String> projection, List<ColumnFilter> filters, Consumer<Object[]> consumer) throws IOException {
+        if (scanned) {
+            throw new IllegalStateException("A columnar reader supports one scan");
+        }
+        scanned = true;
+        
+        int[] projected = new int[projection.size()];
+        boolean[] needed = new boolean[names.length];
+        for (int p = 0; p < projected.length; p++) {
+            projected[p] = columnIndex(projection.get(p));
+            needed[projected[p]] = true;
+        }
+        int[] filtered = new int[filters.size()];
+        for (int f = 0; f < filtered.length; f++) {
+            filtered[f] = columnIndex(filters.get(f).getColumn());
+            needed[filtered[f]] = true;
+        }
+        
+        long[] numberMin = new long[names.length];
+        long[] numberMax = new long[names.length];
+        String[] stringMin = new String[names.length];
+        String[] stringMax = new String[names.length];
+        int[] lengths = new int[names.length];
+        long matched = 0;
+        for (int g = 0; g < groupCount; g++) {
+            int count = in.readInt();
+            long groupBytes = 0;
+            for (int c = 0; c < names.length; c++) {
+                if (types[c].isNumeric()) {
+                    numberMin[c] = in.readLong();
+                    numberMax[c] = in.readLong();
+                } else {
+                    stringMin[c] = in.readUTF();
+                    stringMax[c] = in.readUTF();
+                }
+                lengths[c] = in.readInt();
+                groupBytes += lengths[c];
+            }
+            
+            boolean skip = false;
+            for (int f = 0; f < filtered.length && !skip; f++) {
+                int c = filtered[f];
+                skip = types[c].isNumeric() ? !filters.get(f).mightMatch(numberMin[c], numberMax[c])
+                                            : !filters.get(f).mightMatch(stringMin[c], stringMax[c]);
+            }
+            if (skip) {
+                in.skipNBytes(groupBytes);
+                bytesSkipped += groupBytes;
+                groupsSkipped++;
+                continue;
+            }
+            groupsRead++;
+            
+            long[][] numbers = new long[names.length][];
+            String[][] strings = new String[names.length][];
+            for (int c = 0; c < names.length; c++) {
+                if (!needed[c]) {
+                    in.skipNBytes(lengths[c]);
+                    bytesSkipped += lengths[c];
+                    continue;
+                }
+                byte[] data = in.readNBytes(lengths[c]);
+                if (data.length != lengths[c]) {
+                    throw new EOFException("Truncated column chunk: " + names[c]);
+                }
+                ColumnarFormat.ChunkReader chunk = new ColumnarFormat.ChunkReader(data);
+                if (types[c].isNumeric()) {
+                    numbers[c] = decodeNumbers(encodings[c], chunk, count);
+                } else {
+                    strings[c] = decodeStrings(encodings[c], chunk, count);
+                }
+            }
+            
+            for (int row = 0; row < count; row++) {
+                boolean match = true;
+                for (int f = 0; f < filtered.length && match; f++) {
+                    int c = filtered[f];
+                    match = types[c].isNumeric() ? filters.get(f).matches(numbers[c][row])
+                                                 : filters.get(f).matches(strings[c][row]);
+                }
+                if (!match) {
+                    continue;
+                }
+                Object[] values = new Object[projected.length];
+                for (int p = 0; p < projected.length; p++) {
+                    int c = projected[p];
+                    values[p] = value(types[c], numbers[c], strings[c], row);
+                }
+                consumer.accept(values);
+                matched++;
+            }
+        }
+        return matched;
+    }
+    
+    private int columnIndex(String name) {
+        for (int c = 0; c < names.length; c++) {
+            if (names[c].equals(name)) {
+                return c;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column: " + name);
+    }
+    
+    private static Object value(ColumnarFormat.Type type, long[] numbers, String[] strings, int row) {
+        switch (type) {
+            case LONG:
+                return numbers[row];
+            case INT:
+                return (int) numbers[row];
+            case DATE:
+                return LocalDate.ofEpochDay(numbers[row]);
+            default:
+                return strings[row];
+        }
+    }
+    
+    private static long[] decodeNumbers(ColumnarFormat.Encoding encoding, ColumnarFormat.ChunkReader chunk,
+                                        int count) throws IOException {
+        long[] values = new long[count];
+        switch (encoding) {
+            case DELTA:
+                long previous = 0;
+                for (int i = 0; i < count; i++) {
+                    previous += chunk.readVarLong();
+                    values[i] = previous;
+                }
+                break;
+            case RUN_LENGTH:
+                for (int i = 0; i < count; ) {
+                    int run = readRun(chunk, i, count);
+                    Arrays.fill(values, i, i + run, chunk.readVarLong());
+                    i += run;
+                }
+                break;
+            default:
+                for (int i = 0; i < count; i++) {
+                    values[i] = chunk.readVarLong();
+                }
+        }
+        return values;
+    }
+    
+    private static String[] decodeStrings(ColumnarFormat.Encoding encoding, ColumnarFormat.ChunkReader chunk,
+                                          int count) throws IOException {
+        String[] values = new String[count];
+        if (encoding == ColumnarFormat.Encoding.PLAIN) {
+            for (int i = 0; i < count; i++) {
+                values[i] = chunk.readString();
+            }
+            return values;
+        }
+        
+        String[] dictionary = new String[(int) chunk.readVarLong()];
+        for (int d = 0; d < dictionary.length; d++) {
+            dictionary[d] = chunk.readString();
+        }
+        if (encoding == ColumnarFormat.Encoding.RUN_LENGTH) {
+            for (int i = 0; i < count; ) {
+                int run = readRun(chunk, i, count);
+                Arrays.fill(values, i, i + run, lookup(dictionary, chunk.readVarLong()));
+                i += run;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = lookup(dictionary, chunk.readVarLong());
+            }
+        }
+        return values;
+    }
+    
+    private static int readRun(ColumnarFormat.ChunkReader chunk, int position, int count) throws IOException {
+        long run = chunk.readVarLong();
+        if (run <= 0 || position + run > count) {
+            throw new IOException("Corrupt run length in column chunk");
+        }
+        return (int) run;
+    }
+    
+    private static String lookup(String[] dictionary, long code) throws IOException {
+        if (code < 0 || code >= dictionary.length) {
+            throw new IOException("Corrupt dictionary code in column chunk");
+        }
+        return dictionary[(int) code];
+    }
+    
+    /**
+     * Get the number of row groups decoded by the scan
+     * @return row groups read
+     */
+    public int getRowGroupsRead() {
+        return groupsRead;
+    }
+    
+    /**
+     * Get the number of row groups skipped because their statistics ruled out a filter
+     * @return row groups skipped
+     */
+    public int getRowGroupsSkipped() {
+        return groupsSkipped;
+    }
+    
+    /**
+     * Get the number of column chunk bytes skipped without decoding
+     * @return bytes skipped
+     */
+    public long getBytesSkipped() {
+        return bytesSkipped;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
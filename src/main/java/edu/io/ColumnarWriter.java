@@ -0,0 +1,229 @@
+package edu.ccrm.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes records as a columnar file with typed per-column encodings
+ * The schema is fixed once through the Builder and reused for every file.
+ * @param <T> record type
+ */
+final class ColumnarWriter<T> {
+    
+    private final List<Column<T>> columns;
+    private final int rowGroupSize;
+    
+    private ColumnarWriter(Builder<T> builder) {
+        this.columns = new ArrayList<>(builder.columns);
+        this.rowGroupSize = builder.rowGroupSize;
+    }
+    
+    /**
+     * Write records to a columnar file, replacing it if it exists
+     * @param records the records, in file order
+     * @param file target file
+     * @throws IOException if writing fails
+     */
+    void write(List<T> records, Path file) throws IOException {
+        int groups = (records.size() + rowGroupSize - 1) / rowGroupSize;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024))) {
+            out.write(ColumnarFormat.MAGIC);
+            out.writeInt(columns.size());
+            for (Column<T> column : columns) {
+                out.writeUTF(column.name);
+                out.writeByte(column.type.ordinal());
+                out.writeByte(column.encoding.ordinal());
+            }
+            out.writeLong(records.size());
+            out.writeInt(groups);
+            
+            for (int from = 0; from < records.size(); from += rowGroupSize) {
+                List<T> group = records.subList(from, Math.min(from + rowGroupSize, records.size()));
+                writeRowGroup(out, group);
+            }
+        }
+    }
+    
+    private void writeRowGroup(DataOutputStream out, List<T> group) throws IOException {
+        List<ByteArrayOutputStream> chunks = new ArrayList<>(columns.size());
+        out.writeInt(group.size());
+        for (Column<T> column : columns) {
+            ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+            if (column.type.isNumeric()) {
+                long[] values = new long[group.size()];
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = column.numbers.applyAsLong(group.get(i));
+                    min = Math.min(min, values[i]);
+                    max = Math.max(max, values[i]);
+                }
+                encodeNumbers(column.encoding, values, chunk);
+                out.writeLong(min);
+                out.writeLong(max);
+            } else {
+                String[] values = new String[group.size()];
+                String min = null;
+                String max = null;
+                for (int i = 0; i < values.length; i++) {
+                    String value = column.strings.apply(group.get(i));
+                    values[i] = value != null ? value : "";
+                    min = min == null || values[i].compareTo(min) < 0 ? values[i] : min;
+                    max = max == null || values[i].compareTo(max) > 0 ? values[i] : max;
+                }
+                encodeStrings(column.encoding, values, chunk);
+                out.writeUTF(min);
+                out.writeUTF(max);
+            }
+            out.writeInt(chunk.size());
+            chunks.add(chunk);
+        }
+        for (ByteArrayOutputStream chunk : chunks) {
+            chunk.writeTo(out);
+        }
+    }
+    
+    private static void encodeNumbers(ColumnarFormat.Encoding encoding, long[] values, ByteArrayOutputStream out) {
+        switch (encoding) {
+            case DELTA:
+                long previous = 0;
+                for (long value : values) {
+                    ColumnarFormat.writeVarLong(out, value - previous);
+                    previous = value;
+                }
+                break;
+            case RUN_LENGTH:
+                for (int start = 0; start < values.length; ) {
+                    int end = start + 1;
+                    while (end < values.length && values[end] == values[start]) {
+                        end++;
+                    }
+                    ColumnarFormat.writeVarLong(out, end - start);
+                    ColumnarFormat.writeVarLong(out, values[start]);
+                    start = end;
+                }
+                break;
+            default:
+                for (long value : values) {
+                    ColumnarFormat.writeVarLong(out, value);
+                }
+        }
+    }
+    
+    private static void encodeStrings(ColumnarFormat.Encoding encoding, String[] values, ByteArrayOutputStream out) {
+        if (encoding == ColumnarFormat.Encoding.PLAIN) {
+            for (String value : values) {
+                ColumnarFormat.writeString(out, value);
+            }
+            return;
+        }
+        
+        // Dictionary of distinct values in first-seen order, then one code per row or per run
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            Integer code = dictionary.get(values[i]);
+            if (code == null) {
+                code = entries.size();
+                dictionary.put(values[i], code);
+                entries.add(values[i]);
+            }
+            codes[i] = code;
+        }
+        ColumnarFormat.writeVarLong(out, entries.size());
+        for (String entry : entries) {
+            ColumnarFormat.writeString(out, entry);
+        }
+        if (encoding == ColumnarFormat.Encoding.RUN_LENGTH) {
+            for (int start = 0; start < codes.length; ) {
+                int end = start + 1;
+                while (end < codes.length && codes[end] == codes[start]) {
+                    end++;
+                }
+                ColumnarFormat.writeVarLong(out, end - start);
+                ColumnarFormat.writeVarLong(out, codes[start]);
+                start = end;
+            }
+        } else {
+            for (int code : codes) {
+                ColumnarFormat.writeVarLong(out, code);
+            }
+        }
+    }
+    
+    /**
+     * One column of the schema: name, type, encoding and how to extract the value
+     */
+    private static final class Column<T> {
+        private final String name;
+        private final ColumnarFormat.Type type;
+        private final ColumnarFormat.Encoding encoding;
+        private final ToLongFunction<T> numbers;
+        private final Function<T, String> strings;
+        
+        Column(String name, ColumnarFormat.Type type, ColumnarFormat.Encoding encoding,
+               ToLongFunction<T> numbers, Function<T, String> strings) {
+            if (!encoding.supports(type)) {
+                throw new IllegalArgumentException(encoding + " encoding does not support " + type + " column " + name);
+            }
+            this.name = name;
+            this.type = type;
+            this.encoding = encoding;
+            this.numbers = numbers;
+            this.strings = strings;
+        }
+    }
+    
+    /**
+     * Builder for a columnar schema
+     */
+    static class Builder<T> {
+        private final List<Column<T>> columns = new ArrayList<>();
+        private int rowGroupSize = ColumnarFormat.DEFAULT_ROW_GROUP_SIZE;
+        
+        Builder<T> longColumn(String name, ColumnarFormat.Encoding encoding, ToLongFunction<T> value) {
+            columns.add(new Column<>(name, ColumnarFormat.Type.LONG, encoding, value, null));
+            return this;
+        }
+        
+        Builder<T> intColumn(String name, ColumnarFormat.Encoding encoding, ToLongFunction<T> value) {
+            columns.add(new Column<>(name, ColumnarFormat.Type.INT, encoding, value, null));
+            return this;
+        }
+        
+        Builder<T> dateColumn(String name, ColumnarFormat.Encoding encoding, Function<T, LocalDate> value) {
+            columns.add(new Column<>(name, ColumnarFormat.Type.DATE, encoding,
+                                     record -> value.apply(record).toEpochDay(), null));
+            return this;
+        }
+        
+        Builder<T> stringColumn(String name, ColumnarFormat.Encoding encoding, Function<T, String> value) {
+            columns.add(new Column<>(name, ColumnarFormat.Type.STRING, encoding, null, value));
+            return this;
+        }
+        
+        Builder<T> rowGroupSize(int rowGroupSize) {
+            this.rowGroupSize = rowGroupSize;
+            return this;
+        }
+        
+        ColumnarWriter<T> build() {
+            if (columns.isEmpty() || rowGroupSize <= 0) {
+                throw new IllegalStateException("A columnar schema needs columns and a positive row group size");
+            }
+            return new ColumnarWriter<>(this);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Where a pipelined dataset import puts its records
+ * Each loader receives batches in file order from one thread at a time, but the loaders
+ * of different files run concurrently. Enrollments are resolved through the lookups
+ * once students and courses have finished loading. Entities without a loader are skipped.
+ */
+public class DatasetLoader {
+    
+    private final Consumer<List<Student>> students;
+    private final Consumer<List<Course>> courses;
+    private final Consumer<List<Enrollment>> enrollments;
+    private final Function<Long, Student> studentLookup;
+    private final Function<String, Course> courseLookup;
+    
+    private DatasetLoader(Builder builder) {
+        this.students = builder.students;
+        this.courses = builder.courses;
+        this.enrollments = builder.enrollments;
+        this.studentLookup = builder.studentLookup;
+        this.courseLookup = builder.courseLookup;
+    }
+    
+    Consumer<List<Student>> getStudents() {
+        return students;
+    }
+    
+    Consumer<List<Course>> getCourses() {
+        return courses;
+    }
+    
+    Consumer<List<Enrollment>> getEnrollments() {
+        return enrollments;
+    }
+    
+    Function<Long, Student> getStudentLookup() {
+        return studentLookup;
+    }
+    
+    Function<String, Course> getCourseLookup() {
+        return courseLookup;
+    }
+    
+    /**
+     * Builder for DatasetLoader
+     */
+    public static class Builder {
+        private Consumer<List<Student>> students;
+        private Consumer<List<Course>> courses;
+        private Consumer<List<Enrollment>> enrollments;
+        private Function<Long, Student> studentLookup;
+        private Function<String, Course> courseLookup;
+        
+        public Builder students(Consumer<List<Student>> loader) {
+            this.students = loader;
+            return this;
+        }
+        
+        public Builder courses(Consumer<List<Course>> loader) {
+            this.courses = loader;
+            return this;
+        }
+        
+        /**
+         * Load enrollments, resolving their student and course by key
+         * @param studentLookup finds a loaded student by ID, or returns null
+         * @param courseLookup finds a loaded course by code, or returns null
+         * @param loader receives the resolved enrollments
+         * @return this builder
+         */
+        public Builder enrollments(Function<Long, Student> studentLookup, Function<String, Course> courseLookup,
+                                   Consumer<List<Enrollment>> loader) {
+            this.studentLookup = studentLookup;
+            this.courseLookup = courseLookup;
+            this.enrollments = loader;
+            return this;
+        }
+        
+        public DatasetLoader build() {
+            return new DatasetLoader(this);
+        }
+    }
+}
@@ -2,29 +2,127 @@ package edu.ccrm.io;
 
 import edu.ccrm.domain.*;
 import edu.ccrm.config.AppConfig;
+import edu.ccrm.util.ChangeTracker;
+import edu.ccrm.util.Validatable;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Import/Export Service using NIO.2 and Java Streams
  * Demonstrates try-with-resources and modern file I/O
+ * Files ending in .gz are compressed and decompressed on the fly while streaming
  */
 public class ImportExportService {
     
     private static final String STUDENT_FILE = "students.csv";
     private static final String COURSE_FILE = "courses.csv";
     private static final String ENROLLMENT_FILE = "enrollments.csv";
+    private static final String MANIFEST_FILE = "manifest.csv";
+    private static final String PARTITION_MANIFEST_FILE = "partitions.csv";
+    private static final String STUDENT_HEADER = "ID,FullName,Email,RegNo,Status,RegistrationDate";
+    private static final String COURSE_HEADER = "CourseCode,Title,Credits,Department,Semester,InstructorID,InstructorName,Meetings";
+    private static final String ENROLLMENT_HEADER = "StudentID,CourseCode,EnrollmentDate,Grade";
+    private static final String MANIFEST_HEADER = "Entity,Epoch,FromVersion,ToVersion,Kind,Rows,File,Timestamp";
+    private static final String PARTITION_MANIFEST_HEADER = "Entity,Key,Partition,File,Rows";
+    private static final String PARTITION_QUARANTINE_FILE = "partitions.quarantine.csv";
+    private static final String COLUMNAR_SUFFIX = ".ccol";
+    private static final String STUDENT_JSON_FILE = "students.json";
+    private static final String COURSE_JSON_FILE = "courses.json";
+    private static final String INSTRUCTOR_JSON_FILE = "instructors.json";
+    private static final String ENROLLMENT_JSON_FILE = "enrollments.json";
+    private static final String JSON_SUFFIX = ".json";
+    
+    // Columnar schemas - ids and dates as deltas, repetitive strings dictionary or run-length encoded
+    private static final ColumnarWriter<Student> STUDENT_COLUMNS = new ColumnarWriter.Builder<Student>()
+            .longColumn("id", ColumnarFormat.Encoding.DELTA, Student::getId)
+            .stringColumn("fullName", ColumnarFormat.Encoding.PLAIN, Student::getFullName)
+            .stringColumn("email", ColumnarFormat.Encoding.PLAIN, Student::getEmail)
+            .stringColumn("regNo", ColumnarFormat.Encoding.PLAIN, Student::getRegNo)
+            .stringColumn("status", ColumnarFormat.Encoding.RUN_LENGTH, student -> String.valueOf(student.getStatus()))
+            .dateColumn("registrationDate", ColumnarFormat.Encoding.DELTA, Student::getRegistrationDate)
+            .build();
+    private static final ColumnarWriter<Course> COURSE_COLUMNS = new ColumnarWriter.Builder<Course>()
+            .stringColumn("courseCode", ColumnarFormat.Encoding.PLAIN, Course::getCourseCode)
+            .stringColumn("title", ColumnarFormat.Encoding.PLAIN, Course::getTitle)
+            .intColumn("credits", ColumnarFormat.Encoding.PLAIN, Course::getCredits)
+            .stringColumn("department", ColumnarFormat.Encoding.DICTIONARY, Course::getDepartment)
+            .stringColumn("semester", ColumnarFormat.Encoding.DICTIONARY,
+                          course -> course.getSemester() != null ? course.getSemester().name() : null)
+            .longColumn("instructorId", ColumnarFormat.Encoding.PLAIN,
+                        course -> course.getInstructor() != null ? course.getInstructor().getId() : 0)
+            .build();
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final int VALIDATION_CHUNK_SIZE = 4096;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String COMPRESSED_SUFFIX = ".gz";
+    private static final String PART_SUFFIX = ".part";
+    private static final int ASYNC_WRITE_SIZE = 256 * 1024;
     
     private final AppConfig config;
+    private final Map<Long, Instructor> instructorsById;
+    
+    // Row hashes from the last reconcile import, by record key
+    private final Map<Long, Long> studentRowHashes;
+    private final Map<String, Long> courseRowHashes;
+    
+    // Held while an asynchronous export moves its files into place, so two exports never interleave
+    private final Object publishLock = new Object();
     
     public ImportExportService() {
         this.config = AppConfig.getInstance();
+        this.instructorsById = new ConcurrentHashMap<>();
+        this.studentRowHashes = new HashMap<>();
+        this.courseRowHashes = new HashMap<>();
+    }
+    
+    /**
+     * Make known instructors available to course imports, so imported rows
+     * resolve to the full Instructor instead of a partial one
+     * @param instructors the registered instructors
+     */
+    public void registerInstructors(List<Instructor> instructors) {
+        for (Instructor instructor : instructors) {
+            instructorsById.put(instructor.getId(), instructor);
+        }
     }
     
     /**
@@ -41,41 +139,136 @@ public class ImportExportService {
             Files.createDirectories(directory);
         }
         
+        // Compressed when a compression level is configured
+        String suffix = config.getExportCompressionLevel() > 0 ? COMPRESSED_SUFFIX : "";
+        
         // Export students
-        exportStudents(students, directory.resolve(STUDENT_FILE));
+        exportStudents(students, directory.resolve(STUDENT_FILE + suffix), Files::newOutputStream);
         
         // Export courses
-        exportCourses(courses, directory.resolve(COURSE_FILE));
-        
-        System.out.println("Data exported successfully to: " + directory);
+        exportCourses(courses, directory.resolve(COURSE_FILE + suffix), Files::newOutputStream);
+    }
+    
+    /**
+     * Export students, courses and enrollments to CSV files in specified directory
+     * Together the files form a dataset that importDataset can load in one go
+     * @param students list of students to export
+     * @param courses list of courses to export
+     * @param enrollments list of enrollments to export
+     * @param directory target directory for export files
+     * @throws IOException if file operations fail
+     */
+    public void exportData(List<Student> students, List<Course> courses, List<Enrollment> enrollments,
+                           Path directory) throws IOException {
+        exportData(students, courses, directory);
+        String suffix = config.getExportCompressionLevel() > 0 ? COMPRESSED_SUFFIX : "";
+        exportEnrollments(enrollments, directory.resolve(ENROLLMENT_FILE + suffix), Files::newOutputStream);
+    }
+    
+    /**
+     * Export students, courses and enrollments without blocking the caller
+     * Writes the same files as exportData on a background thread, through asynchronous
+     * channels with several writes in flight per file. Files are written under a unique
+     * .part name and moved into place once all are complete, so cancelling the returned
+     * future or a failure leaves the previous export untouched, and exports running at the
+     * same time (such as a manual export and a backup) each publish a complete set of files.
+     * @param students list of students to export
+     * @param courses list of courses to export
+     * @param enrollments list of enrollments to export
+     * @param directory target directory for export files
+     * @param listener progress callback, or null
+     * @return completes once every file is in place
+     */
+    public CompletableFuture<Void> exportDataAsync(List<Student> students, List<Course> courses,
+                                                   List<Enrollment> enrollments, Path directory,
+                                                   ProgressListener listener) {
+        CompletableFuture<Void> export = new CompletableFuture<>();
+        AtomicLong written = new AtomicLong();
+        Thread thread = new Thread(() -> {
+            Map<Path, Path> parts = new LinkedHashMap<>();
+            List<AsyncFileOutputStream> streams = new ArrayList<>();
+            FileOpener opener = file -> {
+                Path part = Files.createTempFile(file.getParent(), file.getFileName() + ".", PART_SUFFIX);
+                parts.put(part, file);
+                AsyncFileOutputStream out = new AsyncFileOutputStream(part, config.getAsyncIoWrites(), ASYNC_WRITE_SIZE,
+                    export, bytes -> {
+                        long total = written.addAndGet(bytes);
+                        if (listener != null) {
+                            listener.progress(total, -1);
+                        }
+                    });
+                streams.add(out);
+                return out;
+            };
+            try {
+                Files.createDirectories(directory);
+                String suffix = config.getExportCompressionLevel() > 0 ? COMPRESSED_SUFFIX : "";
+                exportStudents(students, directory.resolve(STUDENT_FILE + suffix), opener);
+                exportCourses(courses, directory.resolve(COURSE_FILE + suffix), opener);
+                exportEnrollments(enrollments, directory.resolve(ENROLLMENT_FILE + suffix), opener);
+                synchronized (publishLock) {
+                    for (Map.Entry<Path, Path> part : parts.entrySet()) {
+                        moveIntoPlace(part.getKey(), part.getValue());
+                    }
+                }
+                export.complete(null);
+            } catch (IOException | RuntimeException e) {
+                // A stream whose writer failed to close still holds its channel
+                for (AsyncFileOutputStream out : streams) {
+                    try {
+                        out.close();
+                    } catch (IOException ignored) {
+                        // Already failing with e
+                    }
+                }
+                for (Path part : parts.keySet()) {
+                    try {
+                        Files.deleteIfExists(part);
+                    } catch (IOException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                export.completeExceptionally(e);
+            }
+        }, "ccrm-export");
+        thread.setDaemon(true);
+        export.whenComplete((ignored, failure) -> {
+            // Wakes the export thread if it is waiting for a free write buffer
+            if (export.isCancelled()) {
+                thread.interrupt();
+            }
+        });
+        thread.start();
+        return export;
+    }
+    
+    /**
+     * Find an exported data file, preferring the compressed copy if there is one
+     * @param directory the export directory
+     * @param fileName the uncompressed file name, e.g. "students.csv"
+     * @return path of the compressed file if it exists, otherwise of the plain file
+     */
+    public Path resolveDataFile(Path directory, String fileName) {
+        Path compressed = directory.resolve(fileName + COMPRESSED_SUFFIX);
+        return Files.exists(compressed) ? compressed : directory.resolve(fileName);
     }
     
     /**
      * Export students to CSV file
      * @param students list of students
      * @param filePath target file path
+     * @param opener opens the file itself
      * @throws IOException if writing fails
      */
-    private void exportStudents(List<Student> students, Path filePath) throws IOException {
-        List<String> lines = new ArrayList<>();
-        
-        // CSV Header
-        lines.add("ID,FullName,Email,RegNo,Status,RegistrationDate");
-        
-        // Student data using Java Streams
-        students.stream()
-               .map(student -> String.format("%d,%s,%s,%s,%s,%s",
-                   student.getId(),
-                   escapeCSV(student.getFullName()),
-                   escapeCSV(student.getEmail()),
-                   student.getRegNo(),
-                   student.getStatus(),
-                   student.getRegistrationDate().format(DATE_FORMATTER)))
-               .forEach(lines::add);
-        
-        // Write to file using try-with-resources
-        try {
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    private void exportStudents(List<Student> students, Path filePath, FileOpener opener) throws IOException {
+        // Rows are streamed to the file using try-with-resources
+        try (BufferedWriter writer = openWriter(filePath, opener)) {
+            writer.write(STUDENT_HEADER);
+            writer.newLine();
+            for (Student student : students) {
+                writer.write(formatStudent(student));
+                writer.newLine();
+            }
         } catch (IOException e) {
             throw new IOException("Failed to export students: " + e.getMessage(), e);
         }
@@ -85,34 +278,692 @@ public class ImportExportService {
      * Export courses to CSV file
      * @param courses list of courses
      * @param filePath target file path
+     * @param opener opens the file itself
      * @throws IOException if writing fails
      */
-    private void exportCourses(List<Course> courses, Path filePath) throws IOException {
-        List<String> lines = new ArrayList<>();
-        
-        // CSV Header
-        lines.add("CourseCode,Title,Credits,Department,Semester,InstructorID,InstructorName");
-        
-        // Course data using Java Streams
-        courses.stream()
-               .map(course -> String.format("%s,%s,%d,%s,%s,%d,%s",
-                   course.getCourseCode(),
-                   escapeCSV(course.getTitle()),
-                   course.getCredits(),
-                   escapeCSV(course.getDepartment()),
-                   course.getSemester(),
-                   course.getInstructor() != null ? course.getInstructor().getId() : 0,
-                   course.getInstructor() != null ? escapeCSV(course.getInstructor().getFullName()) : "TBD"))
-               .forEach(lines::add);
-        
-        // Write to file using try-with-resources
-        try {
-            Files.write(filePath, lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+    private void exportCourses(List<Course> courses, Path filePath, FileOpener opener) throws IOException {
+        // Rows are streamed to the file using try-with-resources
+        try (BufferedWriter writer = openWriter(filePath, opener)) {
+            writer.write(COURSE_HEADER);
+            writer.newLine();
+            for (Course course : courses) {
+                writer.write(formatCourse(course));
+                writer.newLine();
+            }
         } catch (IOException e) {
             throw new IOException("Failed to export courses: " + e.getMessage(), e);
         }
     }
     
+    /**
+     * Export enrollments to CSV file
+     * @param enrollments list of enrollments
+     * @param filePath target file path
+     * @param opener opens the file itself
+     * @throws IOException if writing fails
+     */
+    private void exportEnrollments(List<Enrollment> enrollments, Path filePath, FileOpener opener)
+            throws IOException {
+        try (BufferedWriter writer = openWriter(filePath, opener)) {
+            writer.write(ENROLLMENT_HEADER);
+            writer.newLine();
+            for (Enrollment enrollment : enrollments) {
+                writer.write(formatEnrollment(enrollment));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            throw new IOException("Failed to export enrollments: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Format a student as a CSV row
+     * @param student the student
+     * @return the CSV row
+     */
+    private String formatStudent(Student student) {
+        return String.format("%d,%s,%s,%s,%s,%s",
+            student.getId(),
+            escapeCSV(student.getFullName()),
+            escapeCSV(student.getEmail()),
+            student.getRegNo(),
+            student.getStatus(),
+            student.getRegistrationDate().format(DATE_FORMATTER));
+    }
+    
+    /**
+     * Format a course as a CSV row
+     * @param course the course
+     * @return the CSV row
+     */
+    private String formatCourse(Course course) {
+        return String.format("%s,%s,%d,%s,%s,%d,%s,%s",
+            course.getCourseCode(),
+            escapeCSV(course.getTitle()),
+            course.getCredits(),
+            escapeCSV(course.getDepartment()),
+            course.getSemester(),
+            course.getInstructor() != null ? course.getInstructor().getId() : 0,
+            course.getInstructor() != null ? escapeCSV(course.getInstructor().getFullName()) : "TBD",
+            formatMeetingSlots(course.getMeetingSlots()));
+    }
+    
+    /**
+     * Format an enrollment as a CSV row
+     * @param enrollment the enrollment
+     * @return the CSV row
+     */
+    private String formatEnrollment(Enrollment enrollment) {
+        return String.format("%d,%s,%s,%s",
+            enrollment.getStudent().getId(),
+            enrollment.getCourse().getCourseCode(),
+            enrollment.getEnrollmentDate().format(DATE_FORMATTER),
+            enrollment.getGrade() != null ? enrollment.getGrade() : "");
+    }
+    
+    /**
+     * Export students and courses as columnar files for analytics readers
+     * Writes students.ccol and courses.ccol; read them with ColumnarReader
+     * @param students list of students to export
+     * @param courses list of courses to export
+     * @param directory target directory
+     * @throws IOException if writing fails
+     */
+    public void exportColumnar(List<Student> students, List<Course> courses, Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+        STUDENT_COLUMNS.write(students, directory.resolve("students" + COLUMNAR_SUFFIX));
+        COURSE_COLUMNS.write(courses, directory.resolve("courses" + COLUMNAR_SUFFIX));
+    }
+    
+    /**
+     * Export students, courses, instructors and enrollments as JSON arrays, one record per line
+     * Records are encoded straight into the writer's byte buffer, without reflection
+     * or an intermediate tree, and compressed when a compression level is configured.
+     * @param students list of students to export
+     * @param courses list of courses to export
+     * @param instructors list of instructors to export
+     * @param enrollments list of enrollments to export
+     * @param directory target directory
+     * @throws IOException if writing fails
+     */
+    public void exportJSON(List<Student> students, List<Course> courses, List<Instructor> instructors,
+                           List<Enrollment> enrollments, Path directory) throws IOException {
+        Files.createDirectories(directory);
+        String suffix = config.getExportCompressionLevel() > 0 ? COMPRESSED_SUFFIX : "";
+        
+        writeJSON("students", students, directory.resolve(STUDENT_JSON_FILE + suffix), this::writeStudent);
+        writeJSON("courses", courses, directory.resolve(COURSE_JSON_FILE + suffix), this::writeCourse);
+        writeJSON("instructors", instructors, directory.resolve(INSTRUCTOR_JSON_FILE + suffix), this::writeInstructor);
+        writeJSON("enrollments", enrollments, directory.resolve(ENROLLMENT_JSON_FILE + suffix), this::writeEnrollment);
+    }
+    
+    /**
+     * Writes one record as a JSON object
+     */
+    @FunctionalInterface
+    private interface JsonFormat<T> {
+        void write(JsonWriter writer, T record) throws IOException;
+    }
+    
+    private <T> void writeJSON(String entity, List<T> records, Path filePath, JsonFormat<T> format) throws IOException {
+        try (JsonWriter writer = new JsonWriter(openOutputStream(filePath), STREAM_BUFFER_SIZE)) {
+            writer.beginArray();
+            for (T record : records) {
+                format.write(writer, record);
+            }
+            writer.endArray();
+        } catch (IOException e) {
+            throw new IOException("Failed to export " + entity + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private void writeStudent(JsonWriter writer, Student student) throws IOException {
+        writer.beginObject()
+              .name("id").value(student.getId())
+              .name("fullName").value(student.getFullName())
+              .name("email").value(student.getEmail())
+              .name("regNo").value(student.getRegNo())
+              .name("status").value(student.getStatus() != null ? student.getStatus().name() : null)
+              .name("registrationDate").value(formatDate(student.getRegistrationDate()))
+              .endObject();
+    }
+    
+    private void writeCourse(JsonWriter writer, Course course) throws IOException {
+        writer.beginObject()
+              .name("courseCode").value(course.getCourseCode())
+              .name("title").value(course.getTitle())
+              .name("credits").value(course.getCredits())
+              .name("department").value(course.getDepartment())
+              .name("semester").value(course.getSemester() != null ? course.getSemester().name() : null);
+        if (course.getInstructor() != null) {
+            writer.name("instructorId").value(course.getInstructor().getId())
+                  .name("instructorName").value(course.getInstructor().getFullName());
+        } else {
+            writer.name("instructorId").nullValue()
+                  .name("instructorName").nullValue();
+        }
+        writer.name("meetings").beginArray();
+        for (MeetingSlot slot : course.getMeetingSlots()) {
+            writer.value(slot.toString());
+        }
+        writer.endArray().endObject();
+    }
+    
+    private void writeInstructor(JsonWriter writer, Instructor instructor) throws IOException {
+        writer.beginObject()
+              .name("id").value(instructor.getId())
+              .name("fullName").value(instructor.getFullName())
+              .name("email").value(instructor.getEmail())
+              .name("department").value(instructor.getDepartment())
+              .endObject();
+    }
+    
+    private void writeEnrollment(JsonWriter writer, Enrollment enrollment) throws IOException {
+        writer.beginObject()
+              .name("studentId").value(enrollment.getStudent().getId())
+              .name("courseCode").value(enrollment.getCourse().getCourseCode())
+              .name("enrollmentDate").value(formatDate(enrollment.getEnrollmentDate()))
+              .name("grade").value(enrollment.getGrade() != null ? enrollment.getGrade().name() : null)
+              .endObject();
+    }
+    
+    private static String formatDate(LocalDate date) {
+        return date != null ? date.format(DATE_FORMATTER) : null;
+    }
+    
+    /**
+     * Export students, courses and enrollments as one file per partition
+     * Each partition has its own writer and the partitions are written concurrently,
+     * under a .part name. Once all are complete the manifest (partitions.csv) is
+     * replaced, listing every file and its partition, then each file is moved into
+     * place; a failure leaves the previous export untouched. Files of an earlier
+     * export that are no longer listed are deleted afterwards.
+     * @param students list of students to export
+     * @param courses list of courses to export
+     * @param enrollments list of enrollments to export
+     * @param directory target directory
+     * @param key how to split courses and enrollments
+     * @return number of partition files written
+     * @throws IOException if file operations fail
+     */
+    public int exportPartitioned(List<Student> students, List<Course> courses, List<Enrollment> enrollments,
+                                 Path directory, PartitionKey key) throws IOException {
+        int buckets = config.getExportPartitionBuckets();
+        String suffix = config.getExportCompressionLevel() > 0 ? ".csv" + COMPRESSED_SUFFIX : ".csv";
+        Path manifest = directory.resolve(PARTITION_MANIFEST_FILE);
+        List<String[]> previous = readManifest(manifest);
+        
+        List<Callable<String>> writers = new ArrayList<>();
+        List<String> files = new ArrayList<>();
+        addPartitionWriters(writers, files, "students", key, partition(students, s -> key.partitionOf(s, buckets)),
+                            STUDENT_HEADER, this::formatStudent, directory, suffix);
+        addPartitionWriters(writers, files, "courses", key, partition(courses, c -> key.partitionOf(c, buckets)),
+                            COURSE_HEADER, this::formatCourse, directory, suffix);
+        addPartitionWriters(writers, files, "enrollments", key, partition(enrollments, e -> key.partitionOf(e, buckets)),
+                            ENROLLMENT_HEADER, this::formatEnrollment, directory, suffix);
+        
+        List<String> entries = new ArrayList<>();
+        entries.add(PARTITION_MANIFEST_HEADER);
+        ExecutorService pool = newPartitionPool(writers.size());
+        try {
+            for (Future<String> future : pool.invokeAll(writers)) {
+                entries.add(await(future));
+            }
+            Path manifestPart = directory.resolve(PARTITION_MANIFEST_FILE + PART_SUFFIX);
+            Files.write(manifestPart, entries);
+            moveIntoPlace(manifestPart, manifest);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deleteParts(directory, files, null);
+            throw new InterruptedIOException("Partitioned export interrupted");
+        } catch (IOException | RuntimeException e) {
+            deleteParts(directory, files, e);
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+        for (String file : files) {
+            moveIntoPlace(directory.resolve(file + PART_SUFFIX), directory.resolve(file));
+        }
+        
+        // Remove partitions of the earlier export that this one did not rewrite
+        Set<String> current = new HashSet<>(files);
+        for (String[] entry : previous) {
+            if (!current.contains(entry[3])) {
+                Files.deleteIfExists(directory.resolve(entry[3]));
+            }
+        }
+        return writers.size();
+    }
+    
+    /**
+     * Group records by partition, keeping their order within each partition
+     */
+    private static <T> Map<String, List<T>> partition(List<T> records, Function<T, String> partitionOf) {
+        Map<String, List<T>> partitions = new LinkedHashMap<>();
+        for (T record : records) {
+            partitions.computeIfAbsent(partitionOf.apply(record), p -> new ArrayList<>()).add(record);
+        }
+        return partitions;
+    }
+    
+    /**
+     * Create one writer task per partition, adding its file to files; each task writes
+     * the file under a .part name and returns its manifest line
+     */
+    private <T> void addPartitionWriters(List<Callable<String>> writers, List<String> files, String entity,
+                                         PartitionKey key, Map<String, List<T>> partitions, String header,
+                                         Function<T, String> formatter, Path directory, String suffix) throws IOException {
+        Files.createDirectories(directory.resolve(entity));
+        for (Map.Entry<String, List<T>> partition : partitions.entrySet()) {
+            String file = entity + "/" + PartitionKey.fileName(partition.getKey()) + suffix;
+            List<T> rows = partition.getValue();
+            files.add(file);
+            writers.add(() -> {
+                try (BufferedWriter writer = openWriter(directory.resolve(file + PART_SUFFIX))) {
+                    writer.write(header);
+                    writer.newLine();
+                    for (T row : rows) {
+                        writer.write(formatter.apply(row));
+                        writer.newLine();
+                    }
+                }
+                return String.join(",", entity, key.name(), escapeCSV(partition.getKey()), file,
+                                   String.valueOf(rows.size()));
+            });
+        }
+    }
+    
+    /**
+     * Delete the .part files of a failed partitioned export
+     * @param failure exception being thrown, to attach delete failures to, or null
+     */
+    private static void deleteParts(Path directory, List<String> files, Exception failure) {
+        for (String file : files) {
+            try {
+                Files.deleteIfExists(directory.resolve(file + PART_SUFFIX));
+            } catch (IOException suppressed) {
+                if (failure != null) {
+                    failure.addSuppressed(suppressed);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Replace a file with a completed .part file, atomically where the file system allows
+     */
+    private static void moveIntoPlace(Path part, Path target) throws IOException {
+        try {
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+    
+    /**
+     * Read a partitioned export back, reading the partition files in parallel
+     * Students and courses are read first; enrollment partitions are then resolved
+     * against them, skipping rows whose student or course is missing. Rows that cannot
+     * be parsed are skipped and written to partitions.quarantine.csv in the directory.
+     * @param directory directory holding partitions.csv
+     * @return the records of all partitions
+     * @throws IOException if reading fails
+     */
+    public PartitionedData importPartitioned(Path directory) throws IOException {
+        Path manifest = directory.resolve(PARTITION_MANIFEST_FILE);
+        if (!Files.exists(manifest)) {
+            throw new IOException("Partition manifest not found: " + manifest);
+        }
+        List<String[]> entries = readManifest(manifest);
+        
+        ExecutorService pool = newPartitionPool(entries.size());
+        try {
+            List<Future<PartitionRead<Student>>> studentParts = new ArrayList<>();
+            List<Future<PartitionRead<Course>>> courseParts = new ArrayList<>();
+            for (String[] entry : entries) {
+                String file = entry[3];
+                if (entry[0].equals("students")) {
+                    studentParts.add(pool.submit(() -> readPartition(directory, file, this::parseStudentFromCSV)));
+                } else if (entry[0].equals("courses")) {
+                    courseParts.add(pool.submit(() -> readPartition(directory, file, this::parseCourseFromCSV)));
+                }
+            }
+            List<String> rejected = new ArrayList<>();
+            List<Student> students = new ArrayList<>();
+            for (Future<PartitionRead<Student>> part : studentParts) {
+                PartitionRead<Student> read = await(part);
+                students.addAll(read.records);
+                rejected.addAll(read.rejected);
+            }
+            List<Course> courses = new ArrayList<>();
+            for (Future<PartitionRead<Course>> part : courseParts) {
+                PartitionRead<Course> read = await(part);
+                courses.addAll(read.records);
+                rejected.addAll(read.rejected);
+            }
+            
+            Map<Long, Student> studentsById = new HashMap<>();
+            for (Student student : students) {
+                studentsById.put(student.getId(), student);
+            }
+            Map<String, Course> coursesByCode = new HashMap<>();
+            for (Course course : courses) {
+                coursesByCode.put(course.getCourseCode(), course);
+            }
+            AtomicInteger unresolved = new AtomicInteger();
+            List<Future<PartitionRead<Enrollment>>> enrollmentParts = new ArrayList<>();
+            for (String[] entry : entries) {
+                if (entry[0].equals("enrollments")) {
+                    String file = entry[3];
+                    enrollmentParts.add(pool.submit(() -> readPartition(directory, file,
+                            line -> parseEnrollmentFromCSV(line, studentsById, coursesByCode, unresolved))));
+                }
+            }
+            List<Enrollment> enrollments = new ArrayList<>();
+            for (Future<PartitionRead<Enrollment>> part : enrollmentParts) {
+                PartitionRead<Enrollment> read = await(part);
+                enrollments.addAll(read.records);
+                rejected.addAll(read.rejected);
+            }
+            
+            // Quarantine rows that could not be parsed; a clean import leaves no stale file behind
+            Path quarantineFile = directory.resolve(PARTITION_QUARANTINE_FILE);
+            if (rejected.isEmpty()) {
+                Files.deleteIfExists(quarantineFile);
+            } else {
+                try (BufferedWriter writer = openWriter(quarantineFile)) {
+                    writer.write("File,Line,Error,Row");
+                    writer.newLine();
+                    for (String row : rejected) {
+                        writer.write(row);
+                        writer.newLine();
+                    }
+                }
+            }
+            return new PartitionedData(students, courses, enrollments, entries.size(), unresolved.get(),
+                                       rejected.size(), rejected.isEmpty() ? null : quarantineFile);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * Records of one partition file and the quarantine rows of those that failed to parse
+     */
+    private static final class PartitionRead<T> {
+        private final List<T> records = new ArrayList<>();
+        private final List<String> rejected = new ArrayList<>();
+    }
+    
+    /**
+     * Read and parse one partition file - runs on a partition pool thread
+     * Rows the parser maps to null are skipped; rows it throws on are rejected
+     * @param directory directory holding the manifest
+     * @param file the partition file, relative to the directory
+     * @param parser parses one row
+     * @return the parsed records and rejected rows
+     * @throws IOException if the file cannot be read
+     */
+    private <T> PartitionRead<T> readPartition(Path directory, String file, Function<String, T> parser)
+            throws IOException {
+        PartitionRead<T> read = new PartitionRead<>();
+        try (BufferedReader reader = openReader(directory.resolve(file))) {
+            reader.readLine(); // Skip header
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    T record = parser.apply(line);
+                    if (record != null) {
+                        read.records.add(record);
+                    }
+                } catch (RuntimeException e) {
+                    read.rejected.add(escapeCSV(file) + "," + lineNumber + ","
+                                      + escapeCSV("Unparseable row: " + e.getMessage()) + "," + escapeCSV(line));
+                }
+            }
+        }
+        return read;
+    }
+    
+    /**
+     * Parse an enrollment row, resolving its student and course
+     * @return the enrollment, or null if the student or course is unknown
+     */
+    private Enrollment parseEnrollmentFromCSV(String csvLine, Map<Long, Student> students,
+                                              Map<String, Course> courses, AtomicInteger unresolved) {
+        EnrollmentRow row = parseEnrollmentRowFromCSV(csvLine);
+        Student student = students.get(row.studentId);
+        Course course = courses.get(row.courseCode);
+        if (student == null || course == null) {
+            unresolved.incrementAndGet();
+            return null;
+        }
+        return new Enrollment(student, course, row.enrollmentDate, row.grade);
+    }
+    
+    /**
+     * Parse an enrollment row without resolving its student and course
+     * @param csvLine the CSV line
+     * @return the row's keys and values
+     */
+    private EnrollmentRow parseEnrollmentRowFromCSV(String csvLine) {
+        String[] parts = splitCSV(csvLine);
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid enrollment CSV format: " + csvLine);
+        }
+        Grade grade = parts[3].isEmpty() ? null : Grade.valueOf(parts[3]);
+        return new EnrollmentRow(Long.parseLong(parts[0]), parts[1], LocalDate.parse(parts[2], DATE_FORMATTER), grade);
+    }
+    
+    /**
+     * An enrollment as read from a file, before its student and course are looked up
+     */
+    private static final class EnrollmentRow {
+        private final long studentId;
+        private final String courseCode;
+        private final LocalDate enrollmentDate;
+        private final Grade grade;
+        
+        EnrollmentRow(long studentId, String courseCode, LocalDate enrollmentDate, Grade grade) {
+            this.studentId = studentId;
+            this.courseCode = courseCode;
+            this.enrollmentDate = enrollmentDate;
+            this.grade = grade;
+        }
+    }
+    
+    /**
+     * Create a pool for partition readers and writers
+     * Sized for I/O overlap rather than CPU count, but never more threads than tasks
+     */
+    private static ExecutorService newPartitionPool(int tasks) {
+        int threads = Math.max(1, Math.min(tasks, Math.max(2, Runtime.getRuntime().availableProcessors())));
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ccrm-partition-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Wait for a partition task, rethrowing its I/O failure
+     */
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a partition");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Partition task failed: " + cause, cause);
+        }
+    }
+    
+    /**
+     * Export only the students and courses changed since the last delta export
+     * Each export adds new delta files plus one manifest line per file; files already
+     * listed are never rewritten, so the cost follows the churn, not the data size.
+     * The watermark is the last version in the manifest for the tracker's epoch - a
+     * tracker from a new run starts over with a base delta of everything it holds.
+     * @param students the student change tracker
+     * @param courses the course change tracker
+     * @param directory target directory for delta files and the manifest
+     * @return number of change rows written
+     * @throws IOException if file operations fail
+     */
+    public int exportDelta(ChangeTracker<Long, Student> students, ChangeTracker<String, Course> courses,
+                           Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            Files.createDirectories(directory);
+        }
+        
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        List<String[]> entries = readManifest(manifest);
+        int rows = writeDelta("students", students, entries, STUDENT_HEADER, this::formatStudent, directory, manifest);
+        rows += writeDelta("courses", courses, entries, COURSE_HEADER, this::formatCourse, directory, manifest);
+        return rows;
+    }
+    
+    /**
+     * Write one delta file and list it in the manifest
+     * Rows are "UPSERT,<record>" or "DELETE,<key>", in version order
+     */
+    private <K, V> int writeDelta(String entity, ChangeTracker<K, V> tracker, List<String[]> entries, String header,
+                                  Function<V, String> formatter, Path directory, Path manifest) throws IOException {
+        long watermark = lastVersion(entries, entity, tracker.getEpoch());
+        ChangeTracker.Delta<K, V> delta = tracker.changesSince(Math.max(watermark, 0));
+        // The first export of a tracker always lists a base, even an empty one,
+        // so a replay drops whatever an earlier run left behind
+        if (delta.isEmpty() && watermark >= 0) {
+            return 0;
+        }
+        
+        String fileName = String.format("%s-%s-%d-%d.csv", entity, delta.getEpoch().substring(0, 8),
+                                        delta.getFromVersion() + 1, delta.getToVersion());
+        List<String> lines = new ArrayList<>(delta.getChanges().size() + 1);
+        lines.add("Op," + header);
+        for (ChangeTracker.Change<K, V> change : delta.getChanges()) {
+            lines.add(change.isRemoval() ? "DELETE," + change.getKey()
+                                         : "UPSERT," + formatter.apply(change.getValue()));
+        }
+        // A file that is not in the manifest yet is left over from a failed export
+        // and may be overwritten
+        Files.write(directory.resolve(fileName), lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        
+        // The manifest line is the commit point of the delta
+        List<String> entry = new ArrayList<>();
+        if (!Files.exists(manifest)) {
+            entry.add(MANIFEST_HEADER);
+        }
+        entry.add(String.join(",", entity, delta.getEpoch(), String.valueOf(delta.getFromVersion()),
+                              String.valueOf(delta.getToVersion()), delta.isBase() ? "BASE" : "DELTA",
+                              String.valueOf(delta.getChanges().size()), fileName, LocalDateTime.now().toString()));
+        Files.write(manifest, entry, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return delta.getChanges().size();
+    }
+    
+    /**
+     * Rebuild the current students from the delta files listed in a manifest
+     * @param directory directory holding the manifest and delta files
+     * @return students by ID, in first-seen order
+     * @throws IOException if reading fails
+     */
+    public Map<Long, Student> replayStudentDeltas(Path directory) throws IOException {
+        return replayDeltas(directory, "students", this::parseStudentFromCSV, Student::getId, Long::valueOf);
+    }
+    
+    /**
+     * Rebuild the current courses from the delta files listed in a manifest
+     * @param directory directory holding the manifest and delta files
+     * @return courses by course code, in first-seen order
+     * @throws IOException if reading fails
+     */
+    public Map<String, Course> replayCourseDeltas(Path directory) throws IOException {
+        return replayDeltas(directory, "courses", this::parseCourseFromCSV, Course::getCourseCode, Function.identity());
+    }
+    
+    /**
+     * Apply the delta files of one entity in manifest order - a base delta starts over
+     */
+    private <K, V> Map<K, V> replayDeltas(Path directory, String entity, Function<String, V> parser,
+                                          Function<V, K> keyOf, Function<String, K> keyParser) throws IOException {
+        Map<K, V> state = new LinkedHashMap<>();
+        for (String[] entry : readManifest(directory.resolve(MANIFEST_FILE))) {
+            if (!entry[0].equals(entity)) {
+                continue;
+            }
+            if ("BASE".equals(entry[4])) {
+                state.clear();
+            }
+            
+            List<String> lines = Files.readAllLines(directory.resolve(entry[6]));
+            for (String line : lines.subList(1, lines.size())) {
+                int comma = line.indexOf(',');
+                String row = line.substring(comma + 1);
+                if (line.startsWith("DELETE,")) {
+                    state.remove(keyParser.apply(row));
+                } else {
+                    V value = parser.apply(row);
+                    state.put(keyOf.apply(value), value);
+                }
+            }
+        }
+        return state;
+    }
+    
+    /**
+     * Read the manifest entries, oldest first
+     * @param manifest the manifest file
+     * @return entries split into columns, empty if there is no manifest yet
+     * @throws IOException if reading fails
+     */
+    private List<String[]> readManifest(Path manifest) throws IOException {
+        List<String[]> entries = new ArrayList<>();
+        if (Files.exists(manifest)) {
+            List<String> lines = Files.readAllLines(manifest);
+            for (String line : lines.subList(1, lines.size())) {
+                if (!line.isBlank()) {
+                    String[] entry = splitCSV(line);
+                    for (int i = 0; i < entry.length; i++) {
+                        entry[i] = unescapeCSV(entry[i]);
+                    }
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Find the watermark of an entity: the last exported version of the same epoch
+     * @return the version, or -1 if this epoch has not been exported yet
+     */
+    private long lastVersion(List<String[]> entries, String entity, String epoch) {
+        long version = -1;
+        for (String[] entry : entries) {
+            if (entry[0].equals(entity) && entry[1].equals(epoch)) {
+                version = Long.parseLong(entry[3]);
+            }
+        }
+        return version;
+    }
+    
     /**
      * Import students from CSV file using Java Streams and try-with-resources
      * @param filePath path to the CSV file
@@ -127,7 +978,8 @@ public class ImportExportService {
         List<Student> students = new ArrayList<>();
         
         // Read and process lines using try-with-resources and Streams
-        try (Stream<String> lines = Files.lines(filePath)) {
+        try (BufferedReader reader = openReader(filePath);
+             Stream<String> lines = reader.lines()) {
             students = lines.skip(1) // Skip header
                            .filter(line -> !line.trim().isEmpty())
                            .map(this::parseStudentFromCSV)
@@ -153,7 +1005,8 @@ public class ImportExportService {
         List<Course> courses = new ArrayList<>();
         
         // Read and process lines using try-with-resources and Streams
-        try (Stream<String> lines = Files.lines(filePath)) {
+        try (BufferedReader reader = openReader(filePath);
+             Stream<String> lines = reader.lines()) {
             courses = lines.skip(1) // Skip header
                           .filter(line -> !line.trim().isEmpty())
                           .map(this::parseCourseFromCSV)
@@ -165,13 +1018,614 @@ public class ImportExportService {
         return courses;
     }
     
+    /**
+     * Import students through the validation pipeline
+     * @param filePath path to the CSV or JSON file
+     * @param quarantineFile where rows that fail parsing or validation are written
+     * @param loader receives valid students chunk by chunk, in file order
+     * @return row counts and validation throughput
+     * @throws IOException if reading or writing fails
+     */
+    public ImportSummary importStudents(Path filePath, Path quarantineFile,
+                                        Consumer<List<Student>> loader) throws IOException {
+        Function<String, Student> parser = isJSON(filePath) ? this::parseStudentFromJSON : this::parseStudentFromCSV;
+        return importValidated(filePath, quarantineFile, parser, loader);
+    }
+    
+    /**
+     * Import courses through the validation pipeline
+     * @param filePath path to the CSV or JSON file
+     * @param quarantineFile where rows that fail parsing or validation are written
+     * @param loader receives valid courses chunk by chunk, in file order
+     * @return row counts and validation throughput
+     * @throws IOException if reading or writing fails
+     */
+    public ImportSummary importCourses(Path filePath, Path quarantineFile,
+                                       Consumer<List<Course>> loader) throws IOException {
+        Function<String, Course> parser = isJSON(filePath) ? this::parseCourseFromJSON : this::parseCourseFromCSV;
+        return importValidated(filePath, quarantineFile, parser, loader);
+    }
+    
+    /**
+     * Parse and validate rows in parallel chunks, then hand them on in order
+     * Chunks are submitted to the common fork/join pool as they are read, and the
+     * calling thread loads the chunks that are done, so reading, validation and
+     * loading overlap. Only a few chunks are held in memory at a time. Rows that
+     * fail go to the quarantine file with their line number (record number for
+     * JSON) and error.
+     */
+    private <T extends Validatable> ImportSummary importValidated(Path filePath, Path quarantineFile,
+            Function<String, T> parser, Consumer<List<T>> loader) throws IOException {
+        if (!Files.exists(filePath)) {
+            throw new IOException("Import file not found: " + filePath);
+        }
+        
+        long start = System.nanoTime();
+        int maxPending = ForkJoinPool.getCommonPoolParallelism() + 2;
+        Deque<CompletableFuture<ValidatedChunk<T>>> pending = new ArrayDeque<>();
+        ValidatedImport<T> run = new ValidatedImport<>(quarantineFile, loader, start);
+        try (RecordSource records = openRecords(filePath); run) {
+            int lineNumber = isJSON(filePath) ? 1 : 2;
+            List<String> lines = new ArrayList<>(VALIDATION_CHUNK_SIZE);
+            String line;
+            while ((line = records.next()) != null) {
+                lines.add(line);
+                if (lines.size() == VALIDATION_CHUNK_SIZE) {
+                    pending.add(submitChunk(lines, lineNumber, parser));
+                    lineNumber += lines.size();
+                    lines = new ArrayList<>(VALIDATION_CHUNK_SIZE);
+                    while (pending.size() > maxPending || (!pending.isEmpty() && pending.peek().isDone())) {
+                        run.accept(pending.poll().join());
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                pending.add(submitChunk(lines, lineNumber, parser));
+            }
+            while (!pending.isEmpty()) {
+                run.accept(pending.poll().join());
+            }
+        }
+        return run.summary();
+    }
+    
+    private RecordSource openRecords(Path filePath) throws IOException {
+        if (isJSON(filePath)) {
+            JsonReader reader = openJSON(filePath);
+            try {
+                reader.beginArray();
+            } catch (IOException e) {
+                reader.close();
+                throw e;
+            }
+            return new RecordSource() {
+                @Override
+                public String next() throws IOException {
+                    return reader.hasNext() ? reader.nextRawValue() : null;
+                }
+                
+                @Override
+                public void close() throws IOException {
+                    reader.close();
+                }
+            };
+        }
+        BufferedReader reader = openReader(filePath);
+        reader.readLine(); // Skip header
+        return new RecordSource() {
+            @Override
+            public String next() throws IOException {
+                return reader.readLine();
+            }
+            
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+    
+    private <T extends Validatable> CompletableFuture<ValidatedChunk<T>> submitChunk(List<String> lines, int firstLine,
+                                                                                    Function<String, T> parser) {
+        return CompletableFuture.supplyAsync(() -> validateChunk(lines, firstLine, parser), ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Parse and validate one chunk of lines - runs on a pool thread
+     * The boolean isValid check allocates nothing; error text is built only for failures
+     */
+    private <T extends Validatable> ValidatedChunk<T> validateChunk(List<String> lines, int firstLine,
+                                                                   Function<String, T> parser) {
+        ValidatedChunk<T> chunk = new ValidatedChunk<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.rows++;
+            try {
+                T record = parser.apply(line);
+                if (record.isValid()) {
+                    chunk.valid.add(record);
+                } else {
+                    chunk.reject(firstLine + i, String.join("; ", record.getValidationErrors()), line);
+                }
+            } catch (RuntimeException e) {
+                chunk.reject(firstLine + i, "Unparseable row: " + e.getMessage(), line);
+            }
+        }
+        chunk.finishedAt = System.nanoTime();
+        return chunk;
+    }
+    
+    /**
+     * Import a dataset - the students, courses and enrollments files of one directory -
+     * through staged pipelines
+     * Each file gets its own read, parse, validate and insert threads connected by bounded
+     * queues, and the files load concurrently. Enrollments are read and parsed straight
+     * away but resolved only once students and courses have loaded. Files may be CSV or
+     * JSON, optionally gzipped; missing files are skipped. Rejected rows go to
+     * <entity>.quarantine.csv in the same directory.
+     * @param directory the dataset directory
+     * @param loader where the records go
+     * @return a summary per file and metrics per stage
+     * @throws IOException if a file cannot be read or a loader fails
+     */
+    public PipelineReport importDataset(Path directory, DatasetLoader loader) throws IOException {
+        Path studentFile = loader.getStudents() != null ? findDatasetFile(directory, "students") : null;
+        Path courseFile = loader.getCourses() != null ? findDatasetFile(directory, "courses") : null;
+        Path enrollmentFile = loader.getEnrollments() != null ? findDatasetFile(directory, "enrollments") : null;
+        
+        // Open every file first, so a missing or malformed file fails before anything is loaded
+        Map<Path, RecordSource> sources = new HashMap<>();
+        try {
+            for (Path file : new Path[] {studentFile, courseFile, enrollmentFile}) {
+                if (file != null) {
+                    sources.put(file, openRecords(file));
+                }
+            }
+        } catch (IOException e) {
+            for (RecordSource source : sources.values()) {
+                try {
+                    source.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        
+        PipelineRun run = new PipelineRun(directory);
+        CompletableFuture<Void> studentsLoaded = CompletableFuture.completedFuture(null);
+        CompletableFuture<Void> coursesLoaded = CompletableFuture.completedFuture(null);
+        if (studentFile != null) {
+            Function<String, Student> parser = isJSON(studentFile) ? this::parseStudentFromJSON : this::parseStudentFromCSV;
+            studentsLoaded = run.start("students", studentFile, sources.get(studentFile), loader.getStudents(),
+                    pipeline -> pipeline.stage("parse", parseStep(parser))
+                                        .stage("validate", ImportExportService::validateRow));
+        }
+        if (courseFile != null) {
+            Function<String, Course> parser = isJSON(courseFile) ? this::parseCourseFromJSON : this::parseCourseFromCSV;
+            coursesLoaded = run.start("courses", courseFile, sources.get(courseFile), loader.getCourses(),
+                    pipeline -> pipeline.stage("parse", parseStep(parser))
+                                        .stage("validate", ImportExportService::validateRow));
+        }
+        if (enrollmentFile != null) {
+            Function<String, EnrollmentRow> parser = isJSON(enrollmentFile)
+                    ? this::parseEnrollmentRowFromJSON : this::parseEnrollmentRowFromCSV;
+            CompletableFuture<Void> referencesLoaded = CompletableFuture.allOf(studentsLoaded, coursesLoaded);
+            run.start("enrollments", enrollmentFile, sources.get(enrollmentFile), loader.getEnrollments(),
+                    pipeline -> pipeline.stage("parse", parseStep(parser))
+                                        .stage("resolve", resolveStep(loader.getStudentLookup(), loader.getCourseLookup()),
+                                               referencesLoaded));
+        }
+        return run.finish();
+    }
+    
+    /**
+     * Find the file of one entity in a dataset directory - CSV first, then JSON, compressed or not
+     * @return the file, or null if there is none
+     */
+    private Path findDatasetFile(Path directory, String entity) {
+        for (String suffix : new String[] {".csv", JSON_SUFFIX}) {
+            Path file = resolveDataFile(directory, entity + suffix);
+            if (Files.exists(file)) {
+                return file;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Pipeline step that parses a row, rejecting rows the parser cannot read
+     */
+    private static ImportPipeline.RowStep parseStep(Function<String, ?> parser) {
+        return (batch, row) -> {
+            try {
+                batch.records[row] = parser.apply(batch.lines[row]);
+                return null;
+            } catch (RuntimeException e) {
+                return "Unparseable row: " + e.getMessage();
+            }
+        };
+    }
+    
+    /**
+     * Pipeline step that rejects records breaking their validation rules
+     */
+    private static String validateRow(ImportPipeline.Batch batch, int row) {
+        Validatable record = (Validatable) batch.records[row];
+        return record.isValid() ? null : String.join("; ", record.getValidationErrors());
+    }
+    
+    /**
+     * Pipeline step that turns an enrollment row into an Enrollment of loaded records
+     */
+    private static ImportPipeline.RowStep resolveStep(Function<Long, Student> students,
+                                                      Function<String, Course> courses) {
+        return (batch, row) -> {
+            EnrollmentRow pending = (EnrollmentRow) batch.records[row];
+            Student student = students.apply(pending.studentId);
+            if (student == null) {
+                return "Unknown student: " + pending.studentId;
+            }
+            Course course = courses.apply(pending.courseCode);
+            if (course == null) {
+                return "Unknown course: " + pending.courseCode;
+            }
+            if (pending.enrollmentDate == null) {
+                return "Enrollment date is required";
+            }
+            batch.records[row] = new Enrollment(student, course, pending.enrollmentDate, pending.grade);
+            return null;
+        };
+    }
+    
+    /**
+     * The pipelines of one dataset import and their running totals
+     */
+    private final class PipelineRun {
+        private final Path directory;
+        private final long start;
+        private final Map<String, ValidatedImport<?>> imports = new LinkedHashMap<>();
+        private final Map<String, CompletableFuture<Void>> completions = new LinkedHashMap<>();
+        private final List<ImportPipeline> pipelines = new ArrayList<>();
+        
+        PipelineRun(Path directory) {
+            this.directory = directory;
+            this.start = System.nanoTime();
+        }
+        
+        <T> CompletableFuture<Void> start(String entity, Path file, RecordSource source, Consumer<List<T>> loader,
+                                          UnaryOperator<ImportPipeline.Builder> stages) {
+            ValidatedImport<T> target = new ValidatedImport<>(directory.resolve(entity + ".quarantine.csv"), loader, start);
+            ImportPipeline pipeline = stages.apply(new ImportPipeline.Builder(entity, source, target)
+                                                        .firstLine(isJSON(file) ? 1 : 2)
+                                                        .queueCapacity(config.getImportQueueCapacity()))
+                                            .build();
+            CompletableFuture<Void> done = pipeline.start();
+            imports.put(entity, target);
+            completions.put(entity, done);
+            pipelines.add(pipeline);
+            return done;
+        }
+        
+        /**
+         * Wait for every pipeline, then report; the first failure is rethrown once all have stopped
+         */
+        PipelineReport finish() throws IOException {
+            Throwable failure = null;
+            for (CompletableFuture<Void> done : completions.values()) {
+                try {
+                    done.join();
+                } catch (CompletionException e) {
+                    failure = failure != null ? failure : e.getCause();
+                }
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            }
+            if (failure != null) {
+                throw new IOException("Dataset import failed: " + failure, failure);
+            }
+            
+            Map<String, ImportSummary> summaries = new LinkedHashMap<>();
+            imports.forEach((entity, target) -> summaries.put(entity, target.summary()));
+            List<StageMetrics> stages = new ArrayList<>();
+            for (ImportPipeline pipeline : pipelines) {
+                stages.addAll(pipeline.getMetrics());
+            }
+            return new PipelineReport(summaries, stages, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Running totals of a validated import - loads finished chunks in order and
+     * writes the quarantine file, which is only created once a row fails
+     * Also the insert stage of a dataset pipeline, which hands it finished batches
+     */
+    private final class ValidatedImport<T> implements ImportPipeline.Sink {
+        private final Path quarantineFile;
+        private final Consumer<List<T>> loader;
+        private final long start;
+        private BufferedWriter quarantine;
+        private int total;
+        private int valid;
+        private int quarantined;
+        private long validatedAt;
+        
+        ValidatedImport(Path quarantineFile, Consumer<List<T>> loader, long start) {
+            this.quarantineFile = quarantineFile;
+            this.loader = loader;
+            this.start = start;
+            this.validatedAt = start;
+        }
+        
+        void accept(ValidatedChunk<T> chunk) throws IOException {
+            total += chunk.rows;
+            valid += chunk.valid.size();
+            validatedAt = Math.max(validatedAt, chunk.finishedAt);
+            
+            if (!chunk.rejected.isEmpty()) {
+                if (quarantine == null) {
+                    quarantine = openWriter(quarantineFile);
+                    quarantine.write("Line,Error,Row");
+                    quarantine.newLine();
+                }
+                for (String row : chunk.rejected) {
+                    quarantine.write(row);
+                    quarantine.newLine();
+                }
+                quarantined += chunk.rejected.size();
+            }
+            if (!chunk.valid.isEmpty()) {
+                loader.accept(chunk.valid);
+            }
+        }
+        
+        /**
+         * Load the records of a pipeline batch that passed every stage and quarantine the rest
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public void accept(ImportPipeline.Batch batch) throws IOException {
+            ValidatedChunk<T> chunk = new ValidatedChunk<>(batch.size);
+            chunk.rows = batch.size;
+            for (int row = 0; row < batch.size; row++) {
+                if (batch.errors[row] == null) {
+                    chunk.valid.add((T) batch.records[row]);
+                } else {
+                    chunk.reject(batch.lineNumbers[row], batch.errors[row], batch.lines[row]);
+                }
+            }
+            chunk.finishedAt = System.nanoTime();
+            accept(chunk);
+        }
+        
+        ImportSummary summary() {
+            return new ImportSummary(total, valid, quarantined, quarantineFile, validatedAt - start);
+        }
+        
+        @Override
+        public void close() throws IOException {
+            if (quarantine != null) {
+                quarantine.close();
+            }
+        }
+    }
+    
+    /**
+     * Valid records and quarantine rows of one chunk
+     */
+    private final class ValidatedChunk<T> {
+        private final List<T> valid;
+        private final List<String> rejected;
+        private int rows;
+        private long finishedAt;
+        
+        ValidatedChunk(int capacity) {
+            this.valid = new ArrayList<>(capacity);
+            this.rejected = new ArrayList<>();
+        }
+        
+        void reject(int lineNumber, String error, String line) {
+            rejected.add(lineNumber + "," + escapeCSV(error) + "," + escapeCSV(line));
+        }
+    }
+    
+    /**
+     * Reconcile students with a full feed file, applying only what changed
+     * Each row is hashed and compared with the hash of the same student from the
+     * previous reconcile; unchanged rows are skipped without parsing. Students
+     * imported before but missing from the file are removed. The first reconcile
+     * of a feed applies every row.
+     * @param filePath path to the CSV file
+     * @param upserts adds or replaces the new and changed students, returning those it applied
+     * @param removals removes students by ID
+     * @return counts of added, changed, removed and unchanged rows
+     * @throws IOException if reading fails
+     */
+    public ReconcileReport reconcileStudents(Path filePath, Function<List<Student>, List<Student>> upserts,
+                                             Consumer<Set<Long>> removals) throws IOException {
+        return reconcile(filePath, studentRowHashes, Long::valueOf, this::parseStudentFromCSV,
+                         Student::getId, upserts, removals);
+    }
+    
+    /**
+     * Reconcile courses with a full feed file, applying only what changed
+     * @param filePath path to the CSV file
+     * @param upserts adds or replaces the new and changed courses, returning those it applied
+     * @param removals removes courses by course code
+     * @return counts of added, changed, removed and unchanged rows
+     * @throws IOException if reading fails
+     * @see #reconcileStudents(Path, Function, Consumer)
+     */
+    public ReconcileReport reconcileCourses(Path filePath, Function<List<Course>, List<Course>> upserts,
+                                            Consumer<Set<String>> removals) throws IOException {
+        return reconcile(filePath, courseRowHashes, Function.identity(), this::parseCourseFromCSV,
+                         Course::getCourseCode, upserts, removals);
+    }
+    
+    /**
+     * Diff a feed file against the stored row hashes and apply the difference
+     * The key is the first column, so unchanged rows cost one hash and one lookup.
+     * Hashes are stored only for rows the loader applied, so refused rows are
+     * retried by the next reconcile.
+     */
+    private <K, V extends Validatable> ReconcileReport reconcile(Path filePath, Map<K, Long> rowHashes,
+            Function<String, K> keyParser, Function<String, V> parser, Function<V, K> keyOf,
+            Function<List<V>, List<V>> upserts, Consumer<Set<K>> removals) throws IOException {
+        if (!Files.exists(filePath)) {
+            throw new IOException("Import file not found: " + filePath);
+        }
+        long start = System.nanoTime();
+        Set<K> seen = new HashSet<>();
+        Map<K, Long> pending = new HashMap<>();
+        List<V> batch = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        int added = 0;
+        int changed = 0;
+        int unchanged = 0;
+        try (BufferedReader reader = openReader(filePath)) {
+            reader.readLine(); // Skip header
+            int lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                int comma = line.indexOf(',');
+                K key;
+                try {
+                    key = keyParser.apply(comma < 0 ? line : line.substring(0, comma));
+                } catch (RuntimeException e) {
+                    errors.add("Line " + lineNumber + ": invalid key");
+                    continue;
+                }
+                if (!seen.add(key)) {
+                    errors.add("Line " + lineNumber + ": duplicate key " + key);
+                    continue;
+                }
+                
+                long hash = hashRow(line);
+                Long previous = rowHashes.get(key);
+                if (previous != null && previous == hash) {
+                    unchanged++;
+                    continue;
+                }
+                try {
+                    V record = parser.apply(line);
+                    if (!record.isValid()) {
+                        errors.add("Line " + lineNumber + ": " + String.join("; ", record.getValidationErrors()));
+                        continue;
+                    }
+                    batch.add(record);
+                    pending.put(key, hash);
+                    if (previous == null) {
+                        added++;
+                    } else {
+                        changed++;
+                    }
+                } catch (RuntimeException e) {
+                    errors.add("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        
+        // Rows that failed above still count as seen, so their records are kept
+        Set<K> removed = new HashSet<>();
+        for (K key : rowHashes.keySet()) {
+            if (!seen.contains(key)) {
+                removed.add(key);
+            }
+        }
+        
+        int applied = 0;
+        if (!batch.isEmpty()) {
+            for (V record : upserts.apply(batch)) {
+                K key = keyOf.apply(record);
+                rowHashes.put(key, pending.get(key));
+                applied++;
+            }
+        }
+        if (!removed.isEmpty()) {
+            removals.accept(removed);
+            rowHashes.keySet().removeAll(removed);
+        }
+        return new ReconcileReport(added, changed, removed.size(), unchanged,
+                                   errors.size() + batch.size() - applied, errors, System.nanoTime() - start);
+    }
+    
+    /**
+     * Hash a raw CSV row with 64-bit FNV-1a
+     * @param line the row
+     * @return the row hash
+     */
+    private static long hashRow(String line) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < line.length(); i++) {
+            hash ^= line.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+    
+    /**
+     * Import instructors from a JSON export
+     * The file is streamed through the pull parser, one record at a time
+     * @param filePath path to the JSON file
+     * @return list of imported instructors
+     * @throws IOException if reading fails or the file is not valid JSON
+     */
+    public List<Instructor> importInstructorsJSON(Path filePath) throws IOException {
+        List<Instructor> instructors = new ArrayList<>();
+        try (JsonReader reader = openJSON(filePath)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                instructors.add(readInstructor(reader));
+            }
+            reader.endArray();
+        } catch (IOException e) {
+            throw new IOException("Failed to import instructors: " + e.getMessage(), e);
+        }
+        return instructors;
+    }
+    
+    /**
+     * Import enrollments from a JSON export, resolving their students and courses
+     * Enrollments whose student or course is unknown are skipped
+     * @param filePath path to the JSON file
+     * @param students known students by ID
+     * @param courses known courses by code
+     * @return list of imported enrollments
+     * @throws IOException if reading fails or the file is not valid JSON
+     */
+    public List<Enrollment> importEnrollmentsJSON(Path filePath, Map<Long, Student> students,
+                                                  Map<String, Course> courses) throws IOException {
+        List<Enrollment> enrollments = new ArrayList<>();
+        try (JsonReader reader = openJSON(filePath)) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Enrollment enrollment = readEnrollment(reader, students, courses);
+                if (enrollment != null) {
+                    enrollments.add(enrollment);
+                }
+            }
+            reader.endArray();
+        } catch (IOException e) {
+            throw new IOException("Failed to import enrollments: " + e.getMessage(), e);
+        }
+        return enrollments;
+    }
+    
     /**
      * Parse a student from CSV line
      * @param csvLine the CSV line
      * @return Student object
      */
     private Student parseStudentFromCSV(String csvLine) {
-        String[] parts = csvLine.split(",");
+        String[] parts = splitCSV(csvLine);
         
         if (parts.length < 6) {
             throw new IllegalArgumentException("Invalid student CSV format: " + csvLine);
@@ -194,29 +1648,355 @@ public class ImportExportService {
      * @return Course object
      */
     private Course parseCourseFromCSV(String csvLine) {
-        String[] parts = csvLine.split(",");
+        String[] parts = splitCSV(csvLine);
         
         if (parts.length < 7) {
             throw new IllegalArgumentException("Invalid course CSV format: " + csvLine);
         }
         
-        // Create instructor if provided
+        // Resolve instructor if provided - rows with the same id share one instance
         Instructor instructor = null;
         long instructorId = Long.parseLong(parts[5]);
         if (instructorId > 0) {
-            instructor = new Instructor();
-            instructor.setId(instructorId);
-            instructor.setFullName(unescapeCSV(parts[6]));
+            instructor = instructorsById.computeIfAbsent(instructorId, id -> {
+                Instructor created = new Instructor();
+                created.setId(id);
+                created.setFullName(unescapeCSV(parts[6]));
+                return created;
+            });
         }
         
-        return new Course.Builder()
+        Course.Builder builder = new Course.Builder()
                 .courseCode(parts[0])
                 .title(unescapeCSV(parts[1]))
                 .credits(Integer.parseInt(parts[2]))
                 .department(unescapeCSV(parts[3]))
                 .semester(Semester.valueOf(parts[4]))
-                .instructor(instructor)
-                .build();
+                .instructor(instructor);
+        
+        // Optional meeting times column, e.g. "MON 09:00-10:30;WED 09:00-10:30"
+        if (parts.length > 7 && !parts[7].isEmpty()) {
+            builder.meetingSlots(parseMeetingSlots(parts[7]));
+        }
+        
+        return builder.build();
+    }
+    
+    /**
+     * Parse a student from one JSON object
+     * @param json the JSON text
+     * @return Student object
+     */
+    private Student parseStudentFromJSON(String json) {
+        try {
+            return readStudent(new JsonReader(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid student JSON: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Parse a course from one JSON object
+     * @param json the JSON text
+     * @return Course object
+     */
+    private Course parseCourseFromJSON(String json) {
+        try {
+            return readCourse(new JsonReader(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid course JSON: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Read a student object; members may come in any order and unknown ones are skipped
+     * A missing registration date is left empty so validation reports it
+     */
+    private Student readStudent(JsonReader reader) throws IOException {
+        Student student = new Student();
+        student.setRegistrationDate(null);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    student.setId(reader.nextLong());
+                    break;
+                case "fullName":
+                    student.setFullName(reader.nextString());
+                    break;
+                case "email":
+                    student.setEmail(reader.nextString());
+                    break;
+                case "regNo":
+                    student.setRegNo(reader.nextString());
+                    break;
+                case "status":
+                    student.setStatus(StudentStatus.valueOf(reader.nextString()));
+                    break;
+                case "registrationDate":
+                    student.setRegistrationDate(LocalDate.parse(reader.nextString(), DATE_FORMATTER));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return student;
+    }
+    
+    private Course readCourse(JsonReader reader) throws IOException {
+        Course.Builder builder = new Course.Builder();
+        long instructorId = 0;
+        String instructorName = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "courseCode":
+                    builder.courseCode(reader.nextString());
+                    break;
+                case "title":
+                    builder.title(reader.nextString());
+                    break;
+                case "credits":
+                    builder.credits(reader.nextInt());
+                    break;
+                case "department":
+                    builder.department(reader.nextString());
+                    break;
+                case "semester":
+                    builder.semester(Semester.valueOf(reader.nextString()));
+                    break;
+                case "instructorId":
+                    String id = reader.nextString();
+                    instructorId = id != null ? Long.parseLong(id) : 0;
+                    break;
+                case "instructorName":
+                    instructorName = reader.nextString();
+                    break;
+                case "meetings":
+                    List<MeetingSlot> slots = new ArrayList<>();
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        slots.add(MeetingSlot.parse(reader.nextString()));
+                    }
+                    reader.endArray();
+                    builder.meetingSlots(slots);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        // Resolve instructor as for CSV rows - rows with the same id share one instance
+        if (instructorId > 0) {
+            String name = instructorName;
+            builder.instructor(instructorsById.computeIfAbsent(instructorId, key -> {
+                Instructor created = new Instructor();
+                created.setId(key);
+                created.setFullName(name);
+                return created;
+            }));
+        }
+        return builder.build();
+    }
+    
+    private Instructor readInstructor(JsonReader reader) throws IOException {
+        Instructor instructor = new Instructor();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    instructor.setId(reader.nextLong());
+                    break;
+                case "fullName":
+                    instructor.setFullName(reader.nextString());
+                    break;
+                case "email":
+                    instructor.setEmail(reader.nextString());
+                    break;
+                case "department":
+                    instructor.setDepartment(reader.nextString());
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return instructor;
+    }
+    
+    /**
+     * Read an enrollment object, resolving its student and course
+     * @return the enrollment, or null if the student or course is unknown
+     */
+    private Enrollment readEnrollment(JsonReader reader, Map<Long, Student> students,
+                                      Map<String, Course> courses) throws IOException {
+        EnrollmentRow row = readEnrollmentRow(reader);
+        Student student = students.get(row.studentId);
+        Course course = courses.get(row.courseCode);
+        if (student == null || course == null || row.enrollmentDate == null) {
+            return null;
+        }
+        return new Enrollment(student, course, row.enrollmentDate, row.grade);
+    }
+    
+    private EnrollmentRow parseEnrollmentRowFromJSON(String json) {
+        try {
+            return readEnrollmentRow(new JsonReader(json));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid enrollment JSON: " + e.getMessage(), e);
+        }
+    }
+    
+    private EnrollmentRow readEnrollmentRow(JsonReader reader) throws IOException {
+        long studentId = 0;
+        String courseCode = null;
+        LocalDate enrollmentDate = null;
+        Grade grade = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "studentId":
+                    studentId = reader.nextLong();
+                    break;
+                case "courseCode":
+                    courseCode = reader.nextString();
+                    break;
+                case "enrollmentDate":
+                    enrollmentDate = LocalDate.parse(reader.nextString(), DATE_FORMATTER);
+                    break;
+                case "grade":
+                    String value = reader.nextString();
+                    grade = value != null ? Grade.valueOf(value) : null;
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new EnrollmentRow(studentId, courseCode, enrollmentDate, grade);
+    }
+    
+    /**
+     * Opens the file an export writes to, before any compression
+     */
+    @FunctionalInterface
+    private interface FileOpener {
+        OutputStream open(Path filePath) throws IOException;
+    }
+    
+    /**
+     * Open a buffered writer, compressing with GZIP if the file name ends in .gz
+     * Nothing is staged in memory or in temporary files
+     * @param filePath the file to create or overwrite
+     * @return UTF-8 writer
+     * @throws IOException if the file cannot be opened
+     */
+    private BufferedWriter openWriter(Path filePath) throws IOException {
+        return openWriter(filePath, Files::newOutputStream);
+    }
+    
+    private BufferedWriter openWriter(Path filePath, FileOpener opener) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(openOutputStream(filePath, opener), StandardCharsets.UTF_8),
+                                  STREAM_BUFFER_SIZE);
+    }
+    
+    private OutputStream openOutputStream(Path filePath) throws IOException {
+        return openOutputStream(filePath, Files::newOutputStream);
+    }
+    
+    private OutputStream openOutputStream(Path filePath, FileOpener opener) throws IOException {
+        OutputStream out = opener.open(filePath);
+        if (isCompressed(filePath)) {
+            int level = config.getExportCompressionLevel();
+            out = new LeveledGZIPOutputStream(out, level > 0 ? level : Deflater.DEFAULT_COMPRESSION);
+        }
+        return out;
+    }
+    
+    /**
+     * Open a buffered reader, decompressing if the file name ends in .gz
+     * @param filePath the file to read
+     * @return UTF-8 reader
+     * @throws IOException if the file cannot be opened
+     */
+    private BufferedReader openReader(Path filePath) throws IOException {
+        return new BufferedReader(new InputStreamReader(openInputStream(filePath), StandardCharsets.UTF_8),
+                                  STREAM_BUFFER_SIZE);
+    }
+    
+    /**
+     * Open a JSON pull parser, decompressing if the file name ends in .gz
+     * The parser has its own buffer, so the reader under it is not buffered again
+     * @param filePath the file to read
+     * @return parser positioned before the first token
+     * @throws IOException if the file cannot be opened
+     */
+    private JsonReader openJSON(Path filePath) throws IOException {
+        return new JsonReader(new InputStreamReader(openInputStream(filePath), StandardCharsets.UTF_8),
+                              STREAM_BUFFER_SIZE);
+    }
+    
+    private InputStream openInputStream(Path filePath) throws IOException {
+        InputStream in = Files.newInputStream(filePath);
+        if (isCompressed(filePath)) {
+            in = new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+        }
+        return in;
+    }
+    
+    private static boolean isCompressed(Path filePath) {
+        return filePath.getFileName().toString().endsWith(COMPRESSED_SUFFIX);
+    }
+    
+    private static boolean isJSON(Path filePath) {
+        String name = filePath.getFileName().toString();
+        if (name.endsWith(COMPRESSED_SUFFIX)) {
+            name = name.substring(0, name.length() - COMPRESSED_SUFFIX.length());
+        }
+        return name.endsWith(JSON_SUFFIX);
+    }
+    
+    /**
+     * GZIP stream with a selectable compression level
+     */
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+        LeveledGZIPOutputStream(OutputStream out, int level) throws IOException {
+            super(out, STREAM_BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+    
+    /**
+     * Format meeting slots as a semicolon separated list
+     * @param slots the meeting slots
+     * @return formatted slots, empty if there are none
+     */
+    private String formatMeetingSlots(List<MeetingSlot> slots) {
+        StringBuilder sb = new StringBuilder();
+        for (MeetingSlot slot : slots) {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(slot);
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Parse a semicolon separated list of meeting slots
+     * @param value the column value
+     * @return list of meeting slots
+     */
+    public static List<MeetingSlot> parseMeetingSlots(String value) {
+        List<MeetingSlot> slots = new ArrayList<>();
+        for (String part : value.split(";")) {
+            if (!part.trim().isEmpty()) {
+                slots.add(MeetingSlot.parse(part));
+            }
+        }
+        return slots;
     }
     
     /**
@@ -232,6 +2012,33 @@ public class ImportExportService {
         return value;
     }
     
+    /**
+     * Split a CSV line into fields, keeping commas inside quoted fields
+     * Quoted fields keep their quotes, for unescapeCSV to remove
+     * @param csvLine the CSV line
+     * @return the fields, including empty trailing ones
+     */
+    private static String[] splitCSV(String csvLine) {
+        if (csvLine.indexOf('"') < 0) {
+            return csvLine.split(",", -1);
+        }
+        List<String> fields = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < csvLine.length(); i++) {
+            char c = csvLine.charAt(i);
+            if (c == '"') {
+                // An escaped quote ("") toggles twice and leaves the state unchanged
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                fields.add(csvLine.substring(start, i));
+                start = i + 1;
+            }
+        }
+        fields.add(csvLine.substring(start));
+        return fields.toArray(new String[0]);
+    }
+    
     /**
      * Unescape CSV special characters
      * @param value the value to unescape
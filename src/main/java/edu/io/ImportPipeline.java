@@ -0,0 +1,319 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Import of one file as a chain of stages, each running on its own thread
+ * The read stage cuts the file into batches of rows that pass through the row stages
+ * and on to the insert stage over bounded queues. A slow stage fills the queue in front
+ * of it and so holds back the stages before it - memory stays bounded and the queue
+ * depths show where the bottleneck is. Rows a stage rejects are skipped by the later
+ * stages and handed to the insert stage with their error, still in file order.
+ * If any stage fails, the others are interrupted and the pipeline fails with that error.
+ */
+final class ImportPipeline {
+    
+    /**
+     * Work of one row stage on one row
+     */
+    @FunctionalInterface
+    interface RowStep {
+        /**
+         * Process a row, replacing batch.records[row] if it produces a new value
+         * @param batch the batch
+         * @param row index of the row in the batch
+         * @return null to pass the row on, otherwise why it is rejected
+         */
+        String apply(Batch batch, int row);
+    }
+    
+    /**
+     * Receives finished batches on the insert thread, and is closed when the pipeline ends
+     */
+    interface Sink extends Closeable {
+        void accept(Batch batch) throws IOException;
+    }
+    
+    /**
+     * Consecutive rows of the file and what the stages have made of them
+     */
+    static final class Batch {
+        final int[] lineNumbers;
+        final String[] lines;
+        final Object[] records;
+        final String[] errors;
+        int size;
+        
+        Batch(int capacity) {
+            this.lineNumbers = new int[capacity];
+            this.lines = new String[capacity];
+            this.records = new Object[capacity];
+            this.errors = new String[capacity];
+        }
+    }
+    
+    // Passed down the queues after the last batch
+    private static final Batch END = new Batch(0);
+    
+    private final String entity;
+    private final RecordSource source;
+    private final int firstLine;
+    private final int batchSize;
+    private final int queueCapacity;
+    private final List<String> stageNames;
+    private final List<RowStep> steps;
+    private final List<CompletableFuture<?>> dependencies;
+    private final Sink sink;
+    private final List<StageMetrics> metrics;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    
+    private ImportPipeline(Builder builder) {
+        this.entity = builder.entity;
+        this.source = builder.source;
+        this.firstLine = builder.firstLine;
+        this.batchSize = builder.batchSize;
+        this.queueCapacity = builder.queueCapacity;
+        this.stageNames = new ArrayList<>(builder.stageNames);
+        this.steps = new ArrayList<>(builder.steps);
+        this.dependencies = new ArrayList<>(builder.dependencies);
+        this.sink = builder.sink;
+        this.metrics = new ArrayList<>();
+        metrics.add(new StageMetrics(entity, "read", 0));
+        for (String name : stageNames) {
+            metrics.add(new StageMetrics(entity, name, queueCapacity));
+        }
+        metrics.add(new StageMetrics(entity, "insert", queueCapacity));
+    }
+    
+    /**
+     * Start a thread for every stage
+     * @return completes once the last batch has been inserted, or exceptionally if a stage failed
+     */
+    CompletableFuture<Void> start() {
+        List<BlockingQueue<Batch>> queues = new ArrayList<>();
+        for (int i = 0; i <= steps.size(); i++) {
+            queues.add(new ArrayBlockingQueue<>(queueCapacity));
+        }
+        threads.add(newThread("read", () -> read(queues.get(0))));
+        for (int i = 0; i < steps.size(); i++) {
+            int index = i;
+            threads.add(newThread(stageNames.get(i), () -> process(index, queues.get(index), queues.get(index + 1))));
+        }
+        threads.add(newThread("insert", () -> insert(queues.get(steps.size()))));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        // A stage that failed while others were still starting could not interrupt them
+        if (failure.get() != null) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        return completion;
+    }
+    
+    /**
+     * Get the metrics of every stage, in pipeline order
+     * Complete once the future returned by start has completed
+     * @return stage metrics
+     */
+    List<StageMetrics> getMetrics() {
+        return metrics;
+    }
+    
+    private void read(BlockingQueue<Batch> out) throws IOException, InterruptedException {
+        StageMetrics stage = metrics.get(0);
+        try (RecordSource records = source) {
+            int lineNumber = firstLine;
+            boolean more = true;
+            while (more) {
+                long start = System.nanoTime();
+                Batch batch = new Batch(batchSize);
+                while (batch.size < batchSize) {
+                    String line = records.next();
+                    if (line == null) {
+                        more = false;
+                        break;
+                    }
+                    if (!line.isBlank()) {
+                        batch.lineNumbers[batch.size] = lineNumber;
+                        batch.lines[batch.size++] = line;
+                    }
+                    lineNumber++;
+                }
+                stage.batch(batch.size, 0, System.nanoTime() - start, 0);
+                if (batch.size > 0) {
+                    out.put(batch);
+                }
+            }
+        }
+        out.put(END);
+    }
+    
+    private void process(int index, BlockingQueue<Batch> in, BlockingQueue<Batch> out)
+            throws IOException, InterruptedException {
+        StageMetrics stage = metrics.get(index + 1);
+        RowStep step = steps.get(index);
+        CompletableFuture<?> dependency = dependencies.get(index);
+        if (dependency != null) {
+            long start = System.nanoTime();
+            awaitDependency(dependency);
+            stage.waited(System.nanoTime() - start);
+        }
+        
+        Batch batch;
+        while ((batch = in.take()) != END) {
+            int depth = in.size();
+            long start = System.nanoTime();
+            int rejected = 0;
+            for (int row = 0; row < batch.size; row++) {
+                if (batch.errors[row] != null) {
+                    continue;
+                }
+                String error;
+                try {
+                    error = step.apply(batch, row);
+                } catch (RuntimeException e) {
+                    error = String.valueOf(e.getMessage());
+                }
+                if (error != null) {
+                    batch.errors[row] = error;
+                    batch.records[row] = null;
+                    rejected++;
+                }
+            }
+            stage.batch(batch.size, rejected, System.nanoTime() - start, depth);
+            out.put(batch);
+        }
+        out.put(END);
+    }
+    
+    private void insert(BlockingQueue<Batch> in) throws IOException, InterruptedException {
+        StageMetrics stage = metrics.get(metrics.size() - 1);
+        try (Sink target = sink) {
+            Batch batch;
+            while ((batch = in.take()) != END) {
+                int depth = in.size();
+                long start = System.nanoTime();
+                target.accept(batch);
+                stage.batch(batch.size, 0, System.nanoTime() - start, depth);
+            }
+        }
+        completion.complete(null);
+    }
+    
+    /**
+     * Block until the files this stage depends on are loaded
+     */
+    private void awaitDependency(CompletableFuture<?> dependency) throws IOException, InterruptedException {
+        try {
+            dependency.get();
+        } catch (ExecutionException e) {
+            throw new IOException("Not imported because a file it depends on failed: "
+                                  + e.getCause().getMessage(), e.getCause());
+        }
+    }
+    
+    /**
+     * Work of one stage thread
+     */
+    @FunctionalInterface
+    private interface StageBody {
+        void run() throws IOException, InterruptedException;
+    }
+    
+    private Thread newThread(String stage, StageBody body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                fail(new InterruptedIOException("Import of " + entity + " interrupted"));
+            } catch (Throwable e) {
+                fail(e);
+            }
+        }, "ccrm-import-" + entity + "-" + stage);
+        thread.setDaemon(true);
+        return thread;
+    }
+    
+    /**
+     * Record the first failure and stop every stage; later failures are a consequence of it
+     */
+    private void fail(Throwable cause) {
+        if (failure.compareAndSet(null, cause)) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            completion.completeExceptionally(cause);
+        }
+    }
+    
+    /**
+     * Builder for a pipeline: the read stage, row stages in order, then the insert stage
+     */
+    static class Builder {
+        private final String entity;
+        private final RecordSource source;
+        private final Sink sink;
+        private final List<String> stageNames = new ArrayList<>();
+        private final List<RowStep> steps = new ArrayList<>();
+        private final List<CompletableFuture<?>> dependencies = new ArrayList<>();
+        private int firstLine = 1;
+        private int batchSize = 1024;
+        private int queueCapacity = 8;
+        
+        Builder(String entity, RecordSource source, Sink sink) {
+            this.entity = entity;
+            this.source = source;
+            this.sink = sink;
+        }
+        
+        Builder firstLine(int firstLine) {
+            this.firstLine = firstLine;
+            return this;
+        }
+        
+        Builder stage(String name, RowStep step) {
+            return stage(name, step, null);
+        }
+        
+        /**
+         * Add a row stage that starts only once other work has completed
+         * Earlier stages keep going until the queue in front of this one is full
+         */
+        Builder stage(String name, RowStep step, CompletableFuture<?> after) {
+            stageNames.add(name);
+            steps.add(step);
+            dependencies.add(after);
+            return this;
+        }
+        
+        Builder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+        
+        Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+        
+        ImportPipeline build() {
+            if (batchSize <= 0 || queueCapacity <= 0) {
+                throw new IllegalStateException("Batch size and queue capacity must be positive");
+            }
+            return new ImportPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package edu.ccrm.io;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a validated import - row counts, quarantine file and throughput
+ */
+public class ImportSummary {
+    
+    private final int totalRows;
+    private final int validRows;
+    private final int quarantinedRows;
+    private final Path quarantineFile;
+    private final long validationNanos;
+    
+    ImportSummary(int totalRows, int validRows, int quarantinedRows, Path quarantineFile, long validationNanos) {
+        this.totalRows = totalRows;
+        this.validRows = validRows;
+        this.quarantinedRows = quarantinedRows;
+        this.quarantineFile = quarantineFile;
+        this.validationNanos = validationNanos;
+    }
+    
+    public int getTotalRows() {
+        return totalRows;
+    }
+    
+    public int getValidRows() {
+        return validRows;
+    }
+    
+    public int getQuarantinedRows() {
+        return quarantinedRows;
+    }
+    
+    /**
+     * Get the file holding rejected rows
+     * @return quarantine file, or null if every row was valid
+     */
+    public Path getQuarantineFile() {
+        return quarantinedRows > 0 ? quarantineFile : null;
+    }
+    
+    /**
+     * Get import throughput, from opening the file until the last row was validated
+     * Reading pauses while the loader catches up, so a slow loader lowers this too
+     * @return rows validated per second
+     */
+    public double getRowsPerSecond() {
+        return validationNanos == 0 ? 0 : totalRows * 1e9 / validationNanos;
+    }
+    
+    @Override
+    public String toString() {
+        String text = String.format("Validated %d rows (%.0f rows/s): %d valid, %d quarantined",
+                                    totalRows, getRowsPerSecond(), validRows, quarantinedRows);
+        return quarantinedRows > 0 ? text + " to " + quarantineFile : text;
+    }
+}
@@ -0,0 +1,47 @@
+package edu.ccrm.io;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple pacing rate limiter - delays whenever the bytes moved so far are
+ * ahead of what the rate allows for the elapsed time
+ */
+final class IoThrottle {
+    private final long bytesPerSecond;
+    private final long startNanos;
+    private long bytes;
+    
+    IoThrottle(long bytesPerSecond) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.startNanos = System.nanoTime();
+    }
+    
+    /**
+     * Count bytes about to be moved, sleeping until the rate allows them
+     * @param count number of bytes
+     * @throws InterruptedIOException if interrupted while sleeping
+     */
+    void acquire(int count) throws InterruptedIOException {
+        long aheadNanos = delayNanos(count);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Backup copy interrupted");
+            }
+        }
+    }
+    
+    /**
+     * Count bytes about to be moved without waiting, for callers that schedule the move instead
+     * @param count number of bytes
+     * @return how long to wait before moving them, in nanoseconds
+     */
+    synchronized long delayNanos(int count) {
+        bytes += count;
+        long dueNanos = bytes * 1_000_000_000L / bytesPerSecond;
+        return dueNanos - (System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,582 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Pull parser for JSON with a constant-memory cursor
+ * Input is read through one fixed character buffer and handed out a token at a time;
+ * nothing is kept of values already passed. nextRawValue returns the text of a whole
+ * value, so records can be split off cheaply on one thread and parsed on another.
+ * Malformed input is reported as an IOException with the character offset.
+ */
+final class JsonReader implements Closeable {
+    
+    /**
+     * Kind of the next token
+     */
+    enum Token {
+        BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+    
+    // What the parser is inside of, one entry per nesting level
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+    
+    private final Reader in;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    private long offset;
+    
+    private int[] scopes = new int[16];
+    private int depth = 1;
+    private Token peeked;
+    private boolean literal;
+    
+    // Reused for escaped strings, numbers and raw values spanning a refill; created when first needed
+    private StringBuilder scratch;
+    private StringBuilder capture;
+    private int captureStart = -1;
+    
+    /**
+     * Parse a stream
+     * @param in the characters to parse
+     * @param bufferSize size of the character buffer
+     */
+    JsonReader(Reader in, int bufferSize) {
+        this.in = in;
+        this.buffer = new char[Math.max(bufferSize, 64)];
+        this.scopes[0] = EMPTY_DOCUMENT;
+    }
+    
+    /**
+     * Parse a string, e.g. one record returned by nextRawValue
+     * @param json the JSON text
+     */
+    JsonReader(String json) {
+        this.in = null;
+        this.buffer = json.toCharArray();
+        this.limit = buffer.length;
+        this.scopes[0] = EMPTY_DOCUMENT;
+    }
+    
+    /**
+     * Look at the next token without consuming it
+     * @return the next token
+     * @throws IOException if reading fails or the input is malformed
+     */
+    Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+        int c;
+        switch (scopes[depth - 1]) {
+            case EMPTY_ARRAY:
+                scopes[depth - 1] = NONEMPTY_ARRAY;
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != -1) {
+                    position--;
+                }
+                break;
+            case NONEMPTY_ARRAY:
+                c = nextNonWhitespace();
+                if (c == ']') {
+                    return peeked = Token.END_ARRAY;
+                }
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or ']'");
+                }
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                c = nextNonWhitespace();
+                if (c == '}') {
+                    return peeked = Token.END_OBJECT;
+                }
+                if (scopes[depth - 1] == NONEMPTY_OBJECT) {
+                    if (c != ',') {
+                        throw syntaxError("Expected ',' or '}'");
+                    }
+                    c = nextNonWhitespace();
+                }
+                if (c != '"') {
+                    throw syntaxError("Expected a member name");
+                }
+                scopes[depth - 1] = DANGLING_NAME;
+                return peeked = Token.NAME;
+            case DANGLING_NAME:
+                if (nextNonWhitespace() != ':') {
+                    throw syntaxError("Expected ':'");
+                }
+                scopes[depth - 1] = NONEMPTY_OBJECT;
+                break;
+            case EMPTY_DOCUMENT:
+                scopes[depth - 1] = NONEMPTY_DOCUMENT;
+                break;
+            default:
+                if (nextNonWhitespace() != -1) {
+                    throw syntaxError("Unexpected content after the document");
+                }
+                return peeked = Token.END_DOCUMENT;
+        }
+        return peeked = peekValue();
+    }
+    
+    void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+    }
+    
+    void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        depth--;
+    }
+    
+    void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+    }
+    
+    void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        depth--;
+    }
+    
+    /**
+     * Check whether the current array or object has another element
+     * @return true if the next token is a value or a member name
+     * @throws IOException if reading fails or the input is malformed
+     */
+    boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_ARRAY && token != Token.END_OBJECT && token != Token.END_DOCUMENT;
+    }
+    
+    String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString();
+    }
+    
+    /**
+     * Read a string value; numbers and booleans are returned as their text
+     * @return the value, or null for a JSON null
+     * @throws IOException if the next token is not a scalar value
+     */
+    String nextString() throws IOException {
+        Token token = peek();
+        peeked = null;
+        switch (token) {
+            case STRING:
+                return readString();
+            case NUMBER:
+                return readNumber().toString();
+            case BOOLEAN:
+                return String.valueOf(literal);
+            case NULL:
+                return null;
+            default:
+                peeked = token;
+                throw syntaxError("Expected a string but was " + token);
+        }
+    }
+    
+    /**
+     * Read an integer value, accumulating digits straight from the buffer
+     * @return the value
+     * @throws IOException if the next token is not an integer or does not fit in a long
+     */
+    long nextLong() throws IOException {
+        expect(Token.NUMBER);
+        boolean negative = buffer[position] == '-';
+        if (negative) {
+            position++;
+        }
+        // Accumulated as a negative number, so Long.MIN_VALUE fits
+        long bound = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long value = 0;
+        int digits = 0;
+        while (position < limit || fill()) {
+            int digit = buffer[position] - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < bound / 10 || value * 10 < bound + digit) {
+                throw syntaxError("Integer out of range");
+            }
+            value = value * 10 - digit;
+            position++;
+            digits++;
+        }
+        if (digits == 0 || (position < limit && isNumberChar(buffer[position]))) {
+            throw syntaxError("Expected an integer");
+        }
+        return negative ? value : -value;
+    }
+    
+    int nextInt() throws IOException {
+        long value = nextLong();
+        if ((int) value != value) {
+            throw syntaxError("Integer out of range: " + value);
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Skip the next value, including everything nested in it
+     * @throws IOException if reading fails or the input is malformed
+     */
+    void skipValue() throws IOException {
+        if (!hasNext()) {
+            throw syntaxError("Expected a value but was " + peeked);
+        }
+        int level = 0;
+        do {
+            Token token = peek();
+            peeked = null;
+            switch (token) {
+                case BEGIN_ARRAY:
+                    push(EMPTY_ARRAY);
+                    level++;
+                    break;
+                case BEGIN_OBJECT:
+                    push(EMPTY_OBJECT);
+                    level++;
+                    break;
+                case END_ARRAY:
+                case END_OBJECT:
+                    depth--;
+                    level--;
+                    break;
+                case NAME:
+                case STRING:
+                    skipString();
+                    break;
+                case NUMBER:
+                    readNumber();
+                    break;
+                case END_DOCUMENT:
+                    throw syntaxError("Unexpected end of input");
+                default:
+                    // Literals are consumed when peeked
+            }
+        } while (level > 0);
+    }
+    
+    /**
+     * Read the next value as JSON text, e.g. one object of a top-level array
+     * Objects and arrays are delimited by a bracket count rather than parsed; whoever
+     * parses the returned text checks its syntax.
+     * @return the text of the value exactly as it appears in the input
+     * @throws IOException if reading fails or the value is not terminated
+     */
+    String nextRawValue() throws IOException {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+            case BEGIN_ARRAY:
+            case STRING:
+                // The opening character was consumed by peek and is still in the buffer
+                captureStart = position - 1;
+                break;
+            case NUMBER:
+                captureStart = position;
+                break;
+            case BOOLEAN:
+                peeked = null;
+                return String.valueOf(literal);
+            case NULL:
+                peeked = null;
+                return "null";
+            default:
+                throw syntaxError("Expected a value but was " + token);
+        }
+        peeked = null;
+        if (capture != null) {
+            capture.setLength(0);
+        }
+        try {
+            if (token == Token.STRING) {
+                skipString();
+            } else if (token == Token.NUMBER) {
+                readNumber();
+            } else {
+                skipNested();
+            }
+            if (capture == null || capture.length() == 0) {
+                return new String(buffer, captureStart, position - captureStart);
+            }
+            capture.append(buffer, captureStart, position - captureStart);
+            return capture.toString();
+        } finally {
+            captureStart = -1;
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+        }
+    }
+    
+    private Token peekValue() throws IOException {
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '{':
+                return Token.BEGIN_OBJECT;
+            case '[':
+                return Token.BEGIN_ARRAY;
+            case '"':
+                return Token.STRING;
+            case 't':
+                expectLiteral("rue");
+                literal = true;
+                return Token.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                literal = false;
+                return Token.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return Token.NULL;
+            case -1:
+                throw syntaxError("Unexpected end of input");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    position--;
+                    return Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+    
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+    
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Invalid literal");
+            }
+        }
+    }
+    
+    private void push(int scope) {
+        if (depth == scopes.length) {
+            int[] deeper = new int[depth * 2];
+            System.arraycopy(scopes, 0, deeper, 0, depth);
+            scopes = deeper;
+        }
+        scopes[depth++] = scope;
+    }
+    
+    /**
+     * Read a string whose opening quote has been consumed
+     * Strings without escapes that lie within the buffer are copied out directly
+     */
+    private String readString() throws IOException {
+        for (int i = position; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                String value = new String(buffer, position, i - position);
+                position = i + 1;
+                return value;
+            }
+            if (c == '\\' || c < 0x20) {
+                break;
+            }
+        }
+        
+        StringBuilder value = scratch();
+        int start = position;
+        while (true) {
+            if (position == limit) {
+                value.append(buffer, start, position - start);
+                if (!fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                start = position;
+                continue;
+            }
+            char c = buffer[position++];
+            if (c == '"') {
+                value.append(buffer, start, position - 1 - start);
+                return value.toString();
+            }
+            if (c == '\\') {
+                value.append(buffer, start, position - 1 - start);
+                value.append(readEscape());
+                start = position;
+            } else if (c < 0x20) {
+                throw syntaxError("Unescaped control character in string");
+            }
+        }
+    }
+    
+    private void skipString() throws IOException {
+        while (true) {
+            char c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            }
+        }
+    }
+    
+    /**
+     * Skip to the end of an object or array whose opening bracket has been consumed
+     */
+    private void skipNested() throws IOException {
+        int level = 1;
+        boolean inString = false;
+        boolean escaped = false;
+        while (position < limit || fill()) {
+            int i = position;
+            for (; i < limit; i++) {
+                char c = buffer[i];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    level++;
+                } else if ((c == '}' || c == ']') && --level == 0) {
+                    position = i + 1;
+                    return;
+                }
+            }
+            position = i;
+        }
+        throw syntaxError("Unexpected end of input");
+    }
+    
+    private char readEscape() throws IOException {
+        char c = read();
+        switch (c) {
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw syntaxError("Invalid escape '\\" + c + "'");
+        }
+    }
+    
+    /**
+     * Read the characters of a number into the scratch buffer
+     */
+    private CharSequence readNumber() throws IOException {
+        StringBuilder number = scratch();
+        while (position < limit || fill()) {
+            char c = buffer[position];
+            if (isNumberChar(c)) {
+                number.append(c);
+                position++;
+            } else {
+                break;
+            }
+        }
+        return number;
+    }
+    
+    private StringBuilder scratch() {
+        if (scratch == null) {
+            scratch = new StringBuilder();
+        }
+        scratch.setLength(0);
+        return scratch;
+    }
+    
+    private static boolean isNumberChar(char c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+    
+    private char read() throws IOException {
+        if (position == limit && !fill()) {
+            throw syntaxError("Unexpected end of input");
+        }
+        return buffer[position++];
+    }
+    
+    private int nextNonWhitespace() throws IOException {
+        while (position < limit || fill()) {
+            char c = buffer[position++];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Refill the buffer once every character in it has been consumed
+     * Characters of a raw value being captured are saved first
+     */
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        if (captureStart >= 0) {
+            if (capture == null) {
+                capture = new StringBuilder();
+            }
+            capture.append(buffer, captureStart, limit - captureStart);
+            captureStart = 0;
+        }
+        offset += limit;
+        position = 0;
+        int read;
+        do {
+            read = in.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+    
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at character " + (offset + position));
+    }
+}
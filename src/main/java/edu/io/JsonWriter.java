@@ -0,0 +1,255 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming JSON writer that encodes UTF-8 straight into a reusable byte buffer
+ * No reflection and no intermediate tree: callers write names and values in order,
+ * and commas are placed automatically. Elements of the top-level array start on a
+ * new line, so exports stay readable one record per line.
+ */
+final class JsonWriter implements Closeable {
+    
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7',
+                                       '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    
+    // Per nesting level: has a value been written at that level yet
+    private boolean[] hasValue = new boolean[16];
+    private int depth;
+    private boolean afterName;
+    
+    JsonWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 64)];
+    }
+    
+    JsonWriter beginArray() throws IOException {
+        return open('[');
+    }
+    
+    JsonWriter endArray() throws IOException {
+        return close(']');
+    }
+    
+    JsonWriter beginObject() throws IOException {
+        return open('{');
+    }
+    
+    JsonWriter endObject() throws IOException {
+        return close('}');
+    }
+    
+    /**
+     * Write an object member name; the next call writes its value
+     * @param name the member name
+     * @return this writer
+     * @throws IOException if writing fails
+     */
+    JsonWriter name(String name) throws IOException {
+        if (afterName || depth == 0) {
+            throw new IllegalStateException("Member name outside an object: " + name);
+        }
+        separate();
+        writeString(name);
+        ensure(1);
+        buffer[position++] = ':';
+        afterName = true;
+        return this;
+    }
+    
+    JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        beforeValue();
+        writeString(value);
+        return this;
+    }
+    
+    JsonWriter value(long value) throws IOException {
+        beforeValue();
+        if (value == Long.MIN_VALUE) {
+            writeAscii(Long.toString(value));
+            return this;
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        // Digits are written backwards into place, so no String is created
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+        return this;
+    }
+    
+    JsonWriter value(boolean value) throws IOException {
+        beforeValue();
+        writeAscii(value ? "true" : "false");
+        return this;
+    }
+    
+    JsonWriter nullValue() throws IOException {
+        beforeValue();
+        ensure(NULL.length);
+        System.arraycopy(NULL, 0, buffer, position, NULL.length);
+        position += NULL.length;
+        return this;
+    }
+    
+    /**
+     * Write buffered bytes to the underlying stream
+     * @throws IOException if writing fails
+     */
+    void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (depth == 0) {
+                ensure(1);
+                buffer[position++] = '\n';
+            }
+            out.write(buffer, 0, position);
+            position = 0;
+        } finally {
+            out.close();
+        }
+    }
+    
+    private JsonWriter open(char bracket) throws IOException {
+        beforeValue();
+        if (depth == hasValue.length) {
+            boolean[] deeper = new boolean[depth * 2];
+            System.arraycopy(hasValue, 0, deeper, 0, depth);
+            hasValue = deeper;
+        }
+        hasValue[depth++] = false;
+        ensure(1);
+        buffer[position++] = (byte) bracket;
+        return this;
+    }
+    
+    private JsonWriter close(char bracket) throws IOException {
+        if (depth == 0 || afterName) {
+            throw new IllegalStateException("Unbalanced " + bracket);
+        }
+        boolean nonEmpty = hasValue[--depth];
+        ensure(2);
+        if (depth == 0 && nonEmpty && bracket == ']') {
+            buffer[position++] = '\n';
+        }
+        buffer[position++] = (byte) bracket;
+        return this;
+    }
+    
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            separate();
+        }
+    }
+    
+    private void separate() throws IOException {
+        ensure(2);
+        if (hasValue[depth - 1]) {
+            buffer[position++] = ',';
+        }
+        hasValue[depth - 1] = true;
+        if (depth == 1) {
+            buffer[position++] = '\n';
+        }
+    }
+    
+    private void writeAscii(String text) throws IOException {
+        ensure(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+    
+    /**
+     * Write a quoted string, escaping as JSON requires and encoding as UTF-8
+     */
+    private void writeString(String value) throws IOException {
+        ensure(1);
+        buffer[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            ensure(6);
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x80) {
+                buffer[position++] = '\\';
+                switch (c) {
+                    case '"':
+                    case '\\':
+                        buffer[position++] = (byte) c;
+                        break;
+                    case '\n':
+                        buffer[position++] = 'n';
+                        break;
+                    case '\r':
+                        buffer[position++] = 'r';
+                        break;
+                    case '\t':
+                        buffer[position++] = 't';
+                        break;
+                    default:
+                        buffer[position++] = 'u';
+                        buffer[position++] = '0';
+                        buffer[position++] = '0';
+                        buffer[position++] = HEX[c >> 4];
+                        buffer[position++] = HEX[c & 0xF];
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                       && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                // Unpaired surrogates cannot be encoded; write the replacement character
+                char encoded = Character.isSurrogate(c) ? '\uFFFD' : c;
+                buffer[position++] = (byte) (0xE0 | (encoded >> 12));
+                buffer[position++] = (byte) (0x80 | ((encoded >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (encoded & 0x3F));
+            }
+        }
+        ensure(1);
+        buffer[position++] = '"';
+    }
+    
+    private void ensure(int bytes) throws IOException {
+        if (position + bytes > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * How a partitioned export splits records into files
+ * Students carry no department or semester, so they are always split by ID hash;
+ * enrollments follow the partition of their course, or of their student for ID_HASH
+ */
+public enum PartitionKey {
+    DEPARTMENT, SEMESTER, ID_HASH;
+    
+    /**
+     * Get the partition of a course
+     * @param course the course
+     * @param buckets number of hash buckets
+     * @return partition name, empty if the course has no department or semester
+     */
+    public String partitionOf(Course course, int buckets) {
+        switch (this) {
+            case DEPARTMENT:
+                return course.getDepartment() != null ? course.getDepartment().trim() : "";
+            case SEMESTER:
+                return course.getSemester() != null ? course.getSemester().name() : "";
+            default:
+                return bucket(course.getCourseCode().hashCode(), buckets);
+        }
+    }
+    
+    /**
+     * Get the partition of a student - always an ID hash bucket
+     * @param student the student
+     * @param buckets number of hash buckets
+     * @return partition name
+     */
+    public String partitionOf(Student student, int buckets) {
+        return bucket(Long.hashCode(student.getId()), buckets);
+    }
+    
+    /**
+     * Get the partition of an enrollment
+     * @param enrollment the enrollment
+     * @param buckets number of hash buckets
+     * @return partition name
+     */
+    public String partitionOf(Enrollment enrollment, int buckets) {
+        return this == ID_HASH ? partitionOf(enrollment.getStudent(), buckets)
+                               : partitionOf(enrollment.getCourse(), buckets);
+    }
+    
+    private static String bucket(int hash, int buckets) {
+        return "bucket-" + Math.floorMod(hash, Math.max(buckets, 1));
+    }
+    
+    /**
+     * Get the file name of a partition
+     * Letters, digits and '-' are kept; every other byte of the UTF-8 form, '_' included,
+     * becomes '_' and two hex digits, so distinct partitions never share a file
+     * (on a case-sensitive file system). The empty partition becomes "_unassigned",
+     * which no escaped name can produce.
+     * @param partition partition name
+     * @return file name without extension
+     */
+    public static String fileName(String partition) {
+        if (partition.isEmpty()) {
+            return "_unassigned";
+        }
+        StringBuilder name = new StringBuilder(partition.length());
+        for (byte b : partition.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9') || b == '-') {
+                name.append((char) b);
+            } else {
+                name.append('_').append(Character.toUpperCase(Character.forDigit((b >> 4) & 0xF, 16)))
+                    .append(Character.toUpperCase(Character.forDigit(b & 0xF, 16)));
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,85 @@
+package edu.ccrm.io;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records read back from a partitioned export
+ * Enrollments refer to the Student and Course objects of the same import
+ */
+public class PartitionedData {
+    
+    private final List<Student> students;
+    private final List<Course> courses;
+    private final List<Enrollment> enrollments;
+    private final int partitions;
+    private final int unresolvedEnrollments;
+    private final int rejectedRows;
+    private final Path quarantineFile;
+    
+    PartitionedData(List<Student> students, List<Course> courses, List<Enrollment> enrollments,
+                    int partitions, int unresolvedEnrollments, int rejectedRows, Path quarantineFile) {
+        this.students = Collections.unmodifiableList(students);
+        this.courses = Collections.unmodifiableList(courses);
+        this.enrollments = Collections.unmodifiableList(enrollments);
+        this.partitions = partitions;
+        this.unresolvedEnrollments = unresolvedEnrollments;
+        this.rejectedRows = rejectedRows;
+        this.quarantineFile = quarantineFile;
+    }
+    
+    public List<Student> getStudents() {
+        return students;
+    }
+    
+    public List<Course> getCourses() {
+        return courses;
+    }
+    
+    public List<Enrollment> getEnrollments() {
+        return enrollments;
+    }
+    
+    /**
+     * Get the number of partition files read
+     * @return partition file count
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+    
+    /**
+     * Get the number of enrollment rows skipped because their student or course was not exported
+     * @return skipped enrollment count
+     */
+    public int getUnresolvedEnrollments() {
+        return unresolvedEnrollments;
+    }
+    
+    /**
+     * Get the number of rows skipped because they could not be parsed
+     * @return rejected row count
+     */
+    public int getRejectedRows() {
+        return rejectedRows;
+    }
+    
+    /**
+     * Get the file listing the rejected rows
+     * @return quarantine file, or null if no row was rejected
+     */
+    public Path getQuarantineFile() {
+        return quarantineFile;
+    }
+    
+    @Override
+    public String toString() {
+        String text = String.format("Read %d partitions: %d students, %d courses, %d enrollments",
+                                    partitions, students.size(), courses.size(), enrollments.size());
+        return rejectedRows > 0 ? text + ", " + rejectedRows + " rows quarantined to " + quarantineFile : text;
+    }
+}
@@ -0,0 +1,68 @@
+package edu.ccrm.io;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a pipelined dataset import - a summary per file and metrics per stage
+ */
+public class PipelineReport {
+    
+    private final Map<String, ImportSummary> summaries;
+    private final List<StageMetrics> stages;
+    private final long elapsedNanos;
+    
+    PipelineReport(Map<String, ImportSummary> summaries, List<StageMetrics> stages, long elapsedNanos) {
+        this.summaries = Collections.unmodifiableMap(summaries);
+        this.stages = Collections.unmodifiableList(stages);
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Get the summary of each imported file
+     * @return summaries by entity ("students", "courses", "enrollments"), in start order
+     */
+    public Map<String, ImportSummary> getSummaries() {
+        return summaries;
+    }
+    
+    public List<StageMetrics> getStages() {
+        return stages;
+    }
+    
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+    
+    /**
+     * Find the stage that limits throughput - the one that was busy longest
+     * Stages run on their own threads, so each file moves no faster than its busiest stage
+     * @return the busiest stage, or null if nothing was imported
+     */
+    public StageMetrics getBottleneck() {
+        StageMetrics busiest = null;
+        for (StageMetrics stage : stages) {
+            if (busiest == null || stage.getBusyNanos() > busiest.getBusyNanos()) {
+                busiest = stage;
+            }
+        }
+        return busiest;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Imported %d files in %.1f ms%n", summaries.size(), elapsedNanos / 1e6));
+        summaries.forEach((entity, summary) -> sb.append(String.format("  %-12s %s%n", entity, summary)));
+        for (StageMetrics stage : stages) {
+            sb.append("  ").append(stage).append(System.lineSeparator());
+        }
+        StageMetrics bottleneck = getBottleneck();
+        if (bottleneck != null) {
+            sb.append(String.format("Bottleneck: %s %s (%.1f ms busy)",
+                                    bottleneck.getEntity(), bottleneck.getStage(), bottleneck.getBusyNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+}
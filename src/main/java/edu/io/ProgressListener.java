@@ -0,0 +1,16 @@
+package edu.ccrm.io;
+
+/**
+ * Progress callback of an asynchronous export or backup
+ * Called on I/O threads as writes complete, so it must return quickly and not block.
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    
+    /**
+     * Report bytes written so far
+     * @param bytes bytes written to disk so far
+     * @param totalBytes bytes the operation will write, or -1 if not known in advance
+     */
+    void progress(long bytes, long totalBytes);
+}
@@ -0,0 +1,83 @@
+package edu.ccrm.io;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a reconcile import - what changed since the previous import of the feed
+ */
+public class ReconcileReport {
+    
+    private final int addedRows;
+    private final int changedRows;
+    private final int removedRows;
+    private final int unchangedRows;
+    private final int rejectedRows;
+    private final List<String> errors;
+    private final long elapsedNanos;
+    
+    ReconcileReport(int addedRows, int changedRows, int removedRows, int unchangedRows,
+                    int rejectedRows, List<String> errors, long elapsedNanos) {
+        this.addedRows = addedRows;
+        this.changedRows = changedRows;
+        this.removedRows = removedRows;
+        this.unchangedRows = unchangedRows;
+        this.rejectedRows = rejectedRows;
+        this.errors = Collections.unmodifiableList(errors);
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Get the number of rows whose key was not in the previous import
+     * @return added row count
+     */
+    public int getAddedRows() {
+        return addedRows;
+    }
+    
+    /**
+     * Get the number of rows whose content differs from the previous import
+     * @return changed row count
+     */
+    public int getChangedRows() {
+        return changedRows;
+    }
+    
+    /**
+     * Get the number of records imported before whose row is no longer in the file
+     * @return removed record count
+     */
+    public int getRemovedRows() {
+        return removedRows;
+    }
+    
+    public int getUnchangedRows() {
+        return unchangedRows;
+    }
+    
+    /**
+     * Get the number of rows that failed parsing or validation, or were refused by the loader
+     * @return rejected row count
+     */
+    public int getRejectedRows() {
+        return rejectedRows;
+    }
+    
+    /**
+     * Get the parse and validation errors, one per rejected row
+     * @return error descriptions with line numbers
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Reconciled in %d ms: %d added, %d changed, %d removed, %d unchanged, %d rejected",
+                             getElapsedMillis(), addedRows, changedRows, removedRows, unchangedRows, rejectedRows);
+    }
+}
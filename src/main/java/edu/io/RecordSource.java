@@ -0,0 +1,17 @@
+package edu.ccrm.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Rows of an import file, one at a time - CSV lines or the objects of a JSON array
+ */
+interface RecordSource extends Closeable {
+    
+    /**
+     * Get the next row
+     * @return the row text, or null at the end of the file
+     * @throws IOException if reading fails
+     */
+    String next() throws IOException;
+}
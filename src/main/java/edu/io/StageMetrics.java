@@ -0,0 +1,113 @@
+package edu.ccrm.io;
+
+/**
+ * Counters of one import pipeline stage
+ * Updated only by the stage's own thread and read once the pipeline has finished.
+ * Queue depth is sampled each time the stage takes a batch: a stage whose input
+ * queue stays near capacity cannot keep up with the stages before it.
+ */
+public class StageMetrics {
+    
+    private final String entity;
+    private final String stage;
+    private final int queueCapacity;
+    private long rows;
+    private long rejectedRows;
+    private long batches;
+    private long busyNanos;
+    private long waitNanos;
+    private long depthTotal;
+    private int maxDepth;
+    
+    StageMetrics(String entity, String stage, int queueCapacity) {
+        this.entity = entity;
+        this.stage = stage;
+        this.queueCapacity = queueCapacity;
+    }
+    
+    /**
+     * Record one processed batch
+     * @param size rows in the batch
+     * @param rejected rows this stage rejected
+     * @param nanos time spent on the batch
+     * @param queueDepth batches waiting in the input queue when this one was taken
+     */
+    void batch(int size, int rejected, long nanos, int queueDepth) {
+        rows += size;
+        rejectedRows += rejected;
+        busyNanos += nanos;
+        batches++;
+        depthTotal += queueDepth;
+        maxDepth = Math.max(maxDepth, queueDepth);
+    }
+    
+    void waited(long nanos) {
+        waitNanos += nanos;
+    }
+    
+    public String getEntity() {
+        return entity;
+    }
+    
+    public String getStage() {
+        return stage;
+    }
+    
+    public long getRows() {
+        return rows;
+    }
+    
+    public long getRejectedRows() {
+        return rejectedRows;
+    }
+    
+    /**
+     * Get the time the stage spent working, excluding time blocked on its queues
+     * @return busy time in nanoseconds
+     */
+    public long getBusyNanos() {
+        return busyNanos;
+    }
+    
+    /**
+     * Get the time the stage waited for the files it depends on before starting
+     * @return wait time in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos;
+    }
+    
+    /**
+     * Get the stage's own throughput, while busy
+     * @return rows per second
+     */
+    public double getRowsPerSecond() {
+        return busyNanos == 0 ? 0 : rows * 1e9 / busyNanos;
+    }
+    
+    /**
+     * Get the average number of batches waiting in front of the stage
+     * @return average input queue depth, 0 for the read stage
+     */
+    public double getAverageQueueDepth() {
+        return batches == 0 ? 0 : (double) depthTotal / batches;
+    }
+    
+    public int getMaxQueueDepth() {
+        return maxDepth;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    @Override
+    public String toString() {
+        String queue = queueCapacity > 0
+                     ? String.format("queue %4.1f avg %2d max of %d", getAverageQueueDepth(), maxDepth, queueCapacity)
+                     : "";
+        String text = String.format("%-12s %-9s %9d rows %8d rejected %11.0f rows/s %7.1f ms busy  %s",
+                                    entity, stage, rows, rejectedRows, getRowsPerSecond(), busyNanos / 1e6, queue);
+        return waitNanos > 0 ? text + String.format("  waited %.1f ms", waitNanos / 1e6) : text.trim();
+    }
+}
@@ -0,0 +1,127 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Enrollment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-row result of a bulk enrollment, in request order
+ */
+public class BulkEnrollmentReport {
+    
+    private final List<EnrollmentRequest> requests;
+    private final EnrollmentOutcome[] outcomes;
+    private final String[] details;
+    private final Enrollment[] enrollments;
+    private final Map<EnrollmentOutcome, Integer> counts;
+    
+    BulkEnrollmentReport(List<EnrollmentRequest> requests) {
+        this.requests = requests;
+        this.outcomes = new EnrollmentOutcome[requests.size()];
+        this.details = new String[requests.size()];
+        this.enrollments = new Enrollment[requests.size()];
+        this.counts = new EnumMap<>(EnrollmentOutcome.class);
+    }
+    
+    void record(int row, EnrollmentOutcome outcome, String detail) {
+        outcomes[row] = outcome;
+        details[row] = detail;
+        counts.merge(outcome, 1, Integer::sum);
+    }
+    
+    void enrolled(int row, Enrollment enrollment) {
+        enrollments[row] = enrollment;
+    }
+    
+    /**
+     * Get the number of rows in the report
+     * @return row count
+     */
+    public int size() {
+        return outcomes.length;
+    }
+    
+    public EnrollmentRequest getRequest(int row) {
+        return requests.get(row);
+    }
+    
+    public EnrollmentOutcome getOutcome(int row) {
+        return outcomes[row];
+    }
+    
+    /**
+     * Get the enrollment created for a row
+     * @param row the row index
+     * @return the enrollment, or null if the row was rejected
+     */
+    public Enrollment getEnrollment(int row) {
+        return enrollments[row];
+    }
+    
+    /**
+     * Get extra detail for a row, e.g. the missing prerequisites
+     * @param row the row index
+     * @return detail text, or null if there is none
+     */
+    public String getDetail(int row) {
+        return details[row];
+    }
+    
+    /**
+     * Get the number of rows with an outcome
+     * @param outcome the outcome
+     * @return row count
+     */
+    public int count(EnrollmentOutcome outcome) {
+        return counts.getOrDefault(outcome, 0);
+    }
+    
+    public int getAcceptedCount() {
+        return count(EnrollmentOutcome.ACCEPTED);
+    }
+    
+    public int getRejectedCount() {
+        return outcomes.length - getAcceptedCount();
+    }
+    
+    /**
+     * Get the row indexes of all rejected requests
+     * @return list of row indexes
+     */
+    public List<Integer> getRejectedRows() {
+        List<Integer> rows = new ArrayList<>();
+        for (int row = 0; row < outcomes.length; row++) {
+            if (!outcomes[row].isAccepted()) {
+                rows.add(row);
+            }
+        }
+        return Collections.unmodifiableList(rows);
+    }
+    
+    /**
+     * Describe one row for display
+     * @param row the row index
+     * @return row description
+     */
+    public String describe(int row) {
+        String text = String.format("Row %d: %s -> %s", row + 1, requests.get(row), outcomes[row].getDescription());
+        return details[row] != null ? text + " (" + details[row] + ")" : text;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Bulk enrollment: ").append(getAcceptedCount()).append(" accepted, ")
+          .append(getRejectedCount()).append(" rejected");
+        for (Map.Entry<EnrollmentOutcome, Integer> entry : counts.entrySet()) {
+            if (!entry.getKey().isAccepted()) {
+                sb.append("\n  ").append(entry.getKey()).append(": ").append(entry.getValue());
+            }
+        }
+        return sb.toString();
+    }
+}
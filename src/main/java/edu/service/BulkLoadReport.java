@@ -0,0 +1,67 @@
+package edu.ccrm.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of a bulk load - the records that were added and the ones rejected,
+ * with the reason for each rejection
+ * @param <T> record type
+ */
+public class BulkLoadReport<T> {
+    
+    private final List<T> loaded;
+    private final List<T> rejected;
+    private final List<String> conflicts;
+    
+    BulkLoadReport() {
+        this.loaded = new ArrayList<>();
+        this.rejected = new ArrayList<>();
+        this.conflicts = new ArrayList<>();
+    }
+    
+    void loaded(T record) {
+        loaded.add(record);
+    }
+    
+    void reject(T record, String reason) {
+        rejected.add(record);
+        conflicts.add(reason);
+    }
+    
+    void addAll(BulkLoadReport<T> other) {
+        loaded.addAll(other.loaded);
+        rejected.addAll(other.rejected);
+        conflicts.addAll(other.conflicts);
+    }
+    
+    public List<T> getLoaded() {
+        return Collections.unmodifiableList(loaded);
+    }
+    
+    public List<T> getRejected() {
+        return Collections.unmodifiableList(rejected);
+    }
+    
+    /**
+     * Get the rejection reasons, in the same order as getRejected
+     * @return list of conflict descriptions
+     */
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+    
+    public int getLoadedCount() {
+        return loaded.size();
+    }
+    
+    public int getRejectedCount() {
+        return rejected.size();
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Bulk load: %d loaded, %d rejected", loaded.size(), rejected.size());
+    }
+}
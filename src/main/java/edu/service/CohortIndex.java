@@ -0,0 +1,221 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Semester;
+import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.util.RoaringBitmap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Membership bitmaps keyed by dense student ordinals
+ * One compressed bitmap per course, semester, department and student status,
+ * kept current by StudentService and EnrollmentService, so cohort questions
+ * become AND/OR/ANDNOT over bitmaps instead of nested enrollment scans
+ */
+public class CohortIndex {
+    
+    private final Map<Long, Integer> ordinals;
+    private final List<Student> studentsByOrdinal;
+    private final Map<String, RoaringBitmap> byCourse;
+    private final Map<String, RoaringBitmap> byDepartment;
+    private final Map<Semester, RoaringBitmap> bySemester;
+    private final Map<StudentStatus, RoaringBitmap> byStatus;
+    private final Map<Integer, StudentStatus> indexedStatus;
+    
+    public CohortIndex() {
+        this.ordinals = new HashMap<>();
+        this.studentsByOrdinal = new ArrayList<>();
+        this.byCourse = new HashMap<>();
+        this.byDepartment = new HashMap<>();
+        this.bySemester = new EnumMap<>(Semester.class);
+        this.byStatus = new EnumMap<>(StudentStatus.class);
+        this.indexedStatus = new HashMap<>();
+    }
+    
+    /**
+     * Get the dense ordinal of a student, assigning a new one on first use
+     * @param student the student
+     * @return ordinal usable as a bitmap position
+     */
+    public int ordinalOf(Student student) {
+        Integer ordinal = ordinals.get(student.getId());
+        if (ordinal == null) {
+            ordinal = studentsByOrdinal.size();
+            ordinals.put(student.getId(), ordinal);
+            studentsByOrdinal.add(student);
+        } else {
+            studentsByOrdinal.set(ordinal, student);
+        }
+        return ordinal;
+    }
+    
+    /**
+     * Register a student and index its status
+     * @param student the student added to the system
+     */
+    public void addStudent(Student student) {
+        updateStudent(student);
+    }
+    
+    /**
+     * Re-index a student whose status may have changed
+     * @param student the updated student
+     */
+    public void updateStudent(Student student) {
+        int ordinal = ordinalOf(student);
+        StudentStatus previous = indexedStatus.remove(ordinal);
+        if (previous != null) {
+            byStatus.get(previous).remove(ordinal);
+        }
+        if (student.getStatus() != null) {
+            byStatus.computeIfAbsent(student.getStatus(), s -> new RoaringBitmap()).add(ordinal);
+            indexedStatus.put(ordinal, student.getStatus());
+        }
+    }
+    
+    /**
+     * Remove a student from every membership bitmap
+     * The ordinal is retired and never reused
+     * @param student the removed student
+     */
+    public void removeStudent(Student student) {
+        Integer ordinal = ordinals.get(student.getId());
+        if (ordinal == null) {
+            return;
+        }
+        removeFromAll(byCourse.values(), ordinal);
+        removeFromAll(byDepartment.values(), ordinal);
+        removeFromAll(bySemester.values(), ordinal);
+        removeFromAll(byStatus.values(), ordinal);
+        indexedStatus.remove(ordinal);
+        studentsByOrdinal.set(ordinal, null);
+    }
+    
+    /**
+     * Record a new enrollment
+     * @param student the enrolled student
+     * @param course the course
+     */
+    public void addEnrollment(Student student, Course course) {
+        int ordinal = ordinalOf(student);
+        byCourse.computeIfAbsent(course.getCourseCode(), c -> new RoaringBitmap()).add(ordinal);
+        if (course.getDepartment() != null) {
+            byDepartment.computeIfAbsent(course.getDepartment(), d -> new RoaringBitmap()).add(ordinal);
+        }
+        if (course.getSemester() != null) {
+            bySemester.computeIfAbsent(course.getSemester(), s -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+    
+    /**
+     * Record a dropped enrollment
+     * Semester and department membership is kept while the student still has
+     * another enrollment in the same semester or department
+     * @param student the student
+     * @param course the dropped course
+     * @param remaining the student's enrollments after the drop
+     */
+    public void removeEnrollment(Student student, Course course, Collection<Enrollment> remaining) {
+        Integer ordinal = ordinals.get(student.getId());
+        if (ordinal == null) {
+            return;
+        }
+        
+        RoaringBitmap roster = byCourse.get(course.getCourseCode());
+        if (roster != null) {
+            roster.remove(ordinal);
+        }
+        
+        boolean sameSemester = false;
+        boolean sameDepartment = false;
+        for (Enrollment enrollment : remaining) {
+            Course other = enrollment.getCourse();
+            sameSemester |= other.getSemester() == course.getSemester();
+            sameDepartment |= other.getDepartment() != null && other.getDepartmentId() == course.getDepartmentId();
+        }
+        if (!sameSemester && bySemester.containsKey(course.getSemester())) {
+            bySemester.get(course.getSemester()).remove(ordinal);
+        }
+        if (!sameDepartment && byDepartment.containsKey(course.getDepartment())) {
+            byDepartment.get(course.getDepartment()).remove(ordinal);
+        }
+    }
+    
+    /**
+     * Students enrolled in a course
+     * @param courseCode the course code
+     * @return bitmap of student ordinals (do not modify)
+     */
+    public RoaringBitmap studentsInCourse(String courseCode) {
+        return byCourse.getOrDefault(courseCode, new RoaringBitmap());
+    }
+    
+    /**
+     * Students enrolled in at least one of the given courses
+     * @param courseCodes the course codes
+     * @return new bitmap of student ordinals
+     */
+    public RoaringBitmap studentsInAnyCourse(Collection<String> courseCodes) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (String courseCode : courseCodes) {
+            result = RoaringBitmap.or(result, studentsInCourse(courseCode));
+        }
+        return result;
+    }
+    
+    /**
+     * Students with at least one enrollment in a semester
+     * @param semester the semester
+     * @return bitmap of student ordinals (do not modify)
+     */
+    public RoaringBitmap studentsInSemester(Semester semester) {
+        return bySemester.getOrDefault(semester, new RoaringBitmap());
+    }
+    
+    /**
+     * Students with at least one enrollment in a department
+     * @param department the department
+     * @return bitmap of student ordinals (do not modify)
+     */
+    public RoaringBitmap studentsInDepartment(String department) {
+        return byDepartment.getOrDefault(department, new RoaringBitmap());
+    }
+    
+    /**
+     * Students with a given status
+     * @param status the student status
+     * @return bitmap of student ordinals (do not modify)
+     */
+    public RoaringBitmap studentsWithStatus(StudentStatus status) {
+        return byStatus.getOrDefault(status, new RoaringBitmap());
+    }
+    
+    /**
+     * Resolve a bitmap of ordinals back to students
+     * @param cohort bitmap of student ordinals
+     * @return list of students in ordinal order
+     */
+    public List<Student> resolve(RoaringBitmap cohort) {
+        List<Student> students = new ArrayList<>(cohort.cardinality());
+        cohort.forEach(ordinal -> {
+            Student student = ordinal < studentsByOrdinal.size() ? studentsByOrdinal.get(ordinal) : null;
+            if (student != null) {
+                students.add(student);
+            }
+        });
+        return students;
+    }
+    
+    private static void removeFromAll(Collection<RoaringBitmap> bitmaps, int ordinal) {
+        for (RoaringBitmap bitmap : bitmaps) {
+            bitmap.remove(ordinal);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package edu.ccrm.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Structured query predicate - unlike an opaque lambda, a Condition can be inspected
+ * by the QueryEngine planner to decide which index to use
+ * Demonstrates the Composite pattern (AND/OR/NOT over field predicates)
+ */
+public abstract class Condition {
+    
+    // Package-private constructor - conditions are created through the static factories
+    Condition() {}
+    
+    /**
+     * Field equals value
+     * @param field the field name
+     * @param value the expected value
+     * @return equality condition
+     */
+    public static Condition eq(String field, Object value) {
+        return new Equals(field, value);
+    }
+    
+    /**
+     * Field within an inclusive range - either bound may be null for an open range
+     * @param field the field name
+     * @param min the lower bound (inclusive) or null
+     * @param max the upper bound (inclusive) or null
+     * @return range condition
+     */
+    public static Condition between(String field, Comparable<?> min, Comparable<?> max) {
+        return new Range(field, min, max);
+    }
+    
+    /**
+     * Field greater than or equal to a value
+     * @param field the field name
+     * @param min the lower bound (inclusive)
+     * @return range condition
+     */
+    public static Condition atLeast(String field, Comparable<?> min) {
+        return new Range(field, min, null);
+    }
+    
+    /**
+     * Field less than or equal to a value
+     * @param field the field name
+     * @param max the upper bound (inclusive)
+     * @return range condition
+     */
+    public static Condition atMost(String field, Comparable<?> max) {
+        return new Range(field, null, max);
+    }
+    
+    /**
+     * All conditions must match
+     * @param conditions the child conditions
+     * @return conjunction
+     */
+    public static Condition and(Condition... conditions) {
+        return new And(Arrays.asList(conditions));
+    }
+    
+    /**
+     * At least one condition must match
+     * @param conditions the child conditions
+     * @return disjunction
+     */
+    public static Condition or(Condition... conditions) {
+        return new Or(Arrays.asList(conditions));
+    }
+    
+    /**
+     * Condition must not match
+     * @param condition the negated condition
+     * @return negation
+     */
+    public static Condition not(Condition condition) {
+        return new Not(condition);
+    }
+    
+    /**
+     * Evaluate the condition against a record
+     * @param fields field extractors by name
+     * @param record the record to test
+     * @return true if the record matches
+     */
+    abstract <T> boolean matches(Map<String, Function<T, Object>> fields, T record);
+    
+    /**
+     * Convert the values of the condition to the types of their fields
+     * @param types field types by name
+     * @return condition with converted values, or this condition if none changed
+     * @throws IllegalArgumentException if a field is unknown or a value does not fit its type
+     */
+    abstract Condition bind(Map<String, Class<?>> types);
+    
+    /**
+     * Look up a field extractor, failing fast on unknown field names
+     */
+    static <T> Function<T, Object> field(Map<String, Function<T, Object>> fields, String name) {
+        Function<T, Object> extractor = fields.get(name);
+        if (extractor == null) {
+            throw new IllegalArgumentException("Unknown query field: " + name);
+        }
+        return extractor;
+    }
+    
+    /**
+     * Convert a query value to the type of its field
+     * Numbers are converted when they fit exactly, e.g. Integer 5 for a Long field;
+     * any other mismatch is rejected rather than silently matching nothing on a scan
+     * or failing inside an index comparison
+     */
+    static Object coerce(Map<String, Class<?>> types, String field, Object value) {
+        Class<?> type = types.get(field);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown query field: " + field);
+        }
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        Object converted = value instanceof Number ? convertNumber((Number) value, type) : null;
+        if (converted == null) {
+            throw new IllegalArgumentException(String.format("Query value %s (%s) does not fit field %s (%s)",
+                                               value, value.getClass().getSimpleName(), field, type.getSimpleName()));
+        }
+        return converted;
+    }
+    
+    /**
+     * Convert a number to another boxed number type without losing information
+     * @return the converted number, or null if it does not fit
+     */
+    private static Object convertNumber(Number number, Class<?> type) {
+        if (type == Double.class) {
+            return number.doubleValue();
+        }
+        if (type == Float.class) {
+            return number.floatValue();
+        }
+        try {
+            BigDecimal exact = number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+            if (type == Long.class) {
+                return exact.longValueExact();
+            }
+            if (type == Integer.class) {
+                return exact.intValueExact();
+            }
+            if (type == Short.class) {
+                return exact.shortValueExact();
+            }
+            if (type == Byte.class) {
+                return exact.byteValueExact();
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            // NaN, infinite, fractional or out of range
+        }
+        return null;
+    }
+    
+    private static List<Condition> bindAll(List<Condition> conditions, Map<String, Class<?>> types) {
+        List<Condition> bound = new ArrayList<>(conditions.size());
+        for (Condition condition : conditions) {
+            bound.add(condition.bind(types));
+        }
+        return bound;
+    }
+    
+    /**
+     * Compare two values of the same field type
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compareValues(Object a, Object b) {
+        return ((Comparable) a).compareTo(b);
+    }
+    
+    /**
+     * Field equality condition
+     */
+    static final class Equals extends Condition {
+        final String field;
+        final Object value;
+        
+        Equals(String field, Object value) {
+            this.field = field;
+            this.value = value;
+        }
+        
+        @Override
+        <T> boolean matches(Map<String, Function<T, Object>> fields, T record) {
+            return Objects.equals(field(fields, field).apply(record), value);
+        }
+        
+        @Override
+        Condition bind(Map<String, Class<?>> types) {
+            Object bound = coerce(types, field, value);
+            return bound == value ? this : new Equals(field, bound);
+        }
+        
+        @Override
+        public String toString() {
+            return field + " = " + value;
+        }
+    }
+    
+    /**
+     * Inclusive range condition
+     */
+    static final class Range extends Condition {
+        final String field;
+        final Comparable<?> min;
+        final Comparable<?> max;
+        
+        Range(String field, Comparable<?> min, Comparable<?> max) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+        }
+        
+        @Override
+        <T> boolean matches(Map<String, Function<T, Object>> fields, T record) {
+            Object value = field(fields, field).apply(record);
+            if (value == null) {
+                return false;
+            }
+            return (min == null || compareValues(value, min) >= 0)
+                && (max == null || compareValues(value, max) <= 0);
+        }
+        
+        @Override
+        Condition bind(Map<String, Class<?>> types) {
+            Comparable<?> boundMin = (Comparable<?>) coerce(types, field, min);
+            Comparable<?> boundMax = (Comparable<?>) coerce(types, field, max);
+            return boundMin == min && boundMax == max ? this : new Range(field, boundMin, boundMax);
+        }
+        
+        @Override
+        public String toString() {
+            return field + " in [" + (min != null ? min : "-inf") + ", " + (max != null ? max : "+inf") + "]";
+        }
+    }
+    
+    /**
+     * Conjunction of conditions
+     */
+    static final class And extends Condition {
+        final List<Condition> children;
+        
+        And(List<Condition> children) {
+            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        }
+        
+        @Override
+        <T> boolean matches(Map<String, Function<T, Object>> fields, T record) {
+            for (Condition child : children) {
+                if (!child.matches(fields, record)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        @Override
+        Condition bind(Map<String, Class<?>> types) {
+            return new And(bindAll(children, types));
+        }
+        
+        @Override
+        public String toString() {
+            return "(" + join(children, " AND ") + ")";
+        }
+    }
+    
+    /**
+     * Disjunction of conditions
+     */
+    static final class Or extends Condition {
+        final List<Condition> children;
+        
+        Or(List<Condition> children) {
+            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        }
+        
+        @Override
+        <T> boolean matches(Map<String, Function<T, Object>> fields, T record) {
+            for (Condition child : children) {
+                if (child.matches(fields, record)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        @Override
+        Condition bind(Map<String, Class<?>> types) {
+            return new Or(bindAll(children, types));
+        }
+        
+        @Override
+        public String toString() {
+            return "(" + join(children, " OR ") + ")";
+        }
+    }
+    
+    /**
+     * Negation of a condition
+     */
+    static final class Not extends Condition {
+        final Condition child;
+        
+        Not(Condition child) {
+            this.child = child;
+        }
+        
+        @Override
+        <T> boolean matches(Map<String, Function<T, Object>> fields, T record) {
+            return !child.matches(fields, record);
+        }
+        
+        @Override
+        Condition bind(Map<String, Class<?>> types) {
+            return new Not(child.bind(types));
+        }
+        
+        @Override
+        public String toString() {
+            return "NOT " + child;
+        }
+    }
+    
+    private static String join(List<Condition> conditions, String separator) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i > 0) {
+                sb.append(separator);
+            }
+            sb.append(conditions.get(i));
+        }
+        return sb.toString();
+    }
+}
@@ -3,22 +3,58 @@ package edu.ccrm.service;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Instructor;
 import edu.ccrm.domain.Semester;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeType;
+import edu.ccrm.event.EventBus;
+import edu.ccrm.util.ChangeTracker;
+import edu.ccrm.util.PersistentList;
+import edu.ccrm.util.StringDictionary;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Course Service for managing course operations
  * Demonstrates Java Stream API usage
+ * The catalog is a persistent list, so snapshots stay stable while courses change,
+ * with a hash index on the interned course code for O(1) lookups
+ * Every change is also recorded in a change tracker for delta exports
  */
 public class CourseService {
     
-    private List<Course> courses;
+    private volatile PersistentList<Course> courses;
+    private final Map<Integer, Course> byCodeId;
+    private final SearchIndex<String, Course> searchIndex;
+    private final QueryEngine<Course> queryEngine;
+    private final PrerequisiteGraph prerequisites;
+    private final ChangeTracker<String, Course> changes;
+    private InstructorService instructorService;
+    private EventBus eventBus;
     
     public CourseService() {
-        this.courses = new ArrayList<>();
+        this.courses = PersistentList.empty();
+        this.byCodeId = new HashMap<>();
+        this.searchIndex = new SearchIndex<>(Course::getCourseCode,
+                Collections.singletonList(Course::getTitle));
+        this.queryEngine = new QueryEngine<Course>(() -> courses)
+                .field("courseCode", String.class, Course::getCourseCode, true)
+                .field("title", String.class, Course::getTitle, false)
+                .field("credits", Integer.class, Course::getCredits, true)
+                .field("department", String.class, Course::getDepartment, true)
+                .field("semester", Semester.class, Course::getSemester, true)
+                .field("instructorId", Long.class, course -> course.getInstructor() != null ?
+                        course.getInstructor().getId() : null, true);
+        this.prerequisites = new PrerequisiteGraph();
+        this.changes = new ChangeTracker<>();
     }
     
     /**
@@ -28,21 +64,76 @@ public class CourseService {
      */
     public boolean addCourse(Course course) {
         if (course != null && !isDuplicateCourse(course)) {
-            courses.add(course);
+            courses = courses.plus(course);
+            byCodeId.put(course.getCourseCodeId(), course);
+            searchIndex.add(course);
+            queryEngine.index(course);
+            prerequisites.addCourse(course.getCourseCode());
+            if (instructorService != null) {
+                instructorService.recordAssignment(course);
+            }
+            changes.recordUpsert(course.getCourseCode(), course);
+            publish(ChangeEvent.ofCourse(ChangeType.COURSE_ADDED, course));
             return true;
         }
         return false;
     }
     
+    /**
+     * Add many courses in one pass - for imports
+     * Duplicate codes (against the catalog or earlier rows of the batch) are
+     * rejected via the hash index; large batches rebuild the field indexes once at
+     * the end, small ones (e.g. a chunk of a streamed import) index each course
+     * @param batch the courses to add, in order
+     * @return report of loaded and rejected courses
+     */
+    public BulkLoadReport<Course> addCourses(Iterable<Course> batch) {
+        BulkLoadReport<Course> report = new BulkLoadReport<>();
+        for (Course course : batch) {
+            if (course == null) {
+                continue;
+            }
+            if (byCodeId.putIfAbsent(course.getCourseCodeId(), course) != null) {
+                report.reject(course, "Duplicate course code: " + course.getCourseCode());
+            } else {
+                report.loaded(course);
+            }
+        }
+        
+        List<Course> loaded = report.getLoaded();
+        if (!loaded.isEmpty()) {
+            boolean rebuild = loaded.size() > courses.size() / 4;
+            courses = courses.plusAll(loaded);
+            for (Course course : loaded) {
+                searchIndex.add(course);
+                prerequisites.addCourse(course.getCourseCode());
+                if (instructorService != null) {
+                    instructorService.recordAssignment(course);
+                }
+                if (!rebuild) {
+                    queryEngine.index(course);
+                }
+                changes.recordUpsert(course.getCourseCode(), course);
+                publish(ChangeEvent.ofCourse(ChangeType.COURSE_ADDED, course));
+            }
+            if (rebuild) {
+                queryEngine.rebuild();
+            }
+        }
+        return report;
+    }
+    
     /**
      * Find a course by course code
      * @param courseCode the course code to search for
      * @return Optional containing the course if found, empty otherwise
      */
     public Optional<Course> findCourseByCode(String courseCode) {
-        return courses.stream()
-                     .filter(course -> course.getCourseCode().equals(courseCode))
-                     .findFirst();
+        int codeId = StringDictionary.COURSE_CODES.lookupId(courseCode);
+        if (codeId == StringDictionary.NO_ID) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(byCodeId.get(codeId));
     }
     
     /**
@@ -56,14 +147,42 @@ public class CourseService {
                      .collect(Collectors.toList());
     }
     
+    /**
+     * Run a structured query - uses field indexes where possible instead of a full scan
+     * Fields: courseCode, title, credits, department, semester, instructorId
+     * @param query the query to run
+     * @return list of matching courses
+     */
+    public List<Course> queryCourses(Query<Course> query) {
+        return queryEngine.execute(query);
+    }
+    
+    /**
+     * Explain how a structured query would be executed
+     * @param query the query to explain
+     * @return plan description with estimated row counts
+     */
+    public String explainQuery(Query<Course> query) {
+        return queryEngine.explain(query);
+    }
+    
+    /**
+     * Search courses by partial title (prefix, token and fuzzy matching)
+     * @param query free text query typed by the user
+     * @param limit maximum number of results
+     * @return matching courses ordered by relevance
+     */
+    public List<Course> searchCoursesByTitle(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+    
     /**
      * Find courses by instructor
      * @param instructor the instructor to search for
      * @return list of courses taught by the instructor
      */
     public List<Course> findCoursesByInstructor(Instructor instructor) {
-        return searchCourses(course -> course.getInstructor() != null && 
-                           course.getInstructor().getId() == instructor.getId());
+        return queryCourses(Query.where(Condition.eq("instructorId", instructor.getId())));
     }
     
     /**
@@ -81,7 +200,7 @@ public class CourseService {
      * @return list of courses in the semester
      */
     public List<Course> findCoursesBySemester(Semester semester) {
-        return searchCourses(course -> course.getSemester() == semester);
+        return queryCourses(Query.where(Condition.eq("semester", semester)));
     }
     
     /**
@@ -92,13 +211,200 @@ public class CourseService {
         return new ArrayList<>(courses);
     }
     
+    /**
+     * Get an immutable snapshot of the catalog in O(1)
+     * Later changes publish new versions and never alter a snapshot already taken
+     * @return read-only list of the courses at the time of the call
+     */
+    public List<Course> getCourseSnapshot() {
+        return courses;
+    }
+    
     /**
      * Remove a course by course code
      * @param courseCode the course code to remove
      * @return true if course was removed successfully
      */
     public boolean removeCourse(String courseCode) {
-        return courses.removeIf(course -> course.getCourseCode().equals(courseCode));
+        return removeCourses(Collections.singleton(courseCode)) > 0;
+    }
+    
+    /**
+     * Remove several courses in one pass over the catalog
+     * @param courseCodes the course codes to remove
+     * @return number of courses removed
+     */
+    public int removeCourses(Set<String> courseCodes) {
+        Set<String> removed = new HashSet<>();
+        PersistentList<Course> remaining = courses;
+        int index = 0;
+        for (Course course : courses) {
+            if (!courseCodes.contains(course.getCourseCode())) {
+                index++;
+            } else {
+                remaining = remaining.minus(index);
+                queryEngine.unindex(course);
+                if (instructorService != null) {
+                    instructorService.releaseAssignment(course);
+                }
+                publish(ChangeEvent.ofCourse(ChangeType.COURSE_REMOVED, course));
+                removed.add(course.getCourseCode());
+            }
+        }
+        if (!removed.isEmpty()) {
+            courses = remaining;
+            for (String courseCode : removed) {
+                byCodeId.remove(StringDictionary.COURSE_CODES.lookupId(courseCode));
+                searchIndex.remove(courseCode);
+                prerequisites.removeCourse(courseCode);
+                changes.recordRemoval(courseCode);
+            }
+        }
+        return removed.size();
+    }
+    
+    /**
+     * Get the tracker of course changes, keyed by course code
+     * @return the change tracker used for delta exports
+     */
+    public ChangeTracker<String, Course> getChangeTracker() {
+        return changes;
+    }
+    
+    /**
+     * Require one course to be completed before enrolling in another
+     * @param courseCode the course that gets the requirement
+     * @param prerequisiteCode the course that must be completed first
+     * @return true if added, false if either course is unknown or the edge would create a cycle
+     */
+    public boolean addPrerequisite(String courseCode, String prerequisiteCode) {
+        if (findCourseByCode(courseCode).isEmpty() || findCourseByCode(prerequisiteCode).isEmpty()) {
+            return false;
+        }
+        return prerequisites.addPrerequisite(courseCode, prerequisiteCode);
+    }
+    
+    /**
+     * Remove a prerequisite requirement
+     * @param courseCode the course with the requirement
+     * @param prerequisiteCode the prerequisite to remove
+     * @return true if the requirement existed
+     */
+    public boolean removePrerequisite(String courseCode, String prerequisiteCode) {
+        return prerequisites.removePrerequisite(courseCode, prerequisiteCode);
+    }
+    
+    /**
+     * Get the direct prerequisites of a course
+     * @param courseCode the course code
+     * @return list of prerequisite course codes
+     */
+    public List<String> getPrerequisites(String courseCode) {
+        return prerequisites.getDirectPrerequisites(courseCode);
+    }
+    
+    /**
+     * Get the prerequisite graph shared with EnrollmentService
+     * @return the prerequisite graph
+     */
+    public PrerequisiteGraph getPrerequisiteGraph() {
+        return prerequisites;
+    }
+    
+    /**
+     * Add new courses and replace existing ones (matched by course code) - for reconcile imports
+     * @param batch the new or updated courses
+     * @return report of applied and rejected courses
+     */
+    public BulkLoadReport<Course> upsertCourses(Collection<Course> batch) {
+        BulkLoadReport<Course> report = new BulkLoadReport<>();
+        List<Course> replacements = new ArrayList<>();
+        List<Course> additions = new ArrayList<>();
+        for (Course course : batch) {
+            if (byCodeId.containsKey(course.getCourseCodeId())) {
+                replacements.add(course);
+                report.loaded(course);
+            } else {
+                additions.add(course);
+            }
+        }
+        
+        if (!replacements.isEmpty()) {
+            replaceCourses(replacements);
+        }
+        report.addAll(addCourses(additions));
+        return report;
+    }
+    
+    /**
+     * Replace existing courses with updated copies (matched by course code)
+     * Done in one pass over the catalog so bulk updates stay linear
+     * @param updatedCourses the updated courses
+     * @return number of courses replaced
+     */
+    public int replaceCourses(Collection<Course> updatedCourses) {
+        Map<Integer, Course> byCode = new HashMap<>();
+        for (Course course : updatedCourses) {
+            byCode.put(course.getCourseCodeId(), course);
+        }
+        
+        // Large batches rebuild the field indexes once instead of per course
+        boolean rebuild = byCode.size() > courses.size() / 4;
+        PersistentList<Course> next = courses;
+        int replaced = 0;
+        int index = 0;
+        for (Iterator<Course> iterator = courses.iterator(); iterator.hasNext() && replaced < byCode.size(); index++) {
+            Course current = iterator.next();
+            Course updated = byCode.get(current.getCourseCodeId());
+            if (updated == null) {
+                continue;
+            }
+            next = next.with(index, updated);
+            byCodeId.put(updated.getCourseCodeId(), updated);
+            searchIndex.update(updated);
+            if (!rebuild) {
+                queryEngine.unindex(current);
+                queryEngine.index(updated);
+            }
+            if (instructorService != null) {
+                instructorService.releaseAssignment(current);
+                instructorService.recordAssignment(updated);
+            }
+            changes.recordUpsert(updated.getCourseCode(), updated);
+            publish(ChangeEvent.ofCourse(ChangeType.COURSE_UPDATED, updated));
+            replaced++;
+        }
+        // Readers see the whole batch at once
+        courses = next;
+        if (rebuild && replaced > 0) {
+            queryEngine.rebuild();
+        }
+        return replaced;
+    }
+    
+    /**
+     * Keep an instructor service's teaching loads in step with this catalog
+     * @param instructorService the instructor service to notify
+     */
+    public void setInstructorService(InstructorService instructorService) {
+        this.instructorService = instructorService;
+        for (Course course : courses) {
+            instructorService.recordAssignment(course);
+        }
+    }
+    
+    /**
+     * Publish course changes to an event bus
+     * @param eventBus the bus to publish to, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+    
+    private void publish(ChangeEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
     }
     
     /**
@@ -116,8 +422,7 @@ public class CourseService {
      * @return true if duplicate exists
      */
     private boolean isDuplicateCourse(Course course) {
-        return courses.stream()
-                     .anyMatch(c -> c.getCourseCode().equals(course.getCourseCode()));
+        return byCodeId.containsKey(course.getCourseCodeId());
     }
     
     /**
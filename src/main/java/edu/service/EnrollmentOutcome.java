@@ -0,0 +1,31 @@
+package edu.ccrm.service;
+
+/**
+ * Outcome of an enrollment attempt
+ * Rejections are ordinary business results, reported without exceptions
+ */
+public enum EnrollmentOutcome {
+    ACCEPTED("Enrolled"),
+    INVALID_REQUEST("Student or course missing"),
+    INACTIVE_STUDENT("Student is not active"),
+    DUPLICATE("Already enrolled in the course"),
+    PREREQUISITES_NOT_MET("Prerequisites not completed"),
+    CREDIT_LIMIT_EXCEEDED("Would exceed the semester credit limit"),
+    SCHEDULE_CONFLICT("Meeting times clash with another enrolled course"),
+    CAPACITY_REACHED("Course is full"); // Reserved until courses carry a seat limit
+    
+    private final String description;
+    
+    // Constructor
+    EnrollmentOutcome(String description) {
+        this.description = description;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+}
@@ -0,0 +1,52 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+
+/**
+ * One (student, course) row of a bulk enrollment
+ */
+public final class EnrollmentRequest {
+    
+    private final Student student;
+    private final Course course;
+    private final Grade grade;
+    
+    public EnrollmentRequest(Student student, Course course) {
+        this(student, course, null);
+    }
+    
+    /**
+     * Create a row that also records a grade, e.g. when importing past results
+     * A passing grade counts as completed for the prerequisites of later rows
+     * of the same student in the same batch.
+     * @param student the student to enroll
+     * @param course the course to enroll in
+     * @param grade grade to record once enrolled, or null for none
+     */
+    public EnrollmentRequest(Student student, Course course, Grade grade) {
+        this.student = student;
+        this.course = course;
+        this.grade = grade;
+    }
+    
+    public Student getStudent() {
+        return student;
+    }
+    
+    public Course getCourse() {
+        return course;
+    }
+    
+    public Grade getGrade() {
+        return grade;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("EnrollmentRequest [Student: %s, Course: %s]",
+                           student != null ? student.getRegNo() : "Unknown",
+                           course != null ? course.getCourseCode() : "Unknown");
+    }
+}
@@ -1,14 +1,33 @@
 package edu.ccrm.service;
 
+import edu.ccrm.config.AppConfig;
 import edu.ccrm.domain.Course;
 import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.MeetingSlot;
+import edu.ccrm.domain.Semester;
 import edu.ccrm.domain.Student;
 import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeType;
+import edu.ccrm.event.EventBus;
 import edu.ccrm.util.DuplicateEnrollmentException;
 import edu.ccrm.util.MaxCreditLimitExceededException;
+import edu.ccrm.util.PrerequisiteNotMetException;
+import edu.ccrm.util.ScheduleConflictException;
+import edu.ccrm.util.WeeklySchedule;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Enrollment Service for managing student course enrollments
@@ -16,11 +35,94 @@ import java.util.List;
  */
 public class EnrollmentService {
     
-    private static final int MAX_CREDIT_LIMIT = 24; // Maximum credits per semester
-    private List<Enrollment> enrollments;
+    private final EnrollmentStore store;
+    private final QueryEngine<Enrollment> queryEngine;
+    private final CohortIndex cohortIndex;
+    private final Map<Long, Map<Semester, WeeklySchedule>> studentSchedules;
+    private final Map<Course, WeeklySchedule> courseSchedules;
+    private final PrerequisiteGraph prerequisites;
+    private final Map<Long, BitSet> completedCourses;
+    private final Map<Long, int[]> semesterCredits;
+    private final AppConfig config;
+    private EventBus eventBus;
+    
+    // Shared read-only stand-in for students with no completed courses
+    private static final BitSet NONE_COMPLETED = new BitSet();
     
     public EnrollmentService() {
-        this.enrollments = new ArrayList<>();
+        this(new CohortIndex(), new PrerequisiteGraph());
+    }
+    
+    /**
+     * Create an enrollment service that keeps a shared cohort index up to date
+     * and checks prerequisites against the course graph
+     * @param cohortIndex the cohort index shared with StudentService
+     * @param prerequisites the prerequisite graph owned by CourseService
+     */
+    public EnrollmentService(CohortIndex cohortIndex, PrerequisiteGraph prerequisites) {
+        this(cohortIndex, prerequisites, new ListEnrollmentStore());
+    }
+    
+    /**
+     * Create an enrollment service that keeps a shared cohort index up to date
+     * and checks prerequisites against the course graph
+     * @param cohortIndex the cohort index shared with StudentService
+     * @param prerequisites the prerequisite graph owned by CourseService
+     * @param store the enrollment storage engine
+     */
+    public EnrollmentService(CohortIndex cohortIndex, PrerequisiteGraph prerequisites, EnrollmentStore store) {
+        this.store = store;
+        this.config = AppConfig.getInstance();
+        this.cohortIndex = cohortIndex;
+        this.prerequisites = prerequisites;
+        this.completedCourses = new HashMap<>();
+        this.semesterCredits = new HashMap<>();
+        this.studentSchedules = new HashMap<>();
+        this.courseSchedules = new IdentityHashMap<>();
+        
+        // Field indexes need stable record identities, so flyweight stores are always scanned
+        boolean indexed = store.isObjectBacked();
+        this.queryEngine = new QueryEngine<Enrollment>(store::all)
+                .field("studentId", Long.class, enrollment -> enrollment.getStudent().getId(), indexed)
+                .field("regNo", String.class, enrollment -> enrollment.getStudent().getRegNo(), false)
+                .field("courseCode", String.class, enrollment -> enrollment.getCourse().getCourseCode(), indexed)
+                .field("department", String.class, enrollment -> enrollment.getCourse().getDepartment(), indexed)
+                .field("semester", Semester.class, enrollment -> enrollment.getCourse().getSemester(), indexed)
+                .field("credits", Integer.class, enrollment -> enrollment.getCourse().getCredits(), false)
+                .field("grade", Grade.class, Enrollment::getGrade, false)
+                .field("enrollmentDate", LocalDate.class, Enrollment::getEnrollmentDate, false);
+        reloadFromStore();
+    }
+    
+    /**
+     * Rebuild credit totals, weekly schedules, completed courses and cohort membership
+     * from the enrollments already in the store
+     * A persistent store reopens with its records but none of this state, so the
+     * constructor replays them. Records whose student or course cannot be resolved
+     * yet are skipped; call this again once students and courses are loaded.
+     */
+    public void reloadFromStore() {
+        semesterCredits.clear();
+        studentSchedules.clear();
+        completedCourses.clear();
+        for (Enrollment enrollment : store.all()) {
+            Student student = enrollment.getStudent();
+            Course course = enrollment.getCourse();
+            if (student == null || course == null) {
+                continue;
+            }
+            if (store.isObjectBacked()) {
+                queryEngine.index(enrollment);
+            }
+            cohortIndex.addEnrollment(student, course);
+            addCredits(student, course, course.getCredits());
+            addSchedule(student, course, scheduleOf(course));
+            Grade grade = enrollment.getGrade();
+            if (grade != null && grade != Grade.F) {
+                completedCourses.computeIfAbsent(student.getId(), id -> new BitSet())
+                                .set(prerequisites.addCourse(course.getCourseCode()));
+            }
+        }
     }
     
     /**
@@ -29,39 +131,346 @@ public class EnrollmentService {
      * @param course the course to enroll in
      * @throws DuplicateEnrollmentException if student is already enrolled in the course
      * @throws MaxCreditLimitExceededException if enrollment exceeds credit limit
+     * @throws ScheduleConflictException if the course meets at the same time as another enrolled course
+     * @throws PrerequisiteNotMetException if a required course has not been completed
      */
     public void enrollStudent(Student student, Course course) 
-            throws DuplicateEnrollmentException, MaxCreditLimitExceededException {
+            throws DuplicateEnrollmentException, MaxCreditLimitExceededException, ScheduleConflictException,
+                   PrerequisiteNotMetException {
         
         // Assertions for debugging - enable with -ea
         assert student != null : "Student cannot be null";
         assert course != null : "Course cannot be null";
         assert course.getCredits() > 0 : "Course credits must be positive";
         
+        // Messages are only built once we know the enrollment was rejected
+        switch (tryEnroll(student, course)) {
+            case ACCEPTED:
+                return;
+            case INACTIVE_STUDENT:
+                throw new IllegalStateException("Cannot enroll inactive student: " + student.getRegNo());
+            case DUPLICATE:
+                throw new DuplicateEnrollmentException(
+                    String.format("Student %s is already enrolled in course %s", 
+                                student.getRegNo(), course.getCourseCode()));
+            case PREREQUISITES_NOT_MET:
+                throw new PrerequisiteNotMetException(
+                    String.format("Student %s has not completed prerequisites for %s: %s",
+                                student.getRegNo(), course.getCourseCode(),
+                                String.join(", ", prerequisites.getMissingPrerequisites(course.getCourseCode(),
+                                                                                        completedBy(student)))));
+            case CREDIT_LIMIT_EXCEEDED:
+                throw new MaxCreditLimitExceededException(
+                    String.format("Enrollment would exceed maximum credit limit. Current: %d, Course: %d, Limit: %d",
+                                calculateCurrentCredits(student, course.getSemester()), course.getCredits(), config.getMaxCredits()));
+            case SCHEDULE_CONFLICT:
+                throw new ScheduleConflictException(
+                    String.format("Course %s clashes with %s for student %s",
+                                course.getCourseCode(), findConflictingCourse(student, course), student.getRegNo()));
+            default:
+                throw new IllegalArgumentException("Cannot enroll: " + student + " in " + course);
+        }
+    }
+    
+    /**
+     * Try to enroll a student in a course without throwing on business rejections
+     * Rejections come back as shared enum constants, so a rejected attempt allocates
+     * no message and captures no stack trace
+     * @param student the student to enroll
+     * @param course the course to enroll in
+     * @return ACCEPTED if enrolled, otherwise the reason for rejection
+     */
+    public EnrollmentOutcome tryEnroll(Student student, Course course) {
+        if (student == null || course == null) {
+            return EnrollmentOutcome.INVALID_REQUEST;
+        }
+        
         // Check if student is active
         if (student.getStatus() != StudentStatus.ACTIVE) {
-            throw new IllegalStateException("Cannot enroll inactive student: " + student.getRegNo());
+            return EnrollmentOutcome.INACTIVE_STUDENT;
         }
         
         // Check for duplicate enrollment
         if (isAlreadyEnrolled(student, course)) {
-            throw new DuplicateEnrollmentException(
-                String.format("Student %s is already enrolled in course %s", 
-                            student.getRegNo(), course.getCourseCode()));
+            return EnrollmentOutcome.DUPLICATE;
         }
         
-        // Check credit limit
-        int currentCredits = calculateCurrentCredits(student, course.getSemester());
-        if (currentCredits + course.getCredits() > MAX_CREDIT_LIMIT) {
-            throw new MaxCreditLimitExceededException(
-                String.format("Enrollment would exceed maximum credit limit. Current: %d, Course: %d, Limit: %d",
-                            currentCredits, course.getCredits(), MAX_CREDIT_LIMIT));
+        // Check prerequisites - closure bitset ANDNOT completed bitset
+        if (!prerequisites.isEligible(course.getCourseCode(), completedBy(student))) {
+            return EnrollmentOutcome.PREREQUISITES_NOT_MET;
+        }
+        
+        // Check credit limit against the running per-semester total
+        if (creditsIn(student, course.getSemester()) + course.getCredits() > config.getMaxCredits()) {
+            return EnrollmentOutcome.CREDIT_LIMIT_EXCEEDED;
+        }
+        
+        // Check meeting time conflicts against the student's weekly bitset for the semester
+        WeeklySchedule courseSchedule = scheduleOf(course);
+        if (courseSchedule != null) {
+            Map<Semester, WeeklySchedule> semesters = studentSchedules.get(student.getId());
+            WeeklySchedule studentSchedule = semesters != null ? semesters.get(course.getSemester()) : null;
+            if (studentSchedule != null && studentSchedule.intersects(courseSchedule)) {
+                return EnrollmentOutcome.SCHEDULE_CONFLICT;
+            }
         }
         
         // Create and add enrollment
-        Enrollment enrollment = new Enrollment(student, course);
-        enrollments.add(enrollment);
-        student.getEnrolledCourses().add(enrollment);
+        commitEnrollment(student, course, courseSchedule);
+        return EnrollmentOutcome.ACCEPTED;
+    }
+    
+    /**
+     * Enroll many (student, course) pairs at once
+     * Requests are grouped by student and validated in one pass per group against
+     * that group's own credit, duplicate and schedule state; all accepted rows are
+     * then committed together, recording their grades. Rows are validated in upload
+     * order, so a course passed in an earlier row satisfies the prerequisites of a
+     * later one. Rejections are reported per row instead of thrown.
+     * @param requests the rows to enroll, in upload order
+     * @return per-row report
+     */
+    public BulkEnrollmentReport enrollStudents(List<EnrollmentRequest> requests) {
+        BulkEnrollmentReport report = new BulkEnrollmentReport(requests);
+        
+        Map<Long, List<Integer>> rowsByStudent = new LinkedHashMap<>();
+        for (int row = 0; row < requests.size(); row++) {
+            EnrollmentRequest request = requests.get(row);
+            if (request == null || request.getStudent() == null || request.getCourse() == null) {
+                report.record(row, EnrollmentOutcome.INVALID_REQUEST, null);
+            } else {
+                rowsByStudent.computeIfAbsent(request.getStudent().getId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+        
+        List<Integer> accepted = new ArrayList<>();
+        for (List<Integer> rows : rowsByStudent.values()) {
+            validateGroup(requests, rows, report, accepted);
+        }
+        
+        // Single commit pass over the accepted rows
+        for (int row : accepted) {
+            EnrollmentRequest request = requests.get(row);
+            Enrollment enrollment = commitEnrollment(request.getStudent(), request.getCourse(),
+                                                     scheduleOf(request.getCourse()));
+            if (request.getGrade() != null) {
+                assignGrade(enrollment, request.getGrade());
+            }
+            report.enrolled(row, enrollment);
+        }
+        return report;
+    }
+    
+    /**
+     * Validate all rows of one student, in row order, against local counters
+     * Checks run in the same order as enrollStudent
+     */
+    private void validateGroup(List<EnrollmentRequest> requests, List<Integer> rows,
+                               BulkEnrollmentReport report, List<Integer> accepted) {
+        Student student = requests.get(rows.get(0)).getStudent();
+        if (student.getStatus() != StudentStatus.ACTIVE) {
+            for (int row : rows) {
+                report.record(row, EnrollmentOutcome.INACTIVE_STUDENT, null);
+            }
+            return;
+        }
+        
+        // Load the student's state once for the whole group
+        Set<Integer> enrolledCodes = new HashSet<>();
+        Map<Semester, Integer> credits = new EnumMap<>(Semester.class);
+        for (Enrollment enrollment : store.forStudent(student)) {
+            Course enrolled = enrollment.getCourse();
+            enrolledCodes.add(enrolled.getCourseCodeId());
+            credits.merge(enrolled.getSemester(), enrolled.getCredits(), Integer::sum);
+        }
+        BitSet completed = completedBy(student);
+        boolean completedCopied = false;
+        Map<Semester, WeeklySchedule> committed = studentSchedules.getOrDefault(student.getId(), new EnumMap<>(Semester.class));
+        Map<Semester, WeeklySchedule> schedules = new EnumMap<>(Semester.class);
+        int maxCredits = config.getMaxCredits();
+        
+        for (int row : rows) {
+            Course course = requests.get(row).getCourse();
+            if (enrolledCodes.contains(course.getCourseCodeId())) {
+                report.record(row, EnrollmentOutcome.DUPLICATE, null);
+                continue;
+            }
+            if (!prerequisites.isEligible(course.getCourseCode(), completed)) {
+                report.record(row, EnrollmentOutcome.PREREQUISITES_NOT_MET,
+                        String.join(", ", prerequisites.getMissingPrerequisites(course.getCourseCode(), completed)));
+                continue;
+            }
+            int semesterCredits = credits.getOrDefault(course.getSemester(), 0);
+            if (semesterCredits + course.getCredits() > maxCredits) {
+                report.record(row, EnrollmentOutcome.CREDIT_LIMIT_EXCEEDED, null);
+                continue;
+            }
+            WeeklySchedule courseSchedule = scheduleOf(course);
+            if (courseSchedule != null) {
+                // Scratch copy of the committed schedule plus rows accepted in this batch
+                WeeklySchedule schedule = schedules.computeIfAbsent(course.getSemester(), semester -> {
+                    WeeklySchedule copy = new WeeklySchedule();
+                    if (committed.containsKey(semester)) {
+                        copy.add(committed.get(semester));
+                    }
+                    return copy;
+                });
+                if (schedule.intersects(courseSchedule)) {
+                    report.record(row, EnrollmentOutcome.SCHEDULE_CONFLICT, null);
+                    continue;
+                }
+                schedule.add(courseSchedule);
+            }
+            
+            enrolledCodes.add(course.getCourseCodeId());
+            credits.put(course.getSemester(), semesterCredits + course.getCredits());
+            Grade grade = requests.get(row).getGrade();
+            if (grade != null && grade != Grade.F) {
+                // Passed in this batch - counts for later rows; the shared bitset changes on commit
+                if (!completedCopied) {
+                    completed = (BitSet) completed.clone();
+                    completedCopied = true;
+                }
+                completed.set(prerequisites.addCourse(course.getCourseCode()));
+            }
+            report.record(row, EnrollmentOutcome.ACCEPTED, null);
+            accepted.add(row);
+        }
+    }
+    
+    /**
+     * Store a validated enrollment and update every index and schedule
+     * @param student the student
+     * @param course the course
+     * @param courseSchedule the course's meeting bitset, or null if it has no meetings
+     * @return the new enrollment
+     */
+    private Enrollment commitEnrollment(Student student, Course course, WeeklySchedule courseSchedule) {
+        Enrollment enrollment = store.add(student, course);
+        if (store.isObjectBacked()) {
+            student.getEnrolledCourses().add(enrollment);
+            queryEngine.index(enrollment);
+        }
+        cohortIndex.addEnrollment(student, course);
+        addCredits(student, course, course.getCredits());
+        addSchedule(student, course, courseSchedule);
+        publish(ChangeEvent.ofEnrollment(ChangeType.ENROLLMENT_ADDED, student, course));
+        return enrollment;
+    }
+    
+    /**
+     * Record a grade for an enrollment
+     * A passing grade marks the course as completed for prerequisite checks
+     * @param enrollment the enrollment to grade
+     * @param grade the grade awarded
+     */
+    public void assignGrade(Enrollment enrollment, Grade grade) {
+        enrollment.setGrade(grade);
+        int ordinal = prerequisites.addCourse(enrollment.getCourse().getCourseCode());
+        BitSet completed = completedCourses.computeIfAbsent(enrollment.getStudent().getId(), id -> new BitSet());
+        if (grade != null && grade != Grade.F) {
+            completed.set(ordinal);
+        } else {
+            completed.clear(ordinal);
+        }
+        publish(ChangeEvent.ofGrade(enrollment.getStudent(), enrollment.getCourse(), grade));
+    }
+    
+    /**
+     * Check whether a student has completed a course with a passing grade
+     * @param student the student
+     * @param courseCode the course code
+     * @return true if the course is completed
+     */
+    public boolean hasCompleted(Student student, String courseCode) {
+        int ordinal = prerequisites.ordinalOf(courseCode);
+        BitSet completed = completedCourses.get(student.getId());
+        return ordinal >= 0 && completed != null && completed.get(ordinal);
+    }
+    
+    /**
+     * Get the completed-course bitset of a student
+     * @param student the student
+     * @return completed course ordinals; shared and empty if none, so read only
+     */
+    private BitSet completedBy(Student student) {
+        return completedCourses.getOrDefault(student.getId(), NONE_COMPLETED);
+    }
+    
+    /**
+     * Get the credits a student is enrolled in for a semester, from the running totals
+     * @param student the student
+     * @param semester the semester
+     * @return total credits enrolled
+     */
+    private int creditsIn(Student student, Semester semester) {
+        int[] credits = semesterCredits.get(student.getId());
+        return credits != null ? credits[creditSlot(semester)] : 0;
+    }
+    
+    /**
+     * Adjust a student's running credit total for a course's semester
+     * @param student the student
+     * @param course the course
+     * @param delta credits to add, negative to remove
+     */
+    private void addCredits(Student student, Course course, int delta) {
+        semesterCredits.computeIfAbsent(student.getId(), id -> new int[Semester.values().length + 1])
+                       [creditSlot(course.getSemester())] += delta;
+    }
+    
+    /**
+     * Add a course's meeting times to a student's weekly schedule for its semester
+     * @param student the student
+     * @param course the course
+     * @param courseSchedule the course's meeting bitset, or null if it has no meetings
+     */
+    private void addSchedule(Student student, Course course, WeeklySchedule courseSchedule) {
+        if (courseSchedule != null) {
+            studentSchedules.computeIfAbsent(student.getId(), id -> new EnumMap<>(Semester.class))
+                            .computeIfAbsent(course.getSemester(), semester -> new WeeklySchedule())
+                            .add(courseSchedule);
+        }
+    }
+    
+    // Courses without a semester share the slot after the last semester
+    private static int creditSlot(Semester semester) {
+        return semester != null ? semester.ordinal() : Semester.values().length;
+    }
+    
+    /**
+     * Get the cached meeting time bitset of a course
+     * @param course the course
+     * @return the course schedule, or null if the course has no meeting slots
+     */
+    private WeeklySchedule scheduleOf(Course course) {
+        if (course.getMeetingSlots().isEmpty()) {
+            return null;
+        }
+        return courseSchedules.computeIfAbsent(course, c -> WeeklySchedule.of(c.getMeetingSlots()));
+    }
+    
+    /**
+     * Find which enrolled course clashes with a new course (only used to build error messages)
+     * @param student the student
+     * @param course the course being enrolled
+     * @return code of the conflicting course
+     */
+    private String findConflictingCourse(Student student, Course course) {
+        for (Enrollment enrollment : store.forStudent(student)) {
+            Course other = enrollment.getCourse();
+            if (other.getSemester() != course.getSemester()) {
+                continue;
+            }
+            for (MeetingSlot slot : other.getMeetingSlots()) {
+                for (MeetingSlot newSlot : course.getMeetingSlots()) {
+                    if (slot.overlaps(newSlot)) {
+                        return other.getCourseCode() + " (" + slot + ")";
+                    }
+                }
+            }
+        }
+        return "another enrolled course";
     }
     
     /**
@@ -71,10 +480,7 @@ public class EnrollmentService {
      * @return true if already enrolled
      */
     private boolean isAlreadyEnrolled(Student student, Course course) {
-        return enrollments.stream()
-                         .anyMatch(enrollment -> 
-                             enrollment.getStudent().getId() == student.getId() &&
-                             enrollment.getCourse().getCourseCode().equals(course.getCourseCode()));
+        return store.find(student, course) != null;
     }
     
     /**
@@ -84,10 +490,8 @@ public class EnrollmentService {
      * @return total credits enrolled
      */
     private int calculateCurrentCredits(Student student, edu.ccrm.domain.Semester semester) {
-        return enrollments.stream()
-                         .filter(enrollment -> 
-                             enrollment.getStudent().getId() == student.getId() &&
-                             enrollment.getCourse().getSemester() == semester)
+        return store.forStudent(student).stream()
+                         .filter(enrollment -> enrollment.getCourse().getSemester() == semester)
                          .mapToInt(enrollment -> enrollment.getCourse().getCredits())
                          .sum();
     }
@@ -99,16 +503,33 @@ public class EnrollmentService {
      * @return true if successfully dropped
      */
     public boolean dropCourse(Student student, Course course) {
-        boolean removed = enrollments.removeIf(enrollment ->
-            enrollment.getStudent().getId() == student.getId() &&
-            enrollment.getCourse().getCourseCode().equals(course.getCourseCode()));
+        Enrollment removed = store.remove(student, course);
         
-        if (removed) {
-            student.getEnrolledCourses().removeIf(enrollment ->
-                enrollment.getCourse().getCourseCode().equals(course.getCourseCode()));
+        if (removed != null) {
+            if (store.isObjectBacked()) {
+                queryEngine.unindex(removed);
+                student.getEnrolledCourses().removeIf(enrollment ->
+                    enrollment.getCourse().getCourseCodeId() == course.getCourseCodeId());
+            }
+            cohortIndex.removeEnrollment(student, course, store.forStudent(student));
+            addCredits(student, course, -course.getCredits());
+            
+            int ordinal = prerequisites.ordinalOf(course.getCourseCode());
+            BitSet completed = completedCourses.get(student.getId());
+            if (ordinal >= 0 && completed != null) {
+                completed.clear(ordinal);
+            }
+            
+            // Free the course's meeting times; accepted enrollments never overlap
+            WeeklySchedule courseSchedule = scheduleOf(course);
+            Map<Semester, WeeklySchedule> semesters = studentSchedules.get(student.getId());
+            if (courseSchedule != null && semesters != null && semesters.containsKey(course.getSemester())) {
+                semesters.get(course.getSemester()).remove(courseSchedule);
+            }
+            publish(ChangeEvent.ofEnrollment(ChangeType.ENROLLMENT_DROPPED, student, course));
         }
         
-        return removed;
+        return removed != null;
     }
     
     /**
@@ -117,9 +538,7 @@ public class EnrollmentService {
      * @return list of enrollments
      */
     public List<Enrollment> getStudentEnrollments(Student student) {
-        return enrollments.stream()
-                         .filter(enrollment -> enrollment.getStudent().getId() == student.getId())
-                         .collect(java.util.stream.Collectors.toList());
+        return store.forStudent(student);
     }
     
     /**
@@ -128,10 +547,48 @@ public class EnrollmentService {
      * @return list of enrollments
      */
     public List<Enrollment> getCourseEnrollments(Course course) {
-        return enrollments.stream()
-                         .filter(enrollment -> 
-                             enrollment.getCourse().getCourseCode().equals(course.getCourseCode()))
-                         .collect(java.util.stream.Collectors.toList());
+        return store.forCourse(course);
+    }
+    
+    /**
+     * Run a structured query - uses field indexes where possible instead of a full scan
+     * Fields: studentId, regNo, courseCode, department, semester, credits, grade, enrollmentDate
+     * @param query the query to run
+     * @return list of matching enrollments
+     */
+    public List<Enrollment> queryEnrollments(Query<Enrollment> query) {
+        return queryEngine.execute(query);
+    }
+    
+    /**
+     * Explain how a structured query would be executed
+     * @param query the query to explain
+     * @return plan description with estimated row counts
+     */
+    public String explainQuery(Query<Enrollment> query) {
+        return queryEngine.explain(query);
+    }
+    
+    /**
+     * Get the cohort index for bitmap set algebra over course rosters and schedules
+     * @return the cohort index maintained by this service
+     */
+    public CohortIndex getCohortIndex() {
+        return cohortIndex;
+    }
+    
+    /**
+     * Publish enrollment and grade changes to an event bus
+     * @param eventBus the bus to publish to, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+    
+    private void publish(ChangeEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
     }
     
     /**
@@ -139,15 +596,25 @@ public class EnrollmentService {
      * @return list of all enrollments
      */
     public List<Enrollment> getAllEnrollments() {
-        return new ArrayList<>(enrollments);
+        return new ArrayList<>(store.all());
+    }
+    
+    /**
+     * Get a read-only view of all enrollments without copying
+     * With the default store this is an immutable snapshot that later enrollments
+     * and drops do not affect; grades on the enrollments themselves stay mutable
+     * @return read-only list of enrollments
+     */
+    public List<Enrollment> getEnrollmentSnapshot() {
+        return store.all();
     }
     
     /**
-     * Get maximum credit limit
+     * Get maximum credit limit (max.credits in the configuration)
      * @return maximum credit limit
      */
     public static int getMaxCreditLimit() {
-        return MAX_CREDIT_LIMIT;
+        return AppConfig.getInstance().getMaxCredits();
     }
     
     /**
@@ -0,0 +1,70 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import java.util.List;
+
+/**
+ * Storage engine behind EnrollmentService
+ * ListEnrollmentStore keeps the Enrollment object graph; PrimitiveEnrollmentStore
+ * keeps primitive columns and hands out flyweight Enrollment views
+ */
+public interface EnrollmentStore {
+    
+    /**
+     * Store a new enrollment dated today
+     * @param student the student
+     * @param course the course
+     * @return the stored enrollment
+     */
+    Enrollment add(Student student, Course course);
+    
+    /**
+     * Find the enrollment of a student in a course
+     * @param student the student
+     * @param course the course
+     * @return the enrollment, or null if the student is not enrolled
+     */
+    Enrollment find(Student student, Course course);
+    
+    /**
+     * Remove the enrollment of a student in a course
+     * @param student the student
+     * @param course the course
+     * @return the removed enrollment, or null if the student was not enrolled
+     */
+    Enrollment remove(Student student, Course course);
+    
+    /**
+     * Get all enrollments of a student
+     * @param student the student
+     * @return list of enrollments
+     */
+    List<Enrollment> forStudent(Student student);
+    
+    /**
+     * Get all enrollments in a course
+     * @param course the course
+     * @return list of enrollments
+     */
+    List<Enrollment> forCourse(Course course);
+    
+    /**
+     * Get all enrollments
+     * Object-backed stores return an immutable snapshot; flyweight stores return
+     * views over live records
+     * @return read-only list of enrollments
+     */
+    List<Enrollment> all();
+    
+    int size();
+    
+    /**
+     * Whether returned enrollments are the stored objects themselves
+     * Only object-backed stores keep stable identities for field indexes and
+     * populate each student's enrolled course list
+     * @return true for object-graph stores, false for flyweight views
+     */
+    boolean isObjectBacked();
+}
@@ -0,0 +1,10 @@
+package edu.ccrm.service;
+
+/**
+ * Storage engine behind EnrollmentService, chosen with enrollment.store
+ */
+public enum EnrollmentStoreType {
+    LIST,       // Enrollment objects on the heap (default)
+    PRIMITIVE,  // Parallel primitive arrays on the heap, a fraction of the object footprint
+    OFFHEAP     // Memory-mapped file under the data directory, kept across restarts
+}
@@ -0,0 +1,207 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Instructor;
+import edu.ccrm.domain.Semester;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Instructor Service for managing instructors and their teaching loads
+ * Keeps id and department indexes plus credits taught per semester, and
+ * balances unassigned courses across a department with a min-heap on load
+ */
+public class InstructorService {
+    
+    private final Map<Long, Instructor> instructors;
+    private final Map<String, List<Instructor>> byDepartment;
+    private final Map<Long, int[]> creditLoads;
+    
+    public InstructorService() {
+        this.instructors = new LinkedHashMap<>();
+        this.byDepartment = new HashMap<>();
+        this.creditLoads = new HashMap<>();
+    }
+    
+    /**
+     * Add a new instructor
+     * @param instructor the instructor to add
+     * @return true if added, false if null or the id already exists
+     */
+    public boolean addInstructor(Instructor instructor) {
+        if (instructor == null || instructors.containsKey(instructor.getId())) {
+            return false;
+        }
+        instructors.put(instructor.getId(), instructor);
+        if (instructor.getDepartment() != null) {
+            byDepartment.computeIfAbsent(instructor.getDepartment(), d -> new ArrayList<>()).add(instructor);
+        }
+        creditLoads.putIfAbsent(instructor.getId(), new int[Semester.values().length]);
+        return true;
+    }
+    
+    /**
+     * Find an instructor by ID
+     * @param id the instructor ID
+     * @return Optional containing the instructor if found
+     */
+    public Optional<Instructor> findInstructorById(long id) {
+        return Optional.ofNullable(instructors.get(id));
+    }
+    
+    /**
+     * Find instructors by department
+     * @param department the department
+     * @return list of instructors in the department
+     */
+    public List<Instructor> findInstructorsByDepartment(String department) {
+        return new ArrayList<>(byDepartment.getOrDefault(department, new ArrayList<>()));
+    }
+    
+    /**
+     * Get all instructors
+     * @return list of all instructors
+     */
+    public List<Instructor> getAllInstructors() {
+        return new ArrayList<>(instructors.values());
+    }
+    
+    /**
+     * Remove an instructor by ID
+     * @param id the instructor ID
+     * @return true if removed
+     */
+    public boolean removeInstructor(long id) {
+        Instructor removed = instructors.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        List<Instructor> department = byDepartment.get(removed.getDepartment());
+        if (department != null) {
+            department.remove(removed);
+        }
+        creditLoads.remove(id);
+        return true;
+    }
+    
+    /**
+     * Add a course's credits to its instructor's load
+     * @param course the assigned course
+     */
+    public void recordAssignment(Course course) {
+        if (course.getInstructor() != null && course.getSemester() != null) {
+            creditLoads.computeIfAbsent(course.getInstructor().getId(), id -> new int[Semester.values().length])
+                       [course.getSemester().ordinal()] += course.getCredits();
+        }
+    }
+    
+    /**
+     * Remove a course's credits from its instructor's load
+     * @param course the course no longer taught
+     */
+    public void releaseAssignment(Course course) {
+        if (course.getInstructor() != null && course.getSemester() != null) {
+            int[] load = creditLoads.get(course.getInstructor().getId());
+            if (load != null) {
+                load[course.getSemester().ordinal()] -= course.getCredits();
+            }
+        }
+    }
+    
+    /**
+     * Get the credits an instructor teaches in a semester
+     * @param instructor the instructor
+     * @param semester the semester
+     * @return total credits
+     */
+    public int getTeachingLoad(Instructor instructor, Semester semester) {
+        int[] load = creditLoads.get(instructor.getId());
+        return load != null ? load[semester.ordinal()] : 0;
+    }
+    
+    /**
+     * Assign every course without an instructor to an instructor of its department
+     * Courses are grouped by department and semester, placed largest first, each on
+     * the least loaded instructor popped from a min-heap - O(n log k) overall
+     * @param courseService the service holding the courses
+     * @return the updated courses, already stored back in the course service
+     */
+    public List<Course> assignUnassignedCourses(CourseService courseService) {
+        // Group unassigned courses by department and semester
+        Map<String, Map<Semester, List<Course>>> groups = new HashMap<>();
+        for (Course course : courseService.getCourseSnapshot()) {
+            if (course.getInstructor() == null && course.getSemester() != null
+                    && byDepartment.containsKey(course.getDepartment())) {
+                groups.computeIfAbsent(course.getDepartment(), d -> new HashMap<>())
+                      .computeIfAbsent(course.getSemester(), s -> new ArrayList<>())
+                      .add(course);
+            }
+        }
+        
+        List<Course> assigned = new ArrayList<>();
+        for (Map.Entry<String, Map<Semester, List<Course>>> department : groups.entrySet()) {
+            List<Instructor> candidates = byDepartment.get(department.getKey());
+            if (candidates.isEmpty()) {
+                continue;
+            }
+            for (Map.Entry<Semester, List<Course>> semester : department.getValue().entrySet()) {
+                assignGroup(candidates, semester.getKey(), semester.getValue(), assigned);
+            }
+        }
+        
+        courseService.replaceCourses(assigned);
+        return assigned;
+    }
+    
+    /**
+     * Longest-processing-time-first placement of one department/semester group
+     */
+    private void assignGroup(List<Instructor> candidates, Semester semester,
+                             List<Course> courses, List<Course> assigned) {
+        PriorityQueue<LoadEntry> heap = new PriorityQueue<>(candidates.size());
+        for (Instructor instructor : candidates) {
+            heap.add(new LoadEntry(instructor, getTeachingLoad(instructor, semester)));
+        }
+        
+        courses.sort(Comparator.comparingInt(Course::getCredits).reversed());
+        for (Course course : courses) {
+            LoadEntry least = heap.poll();
+            assigned.add(course.toBuilder().instructor(least.instructor).build());
+            least.load += course.getCredits();
+            heap.add(least);
+        }
+    }
+    
+    /**
+     * Get total number of instructors
+     * @return total count of instructors
+     */
+    public int getInstructorCount() {
+        return instructors.size();
+    }
+    
+    /**
+     * Heap entry ordered by load, then by id for a stable assignment
+     */
+    private static final class LoadEntry implements Comparable<LoadEntry> {
+        private final Instructor instructor;
+        private int load;
+        
+        LoadEntry(Instructor instructor, int load) {
+            this.instructor = instructor;
+            this.load = load;
+        }
+        
+        @Override
+        public int compareTo(LoadEntry other) {
+            int byLoad = Integer.compare(load, other.load);
+            return byLoad != 0 ? byLoad : Long.compare(instructor.getId(), other.instructor.getId());
+        }
+    }
+}
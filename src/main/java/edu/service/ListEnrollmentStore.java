@@ -0,0 +1,94 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.PersistentList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Default enrollment store - a plain list of Enrollment objects
+ * plus a per-student index for duplicate and credit checks
+ * The list is persistent, so all() is an O(1) snapshot unaffected by later changes
+ */
+public class ListEnrollmentStore implements EnrollmentStore {
+    
+    private volatile PersistentList<Enrollment> enrollments;
+    private final Map<Long, List<Enrollment>> byStudent;
+    
+    public ListEnrollmentStore() {
+        this.enrollments = PersistentList.empty();
+        this.byStudent = new HashMap<>();
+    }
+    
+    @Override
+    public Enrollment add(Student student, Course course) {
+        Enrollment enrollment = new Enrollment(student, course);
+        enrollments = enrollments.plus(enrollment);
+        byStudent.computeIfAbsent(student.getId(), id -> new ArrayList<>()).add(enrollment);
+        return enrollment;
+    }
+    
+    @Override
+    public Enrollment find(Student student, Course course) {
+        return byStudent.getOrDefault(student.getId(), Collections.emptyList()).stream()
+                         .filter(enrollment -> matches(enrollment, student, course))
+                         .findFirst()
+                         .orElse(null);
+    }
+    
+    @Override
+    public Enrollment remove(Student student, Course course) {
+        int index = 0;
+        for (Enrollment enrollment : enrollments) {
+            if (matches(enrollment, student, course)) {
+                enrollments = enrollments.minus(index);
+                List<Enrollment> studentEnrollments = byStudent.get(student.getId());
+                studentEnrollments.remove(enrollment);
+                if (studentEnrollments.isEmpty()) {
+                    byStudent.remove(student.getId());
+                }
+                return enrollment;
+            }
+            index++;
+        }
+        return null;
+    }
+    
+    @Override
+    public List<Enrollment> forStudent(Student student) {
+        return new ArrayList<>(byStudent.getOrDefault(student.getId(), Collections.emptyList()));
+    }
+    
+    @Override
+    public List<Enrollment> forCourse(Course course) {
+        return enrollments.stream()
+                         .filter(enrollment -> enrollment.getCourse().getCourseCodeId() == course.getCourseCodeId())
+                         .collect(Collectors.toList());
+    }
+    
+    @Override
+    public List<Enrollment> all() {
+        return enrollments;
+    }
+    
+    @Override
+    public int size() {
+        return enrollments.size();
+    }
+    
+    @Override
+    public boolean isObjectBacked() {
+        return true;
+    }
+    
+    private static boolean matches(Enrollment enrollment, Student student, Course course) {
+        return enrollment.getStudent().getId() == student.getId() &&
+               enrollment.getCourse().getCourseCodeId() == course.getCourseCodeId();
+    }
+}
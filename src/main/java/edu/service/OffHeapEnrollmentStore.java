@@ -0,0 +1,426 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.LongIntHashMap;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Enrollment store keeping fixed-width records in a memory-mapped file
+ * Record data lives outside the Java heap and survives restarts: reopening the
+ * file rebuilds the small on-heap index with one sequential scan, without any
+ * re-import. Dropped records go on a free-list stored in the file itself.
+ *
+ * Students and courses are not persisted here; they are looked up through the
+ * resolvers (usually StudentService and CourseService) when a view is read.
+ *
+ * File layout: a 32-byte header followed by 48-byte records
+ *   0 status byte, 1 grade byte, 2 course code length (short),
+ *   4 epoch day (or next free slot), 8 student id (long),
+ *   16 next slot of the same student, 20 next slot of the same course,
+ *   24 course code (UTF-8, up to 24 bytes)
+ */
+public class OffHeapEnrollmentStore implements EnrollmentStore, Closeable {
+    
+    private static final int MAGIC = 0x43454E52; // "CENR"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 48;
+    private static final int MAX_CODE_BYTES = 24;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE;
+    
+    // Header fields
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_HIGH_WATER = 8;
+    private static final int HEADER_FREE_HEAD = 12;
+    private static final int HEADER_SIZE_FIELD = 16;
+    
+    // Record fields
+    private static final int STATUS = 0;
+    private static final int GRADE = 1;
+    private static final int CODE_LENGTH = 2;
+    private static final int EPOCH_DAY = 4;
+    private static final int STUDENT_ID = 8;
+    private static final int NEXT_BY_STUDENT = 16;
+    private static final int NEXT_BY_COURSE = 20;
+    private static final int COURSE_CODE = 24;
+    
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+    private static final byte NO_GRADE = -1;
+    private static final int NONE = -1;
+    private static final Grade[] GRADES = Grade.values();
+    
+    private final FileChannel channel;
+    private final Function<Long, Student> studentResolver;
+    private final Function<String, Course> courseResolver;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    
+    // Compact on-heap index: roster chain heads only
+    private final LongIntHashMap studentHead;
+    private final Map<String, Integer> courseHead;
+    
+    private OffHeapEnrollmentStore(FileChannel channel,
+                                   Function<Long, Student> studentResolver,
+                                   Function<String, Course> courseResolver) {
+        this.channel = channel;
+        this.studentResolver = studentResolver;
+        this.courseResolver = courseResolver;
+        this.studentHead = new LongIntHashMap();
+        this.courseHead = new HashMap<>();
+    }
+    
+    /**
+     * Open an enrollment file, creating it if it does not exist
+     * @param file the enrollment data file
+     * @param studentResolver looks up a student by id
+     * @param courseResolver looks up a course by code
+     * @return the opened store
+     * @throws IOException if the file cannot be mapped or is not an enrollment file
+     */
+    public static OffHeapEnrollmentStore open(Path file,
+                                              Function<Long, Student> studentResolver,
+                                              Function<String, Course> courseResolver) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OffHeapEnrollmentStore store = new OffHeapEnrollmentStore(channel, studentResolver, courseResolver);
+        try {
+            if (channel.size() < HEADER_SIZE) {
+                store.map(INITIAL_CAPACITY);
+                store.buffer.putInt(HEADER_MAGIC, MAGIC);
+                store.buffer.putInt(HEADER_VERSION, VERSION);
+                store.buffer.putInt(HEADER_HIGH_WATER, 0);
+                store.buffer.putInt(HEADER_FREE_HEAD, NONE);
+                store.buffer.putInt(HEADER_SIZE_FIELD, 0);
+            } else {
+                store.map((int) ((channel.size() - HEADER_SIZE) / RECORD_SIZE));
+                if (store.buffer.getInt(HEADER_MAGIC) != MAGIC || store.buffer.getInt(HEADER_VERSION) != VERSION) {
+                    throw new IOException("Not an enrollment store file: " + file);
+                }
+                store.rebuildIndex();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+    
+    @Override
+    public Enrollment add(Student student, Course course) {
+        byte[] code = encodeCode(course.getCourseCode());
+        int slot = allocateSlot();
+        int offset = offset(slot);
+        
+        buffer.put(offset + STATUS, LIVE);
+        buffer.put(offset + GRADE, NO_GRADE);
+        buffer.putShort(offset + CODE_LENGTH, (short) code.length);
+        buffer.putInt(offset + EPOCH_DAY, (int) LocalDate.now().toEpochDay());
+        buffer.putLong(offset + STUDENT_ID, student.getId());
+        buffer.put(offset + COURSE_CODE, code);
+        link(slot, student.getId(), course.getCourseCode());
+        
+        setHeader(HEADER_SIZE_FIELD, header(HEADER_SIZE_FIELD) + 1);
+        return new RecordView(this, slot);
+    }
+    
+    @Override
+    public Enrollment find(Student student, Course course) {
+        int slot = findSlot(student.getId(), course.getCourseCode());
+        return slot != NONE ? new RecordView(this, slot) : null;
+    }
+    
+    @Override
+    public Enrollment remove(Student student, Course course) {
+        String courseCode = course.getCourseCode();
+        int slot = findSlot(student.getId(), courseCode);
+        if (slot == NONE) {
+            return null;
+        }
+        int offset = offset(slot);
+        Enrollment removed = new Enrollment(student, course,
+                LocalDate.ofEpochDay(buffer.getInt(offset + EPOCH_DAY)), gradeAt(slot));
+        
+        int studentChain = unlink(studentHead.get(student.getId()), slot, NEXT_BY_STUDENT);
+        if (studentChain == NONE) {
+            studentHead.remove(student.getId());
+        } else {
+            studentHead.put(student.getId(), studentChain);
+        }
+        int courseChain = unlink(courseHead.get(courseCode), slot, NEXT_BY_COURSE);
+        if (courseChain == NONE) {
+            courseHead.remove(courseCode);
+        } else {
+            courseHead.put(courseCode, courseChain);
+        }
+        
+        // Push the slot on the free-list (the epoch day field holds the next free slot)
+        buffer.put(offset + STATUS, FREE);
+        buffer.putInt(offset + EPOCH_DAY, header(HEADER_FREE_HEAD));
+        setHeader(HEADER_FREE_HEAD, slot);
+        setHeader(HEADER_SIZE_FIELD, header(HEADER_SIZE_FIELD) - 1);
+        return removed;
+    }
+    
+    @Override
+    public List<Enrollment> forStudent(Student student) {
+        return collect(studentHead.get(student.getId()), NEXT_BY_STUDENT);
+    }
+    
+    @Override
+    public List<Enrollment> forCourse(Course course) {
+        Integer head = courseHead.get(course.getCourseCode());
+        return collect(head != null ? head : NONE, NEXT_BY_COURSE);
+    }
+    
+    @Override
+    public List<Enrollment> all() {
+        int highWater = header(HEADER_HIGH_WATER);
+        List<Enrollment> views = new ArrayList<>(size());
+        for (int slot = 0; slot < highWater; slot++) {
+            if (buffer.get(offset(slot) + STATUS) == LIVE) {
+                views.add(new RecordView(this, slot));
+            }
+        }
+        return Collections.unmodifiableList(views);
+    }
+    
+    @Override
+    public int size() {
+        return header(HEADER_SIZE_FIELD);
+    }
+    
+    @Override
+    public boolean isObjectBacked() {
+        return false;
+    }
+    
+    /**
+     * Flush dirty pages of the mapping to disk
+     */
+    public void force() {
+        buffer.force();
+    }
+    
+    /**
+     * Get the size of the backing file
+     * @return size in bytes
+     */
+    public long getFileSizeInBytes() {
+        return HEADER_SIZE + (long) capacity * RECORD_SIZE;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+    
+    /**
+     * Rebuild roster chain heads with one sequential pass over the records
+     */
+    private void rebuildIndex() {
+        int highWater = header(HEADER_HIGH_WATER);
+        for (int slot = 0; slot < highWater; slot++) {
+            int offset = offset(slot);
+            if (buffer.get(offset + STATUS) == LIVE) {
+                link(slot, buffer.getLong(offset + STUDENT_ID), courseCodeAt(slot));
+            }
+        }
+    }
+    
+    private void link(int slot, long studentId, String courseCode) {
+        int offset = offset(slot);
+        buffer.putInt(offset + NEXT_BY_STUDENT, studentHead.get(studentId));
+        studentHead.put(studentId, slot);
+        Integer head = courseHead.get(courseCode);
+        buffer.putInt(offset + NEXT_BY_COURSE, head != null ? head : NONE);
+        courseHead.put(courseCode, slot);
+    }
+    
+    /**
+     * Unlink a slot from a roster chain
+     * @return the (possibly new) chain head
+     */
+    private int unlink(int head, int slot, int nextField) {
+        int next = buffer.getInt(offset(slot) + nextField);
+        if (head == slot) {
+            return next;
+        }
+        for (int current = head; current != NONE; current = buffer.getInt(offset(current) + nextField)) {
+            if (buffer.getInt(offset(current) + nextField) == slot) {
+                buffer.putInt(offset(current) + nextField, next);
+                break;
+            }
+        }
+        return head;
+    }
+    
+    private int findSlot(long studentId, String courseCode) {
+        for (int slot = studentHead.get(studentId); slot != NONE; slot = buffer.getInt(offset(slot) + NEXT_BY_STUDENT)) {
+            if (courseCodeAt(slot).equals(courseCode)) {
+                return slot;
+            }
+        }
+        return NONE;
+    }
+    
+    private int allocateSlot() {
+        int free = header(HEADER_FREE_HEAD);
+        if (free != NONE) {
+            setHeader(HEADER_FREE_HEAD, buffer.getInt(offset(free) + EPOCH_DAY));
+            return free;
+        }
+        int slot = header(HEADER_HIGH_WATER);
+        if (slot == capacity) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException("Enrollment store is full: " + capacity + " records");
+            }
+            try {
+                map((int) Math.min((long) capacity * 2, MAX_CAPACITY));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to grow enrollment store: " + e.getMessage(), e);
+            }
+        }
+        setHeader(HEADER_HIGH_WATER, slot + 1);
+        return slot;
+    }
+    
+    /**
+     * (Re)map the file to hold a number of records, extending it if needed
+     */
+    private void map(int records) throws IOException {
+        if (buffer != null) {
+            buffer.force();
+        }
+        capacity = Math.max(records, INITIAL_CAPACITY);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * RECORD_SIZE);
+    }
+    
+    private List<Enrollment> collect(int head, int nextField) {
+        List<Enrollment> views = new ArrayList<>();
+        for (int slot = head; slot != NONE; slot = buffer.getInt(offset(slot) + nextField)) {
+            views.add(new RecordView(this, slot));
+        }
+        Collections.reverse(views);
+        return views;
+    }
+    
+    private String courseCodeAt(int slot) {
+        int offset = offset(slot);
+        byte[] code = new byte[buffer.getShort(offset + CODE_LENGTH)];
+        buffer.get(offset + COURSE_CODE, code);
+        return new String(code, StandardCharsets.UTF_8);
+    }
+    
+    private Grade gradeAt(int slot) {
+        byte grade = buffer.get(offset(slot) + GRADE);
+        return grade == NO_GRADE ? null : GRADES[grade];
+    }
+    
+    private static byte[] encodeCode(String courseCode) {
+        byte[] code = courseCode.getBytes(StandardCharsets.UTF_8);
+        if (code.length > MAX_CODE_BYTES) {
+            throw new IllegalArgumentException("Course code too long for enrollment store: " + courseCode);
+        }
+        return code;
+    }
+    
+    private int header(int field) {
+        return buffer.getInt(field);
+    }
+    
+    private void setHeader(int field, int value) {
+        buffer.putInt(field, value);
+    }
+    
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+    
+    /**
+     * Flyweight Enrollment reading its fields from a mapped record
+     */
+    static final class RecordView extends Enrollment {
+        
+        private final OffHeapEnrollmentStore store;
+        private final int slot;
+        
+        RecordView(OffHeapEnrollmentStore store, int slot) {
+            super(null, null, null, null);
+            this.store = store;
+            this.slot = slot;
+        }
+        
+        @Override
+        public Student getStudent() {
+            return store.studentResolver.apply(store.buffer.getLong(offset(slot) + STUDENT_ID));
+        }
+        
+        @Override
+        public void setStudent(Student student) {
+            throw new UnsupportedOperationException("Enrollment views cannot change their student");
+        }
+        
+        @Override
+        public Course getCourse() {
+            return store.courseResolver.apply(store.courseCodeAt(slot));
+        }
+        
+        @Override
+        public void setCourse(Course course) {
+            throw new UnsupportedOperationException("Enrollment views cannot change their course");
+        }
+        
+        @Override
+        public LocalDate getEnrollmentDate() {
+            return LocalDate.ofEpochDay(store.buffer.getInt(offset(slot) + EPOCH_DAY));
+        }
+        
+        @Override
+        public void setEnrollmentDate(LocalDate enrollmentDate) {
+            store.buffer.putInt(offset(slot) + EPOCH_DAY, (int) enrollmentDate.toEpochDay());
+        }
+        
+        @Override
+        public Grade getGrade() {
+            return store.gradeAt(slot);
+        }
+        
+        @Override
+        public void setGrade(Grade grade) {
+            store.buffer.put(offset(slot) + GRADE, grade == null ? NO_GRADE : (byte) grade.ordinal());
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RecordView)) return false;
+            RecordView other = (RecordView) o;
+            return store == other.store && slot == other.slot;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + slot;
+        }
+    }
+}
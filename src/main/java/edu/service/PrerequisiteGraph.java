@@ -0,0 +1,229 @@
+package edu.ccrm.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Course prerequisite DAG with a cached transitive closure per course
+ * Each course gets a dense ordinal; closure(c) is a BitSet of every course that
+ * must be completed before c, so an eligibility check walks only the required bits
+ */
+public class PrerequisiteGraph {
+    
+    private final Map<String, Integer> ordinals;
+    private final List<String> courseCodes;
+    private final List<BitSet> direct;
+    private final List<BitSet> closure;
+    
+    public PrerequisiteGraph() {
+        this.ordinals = new HashMap<>();
+        this.courseCodes = new ArrayList<>();
+        this.direct = new ArrayList<>();
+        this.closure = new ArrayList<>();
+    }
+    
+    /**
+     * Register a course, assigning its ordinal
+     * @param courseCode the course code
+     * @return the course ordinal
+     */
+    public int addCourse(String courseCode) {
+        Integer ordinal = ordinals.get(courseCode);
+        if (ordinal == null) {
+            ordinal = courseCodes.size();
+            ordinals.put(courseCode, ordinal);
+            courseCodes.add(courseCode);
+            direct.add(new BitSet());
+            closure.add(new BitSet());
+        }
+        return ordinal;
+    }
+    
+    /**
+     * Get the ordinal of a registered course
+     * @param courseCode the course code
+     * @return the ordinal, or -1 if the course is unknown
+     */
+    public int ordinalOf(String courseCode) {
+        Integer ordinal = ordinals.get(courseCode);
+        return ordinal != null ? ordinal : -1;
+    }
+    
+    /**
+     * Add a prerequisite edge, rejecting edges that would create a cycle
+     * @param courseCode the course that gets the requirement
+     * @param prerequisiteCode the course that must be completed first
+     * @return true if the edge was added, false if it would create a cycle
+     */
+    public boolean addPrerequisite(String courseCode, String prerequisiteCode) {
+        int course = addCourse(courseCode);
+        int prerequisite = addCourse(prerequisiteCode);
+        
+        // Cycle if the prerequisite already (transitively) requires the course
+        if (course == prerequisite || closure.get(prerequisite).get(course)) {
+            return false;
+        }
+        if (direct.get(course).get(prerequisite)) {
+            return true;
+        }
+        
+        direct.get(course).set(prerequisite);
+        
+        // Propagate: the course and everything requiring it now also require prerequisite's closure
+        BitSet added = (BitSet) closure.get(prerequisite).clone();
+        added.set(prerequisite);
+        closure.get(course).or(added);
+        for (int i = 0; i < closure.size(); i++) {
+            if (closure.get(i).get(course)) {
+                closure.get(i).or(added);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Remove a prerequisite edge
+     * @param courseCode the course with the requirement
+     * @param prerequisiteCode the prerequisite to remove
+     * @return true if the edge existed
+     */
+    public boolean removePrerequisite(String courseCode, String prerequisiteCode) {
+        int course = ordinalOf(courseCode);
+        int prerequisite = ordinalOf(prerequisiteCode);
+        if (course < 0 || prerequisite < 0 || !direct.get(course).get(prerequisite)) {
+            return false;
+        }
+        direct.get(course).clear(prerequisite);
+        rebuildClosure();
+        return true;
+    }
+    
+    /**
+     * Remove all edges to and from a course (the ordinal stays reserved)
+     * @param courseCode the removed course
+     */
+    public void removeCourse(String courseCode) {
+        int course = ordinalOf(courseCode);
+        if (course < 0) {
+            return;
+        }
+        direct.get(course).clear();
+        for (BitSet requirements : direct) {
+            requirements.clear(course);
+        }
+        rebuildClosure();
+    }
+    
+    /**
+     * Get all courses that must be completed before a course (transitive)
+     * @param courseCode the course code
+     * @return copy of the closure bitset, indexed by course ordinal
+     */
+    public BitSet getRequiredCourses(String courseCode) {
+        int course = ordinalOf(courseCode);
+        return course >= 0 ? (BitSet) closure.get(course).clone() : new BitSet();
+    }
+    
+    /**
+     * Get the direct prerequisites of a course
+     * @param courseCode the course code
+     * @return list of prerequisite course codes
+     */
+    public List<String> getDirectPrerequisites(String courseCode) {
+        int course = ordinalOf(courseCode);
+        return course >= 0 ? toCodes(direct.get(course)) : new ArrayList<>();
+    }
+    
+    /**
+     * Check whether a set of completed courses satisfies a course's prerequisites
+     * Stops at the first required course not completed and allocates nothing
+     * @param courseCode the course to enroll in
+     * @param completed bitset of completed course ordinals
+     * @return true if every required course is completed
+     */
+    public boolean isEligible(String courseCode, BitSet completed) {
+        int course = ordinalOf(courseCode);
+        if (course < 0) {
+            return true;
+        }
+        BitSet required = closure.get(course);
+        for (int p = required.nextSetBit(0); p >= 0; p = required.nextSetBit(p + 1)) {
+            if (!completed.get(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Get required courses not yet completed
+     * @param courseCode the course to enroll in
+     * @param completed bitset of completed course ordinals
+     * @return list of missing course codes
+     */
+    public List<String> getMissingPrerequisites(String courseCode, BitSet completed) {
+        int course = ordinalOf(courseCode);
+        if (course < 0) {
+            return new ArrayList<>();
+        }
+        BitSet missing = (BitSet) closure.get(course).clone();
+        missing.andNot(completed);
+        return toCodes(missing);
+    }
+    
+    /**
+     * Recompute every closure from the direct edges (used after removals)
+     * Iterative post-order depth-first walk with an explicit stack, so long
+     * prerequisite chains cannot overflow the thread stack. A course's closure
+     * is built once all of its prerequisites are done; the stack never holds
+     * more than every course once because the graph is acyclic.
+     */
+    private void rebuildClosure() {
+        int n = courseCodes.size();
+        for (BitSet requirements : closure) {
+            requirements.clear();
+        }
+        boolean[] done = new boolean[n];
+        int[] stack = new int[n];
+        int[] nextPrerequisite = new int[n];
+        for (int root = 0; root < n; root++) {
+            if (done[root]) {
+                continue;
+            }
+            int depth = 0;
+            stack[depth++] = root;
+            nextPrerequisite[root] = 0;
+            while (depth > 0) {
+                int course = stack[depth - 1];
+                BitSet requirements = direct.get(course);
+                int p = requirements.nextSetBit(nextPrerequisite[course]);
+                if (p >= 0) {
+                    nextPrerequisite[course] = p + 1;
+                    if (!done[p]) {
+                        stack[depth++] = p;
+                        nextPrerequisite[p] = 0;
+                    }
+                    continue;
+                }
+                BitSet courseClosure = closure.get(course);
+                for (int q = requirements.nextSetBit(0); q >= 0; q = requirements.nextSetBit(q + 1)) {
+                    courseClosure.set(q);
+                    courseClosure.or(closure.get(q));
+                }
+                done[course] = true;
+                depth--;
+            }
+        }
+    }
+    
+    private List<String> toCodes(BitSet ordinalSet) {
+        List<String> codes = new ArrayList<>();
+        for (int i = ordinalSet.nextSetBit(0); i >= 0; i = ordinalSet.nextSetBit(i + 1)) {
+            codes.add(courseCodes.get(i));
+        }
+        return codes;
+    }
+}
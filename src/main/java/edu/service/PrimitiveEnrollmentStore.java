@@ -0,0 +1,348 @@
+package edu.ccrm.service;
+
+import edu.ccrm.domain.Course;
+import edu.ccrm.domain.Enrollment;
+import edu.ccrm.domain.Grade;
+import edu.ccrm.domain.Student;
+import edu.ccrm.util.LongIntHashMap;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Low-footprint enrollment store using parallel primitive arrays
+ * Each enrollment is one slot: student ordinal, course ordinal, epoch day and grade
+ * (21 bytes including chain links, plus a lookup map entry) instead of an Enrollment object plus its
+ * LocalDate and two list references. Per-student and per-course rosters are
+ * intrusive linked lists through the slots, and (student, course) lookups go
+ * through an open-addressing long-to-int map.
+ *
+ * Enrollments are handed out as flyweight views that read and write the arrays;
+ * a view is only valid until its enrollment is removed.
+ */
+public class PrimitiveEnrollmentStore implements EnrollmentStore {
+    
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NONE = -1;
+    private static final byte NO_GRADE = -1;
+    private static final Grade[] GRADES = Grade.values();
+    
+    // Ordinal tables - students and courses stay ordinary objects
+    private final LongIntHashMap studentOrdinals;
+    private final List<Student> studentsByOrdinal;
+    private final Map<String, Integer> courseOrdinals;
+    private final List<Course> coursesByOrdinal;
+    
+    // Slot columns
+    private int[] studentColumn;
+    private int[] courseColumn;
+    private int[] epochDayColumn;
+    private byte[] gradeColumn;
+    private int[] nextByStudent;
+    private int[] nextByCourse;
+    
+    // Roster chain heads, indexed by ordinal
+    private int[] studentHead;
+    private int[] courseHead;
+    
+    private final LongIntHashMap slotByPair;
+    private int highWater;
+    private int size;
+    private int freeHead;
+    
+    public PrimitiveEnrollmentStore() {
+        this(INITIAL_CAPACITY);
+    }
+    
+    /**
+     * Create a store sized for an expected number of enrollments
+     * @param expectedEnrollments expected number of enrollments
+     */
+    public PrimitiveEnrollmentStore(int expectedEnrollments) {
+        int capacity = Math.max(expectedEnrollments, 16);
+        this.studentOrdinals = new LongIntHashMap();
+        this.studentsByOrdinal = new ArrayList<>();
+        this.courseOrdinals = new HashMap<>();
+        this.coursesByOrdinal = new ArrayList<>();
+        this.studentColumn = new int[capacity];
+        this.courseColumn = new int[capacity];
+        this.epochDayColumn = new int[capacity];
+        this.gradeColumn = new byte[capacity];
+        this.nextByStudent = new int[capacity];
+        this.nextByCourse = new int[capacity];
+        this.studentHead = new int[0];
+        this.courseHead = new int[0];
+        this.slotByPair = new LongIntHashMap(capacity);
+        this.freeHead = NONE;
+    }
+    
+    @Override
+    public Enrollment add(Student student, Course course) {
+        int studentOrdinal = studentOrdinal(student);
+        int courseOrdinal = courseOrdinal(course);
+        int slot = allocateSlot();
+        
+        studentColumn[slot] = studentOrdinal;
+        courseColumn[slot] = courseOrdinal;
+        epochDayColumn[slot] = (int) LocalDate.now().toEpochDay();
+        gradeColumn[slot] = NO_GRADE;
+        
+        nextByStudent[slot] = studentHead[studentOrdinal];
+        studentHead[studentOrdinal] = slot;
+        nextByCourse[slot] = courseHead[courseOrdinal];
+        courseHead[courseOrdinal] = slot;
+        
+        slotByPair.put(pairKey(studentOrdinal, courseOrdinal), slot);
+        size++;
+        return new EnrollmentView(this, slot);
+    }
+    
+    @Override
+    public Enrollment find(Student student, Course course) {
+        int slot = findSlot(student, course);
+        return slot != NONE ? new EnrollmentView(this, slot) : null;
+    }
+    
+    @Override
+    public Enrollment remove(Student student, Course course) {
+        int slot = findSlot(student, course);
+        if (slot == NONE) {
+            return null;
+        }
+        Enrollment removed = new Enrollment(student, course,
+                LocalDate.ofEpochDay(epochDayColumn[slot]), gradeAt(slot));
+        
+        int studentOrdinal = studentColumn[slot];
+        int courseOrdinal = courseColumn[slot];
+        slotByPair.remove(pairKey(studentOrdinal, courseOrdinal));
+        studentHead[studentOrdinal] = unlink(studentHead[studentOrdinal], slot, nextByStudent);
+        courseHead[courseOrdinal] = unlink(courseHead[courseOrdinal], slot, nextByCourse);
+        
+        // Recycle the slot through the free-list (chained via nextByStudent)
+        studentColumn[slot] = NONE;
+        nextByStudent[slot] = freeHead;
+        freeHead = slot;
+        size--;
+        return removed;
+    }
+    
+    @Override
+    public List<Enrollment> forStudent(Student student) {
+        int ordinal = studentOrdinals.get(student.getId());
+        return ordinal != LongIntHashMap.NO_VALUE ? collect(studentHead[ordinal], nextByStudent) : new ArrayList<>();
+    }
+    
+    @Override
+    public List<Enrollment> forCourse(Course course) {
+        Integer ordinal = courseOrdinals.get(course.getCourseCode());
+        return ordinal != null ? collect(courseHead[ordinal], nextByCourse) : new ArrayList<>();
+    }
+    
+    @Override
+    public List<Enrollment> all() {
+        List<Enrollment> views = new ArrayList<>(size);
+        for (int slot = 0; slot < highWater; slot++) {
+            if (studentColumn[slot] != NONE) {
+                views.add(new EnrollmentView(this, slot));
+            }
+        }
+        return Collections.unmodifiableList(views);
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public boolean isObjectBacked() {
+        return false;
+    }
+    
+    /**
+     * Approximate heap used by the store's own arrays and maps
+     * (students and courses are shared with the services and not counted)
+     * @return size in bytes
+     */
+    public long getSizeInBytes() {
+        long columns = (long) studentColumn.length * (5 * Integer.BYTES + 1)
+                     + (long) (studentHead.length + courseHead.length) * Integer.BYTES;
+        return columns + slotByPair.getSizeInBytes() + studentOrdinals.getSizeInBytes();
+    }
+    
+    private int findSlot(Student student, Course course) {
+        int studentOrdinal = studentOrdinals.get(student.getId());
+        Integer courseOrdinal = courseOrdinals.get(course.getCourseCode());
+        if (studentOrdinal == LongIntHashMap.NO_VALUE || courseOrdinal == null) {
+            return NONE;
+        }
+        return slotByPair.get(pairKey(studentOrdinal, courseOrdinal));
+    }
+    
+    private int studentOrdinal(Student student) {
+        int ordinal = studentOrdinals.get(student.getId());
+        if (ordinal == LongIntHashMap.NO_VALUE) {
+            ordinal = studentsByOrdinal.size();
+            studentOrdinals.put(student.getId(), ordinal);
+            studentsByOrdinal.add(student);
+            studentHead = grow(studentHead, ordinal + 1);
+        } else {
+            studentsByOrdinal.set(ordinal, student);
+        }
+        return ordinal;
+    }
+    
+    private int courseOrdinal(Course course) {
+        Integer ordinal = courseOrdinals.get(course.getCourseCode());
+        if (ordinal == null) {
+            ordinal = coursesByOrdinal.size();
+            courseOrdinals.put(course.getCourseCode(), ordinal);
+            coursesByOrdinal.add(course);
+            courseHead = grow(courseHead, ordinal + 1);
+        } else {
+            coursesByOrdinal.set(ordinal, course);
+        }
+        return ordinal;
+    }
+    
+    private int allocateSlot() {
+        if (freeHead != NONE) {
+            int slot = freeHead;
+            freeHead = nextByStudent[slot];
+            return slot;
+        }
+        if (highWater == studentColumn.length) {
+            int capacity = studentColumn.length * 2;
+            studentColumn = Arrays.copyOf(studentColumn, capacity);
+            courseColumn = Arrays.copyOf(courseColumn, capacity);
+            epochDayColumn = Arrays.copyOf(epochDayColumn, capacity);
+            gradeColumn = Arrays.copyOf(gradeColumn, capacity);
+            nextByStudent = Arrays.copyOf(nextByStudent, capacity);
+            nextByCourse = Arrays.copyOf(nextByCourse, capacity);
+        }
+        return highWater++;
+    }
+    
+    /**
+     * Unlink a slot from a roster chain
+     * @return the (possibly new) chain head
+     */
+    private static int unlink(int head, int slot, int[] next) {
+        if (head == slot) {
+            return next[slot];
+        }
+        for (int current = head; current != NONE; current = next[current]) {
+            if (next[current] == slot) {
+                next[current] = next[slot];
+                break;
+            }
+        }
+        return head;
+    }
+    
+    /**
+     * Collect a roster chain into views, oldest enrollment first
+     */
+    private List<Enrollment> collect(int head, int[] next) {
+        List<Enrollment> views = new ArrayList<>();
+        for (int slot = head; slot != NONE; slot = next[slot]) {
+            views.add(new EnrollmentView(this, slot));
+        }
+        Collections.reverse(views);
+        return views;
+    }
+    
+    /**
+     * Grow a chain-head array, filling new entries with NONE
+     */
+    private static int[] grow(int[] heads, int minLength) {
+        if (heads.length >= minLength) {
+            return heads;
+        }
+        int oldLength = heads.length;
+        int[] grown = Arrays.copyOf(heads, Math.max(minLength, oldLength * 2));
+        Arrays.fill(grown, oldLength, grown.length, NONE);
+        return grown;
+    }
+    
+    private static long pairKey(int studentOrdinal, int courseOrdinal) {
+        return ((long) studentOrdinal << 32) | (courseOrdinal & 0xFFFFFFFFL);
+    }
+    
+    private Grade gradeAt(int slot) {
+        byte grade = gradeColumn[slot];
+        return grade == NO_GRADE ? null : GRADES[grade];
+    }
+    
+    /**
+     * Flyweight Enrollment reading its fields from the store's columns
+     */
+    static final class EnrollmentView extends Enrollment {
+        
+        private final PrimitiveEnrollmentStore store;
+        private final int slot;
+        
+        EnrollmentView(PrimitiveEnrollmentStore store, int slot) {
+            super(null, null, null, null);
+            this.store = store;
+            this.slot = slot;
+        }
+        
+        @Override
+        public Student getStudent() {
+            return store.studentsByOrdinal.get(store.studentColumn[slot]);
+        }
+        
+        @Override
+        public void setStudent(Student student) {
+            throw new UnsupportedOperationException("Enrollment views cannot change their student");
+        }
+        
+        @Override
+        public Course getCourse() {
+            return store.coursesByOrdinal.get(store.courseColumn[slot]);
+        }
+        
+        @Override
+        public void setCourse(Course course) {
+            throw new UnsupportedOperationException("Enrollment views cannot change their course");
+        }
+        
+        @Override
+        public LocalDate getEnrollmentDate() {
+            return LocalDate.ofEpochDay(store.epochDayColumn[slot]);
+        }
+        
+        @Override
+        public void setEnrollmentDate(LocalDate enrollmentDate) {
+            store.epochDayColumn[slot] = (int) enrollmentDate.toEpochDay();
+        }
+        
+        @Override
+        public Grade getGrade() {
+            return store.gradeAt(slot);
+        }
+        
+        @Override
+        public void setGrade(Grade grade) {
+            store.gradeColumn[slot] = grade == null ? NO_GRADE : (byte) grade.ordinal();
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof EnrollmentView)) return false;
+            EnrollmentView other = (EnrollmentView) o;
+            return store == other.store && slot == other.slot;
+        }
+        
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(store) * 31 + slot;
+        }
+    }
+}
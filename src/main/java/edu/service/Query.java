@@ -0,0 +1,99 @@
+package edu.ccrm.service;
+
+/**
+ * Immutable query description executed by a QueryEngine
+ * Demonstrates a fluent interface - each call returns a new Query
+ * @param <T> the record type being queried
+ */
+public class Query<T> {
+    
+    private final Condition condition;
+    private final String orderBy;
+    private final boolean ascending;
+    private final int limit;
+    
+    private Query(Condition condition, String orderBy, boolean ascending, int limit) {
+        this.condition = condition;
+        this.orderBy = orderBy;
+        this.ascending = ascending;
+        this.limit = limit;
+    }
+    
+    /**
+     * Create a query matching all records
+     * @return unfiltered query
+     */
+    public static <T> Query<T> all() {
+        return new Query<>(null, null, true, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Create a query filtered by a condition
+     * @param condition the filter condition
+     * @return filtered query
+     */
+    public static <T> Query<T> where(Condition condition) {
+        return new Query<>(condition, null, true, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Sort results ascending by a field
+     * @param field the field name
+     * @return new query with ordering
+     */
+    public Query<T> orderBy(String field) {
+        return new Query<>(condition, field, true, limit);
+    }
+    
+    /**
+     * Sort results descending by a field
+     * @param field the field name
+     * @return new query with ordering
+     */
+    public Query<T> orderByDescending(String field) {
+        return new Query<>(condition, field, false, limit);
+    }
+    
+    /**
+     * Limit the number of results
+     * @param limit maximum number of results
+     * @return new query with limit
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+        }
+        return new Query<>(condition, orderBy, ascending, limit);
+    }
+    
+    public Condition getCondition() {
+        return condition;
+    }
+    
+    public String getOrderBy() {
+        return orderBy;
+    }
+    
+    public boolean isAscending() {
+        return ascending;
+    }
+    
+    public int getLimit() {
+        return limit;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("SELECT *");
+        if (condition != null) {
+            sb.append(" WHERE ").append(condition);
+        }
+        if (orderBy != null) {
+            sb.append(" ORDER BY ").append(orderBy).append(ascending ? " ASC" : " DESC");
+        }
+        if (limit != Integer.MAX_VALUE) {
+            sb.append(" LIMIT ").append(limit);
+        }
+        return sb.toString();
+    }
+}
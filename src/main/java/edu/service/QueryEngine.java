@@ -0,0 +1,616 @@
+package edu.ccrm.service;
+
+import edu.ccrm.util.RoaringBitmap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Query engine with index-aware planning
+ * The planner picks the most selective field index (or intersects several) for a
+ * structured Condition and only falls back to a full scan when no index applies.
+ * Indexed records get dense ordinals and each index bucket is a bitmap of them, so
+ * AND and OR over indexes are bitmap intersections and unions.
+ * @param <T> the record type being queried
+ */
+public class QueryEngine<T> {
+    
+    // An AND intersects child index results whose estimate is within this factor of the best one
+    private static final int INTERSECT_FACTOR = 8;
+    
+    // Result of lookups without a bucket; never modified
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+    
+    private final Supplier<Collection<T>> source;
+    private final Map<String, Function<T, Object>> fields;
+    private final Map<String, Class<?>> types;
+    private final Map<String, FieldIndex> indexes;
+    
+    // Ordinal of every indexed record; released ordinals are reused
+    private final Map<T, Integer> ordinals;
+    private final List<T> recordsByOrdinal;
+    private final Deque<Integer> freeOrdinals;
+    
+    /**
+     * Create a query engine over a record source
+     * @param source supplier of all records, used for full scans
+     */
+    public QueryEngine(Supplier<Collection<T>> source) {
+        this.source = source;
+        this.fields = new LinkedHashMap<>();
+        this.types = new HashMap<>();
+        this.indexes = new HashMap<>();
+        this.ordinals = new IdentityHashMap<>();
+        this.recordsByOrdinal = new ArrayList<>();
+        this.freeOrdinals = new ArrayDeque<>();
+    }
+    
+    /**
+     * Register a queryable field
+     * Query values are converted to the field type when a query runs: numbers that
+     * fit exactly are converted (Integer 5 for a Long field), other mismatches are rejected
+     * @param name the field name used in conditions
+     * @param type the (boxed) type of the field values
+     * @param extractor function reading the field value
+     * @param indexed true to maintain an index on the field
+     * @return this engine for chaining
+     */
+    public QueryEngine<T> field(String name, Class<?> type, Function<T, Object> extractor, boolean indexed) {
+        fields.put(name, extractor);
+        types.put(name, type);
+        if (indexed) {
+            FieldIndex index = new FieldIndex(extractor);
+            for (T record : source.get()) {
+                index.add(record, ordinalOf(record));
+            }
+            indexes.put(name, index);
+        }
+        return this;
+    }
+    
+    /**
+     * Add a record to all field indexes
+     * @param record the record to index
+     */
+    public void index(T record) {
+        if (indexes.isEmpty()) {
+            return;
+        }
+        int ordinal = ordinalOf(record);
+        for (FieldIndex index : indexes.values()) {
+            index.add(record, ordinal);
+        }
+    }
+    
+    /**
+     * Remove a record from all field indexes
+     * @param record the record to remove
+     */
+    public void unindex(T record) {
+        Integer ordinal = ordinals.remove(record);
+        if (ordinal == null) {
+            return;
+        }
+        for (FieldIndex index : indexes.values()) {
+            index.remove(record, ordinal);
+        }
+        recordsByOrdinal.set(ordinal, null);
+        freeOrdinals.push(ordinal);
+    }
+    
+    /**
+     * Refresh index entries after a record's fields changed
+     * @param record the modified record
+     */
+    public void reindex(T record) {
+        unindex(record);
+        index(record);
+    }
+    
+    /**
+     * Rebuild all field indexes from the record source in one pass per field
+     * Cheaper than unindexing and indexing records one by one after bulk changes;
+     * ordinals are reassigned densely in source order
+     */
+    public void rebuild() {
+        Collection<T> records = source.get();
+        clearOrdinals();
+        if (indexes.isEmpty()) {
+            return;
+        }
+        for (T record : records) {
+            ordinalOf(record);
+        }
+        for (FieldIndex index : indexes.values()) {
+            index.rebuild(records);
+        }
+    }
+    
+    /**
+     * Remove all records from all field indexes
+     */
+    public void clear() {
+        for (FieldIndex index : indexes.values()) {
+            index.clear();
+        }
+        clearOrdinals();
+    }
+    
+    private int ordinalOf(T record) {
+        Integer ordinal = ordinals.get(record);
+        if (ordinal == null) {
+            ordinal = freeOrdinals.isEmpty() ? recordsByOrdinal.size() : freeOrdinals.pop();
+            if (ordinal == recordsByOrdinal.size()) {
+                recordsByOrdinal.add(record);
+            } else {
+                recordsByOrdinal.set(ordinal, record);
+            }
+            ordinals.put(record, ordinal);
+        }
+        return ordinal;
+    }
+    
+    private void clearOrdinals() {
+        ordinals.clear();
+        recordsByOrdinal.clear();
+        freeOrdinals.clear();
+    }
+    
+    /**
+     * Get the records of a bitmap of ordinals, in ordinal order
+     */
+    private List<T> recordsOf(RoaringBitmap bitmap) {
+        List<T> records = new ArrayList<>(bitmap.cardinality());
+        bitmap.forEach(ordinal -> records.add(recordsByOrdinal.get(ordinal)));
+        return records;
+    }
+    
+    /**
+     * Execute a query
+     * @param query the query to run
+     * @return matching records, sorted and limited as requested
+     * @throws IllegalArgumentException if the query names an unknown field or a
+     *         value that does not fit its field type
+     */
+    public List<T> execute(Query<T> query) {
+        Condition condition = bind(query.getCondition());
+        Plan plan = plan(condition);
+        
+        List<T> results = new ArrayList<>();
+        boolean earlyLimit = query.getOrderBy() == null;
+        for (T record : plan.candidates()) {
+            if (condition == null || condition.matches(fields, record)) {
+                results.add(record);
+                if (earlyLimit && results.size() >= query.getLimit()) {
+                    break;
+                }
+            }
+        }
+        
+        if (query.getOrderBy() != null) {
+            Function<T, Object> key = Condition.field(fields, query.getOrderBy());
+            Comparator<T> comparator = (r1, r2) -> compareNullsLast(key.apply(r1), key.apply(r2));
+            results.sort(query.isAscending() ? comparator : comparator.reversed());
+        }
+        
+        if (results.size() > query.getLimit()) {
+            return new ArrayList<>(results.subList(0, query.getLimit()));
+        }
+        return results;
+    }
+    
+    /**
+     * Describe the plan chosen for a query with estimated row counts
+     * @param query the query to explain
+     * @return human readable plan
+     */
+    public String explain(Query<T> query) {
+        Condition condition = bind(query.getCondition());
+        Plan plan = plan(condition);
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("Query: ").append(query).append("\n");
+        sb.append(String.format("Plan (estimated rows: %d of %d):%n", plan.estimate(), total()));
+        plan.describe(sb, 1);
+        if (condition != null) {
+            sb.append("  FILTER ").append(condition).append("\n");
+        }
+        if (query.getOrderBy() != null) {
+            sb.append("  SORT BY ").append(query.getOrderBy())
+              .append(query.isAscending() ? " ASC" : " DESC").append("\n");
+        }
+        if (query.getLimit() != Integer.MAX_VALUE) {
+            sb.append("  LIMIT ").append(query.getLimit()).append("\n");
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * Convert the values of a condition to the types of their fields
+     * Done before planning so index lookups and scans compare the same values
+     */
+    private Condition bind(Condition condition) {
+        return condition != null ? condition.bind(types) : null;
+    }
+    
+    /**
+     * Choose an access path for a bound condition
+     */
+    private Plan plan(Condition condition) {
+        long total = total();
+        Plan plan = condition != null ? planCondition(condition) : null;
+        if (plan == null || plan.estimate() >= total) {
+            return new FullScan(total);
+        }
+        return plan;
+    }
+    
+    /**
+     * Build an index plan for a condition, or null if no index can answer it
+     */
+    private IndexPlan planCondition(Condition condition) {
+        if (condition instanceof Condition.Equals) {
+            Condition.Equals equals = (Condition.Equals) condition;
+            FieldIndex index = indexes.get(equals.field);
+            return index != null && equals.value != null ? new IndexLookup(equals.field, index, equals.value) : null;
+        }
+        
+        if (condition instanceof Condition.Range) {
+            Condition.Range range = (Condition.Range) condition;
+            FieldIndex index = indexes.get(range.field);
+            return index != null ? new IndexRange(range.field, index, range.min, range.max) : null;
+        }
+        
+        if (condition instanceof Condition.And) {
+            List<IndexPlan> childPlans = new ArrayList<>();
+            for (Condition child : ((Condition.And) condition).children) {
+                IndexPlan childPlan = planCondition(child);
+                if (childPlan != null) {
+                    childPlans.add(childPlan);
+                }
+            }
+            if (childPlans.isEmpty()) {
+                return null;
+            }
+            
+            // Most selective index first; intersect only with indexes of comparable selectivity
+            childPlans.sort(Comparator.comparingLong(Plan::estimate));
+            IndexPlan best = childPlans.get(0);
+            List<IndexPlan> selected = new ArrayList<>();
+            selected.add(best);
+            for (int i = 1; i < childPlans.size(); i++) {
+                if (childPlans.get(i).estimate() <= best.estimate() * INTERSECT_FACTOR) {
+                    selected.add(childPlans.get(i));
+                }
+            }
+            return selected.size() == 1 ? best : new Intersection(selected, total());
+        }
+        
+        if (condition instanceof Condition.Or) {
+            List<IndexPlan> childPlans = new ArrayList<>();
+            for (Condition child : ((Condition.Or) condition).children) {
+                IndexPlan childPlan = planCondition(child);
+                if (childPlan == null) {
+                    return null; // one unindexed branch forces a scan
+                }
+                childPlans.add(childPlan);
+            }
+            return new Union(childPlans, total());
+        }
+        
+        return null; // NOT and unknown conditions need a scan
+    }
+    
+    private long total() {
+        return source.get().size();
+    }
+    
+    private static int compareNullsLast(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : 1) : -1;
+        }
+        return Condition.compareValues(a, b);
+    }
+    
+    private static void indent(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+    }
+    
+    /**
+     * Sorted index on a single field, one bitmap of record ordinals per value;
+     * remembers the indexed value of each record so stale entries can be removed
+     * after the record was mutated
+     */
+    private class FieldIndex {
+        private final Function<T, Object> extractor;
+        private final TreeMap<Object, RoaringBitmap> buckets;
+        private Map<T, Object> indexedValues;
+        
+        FieldIndex(Function<T, Object> extractor) {
+            this.extractor = extractor;
+            this.buckets = new TreeMap<>(Condition::compareValues);
+            this.indexedValues = new IdentityHashMap<>();
+        }
+        
+        void add(T record, int ordinal) {
+            Object value = extractor.apply(record);
+            if (value == null) {
+                return;
+            }
+            buckets.computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+            indexedValues.put(record, value);
+        }
+        
+        void remove(T record, int ordinal) {
+            Object value = indexedValues.remove(record);
+            if (value == null) {
+                return;
+            }
+            RoaringBitmap bucket = buckets.get(value);
+            if (bucket != null) {
+                bucket.remove(ordinal);
+                if (bucket.isEmpty()) {
+                    buckets.remove(value);
+                }
+            }
+        }
+        
+        void clear() {
+            buckets.clear();
+            indexedValues.clear();
+        }
+        
+        void rebuild(Collection<T> records) {
+            // Group with hashing first so the sorted map only sees each distinct value once;
+            // ordinals follow source order, so each bitmap is filled in ascending order
+            Map<Object, RoaringBitmap> groups = new HashMap<>();
+            indexedValues = new IdentityHashMap<>(records.size());
+            for (T record : records) {
+                Object value = extractor.apply(record);
+                if (value != null) {
+                    groups.computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinals.get(record));
+                    indexedValues.put(record, value);
+                }
+            }
+            buckets.clear();
+            buckets.putAll(groups);
+        }
+        
+        /**
+         * Get the ordinals of the records with a value - shared, callers must not modify it
+         */
+        RoaringBitmap lookup(Object value) {
+            RoaringBitmap bucket = buckets.get(value);
+            return bucket != null ? bucket : EMPTY;
+        }
+        
+        NavigableMap<Object, RoaringBitmap> range(Object min, Object max) {
+            if (min != null && max != null) {
+                if (Condition.compareValues(min, max) > 0) {
+                    return Collections.emptyNavigableMap();
+                }
+                return buckets.subMap(min, true, max, true);
+            }
+            if (min != null) {
+                return buckets.tailMap(min, true);
+            }
+            if (max != null) {
+                return buckets.headMap(max, true);
+            }
+            return buckets;
+        }
+    }
+    
+    /**
+     * Node of a physical query plan
+     */
+    private abstract class Plan {
+        abstract long estimate();
+        
+        abstract Collection<T> candidates();
+        
+        abstract void describe(StringBuilder sb, int depth);
+    }
+    
+    /**
+     * Plan answered from indexes, whose matches can be combined as bitmaps
+     */
+    private abstract class IndexPlan extends Plan {
+        /**
+         * Ordinals of the candidate records - may be shared with an index, so never modify it
+         */
+        abstract RoaringBitmap bitmap();
+        
+        Collection<T> candidates() {
+            return recordsOf(bitmap());
+        }
+    }
+    
+    private class FullScan extends Plan {
+        private final long total;
+        
+        FullScan(long total) {
+            this.total = total;
+        }
+        
+        long estimate() {
+            return total;
+        }
+        
+        Collection<T> candidates() {
+            return source.get();
+        }
+        
+        void describe(StringBuilder sb, int depth) {
+            indent(sb, depth);
+            sb.append("FULL SCAN (est. ").append(total).append(")\n");
+        }
+    }
+    
+    private class IndexLookup extends IndexPlan {
+        private final String field;
+        private final FieldIndex index;
+        private final Object value;
+        
+        IndexLookup(String field, FieldIndex index, Object value) {
+            this.field = field;
+            this.index = index;
+            this.value = value;
+        }
+        
+        long estimate() {
+            return index.lookup(value).cardinality();
+        }
+        
+        RoaringBitmap bitmap() {
+            return index.lookup(value);
+        }
+        
+        void describe(StringBuilder sb, int depth) {
+            indent(sb, depth);
+            sb.append("INDEX LOOKUP ").append(field).append(" = ").append(value)
+              .append(" (est. ").append(estimate()).append(")\n");
+        }
+    }
+    
+    private class IndexRange extends IndexPlan {
+        private final String field;
+        private final FieldIndex index;
+        private final Object min;
+        private final Object max;
+        
+        IndexRange(String field, FieldIndex index, Object min, Object max) {
+            this.field = field;
+            this.index = index;
+            this.min = min;
+            this.max = max;
+        }
+        
+        long estimate() {
+            long count = 0;
+            for (RoaringBitmap bucket : index.range(min, max).values()) {
+                count += bucket.cardinality();
+            }
+            return count;
+        }
+        
+        RoaringBitmap bitmap() {
+            // Values of different buckets interleave, so sort once and add in ascending order
+            int[] matches = new int[(int) estimate()];
+            int count = 0;
+            for (RoaringBitmap bucket : index.range(min, max).values()) {
+                for (int ordinal : bucket.toArray()) {
+                    matches[count++] = ordinal;
+                }
+            }
+            Arrays.sort(matches);
+            RoaringBitmap bitmap = new RoaringBitmap();
+            for (int ordinal : matches) {
+                bitmap.add(ordinal);
+            }
+            return bitmap;
+        }
+        
+        @Override
+        Collection<T> candidates() {
+            // Standalone ranges return records in value order without building a bitmap
+            List<T> matches = new ArrayList<>();
+            for (RoaringBitmap bucket : index.range(min, max).values()) {
+                matches.addAll(recordsOf(bucket));
+            }
+            return matches;
+        }
+        
+        void describe(StringBuilder sb, int depth) {
+            indent(sb, depth);
+            sb.append("INDEX RANGE ").append(field).append(" in [")
+              .append(min != null ? min : "-inf").append(", ").append(max != null ? max : "+inf")
+              .append("] (est. ").append(estimate()).append(")\n");
+        }
+    }
+    
+    private class Intersection extends IndexPlan {
+        private final List<IndexPlan> inputs;
+        private final long total;
+        
+        Intersection(List<IndexPlan> inputs, long total) {
+            this.inputs = inputs;
+            this.total = total;
+        }
+        
+        long estimate() {
+            // Assume independent predicates
+            double fraction = 1.0;
+            for (Plan input : inputs) {
+                fraction *= total > 0 ? (double) input.estimate() / total : 0.0;
+            }
+            return (long) Math.ceil(fraction * total);
+        }
+        
+        RoaringBitmap bitmap() {
+            // Inputs are sorted most selective first, so the running result only shrinks
+            RoaringBitmap matches = inputs.get(0).bitmap();
+            for (int i = 1; i < inputs.size() && !matches.isEmpty(); i++) {
+                matches = RoaringBitmap.and(matches, inputs.get(i).bitmap());
+            }
+            return matches;
+        }
+        
+        void describe(StringBuilder sb, int depth) {
+            indent(sb, depth);
+            sb.append("INDEX INTERSECTION (est. ").append(estimate()).append(")\n");
+            for (Plan input : inputs) {
+                input.describe(sb, depth + 1);
+            }
+        }
+    }
+    
+    private class Union extends IndexPlan {
+        private final List<IndexPlan> inputs;
+        private final long total;
+        
+        Union(List<IndexPlan> inputs, long total) {
+            this.inputs = inputs;
+            this.total = total;
+        }
+        
+        long estimate() {
+            long sum = 0;
+            for (Plan input : inputs) {
+                sum += input.estimate();
+            }
+            return Math.min(sum, total);
+        }
+        
+        RoaringBitmap bitmap() {
+            RoaringBitmap matches = inputs.get(0).bitmap();
+            for (int i = 1; i < inputs.size(); i++) {
+                matches = RoaringBitmap.or(matches, inputs.get(i).bitmap());
+            }
+            return matches;
+        }
+        
+        void describe(StringBuilder sb, int depth) {
+            indent(sb, depth);
+            sb.append("INDEX UNION (est. ").append(estimate()).append(")\n");
+            for (Plan input : inputs) {
+                input.describe(sb, depth + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,450 @@
+package edu.ccrm.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory full-text index combining an inverted index with a prefix trie
+ * Supports exact token, prefix and fuzzy (edit distance 1-2) matching with ranked results
+ * @param <K> the key type identifying an indexed record
+ * @param <T> the indexed record type
+ */
+public class SearchIndex<K, T> {
+    
+    // Score weights for the different match kinds
+    private static final double EXACT_SCORE = 3.0;
+    private static final double PREFIX_SCORE = 2.0;
+    private static final double FUZZY_SCORE = 1.0;
+    
+    // Upper bound on trie terms expanded for a single prefix or fuzzy query token
+    private static final int MAX_EXPANSIONS = 128;
+    
+    // Fuzzy expansion is skipped once exact and prefix matches find this many records
+    private static final int FUZZY_FALLBACK_THRESHOLD = 64;
+    
+    // Below this many candidates, further query tokens are matched against each candidate's tokens
+    private static final int CANDIDATE_FILTER_THRESHOLD = 4096;
+    
+    private final Function<T, K> keyExtractor;
+    private final List<Function<T, String>> fieldExtractors;
+    
+    private final Map<K, T> records;
+    private final Map<K, Set<String>> recordTokens;
+    private final Map<String, Set<K>> postings;
+    private final TrieNode root;
+    
+    /**
+     * Create a search index over the given text fields
+     * @param keyExtractor function returning the unique key of a record
+     * @param fieldExtractors functions returning the text fields to index
+     */
+    public SearchIndex(Function<T, K> keyExtractor, List<Function<T, String>> fieldExtractors) {
+        this.keyExtractor = keyExtractor;
+        this.fieldExtractors = new ArrayList<>(fieldExtractors);
+        this.records = new HashMap<>();
+        this.recordTokens = new HashMap<>();
+        this.postings = new HashMap<>();
+        this.root = new TrieNode();
+    }
+    
+    /**
+     * Add a record to the index, replacing any record with the same key
+     * @param record the record to index
+     */
+    public void add(T record) {
+        K key = keyExtractor.apply(record);
+        remove(key);
+        
+        Set<String> tokens = new HashSet<>();
+        for (Function<T, String> field : fieldExtractors) {
+            tokens.addAll(tokenize(field.apply(record)));
+        }
+        
+        records.put(key, record);
+        recordTokens.put(key, tokens);
+        for (String token : tokens) {
+            Set<K> keys = postings.get(token);
+            if (keys == null) {
+                keys = new HashSet<>();
+                postings.put(token, keys);
+                insertTerm(token);
+            }
+            keys.add(key);
+        }
+    }
+    
+    /**
+     * Re-index a record whose text fields may have changed
+     * @param record the updated record
+     */
+    public void update(T record) {
+        K key = keyExtractor.apply(record);
+        Set<String> indexed = recordTokens.get(key);
+        if (indexed != null) {
+            Set<String> tokens = new HashSet<>();
+            for (Function<T, String> field : fieldExtractors) {
+                tokens.addAll(tokenize(field.apply(record)));
+            }
+            if (tokens.equals(indexed)) {
+                // Text unchanged - only swap the stored record
+                records.put(key, record);
+                return;
+            }
+        }
+        add(record);
+    }
+    
+    /**
+     * Remove a record from the index
+     * @param key the key of the record to remove
+     * @return true if the record was indexed
+     */
+    public boolean remove(K key) {
+        Set<String> tokens = recordTokens.remove(key);
+        if (tokens == null) {
+            return false;
+        }
+        
+        records.remove(key);
+        for (String token : tokens) {
+            Set<K> keys = postings.get(token);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(token);
+                    removeTerm(token);
+                }
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Remove all records from the index
+     */
+    public void clear() {
+        records.clear();
+        recordTokens.clear();
+        postings.clear();
+        root.children.clear();
+        root.term = null;
+    }
+    
+    /**
+     * Search the index - every query token must match by exact token, prefix or fuzzy match
+     * @param query free text query
+     * @param limit maximum number of results
+     * @return matching records ordered by descending relevance
+     */
+    public List<T> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        
+        Map<K, Double> scores = null;
+        for (String queryToken : queryTokens) {
+            if (scores == null) {
+                scores = scoreToken(queryToken);
+            } else if (scores.size() <= CANDIDATE_FILTER_THRESHOLD) {
+                // Few candidates left - match their own tokens instead of expanding the trie
+                scores = filterCandidates(scores, queryToken);
+            } else {
+                // Intersect, iterating over the smaller map
+                Map<K, Double> tokenScores = scoreToken(queryToken);
+                Map<K, Double> smaller = scores.size() <= tokenScores.size() ? scores : tokenScores;
+                Map<K, Double> larger = smaller == scores ? tokenScores : scores;
+                Map<K, Double> merged = new HashMap<>();
+                for (Map.Entry<K, Double> entry : smaller.entrySet()) {
+                    Double other = larger.get(entry.getKey());
+                    if (other != null) {
+                        merged.put(entry.getKey(), entry.getValue() + other);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+        
+        List<Map.Entry<K, Double>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((e1, e2) -> Double.compare(e2.getValue(), e1.getValue()));
+        
+        List<T> results = new ArrayList<>(Math.min(limit, ranked.size()));
+        for (int i = 0; i < ranked.size() && results.size() < limit; i++) {
+            results.add(records.get(ranked.get(i).getKey()));
+        }
+        return results;
+    }
+    
+    /**
+     * Get number of indexed records
+     * @return record count
+     */
+    public int size() {
+        return records.size();
+    }
+    
+    /**
+     * Score all records matching a single query token
+     * @param queryToken the normalized query token
+     * @return best score per matching record key
+     */
+    private Map<K, Double> scoreToken(String queryToken) {
+        Map<K, Double> scores = new HashMap<>();
+        
+        // Exact token match
+        addPostings(scores, queryToken, EXACT_SCORE);
+        
+        // Prefix matches - shorter completions rank higher
+        TrieNode node = findNode(queryToken);
+        if (node != null) {
+            List<String> completions = new ArrayList<>();
+            collectTerms(node, completions);
+            for (String term : completions) {
+                if (!term.equals(queryToken)) {
+                    double lengthPenalty = (double) queryToken.length() / term.length();
+                    addPostings(scores, term, PREFIX_SCORE * lengthPenalty);
+                }
+            }
+        }
+        
+        // Fuzzy matches only as a fallback, for tokens long enough to make typos meaningful
+        int maxEdits = queryToken.length() >= 6 ? 2 : queryToken.length() >= 3 ? 1 : 0;
+        if (maxEdits > 0 && scores.size() < FUZZY_FALLBACK_THRESHOLD) {
+            Map<String, Integer> fuzzyTerms = new HashMap<>();
+            int[] firstRow = new int[queryToken.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) {
+                firstRow[i] = i;
+            }
+            for (Map.Entry<Character, TrieNode> child : root.children.entrySet()) {
+                collectFuzzy(child.getValue(), child.getKey(), queryToken, firstRow, maxEdits, fuzzyTerms);
+            }
+            for (Map.Entry<String, Integer> entry : fuzzyTerms.entrySet()) {
+                if (entry.getValue() > 0) {
+                    addPostings(scores, entry.getKey(), FUZZY_SCORE / entry.getValue());
+                }
+            }
+        }
+        
+        return scores;
+    }
+    
+    /**
+     * Score a query token against the indexed tokens of existing candidates only
+     * @param candidates current candidates with their accumulated scores
+     * @param queryToken the normalized query token
+     * @return candidates that also match the token, with updated scores
+     */
+    private Map<K, Double> filterCandidates(Map<K, Double> candidates, String queryToken) {
+        int maxEdits = queryToken.length() >= 6 ? 2 : queryToken.length() >= 3 ? 1 : 0;
+        Map<K, Double> filtered = new HashMap<>();
+        
+        for (Map.Entry<K, Double> candidate : candidates.entrySet()) {
+            double best = 0.0;
+            for (String token : recordTokens.get(candidate.getKey())) {
+                double score;
+                if (token.equals(queryToken)) {
+                    score = EXACT_SCORE;
+                } else if (token.startsWith(queryToken)) {
+                    score = PREFIX_SCORE * queryToken.length() / token.length();
+                } else {
+                    int distance = maxEdits > 0 ? boundedEditDistance(queryToken, token, maxEdits) : -1;
+                    score = distance > 0 ? FUZZY_SCORE / distance : 0.0;
+                }
+                best = Math.max(best, score);
+            }
+            if (best > 0.0) {
+                filtered.put(candidate.getKey(), candidate.getValue() + best);
+            }
+        }
+        return filtered;
+    }
+    
+    /**
+     * Levenshtein distance with early exit
+     * @return the distance, or -1 if it exceeds maxEdits
+     */
+    private static int boundedEditDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return -1;
+        }
+        
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return -1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        
+        return previous[b.length()] <= maxEdits ? previous[b.length()] : -1;
+    }
+    
+    /**
+     * Merge the postings of a term into the score map, keeping the best score per key
+     */
+    private void addPostings(Map<K, Double> scores, String term, double score) {
+        Set<K> keys = postings.get(term);
+        if (keys == null) {
+            return;
+        }
+        for (K key : keys) {
+            scores.merge(key, score, Math::max);
+        }
+    }
+    
+    /**
+     * Collect terms below a trie node in breadth-first order (shortest first)
+     */
+    private void collectTerms(TrieNode start, List<String> terms) {
+        List<TrieNode> level = Collections.singletonList(start);
+        while (!level.isEmpty() && terms.size() < MAX_EXPANSIONS) {
+            List<TrieNode> next = new ArrayList<>();
+            for (TrieNode node : level) {
+                if (node.term != null) {
+                    terms.add(node.term);
+                    if (terms.size() >= MAX_EXPANSIONS) {
+                        return;
+                    }
+                }
+                next.addAll(node.children.values());
+            }
+            level = next;
+        }
+    }
+    
+    /**
+     * Recursive Levenshtein traversal of the trie, pruning branches that exceed maxEdits
+     */
+    private void collectFuzzy(TrieNode node, char letter, String word, int[] previousRow,
+                              int maxEdits, Map<String, Integer> results) {
+        if (results.size() >= MAX_EXPANSIONS) {
+            return;
+        }
+        
+        int columns = word.length() + 1;
+        int[] currentRow = new int[columns];
+        currentRow[0] = previousRow[0] + 1;
+        int rowMin = currentRow[0];
+        
+        for (int column = 1; column < columns; column++) {
+            int insertCost = currentRow[column - 1] + 1;
+            int deleteCost = previousRow[column] + 1;
+            int replaceCost = previousRow[column - 1] + (word.charAt(column - 1) == letter ? 0 : 1);
+            currentRow[column] = Math.min(insertCost, Math.min(deleteCost, replaceCost));
+            rowMin = Math.min(rowMin, currentRow[column]);
+        }
+        
+        if (node.term != null && currentRow[columns - 1] <= maxEdits) {
+            results.put(node.term, currentRow[columns - 1]);
+        }
+        
+        if (rowMin <= maxEdits) {
+            for (Map.Entry<Character, TrieNode> child : node.children.entrySet()) {
+                collectFuzzy(child.getValue(), child.getKey(), word, currentRow, maxEdits, results);
+            }
+        }
+    }
+    
+    /**
+     * Insert a term into the prefix trie
+     */
+    private void insertTerm(String term) {
+        TrieNode node = root;
+        for (int i = 0; i < term.length(); i++) {
+            node = node.children.computeIfAbsent(term.charAt(i), c -> new TrieNode());
+        }
+        node.term = term;
+    }
+    
+    /**
+     * Remove a term from the prefix trie, pruning empty branches
+     */
+    private void removeTerm(String term) {
+        TrieNode[] path = new TrieNode[term.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < term.length(); i++) {
+            path[i + 1] = path[i].children.get(term.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        
+        path[term.length()].term = null;
+        for (int i = term.length(); i > 0; i--) {
+            TrieNode node = path[i];
+            if (node.term != null || !node.children.isEmpty()) {
+                break;
+            }
+            path[i - 1].children.remove(term.charAt(i - 1));
+        }
+    }
+    
+    /**
+     * Find the trie node for a prefix
+     */
+    private TrieNode findNode(String prefix) {
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        return node;
+    }
+    
+    /**
+     * Split text into lowercase alphanumeric tokens
+     * @param text the text to tokenize
+     * @return list of tokens
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+    
+    /**
+     * Trie node - term is non-null when a complete indexed token ends here
+     */
+    private static class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private String term;
+    }
+}
@@ -1,19 +1,66 @@
 package edu.ccrm.service;
 
 import edu.ccrm.domain.Student;
+import edu.ccrm.domain.StudentStatus;
+import edu.ccrm.event.ChangeEvent;
+import edu.ccrm.event.ChangeType;
+import edu.ccrm.event.EventBus;
+import edu.ccrm.util.ChangeTracker;
+import edu.ccrm.util.PersistentList;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Student Service for managing student operations
+ * Writers publish a new persistent version of the student list on every change,
+ * so snapshots handed to readers stay consistent without copying or locking
+ * Hash indexes on id and registration number keep lookups and duplicate checks O(1)
+ * Every change is also recorded in a change tracker for delta exports
  */
 public class StudentService {
     
-    private List<Student> students;
+    private volatile PersistentList<Student> students;
+    private final Map<Long, Student> byId;
+    private final Map<String, Student> byRegNo;
+    private final SearchIndex<Long, Student> searchIndex;
+    private final QueryEngine<Student> queryEngine;
+    private final CohortIndex cohortIndex;
+    private final ChangeTracker<Long, Student> changes;
+    private EventBus eventBus;
     
     public StudentService() {
-        this.students = new ArrayList<>();
+        this(new CohortIndex());
+    }
+    
+    /**
+     * Create a student service that keeps a shared cohort index up to date
+     * @param cohortIndex the cohort index shared with EnrollmentService
+     */
+    public StudentService(CohortIndex cohortIndex) {
+        this.students = PersistentList.empty();
+        this.byId = new HashMap<>();
+        this.byRegNo = new HashMap<>();
+        this.cohortIndex = cohortIndex;
+        this.changes = new ChangeTracker<>();
+        this.searchIndex = new SearchIndex<>(Student::getId,
+                Arrays.asList(Student::getFullName, Student::getEmail));
+        this.queryEngine = new QueryEngine<Student>(() -> students)
+                .field("id", Long.class, Student::getId, true)
+                .field("regNo", String.class, Student::getRegNo, true)
+                .field("fullName", String.class, Student::getFullName, false)
+                .field("email", String.class, Student::getEmail, false)
+                .field("status", StudentStatus.class, Student::getStatus, true)
+                .field("registrationDate", LocalDate.class, Student::getRegistrationDate, true);
     }
     
     /**
@@ -23,21 +70,141 @@ public class StudentService {
      */
     public boolean addStudent(Student student) {
         if (student != null && !isDuplicateStudent(student)) {
-            students.add(student);
+            students = students.plus(student);
+            byId.put(student.getId(), student);
+            byRegNo.put(student.getRegNo(), student);
+            searchIndex.add(student);
+            queryEngine.index(student);
+            cohortIndex.addStudent(student);
+            changes.recordUpsert(student.getId(), student);
+            publish(ChangeEvent.ofStudent(ChangeType.STUDENT_ADDED, student));
             return true;
         }
         return false;
     }
     
+    /**
+     * Add many students in one pass - for imports
+     * Duplicates (against existing students or earlier rows of the batch) are
+     * rejected via the hash indexes; large batches rebuild the field indexes once at
+     * the end, small ones (e.g. a chunk of a streamed import) index each student
+     * @param batch the students to add, in order
+     * @return report of loaded and rejected students
+     */
+    public BulkLoadReport<Student> addStudents(Iterable<Student> batch) {
+        BulkLoadReport<Student> report = new BulkLoadReport<>();
+        for (Student student : batch) {
+            if (student == null) {
+                continue;
+            }
+            if (byId.containsKey(student.getId())) {
+                report.reject(student, "Duplicate student ID: " + student.getId());
+            } else if (lookupRegNo(student.getRegNo()) != null) {
+                report.reject(student, "Duplicate registration number: " + student.getRegNo());
+            } else {
+                byId.put(student.getId(), student);
+                byRegNo.put(student.getRegNo(), student);
+                report.loaded(student);
+            }
+        }
+        
+        List<Student> loaded = report.getLoaded();
+        if (!loaded.isEmpty()) {
+            boolean rebuild = loaded.size() > students.size() / 4;
+            students = students.plusAll(loaded);
+            for (Student student : loaded) {
+                searchIndex.add(student);
+                cohortIndex.addStudent(student);
+                if (!rebuild) {
+                    queryEngine.index(student);
+                }
+                changes.recordUpsert(student.getId(), student);
+                publish(ChangeEvent.ofStudent(ChangeType.STUDENT_ADDED, student));
+            }
+            if (rebuild) {
+                queryEngine.rebuild();
+            }
+        }
+        return report;
+    }
+    
+    /**
+     * Add new students and replace existing ones (matched by ID) - for reconcile imports
+     * Replacements are applied first in one pass over the list, so a registration
+     * number freed by an update can be taken by a new student of the same batch
+     * @param batch the new or updated students
+     * @return report of applied and rejected students
+     */
+    public BulkLoadReport<Student> upsertStudents(Collection<Student> batch) {
+        BulkLoadReport<Student> report = new BulkLoadReport<>();
+        Map<Long, Student> replacements = new HashMap<>();
+        List<Student> additions = new ArrayList<>();
+        for (Student student : batch) {
+            Student existing = byId.get(student.getId());
+            if (existing == null) {
+                additions.add(student);
+                continue;
+            }
+            Student holder = lookupRegNo(student.getRegNo());
+            if (holder != null && holder != existing) {
+                report.reject(student, "Duplicate registration number: " + student.getRegNo());
+            } else {
+                replacements.put(student.getId(), student);
+                report.loaded(student);
+            }
+        }
+        
+        if (!replacements.isEmpty()) {
+            replaceStudents(replacements);
+        }
+        report.addAll(addStudents(additions));
+        return report;
+    }
+    
+    /**
+     * Replace students in one pass over the list
+     * @param replacements the new version of each student, by ID
+     */
+    private void replaceStudents(Map<Long, Student> replacements) {
+        // Large batches rebuild the field indexes once instead of per student
+        boolean rebuild = replacements.size() > students.size() / 4;
+        PersistentList<Student> next = students;
+        int replaced = 0;
+        int index = 0;
+        for (Iterator<Student> iterator = students.iterator(); iterator.hasNext() && replaced < replacements.size(); index++) {
+            Student current = iterator.next();
+            Student updated = replacements.get(current.getId());
+            if (updated == null) {
+                continue;
+            }
+            next = next.with(index, updated);
+            byId.put(updated.getId(), updated);
+            byRegNo.remove(current.getRegNo(), current);
+            byRegNo.put(updated.getRegNo(), updated);
+            searchIndex.update(updated);
+            if (!rebuild) {
+                queryEngine.unindex(current);
+                queryEngine.index(updated);
+            }
+            cohortIndex.updateStudent(updated);
+            changes.recordUpsert(updated.getId(), updated);
+            publish(ChangeEvent.ofStudent(ChangeType.STUDENT_UPDATED, updated));
+            replaced++;
+        }
+        // Readers see the whole batch at once
+        students = next;
+        if (rebuild && replaced > 0) {
+            queryEngine.rebuild();
+        }
+    }
+    
     /**
      * Find a student by ID
      * @param id the student ID to search for
      * @return Optional containing the student if found, empty otherwise
      */
     public Optional<Student> findStudentById(long id) {
-        return students.stream()
-                      .filter(student -> student.getId() == id)
-                      .findFirst();
+        return Optional.ofNullable(byId.get(id));
     }
     
     /**
@@ -46,9 +213,47 @@ public class StudentService {
      * @return Optional containing the student if found, empty otherwise
      */
     public Optional<Student> findStudentByRegNo(String regNo) {
-        return students.stream()
-                      .filter(student -> student.getRegNo().equals(regNo))
-                      .findFirst();
+        return Optional.ofNullable(lookupRegNo(regNo));
+    }
+    
+    /**
+     * Look up a registration number, ignoring entries left behind when a student's
+     * number was changed in place through setRegNo
+     * @param regNo the registration number
+     * @return the student currently holding it, or null
+     */
+    private Student lookupRegNo(String regNo) {
+        Student student = byRegNo.get(regNo);
+        return student != null && student.getRegNo().equals(regNo) ? student : null;
+    }
+    
+    /**
+     * Search students by partial name or email (prefix, token and fuzzy matching)
+     * @param query free text query typed by the user
+     * @param limit maximum number of results
+     * @return matching students ordered by relevance
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        return searchIndex.search(query, limit);
+    }
+    
+    /**
+     * Run a structured query - uses field indexes where possible instead of a full scan
+     * Fields: id, regNo, fullName, email, status, registrationDate
+     * @param query the query to run
+     * @return list of matching students
+     */
+    public List<Student> queryStudents(Query<Student> query) {
+        return queryEngine.execute(query);
+    }
+    
+    /**
+     * Explain how a structured query would be executed
+     * @param query the query to explain
+     * @return plan description with estimated row counts
+     */
+    public String explainQuery(Query<Student> query) {
+        return queryEngine.explain(query);
     }
     
     /**
@@ -60,7 +265,16 @@ public class StudentService {
         Optional<Student> existingStudent = findStudentById(student.getId());
         if (existingStudent.isPresent()) {
             int index = students.indexOf(existingStudent.get());
-            students.set(index, student);
+            students = students.with(index, student);
+            byId.put(student.getId(), student);
+            byRegNo.remove(existingStudent.get().getRegNo(), existingStudent.get());
+            byRegNo.put(student.getRegNo(), student);
+            searchIndex.update(student);
+            queryEngine.unindex(existingStudent.get());
+            queryEngine.index(student);
+            cohortIndex.updateStudent(student);
+            changes.recordUpsert(student.getId(), student);
+            publish(ChangeEvent.ofStudent(ChangeType.STUDENT_UPDATED, student));
             return true;
         }
         return false;
@@ -74,13 +288,76 @@ public class StudentService {
         return new ArrayList<>(students);
     }
     
+    /**
+     * Get an immutable snapshot of all students in O(1)
+     * Later changes publish new versions and never alter a snapshot already taken
+     * @return read-only list of the students at the time of the call
+     */
+    public List<Student> getStudentSnapshot() {
+        return students;
+    }
+    
     /**
      * Remove a student by ID
      * @param id the student ID to remove
      * @return true if student was removed successfully
      */
     public boolean removeStudent(long id) {
-        return students.removeIf(student -> student.getId() == id);
+        return removeStudents(Collections.singleton(id)) > 0;
+    }
+    
+    /**
+     * Remove several students in one pass over the list
+     * @param ids the student IDs to remove
+     * @return number of students removed
+     */
+    public int removeStudents(Set<Long> ids) {
+        Set<Long> removed = new HashSet<>();
+        PersistentList<Student> remaining = students;
+        int index = 0;
+        for (Student student : students) {
+            if (ids.contains(student.getId())) {
+                remaining = remaining.minus(index);
+                byRegNo.remove(student.getRegNo(), student);
+                queryEngine.unindex(student);
+                cohortIndex.removeStudent(student);
+                publish(ChangeEvent.ofStudent(ChangeType.STUDENT_REMOVED, student));
+                removed.add(student.getId());
+            } else {
+                index++;
+            }
+        }
+        if (!removed.isEmpty()) {
+            students = remaining;
+            for (Long id : removed) {
+                byId.remove(id);
+                searchIndex.remove(id);
+                changes.recordRemoval(id);
+            }
+        }
+        return removed.size();
+    }
+    
+    /**
+     * Get the tracker of student changes, keyed by student ID
+     * @return the change tracker used for delta exports
+     */
+    public ChangeTracker<Long, Student> getChangeTracker() {
+        return changes;
+    }
+    
+    /**
+     * Publish student changes to an event bus
+     * @param eventBus the bus to publish to, or null to stop publishing
+     */
+    public void setEventBus(EventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+    
+    private void publish(ChangeEvent event) {
+        if (eventBus != null) {
+            eventBus.publish(event);
+        }
     }
     
     /**
@@ -89,9 +366,7 @@ public class StudentService {
      * @return true if duplicate exists
      */
     private boolean isDuplicateStudent(Student student) {
-        return students.stream()
-                      .anyMatch(s -> s.getId() == student.getId() || 
-                                   s.getRegNo().equals(student.getRegNo()));
+        return byId.containsKey(student.getId()) || lookupRegNo(student.getRegNo()) != null;
     }
     
     /**
@@ -10,11 +10,22 @@ import java.util.List;
 /**
  * Transcript Service for generating student transcripts
  * Demonstrates polymorphism through method overriding
+ * Enrollments are read through EnrollmentService, so transcripts work with every enrollment store
  */
 public class TranscriptService {
     
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
     
+    private final EnrollmentService enrollmentService;
+    
+    /**
+     * Create a transcript service reading enrollments from an enrollment service
+     * @param enrollmentService the service owning the enrollment store
+     */
+    public TranscriptService(EnrollmentService enrollmentService) {
+        this.enrollmentService = enrollmentService;
+    }
+    
     /**
      * Generate a comprehensive transcript for a student
      * @param student the student for whom to generate transcript
@@ -40,7 +51,7 @@ public class TranscriptService {
         transcript.append("ENROLLED COURSES:\n");
         transcript.append("-".repeat(30)).append("\n");
         
-        List<Enrollment> enrollments = student.getEnrolledCourses();
+        List<Enrollment> enrollments = enrollmentService.getStudentEnrollments(student);
         if (enrollments.isEmpty()) {
             transcript.append("No courses enrolled.\n");
         } else {
@@ -92,7 +103,10 @@ public class TranscriptService {
      * @return calculated GPA
      */
     public double calculateGPA(Student student) {
-        List<Enrollment> enrollments = student.getEnrolledCourses();
+        return calculateGPA(enrollmentService.getStudentEnrollments(student));
+    }
+    
+    private static double calculateGPA(List<Enrollment> enrollments) {
         
         double totalGradePoints = 0.0;
         int totalCredits = 0;
@@ -120,8 +134,9 @@ public class TranscriptService {
         summary.append("-".repeat(20)).append("\n");
         summary.append("Student: ").append(student.getFullName()).append("\n");
         summary.append("Reg No: ").append(student.getRegNo()).append("\n");
-        summary.append("Total Courses: ").append(student.getEnrolledCourses().size()).append("\n");
-        summary.append("GPA: ").append(String.format("%.2f", calculateGPA(student))).append("\n");
+        List<Enrollment> enrollments = enrollmentService.getStudentEnrollments(student);
+        summary.append("Total Courses: ").append(enrollments.size()).append("\n");
+        summary.append("GPA: ").append(String.format("%.2f", calculateGPA(enrollments))).append("\n");
         
         return summary.toString();
     }
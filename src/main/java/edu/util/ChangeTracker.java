@@ -0,0 +1,162 @@
+package edu.ccrm.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Records which records changed, for change-data-capture exports
+ * Every add, update or removal gets the next version number. Only the latest
+ * change per key is kept, ordered by version, so the changes since a watermark
+ * are found in time proportional to the churn rather than to the record count.
+ * Versions restart with every tracker; the epoch tells trackers apart so a
+ * watermark from an earlier run is never applied to a new one.
+ * @param <K> the record key type
+ * @param <V> the record type
+ */
+public class ChangeTracker<K, V> {
+    
+    private final String epoch;
+    private final Map<K, Change<K, V>> latest;
+    private final TreeMap<Long, Change<K, V>> byVersion;
+    private long version;
+    
+    public ChangeTracker() {
+        this.epoch = UUID.randomUUID().toString();
+        this.latest = new HashMap<>();
+        this.byVersion = new TreeMap<>();
+    }
+    
+    /**
+     * Record that a record was added or updated
+     * @param key the record key
+     * @param value the record
+     * @return the version of the change
+     */
+    public synchronized long recordUpsert(K key, V value) {
+        return record(key, value);
+    }
+    
+    /**
+     * Record that a record was removed
+     * @param key the record key
+     * @return the version of the change
+     */
+    public synchronized long recordRemoval(K key) {
+        return record(key, null);
+    }
+    
+    private long record(K key, V value) {
+        Change<K, V> previous = latest.get(key);
+        if (previous != null) {
+            byVersion.remove(previous.version);
+        }
+        Change<K, V> change = new Change<>(key, value, ++version);
+        latest.put(key, change);
+        byVersion.put(change.version, change);
+        return change.version;
+    }
+    
+    /**
+     * Get the latest change of every record changed after a watermark
+     * @param watermark the last version already seen, 0 for everything
+     * @return the changes in version order, up to the current version
+     */
+    public synchronized Delta<K, V> changesSince(long watermark) {
+        List<Change<K, V>> changes = new ArrayList<>(byVersion.tailMap(watermark, false).values());
+        return new Delta<>(epoch, watermark, version, changes);
+    }
+    
+    public String getEpoch() {
+        return epoch;
+    }
+    
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    /**
+     * The latest change of one record
+     */
+    public static final class Change<K, V> {
+        private final K key;
+        private final V value;
+        private final long version;
+        
+        private Change(K key, V value, long version) {
+            this.key = key;
+            this.value = value;
+            this.version = version;
+        }
+        
+        public K getKey() {
+            return key;
+        }
+        
+        /**
+         * Get the record as it is now
+         * @return the record, or null if it was removed
+         */
+        public V getValue() {
+            return value;
+        }
+        
+        public long getVersion() {
+            return version;
+        }
+        
+        public boolean isRemoval() {
+            return value == null;
+        }
+    }
+    
+    /**
+     * The changes between two versions of one tracker
+     */
+    public static final class Delta<K, V> {
+        private final String epoch;
+        private final long fromVersion;
+        private final long toVersion;
+        private final List<Change<K, V>> changes;
+        
+        private Delta(String epoch, long fromVersion, long toVersion, List<Change<K, V>> changes) {
+            this.epoch = epoch;
+            this.fromVersion = fromVersion;
+            this.toVersion = toVersion;
+            this.changes = Collections.unmodifiableList(changes);
+        }
+        
+        public String getEpoch() {
+            return epoch;
+        }
+        
+        public long getFromVersion() {
+            return fromVersion;
+        }
+        
+        public long getToVersion() {
+            return toVersion;
+        }
+        
+        public List<Change<K, V>> getChanges() {
+            return changes;
+        }
+        
+        /**
+         * Check if this delta starts from the beginning of its tracker
+         * A consumer applying it should start from an empty state
+         * @return true if every record of the tracker is included
+         */
+        public boolean isBase() {
+            return fromVersion == 0;
+        }
+        
+        public boolean isEmpty() {
+            return changes.isEmpty();
+        }
+    }
+}
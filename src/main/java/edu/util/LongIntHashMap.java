@@ -0,0 +1,162 @@
+package edu.ccrm.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from long keys to int values
+ * Keys and values live in two flat arrays (linear probing, backward-shift deletion),
+ * so there are no boxed keys or per-entry node objects
+ */
+public final class LongIntHashMap {
+    
+    public static final int NO_VALUE = -1;
+    
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 16;
+    
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    
+    public LongIntHashMap() {
+        this(INITIAL_CAPACITY);
+    }
+    
+    /**
+     * Create a map sized for an expected number of entries
+     * @param expectedSize expected number of entries
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(expectedSize * 4 / 3, INITIAL_CAPACITY) - 1) << 1;
+        allocate(capacity);
+    }
+    
+    /**
+     * Get the value of a key
+     * @param key the key (must not be Long.MIN_VALUE)
+     * @return the value, or NO_VALUE if absent
+     */
+    public int get(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+    
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+    
+    /**
+     * Associate a value with a key
+     * @param key the key (must not be Long.MIN_VALUE)
+     * @param value the value (must not be NO_VALUE)
+     * @return the previous value, or NO_VALUE if absent
+     */
+    public int put(long key, int value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Reserved key: " + key);
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) / 4 * 3) {
+            rehash((mask + 1) * 2);
+        }
+        return NO_VALUE;
+    }
+    
+    /**
+     * Remove a key
+     * @param key the key
+     * @return the removed value, or NO_VALUE if absent
+     */
+    public int remove(long key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NO_VALUE;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+    
+    /**
+     * Approximate heap used by the backing arrays
+     * @return size in bytes
+     */
+    public long getSizeInBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+    
+    /**
+     * Close the gap left by a removed entry so probe chains stay unbroken
+     */
+    private void shiftBack(int gap) {
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (keys[slot] == EMPTY) {
+                break;
+            }
+            int home = mix(keys[slot]) & mask;
+            // Move the entry back if its home slot is not in (gap, slot]
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+    
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+    
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+    
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
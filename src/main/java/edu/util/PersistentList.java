@@ -0,0 +1,250 @@
+package edu.ccrm.util;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Immutable list with structural sharing (an implicit treap keyed by position)
+ * plus, with and minus return a new version in O(log n) expected time, copying
+ * only the path they touch. Old versions never change, so a reader holding one
+ * has a consistent snapshot without locks or copying.
+ * @param <E> element type
+ */
+public final class PersistentList<E> extends AbstractList<E> {
+    
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null);
+    
+    private final Node<E> root;
+    
+    private PersistentList(Node<E> root) {
+        this.root = root;
+    }
+    
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentList<E> empty() {
+        return (PersistentList<E>) EMPTY;
+    }
+    
+    /**
+     * Create a persistent list holding the given elements in order
+     * @param elements the elements
+     * @return new list
+     */
+    public static <E> PersistentList<E> of(Collection<? extends E> elements) {
+        return PersistentList.<E>empty().plusAll(elements);
+    }
+    
+    @Override
+    public int size() {
+        return size(root);
+    }
+    
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        Node<E> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.value;
+            }
+        }
+    }
+    
+    /**
+     * Append an element
+     * @param element the element to append
+     * @return new list with the element at the end
+     */
+    public PersistentList<E> plus(E element) {
+        return new PersistentList<>(merge(root, new Node<>(element, ThreadLocalRandom.current().nextInt(), null, null)));
+    }
+    
+    /**
+     * Append many elements at once
+     * Builds the new elements' tree in O(k) with a stack-based Cartesian tree
+     * construction, then joins it on with a single O(log n) merge
+     * @param elements the elements to append, in order
+     * @return new list with the elements at the end
+     */
+    public PersistentList<E> plusAll(Collection<? extends E> elements) {
+        int count = elements.size();
+        if (count == 0) {
+            return this;
+        }
+        @SuppressWarnings("unchecked")
+        E[] values = (E[]) elements.toArray();
+        int[] priorities = new int[count];
+        int[] lefts = new int[count];
+        int[] rights = new int[count];
+        int[] stack = new int[count];
+        int depth = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        // Keep the right spine on a stack; pop every node the new one outranks
+        for (int i = 0; i < count; i++) {
+            priorities[i] = random.nextInt();
+            lefts[i] = -1;
+            rights[i] = -1;
+            int last = -1;
+            while (depth > 0 && priorities[stack[depth - 1]] < priorities[i]) {
+                last = stack[--depth];
+            }
+            lefts[i] = last;
+            if (depth > 0) {
+                rights[stack[depth - 1]] = i;
+            }
+            stack[depth++] = i;
+        }
+        Node<E> built = freeze(stack[0], values, priorities, lefts, rights);
+        return new PersistentList<>(merge(root, built));
+    }
+    
+    /**
+     * Turn the index-linked tree into immutable nodes, children first
+     */
+    private static <E> Node<E> freeze(int index, E[] values, int[] priorities, int[] lefts, int[] rights) {
+        if (index < 0) {
+            return null;
+        }
+        return new Node<>(values[index], priorities[index],
+                          freeze(lefts[index], values, priorities, lefts, rights),
+                          freeze(rights[index], values, priorities, lefts, rights));
+    }
+    
+    /**
+     * Replace the element at a position
+     * @param index the position
+     * @param element the new element
+     * @return new list with the element replaced
+     */
+    public PersistentList<E> with(int index, E element) {
+        Objects.checkIndex(index, size());
+        return new PersistentList<>(replace(root, index, element));
+    }
+    
+    /**
+     * Remove the element at a position
+     * @param index the position
+     * @return new list without the element
+     */
+    public PersistentList<E> minus(int index) {
+        Objects.checkIndex(index, size());
+        return new PersistentList<>(delete(root, index));
+    }
+    
+    @Override
+    public int indexOf(Object o) {
+        int index = 0;
+        for (E element : this) {
+            if (Objects.equals(o, element)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+    
+    /**
+     * In-order traversal - O(1) amortized per element, unlike repeated get
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private final Deque<Node<E>> stack = new ArrayDeque<>();
+            {
+                pushLeft(root);
+            }
+            
+            private void pushLeft(Node<E> node) {
+                for (; node != null; node = node.left) {
+                    stack.push(node);
+                }
+            }
+            
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+            
+            @Override
+            public E next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                Node<E> node = stack.pop();
+                pushLeft(node.right);
+                return node.value;
+            }
+        };
+    }
+    
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+    
+    private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return new Node<>(left.value, left.priority, left.left, merge(left.right, right));
+        }
+        return new Node<>(right.value, right.priority, merge(left, right.left), right.right);
+    }
+    
+    private static <E> Node<E> replace(Node<E> node, int index, E element) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node<>(node.value, node.priority, replace(node.left, index, element), node.right);
+        }
+        if (index > leftSize) {
+            return new Node<>(node.value, node.priority, node.left, replace(node.right, index - leftSize - 1, element));
+        }
+        return new Node<>(element, node.priority, node.left, node.right);
+    }
+    
+    private static <E> Node<E> delete(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            return new Node<>(node.value, node.priority, delete(node.left, index), node.right);
+        }
+        if (index > leftSize) {
+            return new Node<>(node.value, node.priority, node.left, delete(node.right, index - leftSize - 1));
+        }
+        return merge(node.left, node.right);
+    }
+    
+    /**
+     * Immutable tree node - heap ordered by priority, in order by position
+     */
+    private static final class Node<E> {
+        private final E value;
+        private final int priority;
+        private final int size;
+        private final Node<E> left;
+        private final Node<E> right;
+        
+        Node(E value, int priority, Node<E> left, Node<E> right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+}
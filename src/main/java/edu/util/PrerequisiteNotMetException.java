@@ -0,0 +1,24 @@
+package edu.ccrm.util;
+
+/**
+ * Custom checked exception for enrollments whose prerequisites are not completed
+ */
+public class PrerequisiteNotMetException extends Exception {
+    
+    /**
+     * Constructor that accepts a message string
+     * @param message the detail message
+     */
+    public PrerequisiteNotMetException(String message) {
+        super(message);
+    }
+    
+    /**
+     * Constructor that accepts a message string and cause
+     * @param message the detail message
+     * @param cause the cause of this exception
+     */
+    public PrerequisiteNotMetException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,576 @@
+package edu.ccrm.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed bitmap of non-negative int values (Roaring layout)
+ * Values are split by their high 16 bits into containers; each container stores
+ * the low 16 bits either as a sorted char array (sparse) or a 65536-bit bitmap (dense)
+ */
+public class RoaringBitmap {
+    
+    private static final int ARRAY_MAX_SIZE = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    
+    private char[] keys;
+    private Container[] containers;
+    private int size;
+    
+    public RoaringBitmap() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+        this.size = 0;
+    }
+    
+    /**
+     * Create a bitmap containing the given values
+     * @param values the values to add
+     * @return new bitmap
+     */
+    public static RoaringBitmap of(int... values) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+    
+    /**
+     * Add a value
+     * @param value non-negative value to add
+     */
+    public void add(int value) {
+        char high = highBits(value);
+        int index = indexOf(high);
+        if (index >= 0) {
+            containers[index] = containers[index].add(lowBits(value));
+        } else {
+            insertContainer(-index - 1, high, new ArrayContainer().add(lowBits(value)));
+        }
+    }
+    
+    /**
+     * Remove a value
+     * @param value the value to remove
+     */
+    public void remove(int value) {
+        int index = indexOf(highBits(value));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove(lowBits(value));
+        if (container.cardinality() == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = container;
+        }
+    }
+    
+    /**
+     * Check whether a value is present
+     * @param value the value to check
+     * @return true if present
+     */
+    public boolean contains(int value) {
+        int index = indexOf(highBits(value));
+        return index >= 0 && containers[index].contains(lowBits(value));
+    }
+    
+    /**
+     * Get number of values in the bitmap
+     * @return cardinality
+     */
+    public int cardinality() {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Visit all values in ascending order
+     * @param consumer receives each value
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+    
+    /**
+     * Get all values in ascending order
+     * @return sorted array of values
+     */
+    public int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] position = {0};
+        forEach(value -> values[position[0]++] = value);
+        return values;
+    }
+    
+    /**
+     * Approximate heap footprint of the bitmap data
+     * @return size in bytes
+     */
+    public long getSizeInBytes() {
+        long bytes = keys.length * 2L + containers.length * 8L;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+    
+    /**
+     * Deep copy of the bitmap
+     * @return independent copy
+     */
+    public RoaringBitmap copy() {
+        RoaringBitmap copy = new RoaringBitmap();
+        copy.keys = Arrays.copyOf(keys, Math.max(size, 4));
+        copy.containers = new Container[copy.keys.length];
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        return copy;
+    }
+    
+    /**
+     * Intersection of two bitmaps
+     * @return new bitmap with values present in both
+     */
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container container = a.containers[i].and(b.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.appendContainer(a.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Union of two bitmaps
+     * @return new bitmap with values present in either
+     */
+    public static RoaringBitmap or(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            if (j >= b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.appendContainer(a.keys[i], a.containers[i].copy());
+                i++;
+            } else if (i >= a.size || a.keys[i] > b.keys[j]) {
+                result.appendContainer(b.keys[j], b.containers[j].copy());
+                j++;
+            } else {
+                result.appendContainer(a.keys[i], a.containers[i].or(b.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Difference of two bitmaps
+     * @return new bitmap with values in a but not in b
+     */
+    public static RoaringBitmap andNot(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap result = new RoaringBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) {
+                j++;
+            }
+            Container container = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (container.cardinality() > 0) {
+                result.appendContainer(a.keys[i], container);
+            }
+        }
+        return result;
+    }
+    
+    private static char highBits(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be non-negative: " + value);
+        }
+        return (char) (value >>> 16);
+    }
+    
+    private static char lowBits(int value) {
+        return (char) value;
+    }
+    
+    private int indexOf(char high) {
+        return Arrays.binarySearch(keys, 0, size, high);
+    }
+    
+    private void insertContainer(int index, char high, Container container) {
+        ensureCapacity();
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = high;
+        containers[index] = container;
+        size++;
+    }
+    
+    private void appendContainer(char high, Container container) {
+        ensureCapacity();
+        keys[size] = high;
+        containers[size] = container;
+        size++;
+    }
+    
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        size--;
+        containers[size] = null;
+    }
+    
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("RoaringBitmap [cardinality: %d, containers: %d, bytes: %d]",
+                           cardinality(), size, getSizeInBytes());
+    }
+    
+    /**
+     * Storage for the low 16 bits of values sharing the same high 16 bits
+     * Mutating operations may return a different container type
+     */
+    private abstract static class Container {
+        abstract Container add(char value);
+        
+        abstract Container remove(char value);
+        
+        abstract boolean contains(char value);
+        
+        abstract int cardinality();
+        
+        abstract Container and(Container other);
+        
+        abstract Container or(Container other);
+        
+        abstract Container andNot(Container other);
+        
+        abstract Container copy();
+        
+        abstract void forEach(int base, IntConsumer consumer);
+        
+        abstract long sizeInBytes();
+    }
+    
+    /**
+     * Sparse container - sorted array of low bits
+     */
+    private static final class ArrayContainer extends Container {
+        private char[] content;
+        private int cardinality;
+        
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+        
+        ArrayContainer(char[] content, int cardinality) {
+            this.content = content;
+            this.cardinality = cardinality;
+        }
+        
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == content.length) {
+                content = Arrays.copyOf(content, Math.min(Math.max(content.length * 2, 4), ARRAY_MAX_SIZE));
+            }
+            System.arraycopy(content, index, content, index + 1, cardinality - index);
+            content[index] = value;
+            cardinality++;
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(content, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(content, index + 1, content, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(content, 0, cardinality, value) >= 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (content[i] < array.content[j]) {
+                        i++;
+                    } else if (content[i] > array.content[j]) {
+                        j++;
+                    } else {
+                        result[count++] = content[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(content[i])) {
+                        result[count++] = content[i];
+                    }
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+        
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            char[] merged = new char[cardinality + array.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j >= array.cardinality || (i < cardinality && content[i] < array.content[j])) {
+                    merged[count++] = content[i++];
+                } else if (i >= cardinality || content[i] > array.content[j]) {
+                    merged[count++] = array.content[j++];
+                } else {
+                    merged[count++] = content[i];
+                    i++;
+                    j++;
+                }
+            }
+            ArrayContainer result = new ArrayContainer(merged, count);
+            return count > ARRAY_MAX_SIZE ? result.toBitmap() : result;
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(content[i])) {
+                    result[count++] = content[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+        
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(content, Math.max(cardinality, 1)), cardinality);
+        }
+        
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(base | content[i]);
+            }
+        }
+        
+        @Override
+        long sizeInBytes() {
+            return 16L + content.length * 2L;
+        }
+        
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.set(content[i]);
+            }
+            return bitmap;
+        }
+    }
+    
+    /**
+     * Dense container - 65536-bit bitmap of low bits
+     */
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+        
+        BitmapContainer() {
+            this(new long[BITMAP_WORDS], 0);
+        }
+        
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+        
+        void set(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            words[value >>> 6] = after;
+            if (before != after) {
+                cardinality++;
+            }
+        }
+        
+        @Override
+        Container add(char value) {
+            set(value);
+            return this;
+        }
+        
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            words[value >>> 6] = after;
+            if (before != after) {
+                cardinality--;
+                if (cardinality <= ARRAY_MAX_SIZE) {
+                    return toArrayContainer();
+                }
+            }
+            return this;
+        }
+        
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+        
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+        
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            return normalize(result, count);
+        }
+        
+        @Override
+        Container or(Container other) {
+            long[] result = Arrays.copyOf(words, BITMAP_WORDS);
+            if (other instanceof ArrayContainer) {
+                BitmapContainer union = new BitmapContainer(result, cardinality);
+                other.forEach(0, value -> union.set((char) value));
+                return union;
+            }
+            BitmapContainer bitmap = (BitmapContainer) other;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] |= bitmap.words[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count);
+        }
+        
+        @Override
+        Container andNot(Container other) {
+            long[] result = Arrays.copyOf(words, BITMAP_WORDS);
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                other.forEach(0, value -> result[value >>> 6] &= ~(1L << value));
+            } else {
+                BitmapContainer bitmap = (BitmapContainer) other;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~bitmap.words[i];
+                }
+            }
+            for (long word : result) {
+                count += Long.bitCount(word);
+            }
+            return normalize(result, count);
+        }
+        
+        @Override
+        Container copy() {
+            return new BitmapContainer(Arrays.copyOf(words, BITMAP_WORDS), cardinality);
+        }
+        
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(base | (i << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+        
+        @Override
+        long sizeInBytes() {
+            return 16L + BITMAP_WORDS * 8L;
+        }
+        
+        private static Container normalize(long[] words, int cardinality) {
+            BitmapContainer bitmap = new BitmapContainer(words, cardinality);
+            return cardinality <= ARRAY_MAX_SIZE ? bitmap.toArrayContainer() : bitmap;
+        }
+        
+        ArrayContainer toArrayContainer() {
+            char[] content = new char[Math.max(cardinality, 1)];
+            int[] count = {0};
+            forEach(0, value -> content[count[0]++] = (char) value);
+            return new ArrayContainer(content, cardinality);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package edu.ccrm.util;
+
+/**
+ * Custom checked exception for meeting time clashes between enrolled courses
+ */
+public class ScheduleConflictException extends Exception {
+    
+    /**
+     * Constructor that accepts a message string
+     * @param message the detail message
+     */
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+    
+    /**
+     * Constructor that accepts a message string and cause
+     * @param message the detail message
+     * @param cause the cause of this exception
+     */
+    public ScheduleConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,93 @@
+package edu.ccrm.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for frequently repeated strings
+ * Every distinct value gets one canonical String instance and a small dense id,
+ * so repeated departments and course codes share memory and can be compared by
+ * identity or by int. Safe for concurrent use by import threads.
+ */
+public final class StringDictionary {
+    
+    public static final int NO_ID = -1;
+    
+    // Shared dictionaries used by the domain builders and the import path
+    public static final StringDictionary DEPARTMENTS = new StringDictionary();
+    public static final StringDictionary COURSE_CODES = new StringDictionary();
+    
+    private final ConcurrentHashMap<String, Integer> ids;
+    private volatile String[] values;
+    private int size;
+    
+    public StringDictionary() {
+        this.ids = new ConcurrentHashMap<>();
+        this.values = new String[16];
+    }
+    
+    /**
+     * Get the id of a value, assigning the next id on first use
+     * @param value the string to encode
+     * @return dense id, or NO_ID for null
+     */
+    public int idOf(String value) {
+        if (value == null) {
+            return NO_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id == null) {
+                id = size;
+                if (id == values.length) {
+                    values = Arrays.copyOf(values, id * 2);
+                }
+                // Publish the value before the id becomes visible through the map
+                values[id] = value;
+                size++;
+                ids.put(value, id);
+            }
+        }
+        return id;
+    }
+    
+    /**
+     * Get the id of a value without assigning one
+     * @param value the string to look up
+     * @return dense id, or NO_ID if the value was never encoded
+     */
+    public int lookupId(String value) {
+        return value == null ? NO_ID : ids.getOrDefault(value, NO_ID);
+    }
+    
+    /**
+     * Get the canonical instance of a value
+     * @param value the string to intern
+     * @return the shared instance equal to value, or null for null
+     */
+    public String intern(String value) {
+        int id = idOf(value);
+        return id == NO_ID ? null : values[id];
+    }
+    
+    /**
+     * Decode an id back to its value
+     * @param id the dense id
+     * @return the canonical value, or null for NO_ID
+     */
+    public String valueOf(int id) {
+        return id == NO_ID ? null : values[id];
+    }
+    
+    /**
+     * Get the number of distinct values
+     * @return dictionary size
+     */
+    public int size() {
+        return ids.size();
+    }
+}
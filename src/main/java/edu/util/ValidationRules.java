@@ -0,0 +1,72 @@
+package edu.ccrm.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A fixed table of validation rules compiled once per type
+ * isValid stops at the first failing rule and allocates nothing; error messages
+ * are only collected when a caller asks for them
+ * @param <T> the validated type
+ */
+public final class ValidationRules<T> {
+    
+    private final Predicate<T>[] checks;
+    private final String[] messages;
+    
+    private ValidationRules(Builder<T> builder) {
+        // Generic arrays cannot be created directly; the list only holds Predicate<T>
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Predicate<T>[] compiled = builder.checks.toArray(new Predicate[0]);
+        this.checks = compiled;
+        this.messages = builder.messages.toArray(new String[0]);
+    }
+    
+    /**
+     * Check every rule, stopping at the first failure
+     * @param target the object to check
+     * @return true if all rules pass
+     */
+    public boolean isValid(T target) {
+        for (Predicate<T> check : checks) {
+            if (!check.test(target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Collect the message of every failing rule
+     * @param target the object to check
+     * @return list of error messages, empty if valid
+     */
+    public List<String> getErrors(T target) {
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < checks.length; i++) {
+            if (!checks[i].test(target)) {
+                errors.add(messages[i]);
+            }
+        }
+        return errors;
+    }
+    
+    /**
+     * Builder for a rule table - rules run in the order they are added
+     */
+    public static class Builder<T> {
+        private final List<Predicate<T>> checks = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        
+        public Builder<T> rule(Predicate<T> check, String message) {
+            checks.add(check);
+            messages.add(message);
+            return this;
+        }
+        
+        public ValidationRules<T> build() {
+            return new ValidationRules<>(this);
+        }
+    }
+}
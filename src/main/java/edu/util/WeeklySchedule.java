@@ -0,0 +1,127 @@
+package edu.ccrm.util;
+
+import edu.ccrm.domain.MeetingSlot;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Minute-resolution bitset over one week (7 x 1440 bits)
+ * Used to detect meeting time clashes with a handful of word ANDs
+ * Only the range of words actually touched is stored
+ */
+public final class WeeklySchedule {
+    
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int WORDS_PER_WEEK = (7 * MINUTES_PER_DAY + 63) / 64;
+    
+    private int firstWord;
+    private long[] words;
+    
+    public WeeklySchedule() {
+        this.firstWord = 0;
+        this.words = new long[0];
+    }
+    
+    /**
+     * Build the occupancy bitset of a set of meeting slots
+     * @param slots the meeting slots
+     * @return schedule covering the slots
+     */
+    public static WeeklySchedule of(Collection<MeetingSlot> slots) {
+        WeeklySchedule schedule = new WeeklySchedule();
+        for (MeetingSlot slot : slots) {
+            int dayOffset = (slot.getDay().getValue() - 1) * MINUTES_PER_DAY;
+            int from = dayOffset + slot.getStartTime().getHour() * 60 + slot.getStartTime().getMinute();
+            int to = dayOffset + slot.getEndTime().getHour() * 60 + slot.getEndTime().getMinute();
+            schedule.setRange(from, to);
+        }
+        return schedule;
+    }
+    
+    /**
+     * Check whether any minute is occupied in both schedules
+     * @param other the other schedule
+     * @return true if the schedules clash
+     */
+    public boolean intersects(WeeklySchedule other) {
+        int from = Math.max(firstWord, other.firstWord);
+        int to = Math.min(firstWord + words.length, other.firstWord + other.words.length);
+        for (int w = from; w < to; w++) {
+            if ((words[w - firstWord] & other.words[w - other.firstWord]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Mark all minutes of another schedule as occupied
+     * @param other the schedule to add
+     */
+    public void add(WeeklySchedule other) {
+        if (other.words.length == 0) {
+            return;
+        }
+        ensureRange(other.firstWord, other.firstWord + other.words.length);
+        for (int i = 0; i < other.words.length; i++) {
+            words[other.firstWord + i - firstWord] |= other.words[i];
+        }
+    }
+    
+    /**
+     * Free all minutes of another schedule
+     * @param other the schedule to remove
+     */
+    public void remove(WeeklySchedule other) {
+        int from = Math.max(firstWord, other.firstWord);
+        int to = Math.min(firstWord + words.length, other.firstWord + other.words.length);
+        for (int w = from; w < to; w++) {
+            words[w - firstWord] &= ~other.words[w - other.firstWord];
+        }
+    }
+    
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Set bits for minutes [from, to)
+     */
+    private void setRange(int from, int to) {
+        ensureRange(from >>> 6, ((to - 1) >>> 6) + 1);
+        for (int minute = from; minute < to; minute++) {
+            words[(minute >>> 6) - firstWord] |= 1L << minute;
+        }
+    }
+    
+    /**
+     * Grow the stored word window to cover [fromWord, toWord)
+     */
+    private void ensureRange(int fromWord, int toWord) {
+        if (words.length == 0) {
+            firstWord = fromWord;
+            words = new long[toWord - fromWord];
+            return;
+        }
+        int newFirst = Math.min(firstWord, fromWord);
+        int newEnd = Math.min(Math.max(firstWord + words.length, toWord), WORDS_PER_WEEK);
+        if (newFirst == firstWord && newEnd == firstWord + words.length) {
+            return;
+        }
+        long[] grown = new long[newEnd - newFirst];
+        System.arraycopy(words, 0, grown, firstWord - newFirst, words.length);
+        firstWord = newFirst;
+        words = grown;
+    }
+    
+    @Override
+    public String toString() {
+        return "WeeklySchedule [words " + firstWord + ".." + (firstWord + words.length)
+             + ", bits: " + Arrays.stream(words).map(Long::bitCount).sum() + "]";
+    }
+}